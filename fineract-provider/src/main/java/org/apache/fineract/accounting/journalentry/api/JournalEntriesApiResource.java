@@ -20,6 +20,7 @@ package org.apache.fineract.accounting.journalentry.api;
 
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
@@ -40,9 +41,11 @@ import io.swagger.annotations.*;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.accounting.journalentry.command.JournalEntryCommand;
 import org.apache.fineract.accounting.journalentry.command.SingleDebitOrCreditEntryCommand;
+import org.apache.fineract.accounting.journalentry.data.DailyBalanceMismatchData;
 import org.apache.fineract.accounting.journalentry.data.JournalEntryAssociationParametersData;
 import org.apache.fineract.accounting.journalentry.data.JournalEntryData;
 import org.apache.fineract.accounting.journalentry.data.OfficeOpeningBalancesData;
+import org.apache.fineract.accounting.journalentry.service.JournalEntryDailyBalanceService;
 import org.apache.fineract.accounting.journalentry.service.JournalEntryReadPlatformService;
 import org.apache.fineract.accounting.producttoaccountmapping.domain.PortfolioProductType;
 import org.apache.fineract.commands.domain.CommandWrapper;
@@ -61,6 +64,7 @@ import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
 import org.glassfish.jersey.media.multipart.FormDataParam;
+import org.joda.time.LocalDate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
@@ -83,6 +87,7 @@ public class JournalEntriesApiResource {
     private final String resourceNameForPermission = "JOURNALENTRY";
 
     private final JournalEntryReadPlatformService journalEntryReadPlatformService;
+    private final JournalEntryDailyBalanceService journalEntryDailyBalanceService;
     private final DefaultToApiJsonSerializer<Object> apiJsonSerializerService;
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final PlatformSecurityContext context;
@@ -97,7 +102,8 @@ public class JournalEntriesApiResource {
             final DefaultToApiJsonSerializer<Object> toApiJsonSerializer, final ApiRequestParameterHelper apiRequestParameterHelper,
             final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
             final BulkImportWorkbookService bulkImportWorkbookService,
-            final BulkImportWorkbookPopulatorService bulkImportWorkbookPopulatorService) {
+            final BulkImportWorkbookPopulatorService bulkImportWorkbookPopulatorService,
+            final JournalEntryDailyBalanceService journalEntryDailyBalanceService) {
         this.context = context;
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
@@ -105,6 +111,7 @@ public class JournalEntriesApiResource {
         this.journalEntryReadPlatformService = journalEntryReadPlatformService;
         this.bulkImportWorkbookService=bulkImportWorkbookService;
         this.bulkImportWorkbookPopulatorService=bulkImportWorkbookPopulatorService;
+        this.journalEntryDailyBalanceService = journalEntryDailyBalanceService;
     }
 
     @GET
@@ -176,6 +183,10 @@ public class JournalEntriesApiResource {
             final CommandWrapper commandRequest = new CommandWrapperBuilder().updateRunningBalanceForJournalEntry()
                     .withJson(jsonRequestBody).build();
             result = this.commandsSourceWritePlatformService.logCommandSource(commandRequest);
+        } else if (is(commandParam, "rebuildDailyBalances")) {
+            final CommandWrapper commandRequest = new CommandWrapperBuilder().rebuildDailyBalancesForJournalEntry()
+                    .withJson(jsonRequestBody).build();
+            result = this.commandsSourceWritePlatformService.logCommandSource(commandRequest);
         } else if (is(commandParam, "defineOpeningBalance")) {
             final CommandWrapper commandRequest = new CommandWrapperBuilder().defineOpeningBalanceForJournalEntry()
                     .withJson(jsonRequestBody).build();
@@ -237,6 +248,23 @@ public class JournalEntriesApiResource {
         return this.apiJsonSerializerService.serialize(settings, officeOpeningBalancesData);
     }
 
+    @GET
+    @Path("dailybalances/verification")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String verifyDailyBalances(@Context final UriInfo uriInfo, @QueryParam("fromDate") final DateParam fromDateParam,
+            @QueryParam("toDate") final DateParam toDateParam, @QueryParam("locale") final String locale,
+            @QueryParam("dateFormat") final String dateFormat) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermission);
+        final LocalDate fromDate = fromDateParam == null ? null : new LocalDate(fromDateParam.getDate("fromDate", dateFormat, locale));
+        final LocalDate toDate = toDateParam == null ? null : new LocalDate(toDateParam.getDate("toDate", dateFormat, locale));
+        final Collection<DailyBalanceMismatchData> mismatches = this.journalEntryDailyBalanceService.verifyDailyBalances(fromDate,
+                toDate);
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.apiJsonSerializerService.serialize(settings, mismatches);
+    }
+
     private boolean is(final String commandParam, final String commandValue) {
         return StringUtils.isNotBlank(commandParam) && commandParam.trim().equalsIgnoreCase(commandValue);
     }
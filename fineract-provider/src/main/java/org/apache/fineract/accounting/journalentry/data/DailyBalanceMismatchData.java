@@ -0,0 +1,53 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.data;
+
+import java.math.BigDecimal;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Difference between the journal entries and the daily balance of an office,
+ * GL account and currency on one day.
+ */
+public class DailyBalanceMismatchData {
+
+    @SuppressWarnings("unused")
+    private final Long officeId;
+    @SuppressWarnings("unused")
+    private final Long glAccountId;
+    @SuppressWarnings("unused")
+    private final String currencyCode;
+    @SuppressWarnings("unused")
+    private final LocalDate entryDate;
+    @SuppressWarnings("unused")
+    private final BigDecimal debitDifference;
+    @SuppressWarnings("unused")
+    private final BigDecimal creditDifference;
+
+    public DailyBalanceMismatchData(final Long officeId, final Long glAccountId, final String currencyCode, final LocalDate entryDate,
+            final BigDecimal debitDifference, final BigDecimal creditDifference) {
+        this.officeId = officeId;
+        this.glAccountId = glAccountId;
+        this.currencyCode = currencyCode;
+        this.entryDate = entryDate;
+        this.debitDifference = debitDifference;
+        this.creditDifference = creditDifference;
+    }
+}
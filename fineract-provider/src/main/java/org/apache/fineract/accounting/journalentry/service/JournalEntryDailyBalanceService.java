@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import java.util.Collection;
+
+import org.apache.fineract.accounting.journalentry.data.DailyBalanceMismatchData;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.joda.time.LocalDate;
+
+/**
+ * Maintains <code>acc_gl_daily_balance</code>, the debit and credit totals of
+ * journal entries per office, GL account, currency and day.
+ */
+public interface JournalEntryDailyBalanceService {
+
+    /**
+     * Adds a newly created journal entry to its daily balance, in the
+     * transaction that creates the entry.
+     */
+    void addToDailyBalance(JournalEntry journalEntry);
+
+    /**
+     * Recomputes the daily balances between the optional fromDate and toDate
+     * of the command from the journal entries.
+     */
+    CommandProcessingResult rebuildDailyBalances(JsonCommand command);
+
+    /**
+     * Compares the daily balances between the given dates (both optional) with
+     * the journal entries and returns the days that do not match.
+     */
+    Collection<DailyBalanceMismatchData> verifyDailyBalances(LocalDate fromDate, LocalDate toDate);
+}
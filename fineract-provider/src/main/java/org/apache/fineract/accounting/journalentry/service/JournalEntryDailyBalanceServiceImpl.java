@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.apache.fineract.accounting.journalentry.data.DailyBalanceMismatchData;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class JournalEntryDailyBalanceServiceImpl implements JournalEntryDailyBalanceService {
+
+    private final static Logger logger = LoggerFactory.getLogger(JournalEntryDailyBalanceServiceImpl.class);
+
+    /**
+     * Number of rows a daily balance is spread over, so that concurrent
+     * transactions posting to the same account on the same day rarely wait for
+     * each other's row lock.
+     */
+    private static final int SLOTS = 8;
+
+    private static final String UPSERT_SQL = "INSERT INTO acc_gl_daily_balance (office_id, account_id, currency_code, entry_date, slot, "
+            + "debit_amount, credit_amount) VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+            + "debit_amount = debit_amount + VALUES(debit_amount), credit_amount = credit_amount + VALUES(credit_amount)";
+
+    private static final String JOURNAL_ENTRY_TOTALS_SQL = "select je.office_id, je.account_id, je.currency_code, je.entry_date, "
+            + "sum(case when je.type_enum = " + JournalEntryType.DEBIT.getValue() + " then je.amount else 0 end) as debit, "
+            + "sum(case when je.type_enum = " + JournalEntryType.CREDIT.getValue() + " then je.amount else 0 end) as credit "
+            + "from acc_gl_journal_entry je where je.entry_date between ? and ? "
+            + "group by je.office_id, je.account_id, je.currency_code, je.entry_date";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JournalEntryDailyBalanceServiceImpl(final DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void addToDailyBalance(final JournalEntry journalEntry) {
+        final boolean debit = journalEntry.isDebitEntry();
+        // all entries posted by one thread go to the same slot, concurrent threads mostly to different ones
+        final int slot = (int) (Thread.currentThread().getId() % SLOTS);
+        this.jdbcTemplate.update(UPSERT_SQL, journalEntry.getOffice().getId(), journalEntry.getGlAccount().getId(),
+                journalEntry.getCurrencyCode(), journalEntry.getTransactionDate(), slot, debit ? journalEntry.getAmount() : 0,
+                debit ? 0 : journalEntry.getAmount());
+    }
+
+    @Transactional
+    @Override
+    public CommandProcessingResult rebuildDailyBalances(final JsonCommand command) {
+        final Object[] range = dateRange(command.localDateValueOfParameterNamed("fromDate"),
+                command.localDateValueOfParameterNamed("toDate"));
+        final int deleted = this.jdbcTemplate.update("delete from acc_gl_daily_balance where entry_date between ? and ?", range);
+        final int inserted = this.jdbcTemplate.update("insert into acc_gl_daily_balance (office_id, account_id, currency_code, "
+                + "entry_date, slot, debit_amount, credit_amount) select t.office_id, t.account_id, t.currency_code, t.entry_date, 0, "
+                + "t.debit, t.credit from (" + JOURNAL_ENTRY_TOTALS_SQL + ") t", range);
+        logger.info("Rebuilt GL daily balances from {} to {}: {} rows removed, {} rows written", range[0], range[1], deleted, inserted);
+        return new CommandProcessingResultBuilder().withCommandId(command.commandId()).build();
+    }
+
+    @Override
+    public Collection<DailyBalanceMismatchData> verifyDailyBalances(final LocalDate fromDate, final LocalDate toDate) {
+        final Object[] range = dateRange(fromDate, toDate);
+        final String sql = "select d.office_id, d.account_id, d.currency_code, d.entry_date, sum(d.debit) as debitDifference, "
+                + "sum(d.credit) as creditDifference from (" + JOURNAL_ENTRY_TOTALS_SQL + " union all "
+                + "select b.office_id, b.account_id, b.currency_code, b.entry_date, -b.debit_amount, -b.credit_amount "
+                + "from acc_gl_daily_balance b where b.entry_date between ? and ?) d "
+                + "group by d.office_id, d.account_id, d.currency_code, d.entry_date "
+                + "having sum(d.debit) <> 0 or sum(d.credit) <> 0 order by d.entry_date, d.office_id, d.account_id";
+        final List<DailyBalanceMismatchData> mismatches = new ArrayList<>();
+        this.jdbcTemplate.query(sql, (rs) -> {
+            mismatches.add(new DailyBalanceMismatchData(rs.getLong("office_id"), rs.getLong("account_id"), rs.getString("currency_code"),
+                    JdbcSupport.getLocalDate(rs, "entry_date"), rs.getBigDecimal("debitDifference"), rs.getBigDecimal("creditDifference")));
+        }, range[0], range[1], range[0], range[1]);
+        return mismatches;
+    }
+
+    private static Object[] dateRange(final LocalDate fromDate, final LocalDate toDate) {
+        return new Object[] { fromDate == null ? new LocalDate(1900, 1, 1).toDate() : fromDate.toDate(),
+                toDate == null ? new LocalDate(9999, 12, 31).toDate() : toDate.toDate() };
+    }
+}
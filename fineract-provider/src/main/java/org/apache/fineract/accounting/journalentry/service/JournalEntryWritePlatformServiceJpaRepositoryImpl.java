@@ -107,6 +107,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
     private final PaymentDetailWritePlatformService paymentDetailWritePlatformService;
     private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper;
     private final CashBasedAccountingProcessorForClientTransactions accountingProcessorForClientTransactions;
+    private final JournalEntryDailyBalanceService journalEntryDailyBalanceService;
 
     @Autowired
     public JournalEntryWritePlatformServiceJpaRepositoryImpl(final GLClosureRepository glClosureRepository,
@@ -120,7 +121,8 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
             final OrganisationCurrencyRepositoryWrapper organisationCurrencyRepository, final PlatformSecurityContext context,
             final PaymentDetailWritePlatformService paymentDetailWritePlatformService,
             final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper,
-            final CashBasedAccountingProcessorForClientTransactions accountingProcessorForClientTransactions) {
+            final CashBasedAccountingProcessorForClientTransactions accountingProcessorForClientTransactions,
+            final JournalEntryDailyBalanceService journalEntryDailyBalanceService) {
         this.glClosureRepository = glClosureRepository;
         this.officeRepositoryWrapper = officeRepositoryWrapper;
         this.glJournalEntryRepository = glJournalEntryRepository;
@@ -137,6 +139,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
         this.paymentDetailWritePlatformService = paymentDetailWritePlatformService;
         this.financialActivityAccountRepositoryWrapper = financialActivityAccountRepositoryWrapper;
         this.accountingProcessorForClientTransactions = accountingProcessorForClientTransactions;
+        this.journalEntryDailyBalanceService = journalEntryDailyBalanceService;
     }
 
     @Transactional
@@ -366,6 +369,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
             }
             // save the reversal entry
             this.glJournalEntryRepository.saveAndFlush(reversalJournalEntry);
+            this.journalEntryDailyBalanceService.addToDailyBalance(reversalJournalEntry);
             journalEntry.setReversed(true);
             journalEntry.setReversalJournalEntry(reversalJournalEntry);
             // save the updated journal entry
@@ -399,6 +403,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
             }
             // save the reversal entry
             this.glJournalEntryRepository.save(reversalJournalEntry);
+            this.journalEntryDailyBalanceService.addToDailyBalance(reversalJournalEntry);
             journalEntry.setReversalJournalEntry(reversalJournalEntry);
             journalEntry.setReversed(true);
             // save the updated journal entry
@@ -564,6 +569,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                 }
                 // save the reversal entry
                 this.glJournalEntryRepository.save(reversalJournalEntry);
+                this.journalEntryDailyBalanceService.addToDailyBalance(reversalJournalEntry);
                 journalEntry.setReversalJournalEntry(reversalJournalEntry);
                 journalEntry.setReversed(true);
                 // save the updated journal entry
@@ -623,6 +629,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                     manualEntry, transactionDate, type, singleDebitOrCreditEntryCommand.getAmount(), comments, null, null, referenceNumber,
                     null, null, clientTransaction, shareTransactionId);
             this.glJournalEntryRepository.saveAndFlush(glJournalEntry);
+            this.journalEntryDailyBalanceService.addToDailyBalance(glJournalEntry);
         }
     }
 
@@ -731,11 +738,13 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                     transactionDate, type, singleDebitOrCreditEntryCommand.getAmount(), comments, null, null, null, null, null,
                     clientTransaction, shareTransactionId);
             this.glJournalEntryRepository.saveAndFlush(glJournalEntry);
+            this.journalEntryDailyBalanceService.addToDailyBalance(glJournalEntry);
 
             final JournalEntry contraEntry = JournalEntry.createNew(office, null, contraAccount, currencyCode, transactionId, manualEntry,
                     transactionDate, contraType, singleDebitOrCreditEntryCommand.getAmount(), comments, null, null, null, null, null,
                     clientTransaction, shareTransactionId);
             this.glJournalEntryRepository.saveAndFlush(contraEntry);
+            this.journalEntryDailyBalanceService.addToDailyBalance(contraEntry);
         }
     }
 
@@ -1078,6 +1078,14 @@ public class CommandWrapperBuilder {
         return this;
     }
 
+    public CommandWrapperBuilder rebuildDailyBalancesForJournalEntry() {
+        this.actionName = "REBUILDDAILYBALANCES";
+        this.entityName = "JOURNALENTRY";
+        this.entityId = null;
+        this.href = "/journalentries/dailybalances";
+        return this;
+    }
+
     public CommandWrapperBuilder defineOpeningBalanceForJournalEntry() {
         this.actionName = "DEFINEOPENINGBALANCE";
         this.entityName = "JOURNALENTRY";
@@ -1958,6 +1966,30 @@ public class CommandWrapperBuilder {
         return this;
     }
 
+    public CommandWrapperBuilder rebuildSearchIndex() {
+        this.actionName = "REBUILD";
+        this.entityName = "SEARCHINDEX";
+        this.entityId = null;
+        this.href = "/search/index";
+        return this;
+    }
+
+    public CommandWrapperBuilder replayBusinessEventDeadLetters() {
+        this.actionName = "REPLAY";
+        this.entityName = "BUSINESSEVENT";
+        this.entityId = null;
+        this.href = "/businessevents/deadletters";
+        return this;
+    }
+
+    public CommandWrapperBuilder replayBusinessEventDeadLetter(final Long deadLetterId) {
+        this.actionName = "REPLAY";
+        this.entityName = "BUSINESSEVENT";
+        this.entityId = deadLetterId;
+        this.href = "/businessevents/deadletters/" + deadLetterId;
+        return this;
+    }
+
     /**
      * Deposit account mappings
      */
@@ -25,6 +25,7 @@ import org.apache.fineract.commands.exception.RollbackTransactionAsCommandIsNotA
 import org.apache.fineract.commands.exception.UnsupportedCommandException;
 import org.apache.fineract.commands.handler.NewCommandSourceHandler;
 import org.apache.fineract.commands.provider.CommandHandlerProvider;
+import org.apache.fineract.infrastructure.cache.service.VersionedResponseCache;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.boot.FineractProperties;
@@ -54,13 +55,15 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
     private final ConfigurationDomainService configurationDomainService;
     private final CommandHandlerProvider commandHandlerProvider;
     private final FineractProperties fineractProperties;
+    private final VersionedResponseCache versionedResponseCache;
 
     @Autowired
     public SynchronousCommandProcessingService(final PlatformSecurityContext context, final ApplicationContext applicationContext,
             final ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer,
             final ToApiJsonSerializer<CommandProcessingResult> toApiResultJsonSerializer,
             final CommandSourceRepository commandSourceRepository, final ConfigurationDomainService configurationDomainService,
-            final CommandHandlerProvider commandHandlerProvider, final FineractProperties fineractProperties) {
+            final CommandHandlerProvider commandHandlerProvider, final FineractProperties fineractProperties,
+            final VersionedResponseCache versionedResponseCache) {
         this.context = context;
         this.context = context;
         this.applicationContext = applicationContext;
@@ -71,6 +74,7 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         this.configurationDomainService = configurationDomainService;
         this.commandHandlerProvider = commandHandlerProvider;
         this.fineractProperties = fineractProperties;
+        this.versionedResponseCache = versionedResponseCache;
     }
 
     @Transactional
@@ -130,6 +134,7 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         result.setRollbackTransaction(null);
 
         publishEvent(wrapper.entityName(), wrapper.actionName(), result);
+        this.versionedResponseCache.commandProcessed(wrapper.entityName(), result);
 
         return result;
     }
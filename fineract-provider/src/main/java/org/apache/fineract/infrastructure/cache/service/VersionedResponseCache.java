@@ -0,0 +1,183 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Caches the JSON of template and product endpoints under a data version.
+ * <p>
+ * The version is the reference data version kept in
+ * <code>m_reference_data_version</code>, bumped in the transaction of any
+ * command on reference data (products, charges, codes, GL accounts, staff,
+ * offices...) and read per request, so every node sees the same version.
+ * The ETag is derived from the version and the request key alone, so a
+ * matching <code>If-None-Match</code> is answered with 304 before anything
+ * else is read or built. Bodies are kept in the <code>templateResponses</code>
+ * cache, which follows the cache type configured through the cache API.
+ * <p>
+ * Requests for a client or group (<code>clientId</code> or
+ * <code>groupId</code> query parameter) are always built: their templates
+ * depend on accounts, members and calendars that jobs and plain JDBC updates
+ * change without going through a command.
+ * <p>
+ * Other caches of reference data derived values key on
+ * {@link #referenceDataVersion()}.
+ */
+@Component
+public class VersionedResponseCache {
+
+    public static final String CACHE_NAME = "templateResponses";
+
+    private static final Set<String> REFERENCE_DATA_ENTITIES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("ACCOUNTINGRULE",
+            "CACHE", "CHARGE", "CHARTSLAB", "CODE", "CODEVALUE", "CONFIGURATION", "CREDITBUREAU_LOANPRODUCT_MAPPING", "CURRENCY",
+            "DATATABLE", "ENTITYMAPPING", "ENTITY_DATATABLE_CHECK", "FINANCIALACTIVITYACCOUNT", "FIXEDDEPOSITPRODUCT", "FLOATINGRATE",
+            "FUND", "GLACCOUNT", "HOLIDAY", "INTERESTRATECHART", "LOANPRODUCT", "OFFICE", "PAYMENTTYPE", "PERMISSION", "PRODUCTMIX",
+            "PROVISIONCATEGORY", "RECURRINGDEPOSITPRODUCT", "ROLE", "SAVINGSPRODUCT", "SHAREPRODUCT", "STAFF", "TAXCOMPONENT",
+            "TAXGROUP", "USER", "WORKINGDAYS")));
+
+    private static final List<String> SCOPE_PARAMETERS = Arrays.asList("clientId", "groupId");
+
+    private final PlatformSecurityContext context;
+    private final RuntimeDelegatingCacheManager cacheManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public VersionedResponseCache(final PlatformSecurityContext context,
+            @Qualifier("runtimeDelegatingCacheManager") final RuntimeDelegatingCacheManager cacheManager, final DataSource dataSource) {
+        this.context = context;
+        this.cacheManager = cacheManager;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Answers a GET request from the cache, building the body with
+     * <code>builder</code> only when neither the client nor the cache holds
+     * the current version. Permission checks must be done by the caller
+     * before calling this.
+     */
+    public Response respond(final Request request, final UriInfo uriInfo, final Supplier<String> builder) {
+        if (isScoped(uriInfo)) { return Response.ok(builder.get(), MediaType.APPLICATION_JSON_TYPE).build(); }
+        final String key = requestKey(uriInfo);
+        final EntityTag entityTag = new EntityTag(Long.toHexString(referenceDataVersion()) + "-" + DigestUtils.sha1Hex(key));
+        final CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+
+        final Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) { return notModified.cacheControl(cacheControl).build(); }
+
+        final String cacheKey = key + '#' + entityTag.getValue();
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        String body = cache == null ? null : cache.get(cacheKey, String.class);
+        if (body == null) {
+            body = builder.get();
+            if (cache != null) {
+                cache.put(cacheKey, body);
+            }
+        }
+        return Response.ok(body, MediaType.APPLICATION_JSON_TYPE).tag(entityTag).cacheControl(cacheControl).build();
+    }
+
+    /**
+     * Bumps the reference data version in the transaction of a processed
+     * command on reference data, so the new version and the new data become
+     * visible together. Must be called inside that transaction.
+     */
+    public void commandProcessed(final String entityName, final CommandProcessingResult result) {
+        if (!REFERENCE_DATA_ENTITIES.contains(entityName)) { return; }
+
+        // the row lock also orders concurrent commands on reference data
+        this.jdbcTemplate.update("UPDATE m_reference_data_version SET version = version + 1");
+        afterCommit(() -> {
+            // entries of older versions can no longer be hit; other nodes miss theirs on the new version
+            final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+            if (cache != null) {
+                cache.clear();
+            }
+        });
+    }
+
+    /**
+     * The committed reference data version, shared by all nodes.
+     */
+    public long referenceDataVersion() {
+        final Long version = this.jdbcTemplate.queryForObject("SELECT version FROM m_reference_data_version", Long.class);
+        return version == null ? 0L : version;
+    }
+
+    /**
+     * Path, sorted query parameters, the office scope of the user and the
+     * business date (templates default dates to today).
+     */
+    private String requestKey(final UriInfo uriInfo) {
+        final AppUser user = this.context.authenticatedUser();
+        final Map<String, List<String>> parameters = new TreeMap<>(uriInfo.getQueryParameters());
+        return uriInfo.getPath() + '?' + parameters + '|' + user.getOffice().getHierarchy() + '|' + DateUtils.getLocalDateOfTenant();
+    }
+
+    private static boolean isScoped(final UriInfo uriInfo) {
+        for (final String scopeParameter : SCOPE_PARAMETERS) {
+            if (uriInfo.getQueryParameters().containsKey(scopeParameter)) { return true; }
+        }
+        return false;
+    }
+
+    private void afterCommit(final Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}
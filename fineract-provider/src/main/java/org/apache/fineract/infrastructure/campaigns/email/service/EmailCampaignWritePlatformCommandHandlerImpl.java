@@ -39,6 +39,7 @@ import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuild
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.EmailDeliveryCallback;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
 import org.apache.fineract.infrastructure.dataqueries.domain.Report;
 import org.apache.fineract.infrastructure.dataqueries.domain.ReportParameterUsage;
@@ -56,7 +57,7 @@ import org.apache.fineract.portfolio.calendar.service.CalendarUtils;
 import org.apache.fineract.portfolio.client.domain.Client;
 import org.apache.fineract.portfolio.client.domain.ClientRepositoryWrapper;
 import org.apache.fineract.portfolio.loanaccount.domain.Loan;
-import org.apache.fineract.portfolio.loanaccount.domain.LoanRepository;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepositoryWrapper;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepository;
 import org.apache.fineract.useradministration.domain.AppUser;
@@ -95,7 +96,7 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
     private final ReadReportingService readReportingService;
     private final GenericDataService genericDataService;
     private final FromJsonHelper fromJsonHelper;
-    private final LoanRepository loanRepository;
+    private final LoanRepositoryWrapper loanRepositoryWrapper;
     private final SavingsAccountRepository savingsAccountRepository;
     private final EmailMessageJobEmailService emailMessageJobEmailService;
     private final FineractProperties fineractProperties;
@@ -106,7 +107,7 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
             final EmailCampaignReadPlatformService emailCampaignReadPlatformService, final ReportRepository reportRepository,
             final EmailMessageRepository emailMessageRepository, final ClientRepositoryWrapper clientRepositoryWrapper,
             final ReadReportingService readReportingService, final GenericDataService genericDataService,
-            final FromJsonHelper fromJsonHelper, final LoanRepository loanRepository,
+            final FromJsonHelper fromJsonHelper, final LoanRepositoryWrapper loanRepositoryWrapper,
             final SavingsAccountRepository savingsAccountRepository, final EmailMessageJobEmailService emailMessageJobEmailService,
             final FineractProperties fineractProperties) {
         this.context = context;
@@ -119,7 +120,7 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
         this.readReportingService = readReportingService;
         this.genericDataService = genericDataService;
         this.fromJsonHelper = fromJsonHelper;
-        this.loanRepository = loanRepository;
+        this.loanRepositoryWrapper = loanRepositoryWrapper;
         this.savingsAccountRepository = savingsAccountRepository;
         this.emailMessageJobEmailService = emailMessageJobEmailService;
         this.fineractProperties = fineractProperties;
@@ -559,6 +560,7 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
                                                                                   // all
                                                                                   // pending
                                                                                   // message
+            final Map<EmailMessage, EmailMessageWithAttachmentData> emailMessagesToSend = new LinkedHashMap<>();
 
             for (final EmailMessage emailMessage : emailMessages) {
 
@@ -591,7 +593,7 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
                             // get all ids of the client loans
                             if (emailMessage.getClient() != null) {
 
-                                final List<Loan> loans = this.loanRepository.findLoanByClientId(emailMessage.getClient().getId());
+                                final List<Loan> loans = this.loanRepositoryWrapper.findLoanByClientId(emailMessage.getClient().getId());
 
                                 HashMap<String, String> reportParams = this
                                         .replaceStretchyParamsWithActualClientParams(reportStretchyParams, emailMessage.getClient());
@@ -680,11 +682,7 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
                                                                                   // to
                                                                                   // it
 
-                        this.emailMessageJobEmailService.sendEmailWithAttachment(emailMessageWithAttachmentData);
-
-                        emailMessage.setStatusType(EmailMessageStatusType.SENT.getValue());
-
-                        this.emailMessageRepository.save(emailMessage);
+                        emailMessagesToSend.put(emailMessage, emailMessageWithAttachmentData);
                     } else {
                         emailMessage.updateErrorMessage(errorLog.toString());
 
@@ -695,6 +693,25 @@ public class EmailCampaignWritePlatformCommandHandlerImpl implements EmailCampai
                 }
             }
 
+            // the messages go out in batches on the email delivery threads, every status is written back as soon as it is known
+            this.emailMessageJobEmailService.sendEmailsWithAttachment(emailMessagesToSend, new EmailDeliveryCallback<EmailMessage>() {
+
+                @Override
+                public void delivered(final EmailMessage emailMessage) {
+                    emailMessage.setStatusType(EmailMessageStatusType.SENT.getValue());
+
+                    EmailCampaignWritePlatformCommandHandlerImpl.this.emailMessageRepository.save(emailMessage);
+                }
+
+                @Override
+                public void failed(final EmailMessage emailMessage, final Exception cause) {
+                    emailMessage.updateErrorMessage(StringUtils.abbreviate(String.valueOf(cause.getMessage()), 500));
+
+                    emailMessage.setStatusType(EmailMessageStatusType.FAILED.getValue());
+
+                    EmailCampaignWritePlatformCommandHandlerImpl.this.emailMessageRepository.save(emailMessage);
+                }
+            }).join();
         }
 
     }
@@ -19,10 +19,19 @@
 package org.apache.fineract.infrastructure.campaigns.email.service;
 
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 import org.apache.fineract.infrastructure.campaigns.email.data.EmailMessageWithAttachmentData;
+import org.apache.fineract.infrastructure.core.service.EmailDeliveryCallback;
 
 public interface EmailMessageJobEmailService {
 
-    void sendEmailWithAttachment(EmailMessageWithAttachmentData emailMessageWithAttachmentData);
+    /**
+     * Queues the messages for delivery with the configured SMTP server, the
+     * outcome of every message is reported to the callback.
+     */
+    <K> CompletableFuture<Void> sendEmailsWithAttachment(Map<K, EmailMessageWithAttachmentData> emailMessages,
+            EmailDeliveryCallback<K> callback);
 
 }
@@ -23,40 +23,43 @@ import org.apache.fineract.infrastructure.campaigns.email.EmailApiConstants;
 import org.apache.fineract.infrastructure.campaigns.email.data.EmailMessageWithAttachmentData;
 import org.apache.fineract.infrastructure.campaigns.email.domain.EmailConfiguration;
 import org.apache.fineract.infrastructure.campaigns.email.domain.EmailConfigurationRepository;
+import org.apache.fineract.infrastructure.configuration.data.SMTPCredentialsData;
+import org.apache.fineract.infrastructure.core.service.EmailDeliveryCallback;
+import org.apache.fineract.infrastructure.core.service.EmailDeliveryService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.mail.javamail.MimeMessagePreparator;
 import org.springframework.stereotype.Service;
 
-import javax.mail.MessagingException;
-import javax.mail.internet.MimeMessage;
 import java.io.File;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Properties;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class EmailMessageJobEmailServiceImpl implements EmailMessageJobEmailService {
 
     private EmailConfigurationRepository emailConfigurationRepository;
+    private final EmailDeliveryService emailDeliveryService;
 
     @Autowired
-    private EmailMessageJobEmailServiceImpl(final EmailConfigurationRepository emailConfigurationRepository) {
+    private EmailMessageJobEmailServiceImpl(final EmailConfigurationRepository emailConfigurationRepository,
+            final EmailDeliveryService emailDeliveryService) {
         this.emailConfigurationRepository = emailConfigurationRepository;
+        this.emailDeliveryService = emailDeliveryService;
     }
 
     @Override
-    public void sendEmailWithAttachment(EmailMessageWithAttachmentData emailMessageWithAttachmentData) {
-        try{
-            JavaMailSenderImpl javaMailSenderImpl = new JavaMailSenderImpl();
-            javaMailSenderImpl.setHost(this.getGmailSmtpServer());
-            javaMailSenderImpl.setPort(this.getGmailSmtpPort());
-            javaMailSenderImpl.setUsername(this.getGmailSmtpUsername());
-            javaMailSenderImpl.setPassword(this.getGmailSmtpPassword());
-            javaMailSenderImpl.setJavaMailProperties(this.getJavaMailProperties());
-
-            MimeMessage mimeMessage = javaMailSenderImpl.createMimeMessage();
-
+    public <K> CompletableFuture<Void> sendEmailsWithAttachment(final Map<K, EmailMessageWithAttachmentData> emailMessages,
+            final EmailDeliveryCallback<K> callback) {
+        // NOTE: the configuration is read once per run, not once per message
+        final Integer port = this.getGmailSmtpPort();
+        final SMTPCredentialsData smtpCredentialsData = new SMTPCredentialsData(this.getGmailSmtpUsername(), this.getGmailSmtpPassword(),
+                this.getGmailSmtpServer(), port != null ? port.toString() : null, true, null, null);
+
+        final Map<K, MimeMessagePreparator> messages = new LinkedHashMap<>();
+        emailMessages.forEach((key, emailMessageWithAttachmentData) -> messages.put(key, mimeMessage -> {
             // use the true flag to indicate you need a multipart message
             MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, true);
 
@@ -71,16 +74,10 @@ public class EmailMessageJobEmailServiceImpl implements EmailMessageJobEmailServ
                     }
                 }
             }
-
-            javaMailSenderImpl.send(mimeMessage);
-
-        }catch(MessagingException e){
-
-        }
-
+        }));
+        return this.emailDeliveryService.deliver(smtpCredentialsData, messages, callback);
     }
 
-
     private String getGmailSmtpServer(){
         final EmailConfiguration gmailSmtpServer = this.emailConfigurationRepository.findByName(EmailApiConstants.SMTP_SERVER);
         return (gmailSmtpServer !=null) ? gmailSmtpServer.getValue() : null;
@@ -98,13 +95,4 @@ public class EmailMessageJobEmailServiceImpl implements EmailMessageJobEmailServ
         final EmailConfiguration gmailSmtpPassword = this.emailConfigurationRepository.findByName(EmailApiConstants.SMTP_PASSWORD);
         return (gmailSmtpPassword !=null) ? gmailSmtpPassword.getValue() : null;
     }
-
-    private Properties getJavaMailProperties() {
-        Properties properties = new Properties();
-        properties.setProperty("mail.smtp.starttls.enable", "true");
-        properties.setProperty("mail.smtp.auth", "true");
-        properties.setProperty("mail.smtp.ssl.trust", this.getGmailSmtpServer());
-
-        return properties;
-    }
 }
@@ -18,7 +18,12 @@
  */
 package org.apache.fineract.infrastructure.configuration.data;
 
-public class SMTPCredentialsData {
+import java.io.Serializable;
+import java.util.Objects;
+
+public class SMTPCredentialsData implements Serializable {
+
+    private static final long serialVersionUID = 8479893639362051822L;
 
     private final String username;
     private final String password;
@@ -65,4 +70,19 @@ public class SMTPCredentialsData {
     public String getFromName() {
         return fromName != null ?fromName :username;
     }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) { return true; }
+        if (!(o instanceof SMTPCredentialsData)) { return false; }
+        final SMTPCredentialsData that = (SMTPCredentialsData) o;
+        return this.useTLS == that.useTLS && Objects.equals(this.username, that.username) && Objects.equals(this.password, that.password)
+                && Objects.equals(this.host, that.host) && Objects.equals(this.port, that.port)
+                && Objects.equals(this.fromEmail, that.fromEmail) && Objects.equals(this.fromName, that.fromName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.username, this.password, this.host, this.port, this.useTLS, this.fromEmail, this.fromName);
+    }
 }
@@ -35,6 +35,7 @@ import org.apache.fineract.infrastructure.security.service.PlatformSecurityConte
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -65,6 +66,7 @@ public class ExternalServiceWritePlatformServiceJpaRepositoryImpl implements Ext
 
     @Transactional
     @Override
+    @CacheEvict(value = "smtpCredentials", allEntries = true)
     public CommandProcessingResult updateExternalServicesProperties(String externalServiceName, JsonCommand command) {
         // TODO Auto-generated method stub
         this.context.authenticatedUser();
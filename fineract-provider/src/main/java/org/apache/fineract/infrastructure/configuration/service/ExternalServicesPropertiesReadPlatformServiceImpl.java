@@ -30,6 +30,7 @@ import org.apache.fineract.infrastructure.configuration.exception.ExternalServic
 import javax.sql.DataSource;
 import org.apache.fineract.infrastructure.gcm.domain.NotificationConfigurationData;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
@@ -154,8 +155,8 @@ public class ExternalServicesPropertiesReadPlatformServiceImpl implements Extern
     }
 
     @Override
+    @Cacheable(value = "smtpCredentials", key = "@fineractProperties.getTenantId().concat('smtp')")
     public SMTPCredentialsData getSMTPCredentials() {
-        // TODO Auto-generated method stub
         final ResultSetExtractor<SMTPCredentialsData> resultSetExtractor = new SMTPCredentialsDataExtractor();
         final String sql = "SELECT esp.name, esp.value FROM c_external_service_properties esp inner join c_external_service es on esp.external_service_id = es.id where es.name = '"
                 + ExternalServicesConstants.SMTP_SERVICE_NAME + "'";
@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.boot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long every bean takes from instantiation until it is fully initialized and logs the slowest ones once
+ * the application is ready. Times are "self" times: the creation of dependencies that are built on the way is
+ * subtracted from the bean that pulled them in, so the report points at the bean that is actually slow.
+ */
+@Slf4j
+public class BeanInitializationTimingReporter implements InstantiationAwareBeanPostProcessor, ApplicationListener<ApplicationReadyEvent> {
+
+    private final int reportSize;
+
+    private final ThreadLocal<Deque<Frame>> creations = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final Map<String, Long> selfTimes = new ConcurrentHashMap<>();
+
+    public BeanInitializationTimingReporter(final int reportSize) {
+        this.reportSize = reportSize;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(final Class<?> beanClass, final String beanName) {
+        if (this.reportSize <= 0) { return null; }
+        this.creations.get().push(new Frame(beanName, System.nanoTime()));
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        final Deque<Frame> frames = this.creations.get();
+        if (frames.stream().noneMatch(frame -> frame.beanName.equals(beanName))) { return bean; }
+
+        // NOTE: beans whose creation failed or was short-circuited never reach this point, drop their frames
+        Frame frame = frames.pop();
+        while (!frame.beanName.equals(beanName)) {
+            frame = frames.pop();
+        }
+        final long total = System.nanoTime() - frame.start;
+        this.selfTimes.merge(beanName, total - frame.children, Long::sum);
+        if (!frames.isEmpty()) {
+            frames.peek().children += total;
+        }
+        return bean;
+    }
+
+    @Override
+    public void onApplicationEvent(final ApplicationReadyEvent event) {
+        if (this.reportSize <= 0) { return; }
+
+        final StringBuilder report = new StringBuilder();
+        this.selfTimes.entrySet().stream().sorted(Map.Entry.<String, Long> comparingByValue(Comparator.reverseOrder()))
+                .limit(this.reportSize).forEach(entry -> report.append(String.format("%n%8d ms  %s",
+                        TimeUnit.NANOSECONDS.toMillis(entry.getValue()), entry.getKey())));
+        final long total = TimeUnit.NANOSECONDS.toMillis(this.selfTimes.values().stream().mapToLong(Long::longValue).sum());
+        log.info("Ready after {} ms, {} ms spent initializing {} beans; slowest bean initializations:{}",
+                ManagementFactory.getRuntimeMXBean().getUptime(), total, this.selfTimes.size(), report);
+        this.selfTimes.clear();
+        this.creations.remove();
+    }
+
+    private static final class Frame {
+
+        private final String beanName;
+        private final long start;
+        private long children;
+
+        private Frame(final String beanName, final long start) {
+            this.beanName = beanName;
+            this.start = start;
+        }
+    }
+}
@@ -25,6 +25,8 @@ import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 @Builder
 @Data
 @NoArgsConstructor // NOTE: see here https://github.com/rzwitserloot/lombok/issues/816
@@ -40,6 +42,18 @@ public class FineractProperties {
 
     private FineractPropertiesConnection connection;
 
+    private FineractPropertiesJobs jobs;
+
+    private FineractPropertiesSearch search;
+
+    private FineractPropertiesAssociations associations;
+
+    private FineractPropertiesStartup startup;
+
+    private FineractPropertiesEmail email;
+
+    private FineractPropertiesEvents events;
+
     @Builder
     @Data
     @NoArgsConstructor
@@ -58,4 +72,86 @@ public class FineractProperties {
         private Integer maxRetriesOnDeadlock;
         private Integer maxIntervalBetweenRetries;
     }
+
+    @Builder
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FineractPropertiesJobs {
+        private Boolean arrearsAgeingIncremental;
+        private Integer arrearsAgeingChunkSize;
+        private Integer arrearsAgeingThreads;
+        private Integer accrualThreads;
+        private Integer accrualPartitionSize;
+        private Integer loanSummaryChunkSize;
+        private Integer trialBalanceThreads;
+        private Integer rdScheduleThreads;
+        private Integer rdSchedulePartitionSize;
+        private Integer dividendPostingThreads;
+        private Integer dividendPostingPartitionSize;
+        private Integer overdueChargeThreads;
+        private Integer overdueChargePartitionSize;
+        private Integer standingInstructionThreads;
+        private Integer reportMailingThreads;
+        private Boolean clustered;
+        private Integer clusterCheckinIntervalMillis;
+        private Integer partitionLeaseSeconds;
+        private Integer partitionPollSeconds;
+    }
+
+    @Builder
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FineractPropertiesSearch {
+        private Boolean indexEnabled;
+        private String indexDirectory;
+        private Integer changePollMillis;
+        private Integer changeRetentionDays;
+    }
+
+    @Builder
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FineractPropertiesAssociations {
+        private Integer threads;
+        private Integer queueCapacity;
+    }
+
+    @Builder
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FineractPropertiesStartup {
+        private Map<String, Boolean> lazy;
+        private Integer timingReportSize;
+    }
+
+    @Builder
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FineractPropertiesEmail {
+        private Integer threads;
+        private Integer queueCapacity;
+        private Integer batchSize;
+        private Integer maxAttempts;
+        private Long retryBackoffMillis;
+        private Integer senderPoolSize;
+        private Boolean trustServerCertificate;
+    }
+
+    @Builder
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FineractPropertiesEvents {
+        private Boolean outboxEnabled;
+        private Integer relayPollMillis;
+        private Integer relayBatchSize;
+        private Integer maxAttempts;
+        private Integer retryBackoffSeconds;
+        private Integer dispatchLeaseSeconds;
+    }
 }
@@ -34,6 +34,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.ClassUtils;
 
 import javax.annotation.PostConstruct;
 import javax.ws.rs.Path;
@@ -76,10 +77,13 @@ public class JerseyConfiguration extends ResourceConfig {
 
         register(SwaggerSerializers.class);
 
+        // NOTE: register by type only; getBean() would instantiate every resource, including those of lazy modules
         Arrays.stream(resourceBeans).forEach(resourceBean -> {
-            final Object resource = this.applicationContext.getBean(resourceBean);
+            final Class<?> resourceType = this.applicationContext.getType(resourceBean);
 
-            register(resource.getClass());
+            if (resourceType != null) {
+                register(ClassUtils.getUserClass(resourceType));
+            }
         });
     }
     @Bean
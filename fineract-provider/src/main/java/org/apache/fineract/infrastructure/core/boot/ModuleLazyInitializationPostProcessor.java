@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.boot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.type.AnnotationMetadata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Marks the components of optional modules as lazily initialized, so that a module nobody uses costs nothing at startup.
+ * A module is named after its package, i. e. "campaigns" covers both org.apache.fineract.campaigns and
+ * org.apache.fineract.infrastructure.campaigns, and is switched on with fineract.startup.lazy.&lt;module&gt;=true.
+ *
+ * Components that do work when they are created (@PostConstruct, @EventListener, configuration classes) stay eager; they
+ * register business event listeners or background infrastructure that would otherwise silently never start. Beans
+ * declared by @Bean methods are left alone for the same reason.
+ */
+@Slf4j
+public class ModuleLazyInitializationPostProcessor implements BeanFactoryPostProcessor {
+
+    private static final String BASE_PACKAGE = "org.apache.fineract.";
+
+    private final List<String> packagePrefixes = new ArrayList<>();
+
+    public ModuleLazyInitializationPostProcessor(final Map<String, Boolean> modules) {
+        modules.forEach((module, lazy) -> {
+            if (Boolean.TRUE.equals(lazy)) {
+                this.packagePrefixes.add(BASE_PACKAGE + module + ".");
+                this.packagePrefixes.add(BASE_PACKAGE + "infrastructure." + module + ".");
+            }
+        });
+    }
+
+    @Override
+    public void postProcessBeanFactory(final ConfigurableListableBeanFactory beanFactory) {
+        if (this.packagePrefixes.isEmpty()) { return; }
+
+        int lazyBeans = 0;
+        for (final String beanName : beanFactory.getBeanDefinitionNames()) {
+            final BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+            if (isLazyCandidate(beanDefinition)) {
+                beanDefinition.setLazyInit(true);
+                lazyBeans++;
+            }
+        }
+        log.info("Initializing {} beans of modules {} lazily", lazyBeans, this.packagePrefixes);
+    }
+
+    private boolean isLazyCandidate(final BeanDefinition beanDefinition) {
+        if (!(beanDefinition instanceof AnnotatedBeanDefinition) || beanDefinition.getBeanClassName() == null) { return false; }
+
+        final AnnotatedBeanDefinition annotatedBeanDefinition = (AnnotatedBeanDefinition) beanDefinition;
+        if (annotatedBeanDefinition.getFactoryMethodMetadata() != null) { return false; }
+
+        final String className = beanDefinition.getBeanClassName();
+        if (this.packagePrefixes.stream().noneMatch(className::startsWith)) { return false; }
+
+        final AnnotationMetadata metadata = annotatedBeanDefinition.getMetadata();
+        return !metadata.hasAnnotation("org.springframework.context.annotation.Configuration")
+                && !metadata.hasAnnotatedMethods("javax.annotation.PostConstruct")
+                && !metadata.hasAnnotatedMethods("org.springframework.context.event.EventListener");
+    }
+}
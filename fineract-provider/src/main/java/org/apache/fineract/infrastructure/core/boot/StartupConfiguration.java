@@ -0,0 +1,45 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.boot;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Collections;
+import java.util.Map;
+
+// NOTE: both beans are created before any @ConfigurationProperties binding, so they read fineract.startup.* themselves
+@Configuration
+public class StartupConfiguration {
+
+    @Bean
+    public static ModuleLazyInitializationPostProcessor moduleLazyInitializationPostProcessor(final Environment environment) {
+        final Map<String, Boolean> modules = Binder.get(environment)
+                .bind("fineract.startup.lazy", Bindable.mapOf(String.class, Boolean.class)).orElse(Collections.emptyMap());
+        return new ModuleLazyInitializationPostProcessor(modules);
+    }
+
+    @Bean
+    public static BeanInitializationTimingReporter beanInitializationTimingReporter(final Environment environment) {
+        return new BeanInitializationTimingReporter(environment.getProperty("fineract.startup.timingReportSize", Integer.class, 20));
+    }
+}
@@ -21,6 +21,8 @@ package org.apache.fineract.infrastructure.core.serialization;
 import java.util.Collection;
 import java.util.Set;
 
+import javax.ws.rs.core.StreamingOutput;
+
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -111,6 +113,33 @@ public final class DefaultToApiJsonSerializer<T> implements ToApiJsonSerializer<
         return serializeWithSettings(delegatedSerializer, settings, singleObject);
     }
 
+    @Override
+    public StreamingOutput serializeStreaming(final ApiRequestJsonSerializationSettings settings, final Collection<T> collection,
+            final Set<String> supportedResponseParameters) {
+        final Gson delegatedSerializer = findAppropriateSerializer(settings, supportedResponseParameters);
+        return streamWithSettings(delegatedSerializer, settings, collection);
+    }
+
+    @Override
+    public StreamingOutput serializeStreaming(final ApiRequestJsonSerializationSettings settings, final T singleObject,
+            final Set<String> supportedResponseParameters) {
+        final Gson delegatedSerializer = findAppropriateSerializer(settings, supportedResponseParameters);
+        return streamWithSettings(delegatedSerializer, settings, singleObject);
+    }
+
+    @Override
+    public StreamingOutput serializeStreaming(final ApiRequestJsonSerializationSettings settings, final Page<T> singleObject,
+            final Set<String> supportedResponseParameters) {
+        final Gson delegatedSerializer = findAppropriateSerializer(settings, supportedResponseParameters);
+        return streamWithSettings(delegatedSerializer, settings, singleObject);
+    }
+
+    private StreamingOutput streamWithSettings(final Gson gson, final ApiRequestJsonSerializationSettings settings, final Object dataObject) {
+        // the serializer is chosen up front so that unsupported response parameters are rejected before the response is committed
+        final Gson serializer = gson != null ? gson : this.helper.defaultSerializer(settings.isPrettyPrint());
+        return output -> this.helper.serializeJsonTo(serializer, dataObject, output);
+    }
+
     private String serializeWithSettings(final Gson gson, final ApiRequestJsonSerializationSettings settings, final Object[] dataObject) {
         String json = null;
         if (gson != null) {
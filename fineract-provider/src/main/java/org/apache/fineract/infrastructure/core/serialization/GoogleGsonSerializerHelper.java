@@ -18,9 +18,20 @@
  */
 package org.apache.fineract.infrastructure.core.serialization;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
 import org.apache.fineract.infrastructure.core.api.JodaDateTimeAdapter;
 import org.apache.fineract.infrastructure.core.api.JodaLocalDateAdapter;
@@ -36,6 +47,7 @@ import org.springframework.stereotype.Service;
 import com.google.gson.ExclusionStrategy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Helper class for serialization of java objects into JSON using google-gson.
@@ -43,6 +55,16 @@ import com.google.gson.GsonBuilder;
 @Service
 public final class GoogleGsonSerializerHelper {
 
+    /**
+     * Bounds the serializers cached for partial responses, the field sets are
+     * chosen by API clients.
+     */
+    private static final int MAX_CACHED_SERIALIZERS = 512;
+
+    private final Gson serializer = createGsonBuilder(false);
+    private final Gson prettyPrintingSerializer = createGsonBuilder(true);
+    private final ConcurrentMap<List<Object>, Gson> partialResponseSerializers = new ConcurrentHashMap<>();
+
     public Gson createGsonBuilder(final boolean prettyPrint) {
         final GsonBuilder builder = new GsonBuilder();
         builder.registerTypeAdapter(LocalDate.class, new JodaLocalDateAdapter());
@@ -55,6 +77,12 @@ public final class GoogleGsonSerializerHelper {
     }
 
     public Gson createGsonBuilderForPartialResponseFiltering(final boolean prettyPrint, final Set<String> responseParameters) {
+        final Set<String> parameterNamesToInclude = new HashSet<>(responseParameters);
+        final List<Object> key = Arrays.asList("include", prettyPrint, parameterNamesToInclude);
+        return cachedSerializer(key, () -> buildGsonForPartialResponseFiltering(prettyPrint, parameterNamesToInclude));
+    }
+
+    private Gson buildGsonForPartialResponseFiltering(final boolean prettyPrint, final Set<String> responseParameters) {
 
         final ExclusionStrategy strategy = new ParameterListInclusionStrategy(responseParameters);
 
@@ -87,6 +115,11 @@ public final class GoogleGsonSerializerHelper {
             parameterNamesToSkip.removeAll(responseParameters);
         }
 
+        final List<Object> key = Arrays.asList("exclude", prettyPrint, parameterNamesToSkip);
+        return cachedSerializer(key, () -> buildGsonWithParameterExclusionSerializationStrategy(prettyPrint, parameterNamesToSkip));
+    }
+
+    private Gson buildGsonWithParameterExclusionSerializationStrategy(final boolean prettyPrint, final Set<String> parameterNamesToSkip) {
         final ExclusionStrategy strategy = new ParameterListExclusionStrategy(parameterNamesToSkip);
 
         final GsonBuilder builder = new GsonBuilder().addSerializationExclusionStrategy(strategy);
@@ -99,6 +132,49 @@ public final class GoogleGsonSerializerHelper {
         return builder.create();
     }
 
+    private Gson cachedSerializer(final List<Object> key, final Supplier<Gson> factory) {
+        final Gson cached = this.partialResponseSerializers.get(key);
+        if (cached != null) { return cached; }
+        final Gson gson = factory.get();
+        if (this.partialResponseSerializers.size() < MAX_CACHED_SERIALIZERS) {
+            this.partialResponseSerializers.putIfAbsent(key, gson);
+        }
+        return gson;
+    }
+
+    /**
+     * The serializer used when no partial response is requested.
+     */
+    public Gson defaultSerializer(final boolean prettyPrint) {
+        return prettyPrint ? this.prettyPrintingSerializer : this.serializer;
+    }
+
+    /**
+     * Writes the JSON of the data object to the output without building it as
+     * a string first, collections are written one element at a time.
+     */
+    public void serializeJsonTo(final Gson serializer, final Object dataObject, final OutputStream output) throws IOException {
+        final JsonWriter jsonWriter = serializer.newJsonWriter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+        if (dataObject instanceof Collection) {
+            jsonWriter.beginArray();
+            for (final Object element : (Collection<?>) dataObject) {
+                writeJson(serializer, element, jsonWriter);
+            }
+            jsonWriter.endArray();
+        } else {
+            writeJson(serializer, dataObject, jsonWriter);
+        }
+        jsonWriter.flush();
+    }
+
+    private void writeJson(final Gson serializer, final Object dataObject, final JsonWriter jsonWriter) throws IOException {
+        if (dataObject == null) {
+            jsonWriter.nullValue();
+        } else {
+            serializer.toJson(dataObject, dataObject.getClass(), jsonWriter);
+        }
+    }
+
     public String serializedJsonFrom(final Gson serializer, final Object[] dataObjects) {
         return serializer.toJson(dataObjects);
     }
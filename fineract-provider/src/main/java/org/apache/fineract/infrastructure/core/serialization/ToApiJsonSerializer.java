@@ -21,6 +21,8 @@ package org.apache.fineract.infrastructure.core.serialization;
 import java.util.Collection;
 import java.util.Set;
 
+import javax.ws.rs.core.StreamingOutput;
+
 import org.apache.fineract.infrastructure.core.service.Page;
 
 public interface ToApiJsonSerializer<T> {
@@ -47,4 +49,14 @@ public interface ToApiJsonSerializer<T> {
     String serialize(ApiRequestJsonSerializationSettings settings, T single, Set<String> supportedResponseParameters);
 
     String serialize(ApiRequestJsonSerializationSettings settings, Page<T> singleObject, Set<String> supportedResponseParameters);
+
+    // streaming variants for large responses: the JSON is written straight to
+    // the response instead of being built as a string first
+    StreamingOutput serializeStreaming(ApiRequestJsonSerializationSettings settings, Collection<T> collection,
+            Set<String> supportedResponseParameters);
+
+    StreamingOutput serializeStreaming(ApiRequestJsonSerializationSettings settings, T single, Set<String> supportedResponseParameters);
+
+    StreamingOutput serializeStreaming(ApiRequestJsonSerializationSettings settings, Page<T> singleObject,
+            Set<String> supportedResponseParameters);
 }
\ No newline at end of file
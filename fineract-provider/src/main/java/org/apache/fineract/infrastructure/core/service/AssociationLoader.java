@@ -0,0 +1,224 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Loads the independent associations of a detail response (transactions,
+ * charges, notes, ...) concurrently on a bounded pool of threads.
+ * <p>
+ * Every association runs in its own read only transaction with the security
+ * context of the calling request. When the pool and its queue are full the
+ * association is loaded on the calling thread, so a busy server degrades to
+ * the sequential behaviour instead of rejecting requests. With zero threads
+ * configured everything is loaded on the calling thread.
+ * <p>
+ * The time taken by every association is logged at debug level when the
+ * batch completes, see {@link Batch#complete()}.
+ */
+@Component
+public class AssociationLoader {
+
+    private final static Logger logger = LoggerFactory.getLogger(AssociationLoader.class);
+    private static final int DEFAULT_THREADS = 8;
+    private static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor threadPoolExecutor;
+    private final ExecutorService executorService;
+
+    @Autowired
+    public AssociationLoader(final PlatformTransactionManager transactionManager, final FineractProperties fineractProperties) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        final FineractProperties.FineractPropertiesAssociations associationProperties = fineractProperties.getAssociations();
+        final int threads = associationProperties == null || associationProperties.getThreads() == null ? DEFAULT_THREADS
+                : associationProperties.getThreads();
+        final int queueCapacity = associationProperties == null || associationProperties.getQueueCapacity() == null
+                ? DEFAULT_QUEUE_CAPACITY
+                : associationProperties.getQueueCapacity();
+        if (threads > 0) {
+            final AtomicInteger threadNumber = new AtomicInteger();
+            this.threadPoolExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                        final Thread thread = new Thread(runnable, "association-loader-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+            this.threadPoolExecutor.allowCoreThreadTimeOut(true);
+            this.executorService = new DelegatingSecurityContextExecutorService(this.threadPoolExecutor);
+        } else {
+            this.threadPoolExecutor = null;
+            this.executorService = null;
+        }
+    }
+
+    /**
+     * @param description
+     *            identifies the response in the timing log, for example
+     *            "loan 12"
+     */
+    public Batch batch(final String description) {
+        return new Batch(description);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (this.threadPoolExecutor != null) {
+            this.threadPoolExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * The associations loaded for one response.
+     */
+    public final class Batch {
+
+        private final String description;
+        private final long startedAt = System.currentTimeMillis();
+        private final Queue<Timing> timings = new ConcurrentLinkedQueue<>();
+
+        private Batch(final String description) {
+            this.description = description;
+        }
+
+        /**
+         * Starts loading an association; the result is available through
+         * {@link Association#get()}.
+         */
+        public <T> Association<T> submit(final String name, final Supplier<T> loader) {
+            final Supplier<T> timedLoader = () -> {
+                final long loadStartedAt = System.currentTimeMillis();
+                try {
+                    return AssociationLoader.this.transactionTemplate.execute(status -> loader.get());
+                } finally {
+                    this.timings.add(new Timing(name, System.currentTimeMillis() - loadStartedAt));
+                }
+            };
+            if (AssociationLoader.this.executorService == null) {
+                return Association.loaded(timedLoader);
+            }
+            return new Association<>(AssociationLoader.this.executorService.submit(timedLoader::get));
+        }
+
+        /**
+         * Logs how long every association took, slowest first.
+         */
+        public void complete() {
+            if (logger.isDebugEnabled()) {
+                final List<Timing> sorted = new ArrayList<>(this.timings);
+                sorted.sort(Comparator.comparingLong((final Timing timing) -> timing.millis).reversed());
+                logger.debug("Associations of {} loaded in {} ms: {}", this.description,
+                        System.currentTimeMillis() - this.startedAt, sorted);
+            }
+        }
+    }
+
+    /**
+     * An association that is being loaded.
+     */
+    public static final class Association<T> {
+
+        private final Future<T> future;
+        private final T value;
+        private final RuntimeException failure;
+
+        private Association(final Future<T> future) {
+            this.future = future;
+            this.value = null;
+            this.failure = null;
+        }
+
+        private Association(final T value, final RuntimeException failure) {
+            this.future = null;
+            this.value = value;
+            this.failure = failure;
+        }
+
+        private static <T> Association<T> loaded(final Supplier<T> loader) {
+            try {
+                return new Association<>(loader.get(), null);
+            } catch (final RuntimeException e) {
+                return new Association<>(null, e);
+            }
+        }
+
+        /**
+         * Waits for the association and rethrows the exception it failed
+         * with, so that a missing entity still maps to the usual error
+         * response.
+         */
+        public T get() {
+            if (this.future == null) {
+                if (this.failure != null) { throw this.failure; }
+                return this.value;
+            }
+            try {
+                return this.future.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while loading association", e);
+            } catch (final ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+                if (cause instanceof Error) { throw (Error) cause; }
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+    private static final class Timing {
+
+        private final String name;
+        private final long millis;
+
+        private Timing(final String name, final long millis) {
+            this.name = name;
+            this.millis = millis;
+        }
+
+        @Override
+        public String toString() {
+            return this.name + "=" + this.millis + " ms";
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.PreDestroy;
+import javax.mail.Address;
+import javax.mail.SendFailedException;
+import javax.mail.internet.MimeMessage;
+import org.apache.fineract.infrastructure.configuration.data.SMTPCredentialsData;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends emails on a bounded pool of delivery threads.
+ * <p>
+ * Messages are split into batches of <code>fineract.email.batchSize</code>;
+ * every batch goes out over a single SMTP connection of the pooled sender
+ * (see {@link SmtpMailSenderPool}). Messages the server did not accept are
+ * retried with exponential backoff up to
+ * <code>fineract.email.maxAttempts</code> times; authentication failures,
+ * rejected recipients and messages some recipients already received are not
+ * retried. The outcome of every message is reported to the
+ * {@link EmailDeliveryCallback}. When the pool and its queue are full a
+ * batch is sent on the calling thread, with zero threads configured
+ * everything is.
+ */
+@Component
+public class EmailDeliveryService {
+
+    private final static Logger logger = LoggerFactory.getLogger(EmailDeliveryService.class);
+    private static final int DEFAULT_THREADS = 4;
+    private static final int DEFAULT_QUEUE_CAPACITY = 100;
+    private static final int DEFAULT_BATCH_SIZE = 50;
+    private static final int DEFAULT_MAX_ATTEMPTS = 3;
+    private static final long DEFAULT_RETRY_BACKOFF_MILLIS = 1000L;
+
+    private final SmtpMailSenderPool mailSenderPool;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final ThreadPoolExecutor threadPoolExecutor;
+    private final Executor executor;
+
+    @Autowired
+    public EmailDeliveryService(final SmtpMailSenderPool mailSenderPool, final FineractProperties fineractProperties) {
+        this.mailSenderPool = mailSenderPool;
+
+        final FineractProperties.FineractPropertiesEmail emailProperties = fineractProperties.getEmail() == null
+                ? new FineractProperties.FineractPropertiesEmail()
+                : fineractProperties.getEmail();
+        final int threads = emailProperties.getThreads() == null ? DEFAULT_THREADS : emailProperties.getThreads();
+        final int queueCapacity = emailProperties.getQueueCapacity() == null ? DEFAULT_QUEUE_CAPACITY : emailProperties.getQueueCapacity();
+        this.batchSize = Math.max(1, emailProperties.getBatchSize() == null ? DEFAULT_BATCH_SIZE : emailProperties.getBatchSize());
+        this.maxAttempts = Math.max(1, emailProperties.getMaxAttempts() == null ? DEFAULT_MAX_ATTEMPTS : emailProperties.getMaxAttempts());
+        this.retryBackoffMillis = emailProperties.getRetryBackoffMillis() == null ? DEFAULT_RETRY_BACKOFF_MILLIS
+                : emailProperties.getRetryBackoffMillis();
+
+        if (threads > 0) {
+            final AtomicInteger threadNumber = new AtomicInteger();
+            this.threadPoolExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                        final Thread thread = new Thread(runnable, "email-delivery-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+            this.threadPoolExecutor.allowCoreThreadTimeOut(true);
+            this.executor = new DelegatingSecurityContextExecutor(this.threadPoolExecutor);
+        } else {
+            this.threadPoolExecutor = null;
+            this.executor = Runnable::run;
+        }
+    }
+
+    /**
+     * Queues the messages for delivery.
+     *
+     * @return completes once the outcome of every message has been reported
+     *         to the callback
+     */
+    public <K> CompletableFuture<Void> deliver(final SMTPCredentialsData smtpCredentialsData,
+            final Map<K, MimeMessagePreparator> messages, final EmailDeliveryCallback<K> callback) {
+        final JavaMailSender mailSender = this.mailSenderPool.getMailSender(smtpCredentialsData);
+        final List<CompletableFuture<Void>> batches = new ArrayList<>();
+        Map<K, MimeMessagePreparator> batch = new LinkedHashMap<>();
+        for (final Map.Entry<K, MimeMessagePreparator> message : messages.entrySet()) {
+            batch.put(message.getKey(), message.getValue());
+            if (batch.size() == this.batchSize) {
+                batches.add(submit(mailSender, batch, callback));
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(submit(mailSender, batch, callback));
+        }
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Sends a single message and waits for the outcome.
+     *
+     * @throws PlatformEmailSendException
+     *             when the message could not be delivered
+     */
+    public void send(final SMTPCredentialsData smtpCredentialsData, final MimeMessagePreparator message) {
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        final Map<Object, MimeMessagePreparator> messages = new LinkedHashMap<>();
+        messages.put(message, message);
+        deliver(smtpCredentialsData, messages, new EmailDeliveryCallback<Object>() {
+
+            @Override
+            public void delivered(@SuppressWarnings("unused") final Object key) {}
+
+            @Override
+            public void failed(@SuppressWarnings("unused") final Object key, final Exception cause) {
+                failure.set(cause);
+            }
+        }).join();
+        if (failure.get() != null) { throw new PlatformEmailSendException(failure.get()); }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (this.threadPoolExecutor != null) {
+            this.threadPoolExecutor.shutdown();
+        }
+    }
+
+    private <K> CompletableFuture<Void> submit(final JavaMailSender mailSender, final Map<K, MimeMessagePreparator> batch,
+            final EmailDeliveryCallback<K> callback) {
+        return CompletableFuture.runAsync(() -> sendBatch(mailSender, batch, callback), this.executor);
+    }
+
+    private <K> void sendBatch(final JavaMailSender mailSender, final Map<K, MimeMessagePreparator> batch,
+            final EmailDeliveryCallback<K> callback) {
+        Map<K, MimeMessagePreparator> pending = batch;
+        Exception lastFailure = null;
+        for (int attempt = 1; attempt <= this.maxAttempts && !pending.isEmpty(); attempt++) {
+            if (attempt > 1 && !backOff(attempt)) {
+                break;
+            }
+
+            final Map<MimeMessage, K> prepared = new LinkedHashMap<>();
+            for (final Map.Entry<K, MimeMessagePreparator> message : pending.entrySet()) {
+                try {
+                    final MimeMessage mimeMessage = mailSender.createMimeMessage();
+                    message.getValue().prepare(mimeMessage);
+                    prepared.put(mimeMessage, message.getKey());
+                } catch (final Exception e) {
+                    // NOTE: a message that cannot be built will not get any better by retrying
+                    notifyFailed(callback, message.getKey(), e);
+                }
+            }
+            if (prepared.isEmpty()) {
+                pending = new LinkedHashMap<>();
+                break;
+            }
+
+            final Map<K, MimeMessagePreparator> retry = new LinkedHashMap<>();
+            try {
+                mailSender.send(prepared.keySet().toArray(new MimeMessage[0]));
+                prepared.values().forEach(key -> notifyDelivered(callback, key));
+            } catch (final MailAuthenticationException e) {
+                prepared.values().forEach(key -> notifyFailed(callback, key, e));
+            } catch (final MailSendException e) {
+                final Map<Object, Exception> failedMessages = e.getFailedMessages();
+                for (final Map.Entry<MimeMessage, K> message : prepared.entrySet()) {
+                    final Exception failure = failedMessages.get(message.getKey());
+                    if (isRejectedRecipient(failure) || isPartiallySent(failure)) {
+                        notifyFailed(callback, message.getValue(), failure);
+                    } else if (failedMessages.isEmpty() || failure != null) {
+                        retry.put(message.getValue(), pending.get(message.getValue()));
+                    } else {
+                        notifyDelivered(callback, message.getValue());
+                    }
+                }
+                lastFailure = e;
+            } catch (final MailException e) {
+                for (final K key : prepared.values()) {
+                    retry.put(key, pending.get(key));
+                }
+                lastFailure = e;
+            }
+            if (!retry.isEmpty()) {
+                logger.warn("Attempt {} of {} to send {} emails failed: {}", attempt, this.maxAttempts, retry.size(),
+                        lastFailure.getMessage());
+            }
+            pending = retry;
+        }
+
+        for (final K key : pending.keySet()) {
+            notifyFailed(callback, key, lastFailure);
+        }
+    }
+
+    // NOTE: a recipient the server refused will be refused again
+    private static boolean isRejectedRecipient(final Exception failure) {
+        if (!(failure instanceof SendFailedException)) { return false; }
+        final Address[] invalidAddresses = ((SendFailedException) failure).getInvalidAddresses();
+        return invalidAddresses != null && invalidAddresses.length > 0;
+    }
+
+    // NOTE: sending again would deliver a second copy to the recipients that got the first
+    private static boolean isPartiallySent(final Exception failure) {
+        if (!(failure instanceof SendFailedException)) { return false; }
+        final Address[] sentAddresses = ((SendFailedException) failure).getValidSentAddresses();
+        return sentAddresses != null && sentAddresses.length > 0;
+    }
+
+    private boolean backOff(final int attempt) {
+        try {
+            Thread.sleep(this.retryBackoffMillis << (attempt - 2));
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static <K> void notifyDelivered(final EmailDeliveryCallback<K> callback, final K key) {
+        try {
+            callback.delivered(key);
+        } catch (final RuntimeException e) {
+            logger.error("Recording the delivery of an email failed", e);
+        }
+    }
+
+    private static <K> void notifyFailed(final EmailDeliveryCallback<K> callback, final K key, final Exception cause) {
+        try {
+            callback.failed(key, cause);
+        } catch (final RuntimeException e) {
+            logger.error("Recording the failed delivery of an email failed", e);
+        }
+    }
+}
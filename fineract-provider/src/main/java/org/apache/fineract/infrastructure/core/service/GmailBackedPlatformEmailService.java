@@ -18,24 +18,25 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
-import org.apache.commons.mail.DefaultAuthenticator;
-import org.apache.commons.mail.Email;
-import org.apache.commons.mail.EmailException;
-import org.apache.commons.mail.SimpleEmail;
+import javax.mail.internet.InternetAddress;
 import org.apache.fineract.infrastructure.configuration.data.SMTPCredentialsData;
 import org.apache.fineract.infrastructure.configuration.service.ExternalServicesPropertiesReadPlatformService;
 import org.apache.fineract.infrastructure.core.domain.EmailDetail;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 @Service
 public class GmailBackedPlatformEmailService implements PlatformEmailService {
 	
 	private final ExternalServicesPropertiesReadPlatformService externalServicesReadPlatformService;
+	private final EmailDeliveryService emailDeliveryService;
 	
 	@Autowired
-	public GmailBackedPlatformEmailService(final ExternalServicesPropertiesReadPlatformService externalServicesReadPlatformService){
+	public GmailBackedPlatformEmailService(final ExternalServicesPropertiesReadPlatformService externalServicesReadPlatformService,
+			final EmailDeliveryService emailDeliveryService){
 		this.externalServicesReadPlatformService = externalServicesReadPlatformService;
+		this.emailDeliveryService = emailDeliveryService;
 	}
 
     @Override
@@ -58,30 +59,14 @@ public class GmailBackedPlatformEmailService implements PlatformEmailService {
 
     @Override
     public void sendDefinedEmail(EmailDetail emailDetails) {
-        final Email email = new SimpleEmail();
         final SMTPCredentialsData smtpCredentialsData = this.externalServicesReadPlatformService.getSMTPCredentials();
 
-        final String authuser = smtpCredentialsData.getUsername();
-        final String authpwd = smtpCredentialsData.getPassword();
-
-        // Very Important, Don't use email.setAuthentication()
-        email.setAuthenticator(new DefaultAuthenticator(authuser, authpwd));
-        email.setDebug(false); // true if you want to debug
-        email.setHostName(smtpCredentialsData.getHost());
-
-        try {
-            if(smtpCredentialsData.isUseTLS()){
-                email.getMailSession().getProperties().put("mail.smtp.starttls.enable", "true");
-            }
-            email.setFrom(smtpCredentialsData.getFromEmail(), smtpCredentialsData.getFromName());
-
-            email.setSubject(emailDetails.getSubject());
-            email.setMsg(emailDetails.getBody());
-
-            email.addTo(emailDetails.getAddress(), emailDetails.getContactName());
-            email.send();
-        } catch (EmailException e) {
-            throw new PlatformEmailSendException(e);
-        }
+        this.emailDeliveryService.send(smtpCredentialsData, mimeMessage -> {
+            final MimeMessageHelper message = new MimeMessageHelper(mimeMessage);
+            message.setFrom(smtpCredentialsData.getFromEmail(), smtpCredentialsData.getFromName());
+            message.setSubject(emailDetails.getSubject());
+            message.setText(emailDetails.getBody());
+            message.setTo(new InternetAddress(emailDetails.getAddress(), emailDetails.getContactName()));
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.configuration.data.SMTPCredentialsData;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps one long lived {@link JavaMailSender} (and with it one mail session)
+ * per SMTP configuration, instead of building a new session with fresh
+ * authentication for every message.
+ * <p>
+ * Senders are keyed by the complete credentials, so changed settings simply
+ * lead to a new sender; the least recently used ones are dropped once more
+ * than <code>fineract.email.senderPoolSize</code> configurations are in use.
+ * <p>
+ * The certificate of a TLS server is validated like any other, unless
+ * <code>fineract.email.trustServerCertificate</code> is set for servers with
+ * a self-signed certificate.
+ */
+@Component
+public class SmtpMailSenderPool {
+
+    private static final int DEFAULT_POOL_SIZE = 16;
+    private static final String TIMEOUT_MILLIS = "30000";
+
+    private final Map<SMTPCredentialsData, JavaMailSender> mailSenders;
+    private final boolean trustServerCertificate;
+
+    @Autowired
+    public SmtpMailSenderPool(final FineractProperties fineractProperties) {
+        final FineractProperties.FineractPropertiesEmail emailProperties = fineractProperties.getEmail();
+        final int poolSize = emailProperties == null || emailProperties.getSenderPoolSize() == null ? DEFAULT_POOL_SIZE
+                : emailProperties.getSenderPoolSize();
+        this.trustServerCertificate = emailProperties != null && Boolean.TRUE.equals(emailProperties.getTrustServerCertificate());
+        this.mailSenders = Collections.synchronizedMap(new LinkedHashMap<SMTPCredentialsData, JavaMailSender>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<SMTPCredentialsData, JavaMailSender> eldest) {
+                return size() > poolSize;
+            }
+        });
+    }
+
+    public JavaMailSender getMailSender(final SMTPCredentialsData smtpCredentialsData) {
+        return this.mailSenders.computeIfAbsent(smtpCredentialsData, this::createMailSender);
+    }
+
+    private JavaMailSender createMailSender(final SMTPCredentialsData smtpCredentialsData) {
+        final JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(smtpCredentialsData.getHost());
+        if (StringUtils.isNotBlank(smtpCredentialsData.getPort())) {
+            mailSender.setPort(Integer.parseInt(smtpCredentialsData.getPort().trim()));
+        }
+        mailSender.setDefaultEncoding("UTF-8");
+
+        final Properties properties = new Properties();
+        if (StringUtils.isNotEmpty(smtpCredentialsData.getUsername())) {
+            mailSender.setUsername(smtpCredentialsData.getUsername());
+            mailSender.setPassword(smtpCredentialsData.getPassword());
+            properties.setProperty("mail.smtp.auth", "true");
+        }
+        if (smtpCredentialsData.isUseTLS()) {
+            properties.setProperty("mail.smtp.starttls.enable", "true");
+            if (this.trustServerCertificate) {
+                properties.setProperty("mail.smtp.ssl.trust", smtpCredentialsData.getHost());
+            }
+        }
+        properties.setProperty("mail.smtp.connectiontimeout", TIMEOUT_MILLIS);
+        properties.setProperty("mail.smtp.timeout", TIMEOUT_MILLIS);
+        properties.setProperty("mail.smtp.writetimeout", TIMEOUT_MILLIS);
+        mailSender.setJavaMailProperties(properties);
+        return mailSender;
+    }
+}
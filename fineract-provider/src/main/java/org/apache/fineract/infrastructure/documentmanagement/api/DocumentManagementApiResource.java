@@ -38,6 +38,7 @@ import org.springframework.stereotype.Component;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
@@ -192,12 +193,16 @@ public class DocumentManagementApiResource {
     @ApiOperation(value = "Retrieve Binary File associated with Document", notes = "Request used to download the file associated with the document\n" + "\n" + "Example Requests:\n" + "\n" + "clients/1/documents/1/attachment\n" + "\n" + "\n" + "loans/1/documents/1/attachment")
     @ApiResponses({@ApiResponse(code = 200, message = "Not Shown: The corresponding Binary file")})
     public Response downloadFile(@PathParam("entityType") @ApiParam(value = "entityType") final String entityType, @PathParam("entityId") @ApiParam(value = "entityId") final Long entityId,
-            @PathParam("documentId") @ApiParam(value = "documentId") final Long documentId) {
+            @PathParam("documentId") @ApiParam(value = "documentId") final Long documentId, @Context final Request request,
+            @HeaderParam("Range") final String range) {
 
         this.context.authenticatedUser().validateHasReadPermission(this.SystemEntityType);
 
         final FileData fileData = this.documentReadPlatformService.retrieveFileData(entityType, entityId, documentId);
-        final ResponseBuilder response = Response.ok(fileData.file());
+        // documents on the file system are sent straight from disk, documents on S3 are streamed as they are downloaded
+        final ResponseBuilder response = fileData.fileOnDisk() != null
+                ? FileContentResponseBuilder.build(request, range, fileData.fileOnDisk())
+                : Response.ok(fileData.file());
         response.header("Content-Disposition", "attachment; filename=\"" + fileData.name() + "\"");
         response.header("Content-Type", fileData.contentType());
 
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.documentmanagement.api;
+
+import java.io.File;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Builds download responses that stream the content instead of loading it into
+ * memory. Files on the local file system are sent with
+ * {@link FileChannel#transferTo(long, long, WritableByteChannel)} and support
+ * conditional requests and single byte ranges.
+ */
+final class FileContentResponseBuilder {
+
+    private static final Pattern BYTE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private FileContentResponseBuilder() {}
+
+    static ResponseBuilder build(final Request request, final String range, final File file) {
+        final long length = file.length();
+        final long lastModified = file.lastModified();
+        final EntityTag entityTag = new EntityTag(Long.toHexString(lastModified) + "-" + Long.toHexString(length));
+        final CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+
+        if (request != null) {
+            final ResponseBuilder notModified = request.evaluatePreconditions(new Date(lastModified), entityTag);
+            if (notModified != null) { return notModified.cacheControl(cacheControl); }
+        }
+
+        long from = 0;
+        long to = length - 1;
+        final Matcher matcher = range == null ? null : BYTE_RANGE.matcher(range.trim());
+        final boolean partial = matcher != null && matcher.matches() && !(matcher.group(1).isEmpty() && matcher.group(2).isEmpty());
+        if (partial) {
+            if (matcher.group(1).isEmpty()) {
+                // suffix range, the last n bytes
+                from = Math.max(0, length - Long.parseLong(matcher.group(2)));
+            } else {
+                from = Long.parseLong(matcher.group(1));
+                if (!matcher.group(2).isEmpty()) {
+                    to = Math.min(to, Long.parseLong(matcher.group(2)));
+                }
+            }
+            if (from > to) { return Response.status(416).header("Content-Range", "bytes */" + length); }
+        }
+
+        final ResponseBuilder response = partial ? Response.status(206).header("Content-Range",
+                "bytes " + from + "-" + to + "/" + length) : Response.ok();
+        return response.entity(transfer(file, from, to - from + 1)).header("Content-Length", to - from + 1)
+                .header("Accept-Ranges", "bytes").tag(entityTag).lastModified(new Date(lastModified)).cacheControl(cacheControl);
+    }
+
+    private static StreamingOutput transfer(final File file, final long from, final long count) {
+        return (out) -> {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                final WritableByteChannel target = Channels.newChannel(out);
+                long position = from;
+                final long end = from + count;
+                while (position < end) {
+                    final long transferred = channel.transferTo(position, end - position, target);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    position += transferred;
+                }
+            }
+        };
+    }
+}
@@ -26,12 +26,15 @@ import org.apache.fineract.infrastructure.core.domain.Base64EncodedImage;
 import org.apache.fineract.infrastructure.core.serialization.DefaultToApiJsonSerializer;
 import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepositoryUtils;
 import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepositoryUtils.IMAGE_FILE_EXTENSION;
+import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ImageRenditionCache;
 import org.apache.fineract.infrastructure.documentmanagement.data.ImageData;
+import org.apache.fineract.infrastructure.documentmanagement.exception.ContentManagementException;
 import org.apache.fineract.infrastructure.documentmanagement.exception.InvalidEntityTypeForImageManagementException;
 import org.apache.fineract.infrastructure.documentmanagement.service.ImageReadPlatformService;
 import org.apache.fineract.infrastructure.documentmanagement.service.ImageWritePlatformService;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.portfolio.client.data.ClientData;
+import org.apache.fineract.portfolio.client.exception.ImageNotFoundException;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
 import org.glassfish.jersey.media.multipart.FormDataParam;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,10 +42,15 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 
 // TODO: @aleks doesn't pass model validation
 //       should be: @Path("entities/{entityType}/{entityId}/images")
@@ -57,14 +65,17 @@ public class ImagesApiResource {
     private final ImageReadPlatformService imageReadPlatformService;
     private final ImageWritePlatformService imageWritePlatformService;
     private final DefaultToApiJsonSerializer<ClientData> toApiJsonSerializer;
+    private final ImageRenditionCache imageRenditionCache;
 
     @Autowired
     public ImagesApiResource(final PlatformSecurityContext context, final ImageReadPlatformService readPlatformService,
-            final ImageWritePlatformService imageWritePlatformService, final DefaultToApiJsonSerializer<ClientData> toApiJsonSerializer) {
+            final ImageWritePlatformService imageWritePlatformService, final DefaultToApiJsonSerializer<ClientData> toApiJsonSerializer,
+            final ImageRenditionCache imageRenditionCache) {
         this.context = context;
         this.imageReadPlatformService = readPlatformService;
         this.imageWritePlatformService = imageWritePlatformService;
         this.toApiJsonSerializer = toApiJsonSerializer;
+        this.imageRenditionCache = imageRenditionCache;
     }
 
     /**
@@ -122,7 +133,7 @@ public class ImagesApiResource {
         }
 
         if (output != null && (output.equals("octet") || output.equals("inline_octet"))) { return downloadClientImage(entityName, entityId,
-                maxWidth, maxHeight, output); }
+                maxWidth, maxHeight, output, null, null); }
 
         final ImageData imageData = this.imageReadPlatformService.retrieveImage(entityName, entityId);
 
@@ -134,7 +145,15 @@ public class ImagesApiResource {
             imageDataURISuffix = ContentRepositoryUtils.IMAGE_DATA_URI_SUFFIX.PNG.getValue();
         }
 
-        final String clientImageAsBase64Text = imageDataURISuffix + Base64.encodeBytes(imageData.getContentOfSize(maxWidth, maxHeight));
+        final File rendition = this.imageRenditionCache.retrieveRendition(imageData, maxWidth, maxHeight);
+        final byte[] content;
+        try {
+            content = rendition == null ? imageData.getContent() : Files.readAllBytes(rendition.toPath());
+        } catch (final IOException e) {
+            throw new ContentManagementException(imageData.location(), e.getMessage());
+        }
+        if (content == null) { throw new ImageNotFoundException(entityName, entityId); }
+        final String clientImageAsBase64Text = imageDataURISuffix + Base64.encodeBytes(content);
         return Response.ok(clientImageAsBase64Text).build();
     }
 
@@ -143,7 +162,7 @@ public class ImagesApiResource {
     @Produces({ MediaType.APPLICATION_OCTET_STREAM })
     public Response downloadClientImage(@PathParam("entity") final String entityName, @PathParam("entityId") final Long entityId,
             @QueryParam("maxWidth") final Integer maxWidth, @QueryParam("maxHeight") final Integer maxHeight,
-            @QueryParam("output") String output) {
+            @QueryParam("output") String output, @Context final Request request, @HeaderParam("Range") final String range) {
         validateEntityTypeforImage(entityName);
         if (ENTITY_TYPE_FOR_IMAGES.CLIENTS.toString().equalsIgnoreCase(entityName)) {
             this.context.authenticatedUser().validateHasReadPermission("CLIENTIMAGE");
@@ -153,7 +172,21 @@ public class ImagesApiResource {
 
         final ImageData imageData = this.imageReadPlatformService.retrieveImage(entityName, entityId);
 
-        final ResponseBuilder response = Response.ok(imageData.getContentOfSize(maxWidth, maxHeight));
+        // resized renditions and images on the file system are streamed from disk, others straight from the content repository
+        final File rendition = this.imageRenditionCache.retrieveRendition(imageData, maxWidth, maxHeight);
+        final File file = rendition != null ? rendition : imageData.file();
+        final ResponseBuilder response;
+        if (file != null) {
+            response = FileContentResponseBuilder.build(request, range, file);
+        } else {
+            try {
+                final InputStream content = imageData.openContent();
+                if (content == null) { throw new ImageNotFoundException(entityName, entityId); }
+                response = Response.ok(content);
+            } catch (final IOException e) {
+                throw new ContentManagementException(imageData.location(), e.getMessage());
+            }
+        }
         String dispositionType = "inline_octet".equals(output) ? "inline" : "attachment";
         response.header("Content-Disposition", dispositionType + "; filename=\"" + imageData.getEntityDisplayName()
                 + IMAGE_FILE_EXTENSION.JPEG + "\"");
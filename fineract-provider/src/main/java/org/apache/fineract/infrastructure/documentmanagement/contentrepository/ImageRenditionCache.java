@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.documentmanagement.contentrepository;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.infrastructure.documentmanagement.data.ImageData;
+import org.apache.fineract.infrastructure.documentmanagement.exception.ContentManagementException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Keeps resized renditions of client and staff images on the local file
+ * system, whatever the content repository of the image is. Requested sizes are
+ * rounded down to a fixed set of buckets so that every image is resized at most
+ * once per bucket; renditions are kept per image version and are dropped when
+ * the image is replaced or deleted.
+ */
+@Component
+public class ImageRenditionCache {
+
+    private final static Logger logger = LoggerFactory.getLogger(ImageRenditionCache.class);
+
+    private static final int[] SIZE_BUCKETS = { 32, 48, 64, 96, 128, 160, 192, 256, 320, 384, 512, 640, 768, 1024, 1280, 1600, 2048 };
+
+    private final FineractProperties fineractProperties;
+
+    @Autowired
+    public ImageRenditionCache(final FineractProperties fineractProperties) {
+        this.fineractProperties = fineractProperties;
+    }
+
+    /**
+     * Returns the rendition of the image that fits within the given bounds,
+     * resizing the image if there is no rendition for its bucket yet. Returns
+     * null when no bound is given and the image itself is to be served, or
+     * when the content of the image cannot be read.
+     */
+    public File retrieveRendition(final ImageData imageData, final Integer maxWidth, final Integer maxHeight) {
+        if (maxWidth == null) { return null; }
+        final int width = bucket(maxWidth);
+        final int height = maxHeight == null ? Integer.MAX_VALUE : bucket(maxHeight);
+        final File directory = renditionDirectory(imageData.location());
+        final File rendition = new File(directory, width + "x" + (maxHeight == null ? "" : height) + "-" + imageData.version()
+                + (imageData.fileExtension() == null ? "" : imageData.fileExtension().getValue()));
+        if (rendition.isFile()) {
+            imageData.closeContent();
+            return rendition;
+        }
+
+        // renditions are written to a temporary file first, concurrent requests for the same rendition each write their own
+        // copy and the last move wins
+        Path original = null;
+        Path resized = null;
+        try {
+            Files.createDirectories(directory.toPath());
+            original = Files.createTempFile(directory.toPath(), "original", ".tmp");
+            try (InputStream content = imageData.openContent()) {
+                // an S3 image whose content could not be fetched has none
+                if (content == null) { return null; }
+                Files.copy(content, original, StandardCopyOption.REPLACE_EXISTING);
+            }
+            final BufferedImage src = ImageIO.read(original.toFile());
+            if (src == null) { throw new IOException("Unsupported image format"); }
+            resized = Files.createTempFile(directory.toPath(), "rendition", ".tmp");
+            boolean isResized;
+            try (OutputStream out = Files.newOutputStream(resized)) {
+                isResized = imageData.resizeImage(src, out, width, height);
+            }
+            Files.move(isResized ? resized : original, rendition.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return rendition;
+        } catch (final IOException e) {
+            logger.error("Could not create rendition of " + imageData.location(), e);
+            throw new ContentManagementException(imageData.location(), e.getMessage());
+        } finally {
+            deleteQuietly(original);
+            deleteQuietly(resized);
+        }
+    }
+
+    /**
+     * Removes all renditions of the image stored at <code>location</code>.
+     */
+    public void evict(final String location) {
+        final File directory = renditionDirectory(location);
+        if (directory.isDirectory() && !FileSystemUtils.deleteRecursively(directory)) {
+            logger.warn("Unable to delete renditions of image " + location);
+        }
+    }
+
+    /**
+     * Rounds the requested size down to the nearest bucket; sizes below the
+     * smallest bucket are kept as they are.
+     */
+    static int bucket(final int requested) {
+        int bucket = requested;
+        for (final int size : SIZE_BUCKETS) {
+            if (size > requested) {
+                break;
+            }
+            bucket = size;
+        }
+        return Math.max(1, bucket);
+    }
+
+    private File renditionDirectory(final String location) {
+        return new File(FileSystemContentRepository.FINERACT_BASE_DIR + File.separator + this.fineractProperties.getTenantId()
+                + File.separator + "renditions" + File.separator + DigestUtils.sha1Hex(location));
+    }
+
+    private static void deleteQuietly(final Path path) {
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (final IOException e) {
+                logger.warn("Unable to delete " + path, e);
+            }
+        }
+    }
+}
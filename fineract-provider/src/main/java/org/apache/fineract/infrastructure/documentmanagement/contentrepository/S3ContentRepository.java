@@ -140,7 +140,7 @@ public class S3ContentRepository implements ContentRepository {
     public ImageData fetchImage(final ImageData imageData) {
     	try {
     		final S3Object s3object = this.s3Client.getObject(new GetObjectRequest(this.s3BucketName, imageData.location()));
-            imageData.updateContent(s3object.getObjectContent());	
+            imageData.updateContent(s3object.getObjectContent(), s3object.getObjectMetadata().getETag());
     	}catch(AmazonS3Exception e) {
     		logger.error(e.getMessage());
     	}
@@ -57,6 +57,14 @@ public class FileData {
         return this.fileName;
     }
 
+    /**
+     * The file of a document stored on the local file system, null for other
+     * content repositories.
+     */
+    public File fileOnDisk() {
+        return this.file;
+    }
+
     public InputStream file() {
         try {
             if (this.inputStream == null) { return new FileInputStream(this.file); }
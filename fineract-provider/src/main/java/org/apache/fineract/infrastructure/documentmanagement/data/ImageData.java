@@ -22,7 +22,6 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -52,6 +51,7 @@ public class ImageData {
     private File file;
     private ContentRepositoryUtils.IMAGE_FILE_EXTENSION fileExtension;
     private InputStream inputStream;
+    private String version;
 
     public ImageData(final Long imageId, final String location, final Integer storageType, final String entityDisplayName) {
         this.imageId = imageId;
@@ -61,32 +61,43 @@ public class ImageData {
     }
 
     public byte[] getContent() {
-        try {
-            if (this.storageType.equals(StorageType.S3.getValue()) && this.inputStream != null) {
-                return IOUtils.toByteArray(this.inputStream);
-            } else if (this.storageType.equals(StorageType.FILE_SYSTEM.getValue()) && this.file != null) {
-                final FileInputStream fileInputStream = new FileInputStream(this.file);
-                return IOUtils.toByteArray(fileInputStream);
-            }
+        try (InputStream content = openContent()) {
+            if (content != null) { return IOUtils.toByteArray(content); }
         } catch (IOException e) {
             logger.error(e.getMessage());
         }
         return null;
     }
 
-    public byte[] resizeImage(InputStream in, int maxWidth, int maxHeight) throws IOException {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        resizeImage(in, out, maxWidth, maxHeight);
-        return out.toByteArray();
+    /**
+     * Opens the stored image; an S3 image can only be read once.
+     */
+    public InputStream openContent() throws IOException {
+        if (this.storageType.equals(StorageType.S3.getValue()) && this.inputStream != null) {
+            return this.inputStream;
+        } else if (this.storageType.equals(StorageType.FILE_SYSTEM.getValue()) && this.file != null) { return new FileInputStream(this.file); }
+        return null;
     }
 
-    public void resizeImage(InputStream in, OutputStream out, int maxWidth, int maxHeight) throws IOException {
-
-        BufferedImage src = ImageIO.read(in);
-        if (src.getWidth() <= maxWidth && src.getHeight() <= maxHeight) {
-            out.write(getContent());
-            return;
+    /**
+     * Releases the S3 object when the content of the image is not read.
+     */
+    public void closeContent() {
+        if (this.inputStream != null) {
+            try {
+                this.inputStream.close();
+            } catch (IOException e) {
+                logger.warn(e.getMessage());
+            }
         }
+    }
+
+    /**
+     * Writes <code>src</code> scaled down to fit within the given bounds.
+     * Returns false without writing anything when the image already fits.
+     */
+    public boolean resizeImage(BufferedImage src, OutputStream out, int maxWidth, int maxHeight) throws IOException {
+        if (src.getWidth() <= maxWidth && src.getHeight() <= maxHeight) { return false; }
         float widthRatio = (float) src.getWidth() / maxWidth;
         float heightRatio = (float) src.getHeight() / maxHeight;
         float scaleRatio = widthRatio > heightRatio ? widthRatio : heightRatio;
@@ -94,8 +105,8 @@ public class ImageData {
         // TODO(lindahl): Improve compressed image quality (perhaps quality
         // ratio)
 
-        int newWidth = (int) (src.getWidth() / scaleRatio);
-        int newHeight = (int) (src.getHeight() / scaleRatio);
+        int newWidth = Math.max(1, (int) (src.getWidth() / scaleRatio));
+        int newHeight = Math.max(1, (int) (src.getHeight() / scaleRatio));
         int colorModel = fileExtension == ContentRepositoryUtils.IMAGE_FILE_EXTENSION.JPEG ? BufferedImage.TYPE_INT_RGB
                 : BufferedImage.TYPE_INT_ARGB;
         BufferedImage target = new BufferedImage(newWidth, newHeight, colorModel);
@@ -104,36 +115,7 @@ public class ImageData {
         g.drawImage(src, 0, 0, newWidth, newHeight, Color.BLACK, null);
         g.dispose();
         ImageIO.write(target, fileExtension != null ? fileExtension.getValueWithoutDot() : "jpeg", out);
-    }
-
-    public byte[] getContentOfSize(Integer maxWidth, Integer maxHeight) {
-        if (maxWidth == null && maxHeight != null) { return getContent(); }
-        byte[] out = null;
-        if (this.storageType.equals(StorageType.S3.getValue()) && this.inputStream != null) {
-            try {
-                out = resizeImage(this.inputStream, maxWidth != null ? maxWidth : Integer.MAX_VALUE,
-                        maxHeight != null ? maxHeight : Integer.MAX_VALUE);
-            } catch (IOException e) {
-                logger.error(e.getMessage());
-            }
-        } else if (this.storageType.equals(StorageType.FILE_SYSTEM.getValue()) && this.file != null) {
-            FileInputStream fis = null;
-            try {
-                fis = new FileInputStream(this.file);
-                out = resizeImage(fis, maxWidth != null ? maxWidth : Integer.MAX_VALUE, maxHeight != null ? maxHeight : Integer.MAX_VALUE);
-            } catch (IOException ex) {
-                logger.error(ex.getMessage());
-            } finally {
-                if (fis != null) {
-                    try {
-                        fis.close();
-                    } catch (IOException ex) {
-                        logger.error(ex.getMessage());
-                    }
-                }
-            }
-        }
-        return out;
+        return true;
     }
 
     private void setImageContentType(String filename) {
@@ -150,6 +132,7 @@ public class ImageData {
         this.file = file;
         if (this.file != null) {
             setImageContentType(this.file.getName());
+            this.version = Long.toHexString(this.file.lastModified()) + "-" + Long.toHexString(this.file.length());
         }
     }
 
@@ -169,8 +152,26 @@ public class ImageData {
         return this.location;
     }
 
-    public void updateContent(final InputStream objectContent) {
+    public void updateContent(final InputStream objectContent, final String version) {
         this.inputStream = objectContent;
+        this.version = version;
+        setImageContentType(this.location);
+    }
+
+    /**
+     * Changes whenever the stored image changes, used to tell apart renditions
+     * of an image that was replaced under the same location.
+     */
+    public String version() {
+        return this.version;
+    }
+
+    public File file() {
+        return this.file;
+    }
+
+    public ContentRepositoryUtils.IMAGE_FILE_EXTENSION fileExtension() {
+        return this.fileExtension;
     }
 
     public String getEntityDisplayName() {
@@ -25,6 +25,7 @@ import org.apache.fineract.infrastructure.core.domain.Base64EncodedImage;
 import org.apache.fineract.infrastructure.documentmanagement.api.ImagesApiResource.ENTITY_TYPE_FOR_IMAGES;
 import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepository;
 import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ContentRepositoryFactory;
+import org.apache.fineract.infrastructure.documentmanagement.contentrepository.ImageRenditionCache;
 import org.apache.fineract.infrastructure.documentmanagement.domain.Image;
 import org.apache.fineract.infrastructure.documentmanagement.domain.ImageRepository;
 import org.apache.fineract.infrastructure.documentmanagement.domain.StorageType;
@@ -43,15 +44,17 @@ public class ImageWritePlatformServiceJpaRepositoryImpl implements ImageWritePla
     private final ClientRepositoryWrapper clientRepositoryWrapper;
     private final ImageRepository imageRepository;
     private final StaffRepositoryWrapper staffRepositoryWrapper;
+    private final ImageRenditionCache imageRenditionCache;
 
     @Autowired
     public ImageWritePlatformServiceJpaRepositoryImpl(final ContentRepositoryFactory documentStoreFactory,
             final ClientRepositoryWrapper clientRepositoryWrapper, final ImageRepository imageRepository,
-            StaffRepositoryWrapper staffRepositoryWrapper) {
+            StaffRepositoryWrapper staffRepositoryWrapper, final ImageRenditionCache imageRenditionCache) {
         this.contentRepositoryFactory = documentStoreFactory;
         this.clientRepositoryWrapper = clientRepositoryWrapper;
         this.imageRepository = imageRepository;
         this.staffRepositoryWrapper = staffRepositoryWrapper;
+        this.imageRenditionCache = imageRenditionCache;
     }
 
     @Transactional
@@ -101,6 +104,7 @@ public class ImageWritePlatformServiceJpaRepositoryImpl implements ImageWritePla
             final ContentRepository contentRepository = this.contentRepositoryFactory.getRepository(StorageType.fromInt(image
                     .getStorageType()));
             contentRepository.deleteImage(clientId, image.getLocation());
+            this.imageRenditionCache.evict(image.getLocation());
             this.imageRepository.delete(image);
         }
 
@@ -128,6 +132,7 @@ public class ImageWritePlatformServiceJpaRepositoryImpl implements ImageWritePla
             final ContentRepository contentRepository = this.contentRepositoryFactory.getRepository(StorageType.fromInt(image
                     .getStorageType()));
             contentRepository.deleteImage(entityId, image.getLocation());
+            this.imageRenditionCache.evict(image.getLocation());
         }
         return owner;
     }
@@ -42,6 +42,7 @@ public class SchedulerJobApiConstants {
     public static final String jobRunErrorMessageParamName = "jobRunErrorMessage";
     public static final String triggerTypeParamName = "triggerType";
     public static final String jobRunErrorLogParamName = "jobRunErrorLog";
+    public static final String jobRunProgressLogParamName = "jobRunProgressLog";
     public static final String cronExpressionParamName = "cronExpression";
     public static final String schedulerStatusParamName = "active";
 
@@ -61,7 +62,7 @@ public class SchedulerJobApiConstants {
     protected static final Set<String> JOB_HISTORY_RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList
             (versionParamName,
             jobRunStartTimeParamName, jobRunEndTimeParamName, statusParamName, jobRunErrorMessageParamName, triggerTypeParamName,
-            jobRunErrorLogParamName));
+            jobRunErrorLogParamName, jobRunProgressLogParamName));
 
     protected static final Set<String> SCHEDULER_DETAIL_RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList
             (schedulerStatusParamName));
@@ -16,35 +16,32 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.notification.cache;
+package org.apache.fineract.infrastructure.jobs.data;
 
+/**
+ * Contiguous, inclusive range of entity ids processed as one unit of work by
+ * a partitioned job.
+ */
+public final class JobPartition {
 
-public class CacheNotificationResponseHeader {
-
-    private boolean hasNotifications;
-    private Long lastFetch;
-
-    public CacheNotificationResponseHeader() {
-    }
-
-    public CacheNotificationResponseHeader(boolean hasNotifications, Long lastFetch) {
-        this.hasNotifications = hasNotifications;
-        this.lastFetch = lastFetch;
-    }
+    private final Long fromId;
+    private final Long toId;
 
-    public boolean hasNotifications() {
-        return hasNotifications;
+    public JobPartition(final Long fromId, final Long toId) {
+        this.fromId = fromId;
+        this.toId = toId;
     }
 
-    public void setHasNotifications(boolean hasNotifications) {
-        this.hasNotifications = hasNotifications;
+    public Long getFromId() {
+        return this.fromId;
     }
 
-    public Long getLastFetch() {
-        return lastFetch;
+    public Long getToId() {
+        return this.toId;
     }
 
-    public void setLastFetch(Long lastFetch) {
-        this.lastFetch = lastFetch;
+    @Override
+    public String toString() {
+        return "[" + this.fromId + ".." + this.toId + "]";
     }
 }
@@ -0,0 +1,49 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Quartz job running the {@link CronTargetInvoker @CronTarget} method of the
+ * job named in its job data. Unlike a method invoking job detail it holds no
+ * reference to the target bean, so it can be stored in the JDBC job store of
+ * a clustered scheduler; no two nodes run it at the same time.
+ */
+@DisallowConcurrentExecution
+public class CronTargetJob implements Job {
+
+    @Override
+    public void execute(final JobExecutionContext context) throws JobExecutionException {
+        final String jobName = context.getJobDetail().getJobDataMap().getString(SchedulerServiceConstants.CRON_TARGET_JOB_NAME);
+        try {
+            final ApplicationContext applicationContext = (ApplicationContext) context.getScheduler().getContext()
+                    .get(SchedulerServiceConstants.APPLICATION_CONTEXT);
+            applicationContext.getBean(CronTargetInvoker.class).invoke(jobName);
+        } catch (final JobExecutionException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new JobExecutionException(e);
+        }
+    }
+}
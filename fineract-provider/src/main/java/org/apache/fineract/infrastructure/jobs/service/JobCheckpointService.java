@@ -0,0 +1,38 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+/**
+ * Small key/value store that lets batch jobs remember where they stopped (a
+ * watermark, the last completed partition, ...) between runs. Every write is
+ * committed on its own so a checkpoint survives a crash of the calling job.
+ */
+public interface JobCheckpointService {
+
+    String retrieve(JobName jobName, String key);
+
+    Long retrieveLong(JobName jobName, String key);
+
+    void store(JobName jobName, String key, String value);
+
+    void store(JobName jobName, String key, Long value);
+
+    void remove(JobName jobName, String key);
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class JobCheckpointServiceImpl implements JobCheckpointService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JobCheckpointServiceImpl(final DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public String retrieve(final JobName jobName, final String key) {
+        final List<String> values = this.jdbcTemplate.queryForList(
+                "select checkpoint_value from job_checkpoint where job_name = ? and checkpoint_key = ?", String.class, jobName.name(), key);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public Long retrieveLong(final JobName jobName, final String key) {
+        final String value = retrieve(jobName, key);
+        return value == null ? null : Long.valueOf(value);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void store(final JobName jobName, final String key, final String value) {
+        this.jdbcTemplate.update("INSERT INTO job_checkpoint (job_name, checkpoint_key, checkpoint_value, updated_on) VALUES (?, ?, ?, NOW()) "
+                + "ON DUPLICATE KEY UPDATE checkpoint_value = VALUES(checkpoint_value), updated_on = VALUES(updated_on)", jobName.name(), key,
+                value);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void store(final JobName jobName, final String key, final Long value) {
+        store(jobName, key, value == null ? null : value.toString());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void remove(final JobName jobName, final String key) {
+        this.jdbcTemplate.update("DELETE FROM job_checkpoint WHERE job_name = ? AND checkpoint_key = ?", jobName.name(), key);
+    }
+}
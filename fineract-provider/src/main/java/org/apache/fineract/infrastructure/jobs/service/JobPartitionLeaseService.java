@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.fineract.infrastructure.jobs.data.JobPartition;
+
+/**
+ * Shared table of the partitions of a job run. Any node running the job claims
+ * a pending partition under a lease token for a limited time; a partition
+ * whose lease expired, because its node crashed or hangs, can be claimed again
+ * by another node. Every write is committed on its own.
+ */
+public interface JobPartitionLeaseService {
+
+    boolean isPublished(JobName jobName, String runKey);
+
+    /**
+     * Stores the partitions as pending, partitions that are already stored
+     * are left as they are.
+     */
+    void publish(JobName jobName, String runKey, List<JobPartition> partitions);
+
+    /**
+     * Drops the partitions of every other run of the job, left behind by runs
+     * that never completed.
+     */
+    void removeOtherRuns(JobName jobName, String runKey);
+
+    /**
+     * @return the claimed partition, or null when no partition is pending and
+     *         no lease has expired
+     */
+    JobPartition claim(JobName jobName, String runKey, String leaseToken, int leaseSeconds);
+
+    void renew(Collection<String> leaseTokens, int leaseSeconds);
+
+    /**
+     * @return false when the lease was lost to another node in the meantime
+     */
+    boolean complete(String leaseToken, String errors);
+
+    int countUnfinished(JobName jobName, String runKey);
+
+    String retrieveErrors(JobName jobName, String runKey);
+
+    void remove(JobName jobName, String runKey);
+
+    /**
+     * @return the jobs that have a pending partition or an expired lease
+     */
+    List<JobName> retrieveJobsWithClaimablePartitions();
+
+}
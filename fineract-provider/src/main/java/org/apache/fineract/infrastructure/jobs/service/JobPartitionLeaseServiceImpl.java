@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.apache.fineract.infrastructure.jobs.data.JobPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class JobPartitionLeaseServiceImpl implements JobPartitionLeaseService {
+
+    private static final String PENDING = "PENDING";
+    private static final String CLAIMED = "CLAIMED";
+    private static final String COMPLETED = "COMPLETED";
+
+    // database time on both sides, so clock skew between nodes does not matter
+    private static final String CLAIMABLE = "(status = '" + PENDING + "' OR (status = '" + CLAIMED + "' AND lease_expires_on < NOW()))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JobPartitionLeaseServiceImpl(final DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public boolean isPublished(final JobName jobName, final String runKey) {
+        return !this.jdbcTemplate.queryForList("select 1 from job_partition_lease where job_name = ? and run_key = ? limit 1",
+                Integer.class, jobName.name(), runKey).isEmpty();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void publish(final JobName jobName, final String runKey, final List<JobPartition> partitions) {
+        this.jdbcTemplate.batchUpdate("INSERT IGNORE INTO job_partition_lease (job_name, run_key, from_id, to_id, status) VALUES (?, ?, ?, ?, '"
+                + PENDING + "')", partitions, 500, (ps, partition) -> {
+                    ps.setString(1, jobName.name());
+                    ps.setString(2, runKey);
+                    ps.setLong(3, partition.getFromId());
+                    ps.setLong(4, partition.getToId());
+                });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void removeOtherRuns(final JobName jobName, final String runKey) {
+        this.jdbcTemplate.update("DELETE FROM job_partition_lease WHERE job_name = ? AND run_key <> ?", jobName.name(), runKey);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public JobPartition claim(final JobName jobName, final String runKey, final String leaseToken, final int leaseSeconds) {
+        final int claimed = this.jdbcTemplate.update("UPDATE job_partition_lease SET status = '" + CLAIMED
+                + "', lease_owner = ?, lease_expires_on = DATE_ADD(NOW(), INTERVAL ? SECOND), attempts = attempts + 1 "
+                + "WHERE job_name = ? AND run_key = ? AND " + CLAIMABLE + " ORDER BY from_id LIMIT 1", leaseToken, leaseSeconds,
+                jobName.name(), runKey);
+        if (claimed == 0) { return null; }
+        return this.jdbcTemplate.queryForObject("select from_id, to_id from job_partition_lease where lease_owner = ?",
+                (rs, rowNum) -> new JobPartition(rs.getLong("from_id"), rs.getLong("to_id")), leaseToken);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void renew(final Collection<String> leaseTokens, final int leaseSeconds) {
+        for (final String leaseToken : leaseTokens) {
+            this.jdbcTemplate.update("UPDATE job_partition_lease SET lease_expires_on = DATE_ADD(NOW(), INTERVAL ? SECOND) "
+                    + "WHERE lease_owner = ? AND status = '" + CLAIMED + "'", leaseSeconds, leaseToken);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean complete(final String leaseToken, final String errors) {
+        return this.jdbcTemplate.update("UPDATE job_partition_lease SET status = '" + COMPLETED + "', lease_expires_on = NULL, errors = ? "
+                + "WHERE lease_owner = ? AND status = '" + CLAIMED + "'", errors == null || errors.isEmpty() ? null : errors,
+                leaseToken) > 0;
+    }
+
+    @Override
+    public int countUnfinished(final JobName jobName, final String runKey) {
+        return this.jdbcTemplate.queryForObject(
+                "select count(*) from job_partition_lease where job_name = ? and run_key = ? and status <> '" + COMPLETED + "'",
+                Integer.class, jobName.name(), runKey);
+    }
+
+    @Override
+    public String retrieveErrors(final JobName jobName, final String runKey) {
+        final List<String> errors = this.jdbcTemplate.queryForList(
+                "select errors from job_partition_lease where job_name = ? and run_key = ? and errors is not null order by from_id",
+                String.class, jobName.name(), runKey);
+        return String.join("", errors);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void remove(final JobName jobName, final String runKey) {
+        this.jdbcTemplate.update("DELETE FROM job_partition_lease WHERE job_name = ? AND run_key = ?", jobName.name(), runKey);
+    }
+
+    @Override
+    public List<JobName> retrieveJobsWithClaimablePartitions() {
+        return this.jdbcTemplate.query("select distinct job_name from job_partition_lease where " + CLAIMABLE,
+                (rs, rowNum) -> JobName.valueOf(rs.getString("job_name")));
+    }
+}
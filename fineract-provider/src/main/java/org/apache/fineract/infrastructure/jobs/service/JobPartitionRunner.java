@@ -0,0 +1,375 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties.FineractPropertiesJobs;
+import org.apache.fineract.infrastructure.jobs.data.JobPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs a job over id ranges on a fixed pool of threads.
+ * <p>
+ * The highest id below which every partition has completed is checkpointed
+ * together with a run key (for example the accrual date). When a run with the
+ * same key is restarted after a crash, the partitions up to that id are
+ * skipped. The checkpoint is cleared once all partitions have been processed.
+ * <p>
+ * When <code>fineract.jobs.clustered</code> is on, the partitions are published
+ * to the shared {@link JobPartitionLeaseService} instead and claimed one at a
+ * time by the node that started the run and by every node that joins it, see
+ * {@link JobPartitionWorker}. The partitions of a node that crashed are
+ * claimed again once their lease expires; the node that started the run waits
+ * until every partition has completed.
+ * <p>
+ * The outcome and duration of every partition is kept until the job history of
+ * the run is written, see {@link #retrieveProgress(String)}.
+ */
+@Component
+public class JobPartitionRunner {
+
+    private final static Logger logger = LoggerFactory.getLogger(JobPartitionRunner.class);
+    private static final String RUN_KEY_CHECKPOINT = "runKey";
+    private static final String COMPLETED_UP_TO_CHECKPOINT = "completedUpTo";
+    private static final int DEFAULT_PARTITION_LEASE_SECONDS = 300;
+    private static final int DEFAULT_PARTITION_POLL_SECONDS = 30;
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+    private static final ThreadLocal<Boolean> JOINING = new ThreadLocal<>();
+
+    private final JobCheckpointService jobCheckpointService;
+    private final JobPartitionLeaseService jobPartitionLeaseService;
+    private final FineractProperties fineractProperties;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+    private final ConcurrentMap<String, Queue<String>> progressByJob = new ConcurrentHashMap<>();
+    private final Set<JobName> runningJobs = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public JobPartitionRunner(final JobCheckpointService jobCheckpointService, final JobPartitionLeaseService jobPartitionLeaseService,
+            final FineractProperties fineractProperties) {
+        this.jobCheckpointService = jobCheckpointService;
+        this.jobPartitionLeaseService = jobPartitionLeaseService;
+        this.fineractProperties = fineractProperties;
+    }
+
+    /**
+     * @param partitionSupplier
+     *            returns the partitions of ids greater than the given id, in
+     *            ascending order
+     * @param processor
+     *            processes one partition and returns its error messages (empty
+     *            when everything succeeded)
+     * @return the collected error messages of all partitions
+     */
+    public String run(final JobName jobName, final String runKey, final int threads,
+            final Function<Long, List<JobPartition>> partitionSupplier, final Function<JobPartition, String> processor) {
+        if (isClustered()) { return runLeased(jobName, runKey, threads, partitionSupplier, processor); }
+
+        Long completedUpTo = 0L;
+        if (runKey.equals(this.jobCheckpointService.retrieve(jobName, RUN_KEY_CHECKPOINT))) {
+            final Long checkpoint = this.jobCheckpointService.retrieveLong(jobName, COMPLETED_UP_TO_CHECKPOINT);
+            if (checkpoint != null) {
+                completedUpTo = checkpoint;
+                logger.info("Resuming {} for {} after id {}", jobName, runKey, completedUpTo);
+            }
+        } else {
+            this.jobCheckpointService.remove(jobName, COMPLETED_UP_TO_CHECKPOINT);
+            this.jobCheckpointService.store(jobName, RUN_KEY_CHECKPOINT, runKey);
+        }
+
+        final List<JobPartition> partitions = partitionSupplier.apply(completedUpTo);
+        logger.info("Running {} for {} over {} partitions on {} threads", jobName, runKey, partitions.size(), threads);
+
+        final PartitionProgress progress = new PartitionProgress(jobName, partitions);
+        final Queue<String> progressLog = new ConcurrentLinkedQueue<>();
+        this.progressByJob.put(jobName.toString(), progressLog);
+        final List<Callable<String>> tasks = new ArrayList<>(partitions.size());
+        for (int i = 0; i < partitions.size(); i++) {
+            final int index = i;
+            tasks.add(() -> {
+                final long startedAt = System.currentTimeMillis();
+                String outcome = "failed";
+                try {
+                    final String partitionErrors = processor.apply(partitions.get(index));
+                    outcome = partitionErrors == null || partitionErrors.isEmpty() ? "completed" : "completed with errors";
+                    // a partition that threw is not checkpointed, so a resumed run processes it again
+                    progress.completed(index);
+                    return partitionErrors;
+                } finally {
+                    progressLog.add("partition " + partitions.get(index) + " " + outcome + " in "
+                            + (System.currentTimeMillis() - startedAt) + " ms");
+                }
+            });
+        }
+
+        final StringBuilder errors = new StringBuilder();
+        final ExecutorService executorService = new DelegatingSecurityContextExecutorService(
+                Executors.newFixedThreadPool(Math.max(1, Math.min(threads, partitions.size()))));
+        try {
+            for (final Future<String> future : executorService.invokeAll(tasks)) {
+                try {
+                    errors.append(future.get());
+                } catch (final ExecutionException e) {
+                    logger.error("Partition of {} failed", jobName, e.getCause());
+                    errors.append("Partition of ").append(jobName).append(" failed with message ").append(e.getCause().getMessage());
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // keep the checkpoint so the next run resumes where this one was interrupted
+            return errors.append(jobName).append(" was interrupted").toString();
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        this.jobCheckpointService.remove(jobName, COMPLETED_UP_TO_CHECKPOINT);
+        this.jobCheckpointService.remove(jobName, RUN_KEY_CHECKPOINT);
+        return errors.toString();
+    }
+
+    /**
+     * Runs the target on the calling thread; the partitioned jobs it runs only
+     * claim partitions of a run already published by another node, they never
+     * start a run of their own.
+     */
+    public <T> T join(final Callable<T> target) throws Exception {
+        JOINING.set(Boolean.TRUE);
+        try {
+            return target.call();
+        } finally {
+            JOINING.remove();
+        }
+    }
+
+    boolean isRunning(final JobName jobName) {
+        return this.runningJobs.contains(jobName);
+    }
+
+    boolean isClustered() {
+        final FineractPropertiesJobs jobProperties = this.fineractProperties.getJobs();
+        return jobProperties != null && Boolean.TRUE.equals(jobProperties.getClustered());
+    }
+
+    private String runLeased(final JobName jobName, final String runKey, final int threads,
+            final Function<Long, List<JobPartition>> partitionSupplier, final Function<JobPartition, String> processor) {
+        final boolean joining = Boolean.TRUE.equals(JOINING.get());
+        final boolean tracked = this.runningJobs.add(jobName);
+        if (joining && !tracked) { return ""; }
+        try {
+            if (!joining) {
+                this.jobPartitionLeaseService.removeOtherRuns(jobName, runKey);
+                if (this.jobPartitionLeaseService.isPublished(jobName, runKey)) {
+                    logger.info("Resuming {} for {} with the partitions published before", jobName, runKey);
+                } else {
+                    final List<JobPartition> partitions = partitionSupplier.apply(0L);
+                    this.jobPartitionLeaseService.publish(jobName, runKey, partitions);
+                    logger.info("Published {} partitions of {} for {}", partitions.size(), jobName, runKey);
+                }
+            } else if (!this.jobPartitionLeaseService.isPublished(jobName, runKey)) { return ""; }
+
+            final Queue<String> progressLog = new ConcurrentLinkedQueue<>();
+            if (!joining) {
+                this.progressByJob.put(jobName.toString(), progressLog);
+            }
+            final String errors = claimAndProcess(jobName, runKey, threads, processor, progressLog);
+            if (joining) { return errors; }
+
+            // partitions still held by other nodes: wait for them, or claim them once their lease has expired
+            while (this.jobPartitionLeaseService.countUnfinished(jobName, runKey) > 0) {
+                try {
+                    TimeUnit.SECONDS.sleep(pollSeconds());
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    // the partitions stay published, the next run with the same key resumes them
+                    return errors + jobName + " was interrupted";
+                }
+                claimAndProcess(jobName, runKey, threads, processor, progressLog);
+            }
+
+            final String allErrors = this.jobPartitionLeaseService.retrieveErrors(jobName, runKey);
+            this.jobPartitionLeaseService.remove(jobName, runKey);
+            return allErrors;
+        } finally {
+            if (tracked) {
+                this.runningJobs.remove(jobName);
+            }
+        }
+    }
+
+    /**
+     * Claims and processes partitions on the given number of threads until
+     * none is left to claim; the leases held meanwhile are renewed so a long
+     * partition is not taken over by another node.
+     */
+    private String claimAndProcess(final JobName jobName, final String runKey, final int threads,
+            final Function<JobPartition, String> processor, final Queue<String> progressLog) {
+        final int leaseSeconds = leaseSeconds();
+        final Set<String> heldLeases = ConcurrentHashMap.newKeySet();
+        final List<Callable<String>> tasks = new ArrayList<>(threads);
+        for (int i = 0; i < Math.max(1, threads); i++) {
+            tasks.add(() -> {
+                final StringBuilder errors = new StringBuilder();
+                String leaseToken = this.nodeId + "#" + UUID.randomUUID();
+                JobPartition partition;
+                while ((partition = claim(jobName, runKey, leaseToken, leaseSeconds)) != null) {
+                    heldLeases.add(leaseToken);
+                    final long startedAt = System.currentTimeMillis();
+                    String partitionErrors;
+                    try {
+                        partitionErrors = processor.apply(partition);
+                    } catch (final RuntimeException e) {
+                        logger.error("Partition {} of {} failed", partition, jobName, e);
+                        partitionErrors = "Partition " + partition + " of " + jobName + " failed with message " + e.getMessage();
+                    }
+                    final boolean completed = this.jobPartitionLeaseService.complete(leaseToken, partitionErrors);
+                    heldLeases.remove(leaseToken);
+                    String outcome = partitionErrors == null || partitionErrors.isEmpty() ? "completed" : "completed with errors";
+                    if (!completed) {
+                        logger.warn("Lease of partition {} of {} expired before it completed", partition, jobName);
+                        outcome += " after its lease expired";
+                    }
+                    progressLog.add("partition " + partition + " " + outcome + " in " + (System.currentTimeMillis() - startedAt) + " ms on "
+                            + this.nodeId);
+                    if (partitionErrors != null) {
+                        errors.append(partitionErrors);
+                    }
+                    leaseToken = this.nodeId + "#" + UUID.randomUUID();
+                }
+                return errors.toString();
+            });
+        }
+
+        final ScheduledExecutorService leaseRenewal = Executors.newSingleThreadScheduledExecutor();
+        final long renewEverySeconds = Math.max(1, leaseSeconds / 3);
+        leaseRenewal.scheduleWithFixedDelay(() -> {
+            try {
+                this.jobPartitionLeaseService.renew(new ArrayList<>(heldLeases), leaseSeconds);
+            } catch (final RuntimeException e) {
+                logger.warn("Could not renew the partition leases of {}", jobName, e);
+            }
+        }, renewEverySeconds, renewEverySeconds, TimeUnit.SECONDS);
+        final StringBuilder errors = new StringBuilder();
+        final ExecutorService executorService = new DelegatingSecurityContextExecutorService(
+                Executors.newFixedThreadPool(Math.max(1, threads)));
+        try {
+            for (final Future<String> future : executorService.invokeAll(tasks)) {
+                try {
+                    errors.append(future.get());
+                } catch (final ExecutionException e) {
+                    logger.error("Claiming partitions of {} failed", jobName, e.getCause());
+                    errors.append("Claiming partitions of ").append(jobName).append(" failed with message ")
+                            .append(e.getCause().getMessage());
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executorService.shutdownNow();
+            leaseRenewal.shutdownNow();
+        }
+        return errors.toString();
+    }
+
+    private JobPartition claim(final JobName jobName, final String runKey, final String leaseToken, final int leaseSeconds) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return this.jobPartitionLeaseService.claim(jobName, runKey, leaseToken, leaseSeconds);
+            } catch (final ConcurrencyFailureException e) {
+                // nodes claiming at the same time can deadlock on the lease rows
+                if (attempt >= MAX_CLAIM_ATTEMPTS) { throw e; }
+            }
+        }
+    }
+
+    private int leaseSeconds() {
+        final FineractPropertiesJobs jobProperties = this.fineractProperties.getJobs();
+        return jobProperties == null || jobProperties.getPartitionLeaseSeconds() == null ? DEFAULT_PARTITION_LEASE_SECONDS
+                : jobProperties.getPartitionLeaseSeconds();
+    }
+
+    int pollSeconds() {
+        final FineractPropertiesJobs jobProperties = this.fineractProperties.getJobs();
+        return jobProperties == null || jobProperties.getPartitionPollSeconds() == null ? DEFAULT_PARTITION_POLL_SECONDS
+                : jobProperties.getPartitionPollSeconds();
+    }
+
+    /**
+     * Returns and clears the per partition progress of the last run of the job,
+     * one line per partition in the order they completed, or null when the job
+     * did not run through this runner.
+     */
+    public String retrieveProgress(final String jobName) {
+        final Queue<String> progressLog = this.progressByJob.remove(jobName);
+        if (progressLog == null || progressLog.isEmpty()) { return null; }
+        return String.join("\n", progressLog);
+    }
+
+    /**
+     * Partitions complete out of order; only the upper bound of the longest
+     * completed prefix is safe to checkpoint.
+     */
+    private final class PartitionProgress {
+
+        private final JobName jobName;
+        private final List<JobPartition> partitions;
+        private final boolean[] completed;
+        private int completedPrefix;
+
+        PartitionProgress(final JobName jobName, final List<JobPartition> partitions) {
+            this.jobName = jobName;
+            this.partitions = partitions;
+            this.completed = new boolean[partitions.size()];
+        }
+
+        synchronized void completed(final int index) {
+            this.completed[index] = true;
+            final int previousPrefix = this.completedPrefix;
+            while (this.completedPrefix < this.completed.length && this.completed[this.completedPrefix]) {
+                this.completedPrefix++;
+            }
+            if (this.completedPrefix > previousPrefix) {
+                final Long completedUpTo = this.partitions.get(this.completedPrefix - 1).getToId();
+                JobPartitionRunner.this.jobCheckpointService.store(this.jobName, COMPLETED_UP_TO_CHECKPOINT, completedUpTo);
+                logger.debug("{}: {} of {} partitions completed", this.jobName, this.completedPrefix, this.completed.length);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepositoryWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.core.authority.mapping.NullAuthoritiesMapper;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lets every node of a cluster take part in the partitioned job runs started
+ * on another node. It polls the partition leases and, for each job with
+ * partitions left to claim that is not running here, invokes the job's
+ * {@link org.apache.fineract.infrastructure.jobs.annotation.CronTarget} method
+ * in {@link JobPartitionRunner#join(java.util.concurrent.Callable) join} mode.
+ * This is also how the partitions of a node that crashed are picked up.
+ */
+@Component
+public class JobPartitionWorker {
+
+    private final static Logger logger = LoggerFactory.getLogger(JobPartitionWorker.class);
+
+    private final JobPartitionRunner jobPartitionRunner;
+    private final JobPartitionLeaseService jobPartitionLeaseService;
+    private final CronTargetInvoker cronTargetInvoker;
+    private final AppUserRepositoryWrapper userRepository;
+    private final GrantedAuthoritiesMapper authoritiesMapper = new NullAuthoritiesMapper();
+    private ScheduledExecutorService poller;
+
+    @Autowired
+    public JobPartitionWorker(final JobPartitionRunner jobPartitionRunner, final JobPartitionLeaseService jobPartitionLeaseService,
+            final CronTargetInvoker cronTargetInvoker, final AppUserRepositoryWrapper userRepository) {
+        this.jobPartitionRunner = jobPartitionRunner;
+        this.jobPartitionLeaseService = jobPartitionLeaseService;
+        this.cronTargetInvoker = cronTargetInvoker;
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!this.jobPartitionRunner.isClustered() || this.poller != null) { return; }
+        this.poller = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+            final Thread thread = new Thread(runnable, "job-partition-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final int pollSeconds = this.jobPartitionRunner.pollSeconds();
+        this.poller.scheduleWithFixedDelay(this::joinRuns, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (this.poller != null) {
+            this.poller.shutdownNow();
+            this.poller = null;
+        }
+    }
+
+    void joinRuns() {
+        try {
+            for (final JobName jobName : this.jobPartitionLeaseService.retrieveJobsWithClaimablePartitions()) {
+                if (!this.jobPartitionRunner.isRunning(jobName)) {
+                    joinRun(jobName);
+                }
+            }
+        } catch (final RuntimeException e) {
+            // keep polling, a failure must not cancel the periodic task
+            logger.error("Could not poll the job partition leases", e);
+        }
+    }
+
+    private void joinRun(final JobName jobName) {
+        final AppUser user = this.userRepository.fetchSystemUser();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, user.getPassword(), this.authoritiesMapper.mapAuthorities(user.getAuthorities())));
+        try {
+            logger.info("Joining the run of {}", jobName);
+            this.jobPartitionRunner.join(() -> {
+                this.cronTargetInvoker.invoke(jobName.toString());
+                return null;
+            });
+        } catch (final Exception e) {
+            // the errors of every partition are reported by the node that started the run
+            logger.warn("Partitions of {} processed here completed with errors: {}", jobName, e.getMessage());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -21,7 +21,6 @@ package org.apache.fineract.infrastructure.jobs.service;
 import org.apache.fineract.infrastructure.core.boot.FineractProperties;
 import org.apache.fineract.infrastructure.core.exception.PlatformInternalServerException;
 import org.apache.fineract.infrastructure.jobs.annotation.CronMethodParser;
-import org.apache.fineract.infrastructure.jobs.annotation.CronMethodParser.ClassMethodNamesPair;
 import org.apache.fineract.infrastructure.jobs.domain.JobParameter;
 import org.apache.fineract.infrastructure.jobs.domain.JobParameterRepository;
 import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetail;
@@ -31,21 +30,20 @@ import org.quartz.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.quartz.CronTriggerFactoryBean;
-import org.springframework.scheduling.quartz.MethodInvokingJobDetailFactoryBean;
 import org.springframework.scheduling.quartz.SchedulerFactoryBean;
 import org.springframework.stereotype.Service;
 
-import javax.annotation.PostConstruct;
 import java.text.ParseException;
 import java.util.*;
 
 /**
  * Service class to create and load batch jobs to Scheduler using
- * {@link SchedulerFactoryBean} ,{@link MethodInvokingJobDetailFactoryBean} and
+ * {@link SchedulerFactoryBean}, {@link CronTargetJob} and
  * {@link CronTriggerFactoryBean}
  */
 @Service
@@ -59,7 +57,7 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
     // code base, the following fields are not final, and there is no
     // constructor, but setters.
 
-    private ApplicationContext applicationContext;
+    private JobSchedulerFactory jobSchedulerFactory;
     private SchedularWritePlatformService schedularWritePlatformService;
     private SchedulerJobListener schedulerJobListener;
     private SchedulerStopListener schedulerStopListener;
@@ -72,8 +70,8 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
     private final HashMap<String, Scheduler> schedulers = new HashMap<>(4);
 
     @Autowired
-    public void setApplicationContext(ApplicationContext applicationContext) {
-        this.applicationContext = applicationContext;
+    public void setJobSchedulerFactory(JobSchedulerFactory jobSchedulerFactory) {
+        this.jobSchedulerFactory = jobSchedulerFactory;
     }
 
     @Autowired
@@ -101,7 +99,8 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         this.jobParameterRepository=jobParameterRepository;
     }
 
-    @PostConstruct
+    // NOTE: scheduling is deferred until the application is ready, it does not need to hold up startup
+    @EventListener(ApplicationReadyEvent.class)
     public void loadAllJobs() {
         final List<ScheduledJobDetail> scheduledJobDetails = this.schedularWritePlatformService.retrieveAllJobs();
         for (final ScheduledJobDetail jobDetails : scheduledJobDetails) {
@@ -131,7 +130,8 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
             if (scheduler == null || !scheduler.checkExists(jobKey)) {
                 final JobDetail jobDetail = createJobDetail(scheduledJobDetail);
                 final String tempSchedulerName = "temp" + scheduledJobDetail.getId();
-                final Scheduler tempScheduler = createScheduler(tempSchedulerName, 1, schedulerJobListener, schedulerStopListener);
+                // a job that is not scheduled runs on this node only
+                final Scheduler tempScheduler = createScheduler(tempSchedulerName, 1, false, schedulerJobListener, schedulerStopListener);
                 tempScheduler.addJob(jobDetail, true);
                 jobDataMap.put(SchedulerServiceConstants.SCHEDULER_NAME, tempSchedulerName);
                 this.schedulers.put(tempSchedulerName, tempScheduler);
@@ -251,7 +251,8 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
             final JobDetail jobDetail = createJobDetail(scheduledJobDetails);
             final Trigger trigger = createTrigger(scheduledJobDetails, jobDetail);
             final Scheduler scheduler = getScheduler(scheduledJobDetails);
-            scheduler.scheduleJob(jobDetail, trigger);
+            // clustered nodes all schedule the same jobs at startup, the last one replaces what the others stored
+            scheduler.scheduleJob(jobDetail, Collections.singleton(trigger), true);
             scheduledJobDetails.updateJobKey(getJobKeyAsString(jobDetail.getKey()));
             scheduledJobDetails.updateNextRunTime(trigger.getNextFireTime());
             scheduledJobDetails.updateErrorLog(null);
@@ -261,7 +262,10 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
             scheduledJobDetails.updateErrorLog(stackTrace);
             logger.error("Could not schedule job: " + scheduledJobDetails.getJobName(), throwable);
         }
-        scheduledJobDetails.updateCurrentlyRunningStatus(false);
+        if (!this.jobSchedulerFactory.isClustered()) {
+            // in a cluster the job may be running on another node
+            scheduledJobDetails.updateCurrentlyRunningStatus(false);
+        }
     }
 
     @Override
@@ -283,7 +287,7 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
             if (scheduledJobDetail.getSchedulerGroup() > 0) {
                 noOfThreads = SchedulerServiceConstants.GROUP_THREAD_COUNT;
             }
-            scheduler = createScheduler(schedulername, noOfThreads, schedulerJobListener);
+            scheduler = createScheduler(schedulername, noOfThreads, this.jobSchedulerFactory.isClustered(), schedulerJobListener);
             this.schedulers.put(schedulername, scheduler);
         }
         return scheduler;
@@ -308,34 +312,22 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         return sb.toString();
     }
 
-    private Scheduler createScheduler(final String name, final int noOfThreads, JobListener... jobListeners) throws Exception {
-        final SchedulerFactoryBean schedulerFactoryBean = new SchedulerFactoryBean();
-        schedulerFactoryBean.setSchedulerName(name);
-        schedulerFactoryBean.setGlobalJobListeners(jobListeners);
+    private Scheduler createScheduler(final String name, final int noOfThreads, final boolean clustered, JobListener... jobListeners)
+            throws Exception {
         final TriggerListener[] globalTriggerListeners = { globalSchedulerTriggerListener };
-        schedulerFactoryBean.setGlobalTriggerListeners(globalTriggerListeners);
-        final Properties quartzProperties = new Properties();
-        quartzProperties.put(SchedulerFactoryBean.PROP_THREAD_COUNT, Integer.toString(noOfThreads));
-        schedulerFactoryBean.setQuartzProperties(quartzProperties);
-        schedulerFactoryBean.afterPropertiesSet();
-        schedulerFactoryBean.start();
-        return schedulerFactoryBean.getScheduler();
+        return this.jobSchedulerFactory.createScheduler(name, noOfThreads, clustered, globalTriggerListeners, jobListeners);
     }
 
     private JobDetail createJobDetail(final ScheduledJobDetail scheduledJobDetail) throws Exception {
-        final ClassMethodNamesPair jobDetails = CronMethodParser.findTargetMethodDetails(scheduledJobDetail.getJobName());
-        if (jobDetails == null) { throw new IllegalArgumentException(
+        if (CronMethodParser.findTargetMethodDetails(scheduledJobDetail.getJobName()) == null) { throw new IllegalArgumentException(
                 "Code has no @CronTarget with this job name (@see JobName); seems like DB/code are not in line: "
                         + scheduledJobDetail.getJobName()); }
-        final Object targetObject = getBeanObject(Class.forName(jobDetails.className));
-        final MethodInvokingJobDetailFactoryBean jobDetailFactoryBean = new MethodInvokingJobDetailFactoryBean();
-        jobDetailFactoryBean.setName(scheduledJobDetail.getJobName() + "JobDetail" + fineractProperties.getTenantId());
-        jobDetailFactoryBean.setTargetObject(targetObject);
-        jobDetailFactoryBean.setTargetMethod(jobDetails.methodName);
-        jobDetailFactoryBean.setGroup(scheduledJobDetail.getGroupName());
-        jobDetailFactoryBean.setConcurrent(false);
-        jobDetailFactoryBean.afterPropertiesSet();
-        return jobDetailFactoryBean.getObject();
+        // recovery: when the node running the job dies, another node of the cluster runs it again
+        return JobBuilder.newJob(CronTargetJob.class)
+                .withIdentity(scheduledJobDetail.getJobName() + "JobDetail" + fineractProperties.getTenantId(),
+                        scheduledJobDetail.getGroupName())
+                .usingJobData(SchedulerServiceConstants.CRON_TARGET_JOB_NAME, scheduledJobDetail.getJobName()).storeDurably()
+                .requestRecovery().build();
     }
 
     public Map<String,String> getJobParameter(ScheduledJobDetail scheduledJobDetail){
@@ -347,35 +339,6 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         return  jobParameterMap;
     }
 
-    private Object getBeanObject(final Class<?> classType) throws ClassNotFoundException {
-        final List<Class<?>> typesList = new ArrayList<>();
-        final Class<?>[] interfaceType = classType.getInterfaces();
-        if (interfaceType.length > 0) {
-            typesList.addAll(Arrays.asList(interfaceType));
-        } else {
-            Class<?> superclassType = classType;
-            while (!Object.class.getName().equals(superclassType.getSuperclass().getName())) {
-                superclassType = superclassType.getSuperclass();
-            }
-            typesList.add(superclassType);
-        }
-        final List<String> beanNames = new ArrayList<>();
-        for (final Class<?> clazz : typesList) {
-            beanNames.addAll(Arrays.asList(this.applicationContext.getBeanNamesForType(clazz)));
-        }
-        Object targetObject = null;
-        for (final String beanName : beanNames) {
-            final Object nextObject = this.applicationContext.getBean(beanName);
-            String targetObjName = nextObject.toString();
-            targetObjName = targetObjName.substring(0, targetObjName.lastIndexOf("@"));
-            if (classType.getName().equals(targetObjName)) {
-                targetObject = nextObject;
-                break;
-            }
-        }
-        return targetObject;
-    }
-
     private Trigger createTrigger(final ScheduledJobDetail scheduledJobDetails, final JobDetail jobDetail) throws ParseException {
         final CronTriggerFactoryBean cronTriggerFactoryBean = new CronTriggerFactoryBean();
         cronTriggerFactoryBean.setName(scheduledJobDetails.getJobName() + "Trigger" + fineractProperties.getTenantId());
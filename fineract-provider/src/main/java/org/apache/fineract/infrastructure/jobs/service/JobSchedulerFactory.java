@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties.FineractPropertiesJobs;
+import org.quartz.JobListener;
+import org.quartz.Scheduler;
+import org.quartz.TriggerListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the Quartz schedulers of the job service. With
+ * <code>fineract.jobs.clustered</code> on, they keep jobs and triggers in the
+ * QRTZ_ tables and all nodes using the same scheduler name form a cluster in
+ * which each trigger fires on exactly one node; the jobs of a node that stops
+ * checking in are recovered by the others.
+ */
+@Component
+public class JobSchedulerFactory {
+
+    private static final int DEFAULT_CLUSTER_CHECKIN_INTERVAL_MILLIS = 15000;
+
+    private final ApplicationContext applicationContext;
+    private final DataSource dataSource;
+    private final FineractProperties fineractProperties;
+    // unique per node and start like Quartz's AUTO id, which repeats for schedulers created in the same millisecond
+    private final String instanceId = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    @Autowired
+    public JobSchedulerFactory(final ApplicationContext applicationContext, final DataSource dataSource,
+            final FineractProperties fineractProperties) {
+        this.applicationContext = applicationContext;
+        this.dataSource = dataSource;
+        this.fineractProperties = fineractProperties;
+    }
+
+    public boolean isClustered() {
+        final FineractPropertiesJobs jobProperties = this.fineractProperties.getJobs();
+        return jobProperties != null && Boolean.TRUE.equals(jobProperties.getClustered());
+    }
+
+    public String getInstanceId() {
+        return this.instanceId;
+    }
+
+    public Scheduler createScheduler(final String name, final int noOfThreads, final boolean clustered,
+            final TriggerListener[] triggerListeners, final JobListener... jobListeners) throws Exception {
+        final SchedulerFactoryBean schedulerFactoryBean = new SchedulerFactoryBean();
+        schedulerFactoryBean.setSchedulerName(name);
+        schedulerFactoryBean.setApplicationContext(this.applicationContext);
+        schedulerFactoryBean.setApplicationContextSchedulerContextKey(SchedulerServiceConstants.APPLICATION_CONTEXT);
+        schedulerFactoryBean.setGlobalJobListeners(jobListeners);
+        schedulerFactoryBean.setGlobalTriggerListeners(triggerListeners);
+        final Properties quartzProperties = new Properties();
+        quartzProperties.put(SchedulerFactoryBean.PROP_THREAD_COUNT, Integer.toString(noOfThreads));
+        if (clustered) {
+            schedulerFactoryBean.setDataSource(this.dataSource);
+            quartzProperties.put("org.quartz.scheduler.instanceId", this.instanceId);
+            quartzProperties.put("org.quartz.jobStore.driverDelegateClass", "org.quartz.impl.jdbcjobstore.StdJDBCDelegate");
+            quartzProperties.put("org.quartz.jobStore.tablePrefix", "QRTZ_");
+            quartzProperties.put("org.quartz.jobStore.isClustered", "true");
+            quartzProperties.put("org.quartz.jobStore.clusterCheckinInterval", Integer.toString(clusterCheckinIntervalMillis()));
+            quartzProperties.put("org.quartz.jobStore.acquireTriggersWithinLock", "true");
+        }
+        schedulerFactoryBean.setQuartzProperties(quartzProperties);
+        schedulerFactoryBean.afterPropertiesSet();
+        schedulerFactoryBean.start();
+        return schedulerFactoryBean.getScheduler();
+    }
+
+    private int clusterCheckinIntervalMillis() {
+        final FineractPropertiesJobs jobProperties = this.fineractProperties.getJobs();
+        return jobProperties == null || jobProperties.getClusterCheckinIntervalMillis() == null ? DEFAULT_CLUSTER_CHECKIN_INTERVAL_MILLIS
+                : jobProperties.getClusterCheckinIntervalMillis();
+    }
+}
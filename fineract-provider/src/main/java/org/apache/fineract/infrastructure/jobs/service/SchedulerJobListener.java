@@ -42,14 +42,17 @@ public class SchedulerJobListener implements JobListener {
     private final SchedularWritePlatformService schedularService;
 
     private final AppUserRepositoryWrapper userRepository ;
+
+    private final JobPartitionRunner jobPartitionRunner;
     
     private final GrantedAuthoritiesMapper authoritiesMapper = new NullAuthoritiesMapper();
     
     @Autowired
     public SchedulerJobListener(final SchedularWritePlatformService schedularService,
-            final AppUserRepositoryWrapper userRepository) {
+            final AppUserRepositoryWrapper userRepository, final JobPartitionRunner jobPartitionRunner) {
         this.schedularService = schedularService;
         this.userRepository = userRepository ;
+        this.jobPartitionRunner = jobPartitionRunner;
     }
 
     @Override
@@ -108,8 +111,9 @@ public class SchedulerJobListener implements JobListener {
         scheduledJobDetails.updatePreviousRunStartTime(context.getFireTime());
         scheduledJobDetails.updateCurrentlyRunningStatus(false);
 
+        final String progressLog = this.jobPartitionRunner.retrieveProgress(scheduledJobDetails.getJobName());
         final ScheduledJobRunHistory runHistory = new ScheduledJobRunHistory(scheduledJobDetails, version, context.getFireTime(),
-                new Date(), status, errorMessage, triggerType, errorLog);
+                new Date(), status, errorMessage, triggerType, errorLog, progressLog);
         // scheduledJobDetails.addRunHistory(runHistory);
 
         this.schedularService.saveOrUpdate(scheduledJobDetails, runHistory);
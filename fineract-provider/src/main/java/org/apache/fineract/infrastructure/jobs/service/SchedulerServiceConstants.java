@@ -37,5 +37,7 @@ public interface SchedulerServiceConstants {
     public static final int DEFAULT_THREAD_COUNT = 7;
     public static final int GROUP_THREAD_COUNT = 1;
     public static final String SCHEDULER_NAME = "schedulerName";
+    public static final String APPLICATION_CONTEXT = "applicationContext";
+    public static final String CRON_TARGET_JOB_NAME = "cronTargetJobName";
 
 }
\ No newline at end of file
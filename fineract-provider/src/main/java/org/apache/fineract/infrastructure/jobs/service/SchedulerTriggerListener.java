@@ -62,6 +62,8 @@ public class SchedulerTriggerListener implements TriggerListener {
 
     @Override
     public boolean vetoJobExecution(final Trigger trigger, final JobExecutionContext context) {
+        // a clustered scheduler runs the job again because the node that was running it died, it is still marked as running
+        if (context.isRecovering()) { return false; }
 
         final JobKey key = trigger.getJobKey();
         final String jobKey = key.getName() + SchedulerServiceConstants.JOB_KEY_SEPERATOR + key.getGroup();
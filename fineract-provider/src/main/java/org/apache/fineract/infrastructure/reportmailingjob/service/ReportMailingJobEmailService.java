@@ -18,13 +18,19 @@
  */
 package org.apache.fineract.infrastructure.reportmailingjob.service;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.fineract.infrastructure.core.service.EmailDeliveryCallback;
 import org.apache.fineract.infrastructure.reportmailingjob.data.ReportMailingJobEmailData;
 
 public interface ReportMailingJobEmailService {
     /**
-     * Handles request to send an email with attachment
+     * Queues emails with attachment for delivery, the outcome of every email is reported to the callback
      * 
-     * @param reportMailingJobEmailData {@link ReportMailingJobEmailData} object
+     * @param reportMailingJobEmailData {@link ReportMailingJobEmailData} objects
+     * @param callback receives the outcome of every email
      */
-    void sendEmailWithAttachment(final ReportMailingJobEmailData reportMailingJobEmailData);
+    CompletableFuture<Void> sendEmailsWithAttachment(final Collection<ReportMailingJobEmailData> reportMailingJobEmailData,
+            final EmailDeliveryCallback<ReportMailingJobEmailData> callback);
 }
@@ -19,81 +19,66 @@
 package org.apache.fineract.infrastructure.reportmailingjob.service;
 
 import java.util.Collection;
-import java.util.Properties;
-
-import javax.mail.MessagingException;
-import javax.mail.internet.MimeMessage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.configuration.data.SMTPCredentialsData;
+import org.apache.fineract.infrastructure.core.service.EmailDeliveryCallback;
+import org.apache.fineract.infrastructure.core.service.EmailDeliveryService;
 import org.apache.fineract.infrastructure.reportmailingjob.ReportMailingJobConstants;
 import org.apache.fineract.infrastructure.reportmailingjob.data.ReportMailingJobConfigurationData;
 import org.apache.fineract.infrastructure.reportmailingjob.data.ReportMailingJobEmailData;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.mail.javamail.MimeMessagePreparator;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ReportMailingJobEmailServiceImpl implements ReportMailingJobEmailService {
     private final ReportMailingJobConfigurationReadPlatformService reportMailingJobConfigurationReadPlatformService;
+    private final EmailDeliveryService emailDeliveryService;
     private Collection<ReportMailingJobConfigurationData> reportMailingJobConfigurationDataCollection;
     
     /** 
      * ReportMailingJobEmailServiceImpl constructor
      **/
     @Autowired
-    public ReportMailingJobEmailServiceImpl(final ReportMailingJobConfigurationReadPlatformService reportMailingJobConfigurationReadPlatformService) {
+    public ReportMailingJobEmailServiceImpl(final ReportMailingJobConfigurationReadPlatformService reportMailingJobConfigurationReadPlatformService,
+            final EmailDeliveryService emailDeliveryService) {
         this.reportMailingJobConfigurationReadPlatformService = reportMailingJobConfigurationReadPlatformService;
-        
+        this.emailDeliveryService = emailDeliveryService;
     }
 
     @Override
-    public void sendEmailWithAttachment(ReportMailingJobEmailData reportMailingJobEmailData) {
-        try {
-            // get all ReportMailingJobConfiguration objects from the database
-            this.reportMailingJobConfigurationDataCollection = this.reportMailingJobConfigurationReadPlatformService.
-                    retrieveAllReportMailingJobConfigurations();
-            
-            JavaMailSenderImpl javaMailSenderImpl = new JavaMailSenderImpl();
-            javaMailSenderImpl.setHost(this.getGmailSmtpServer());
-            javaMailSenderImpl.setPort(this.getGmailSmtpPort());
-            javaMailSenderImpl.setUsername(this.getGmailSmtpUsername());
-            javaMailSenderImpl.setPassword(this.getGmailSmtpPassword());
-            javaMailSenderImpl.setJavaMailProperties(this.getJavaMailProperties());
-            
-            MimeMessage mimeMessage = javaMailSenderImpl.createMimeMessage();
-            
-            // use the true flag to indicate you need a multipart message
-            MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, true);
-            
-            mimeMessageHelper.setTo(reportMailingJobEmailData.getTo());
-            mimeMessageHelper.setText(reportMailingJobEmailData.getText());
-            mimeMessageHelper.setSubject(reportMailingJobEmailData.getSubject());
-            
-            if (reportMailingJobEmailData.getAttachment() != null) {
-                mimeMessageHelper.addAttachment(reportMailingJobEmailData.getAttachment().getName(), reportMailingJobEmailData.getAttachment());
-            }
-            
-            javaMailSenderImpl.send(mimeMessage);
-        } 
+    public CompletableFuture<Void> sendEmailsWithAttachment(final Collection<ReportMailingJobEmailData> reportMailingJobEmailData,
+            final EmailDeliveryCallback<ReportMailingJobEmailData> callback) {
+        // get all ReportMailingJobConfiguration objects from the database
+        this.reportMailingJobConfigurationDataCollection = this.reportMailingJobConfigurationReadPlatformService.
+                retrieveAllReportMailingJobConfigurations();
         
-        catch (MessagingException e) {
-            // handle the exception
-            e.printStackTrace();
-        }
-    }
-    
-    /** 
-     * @return Properties object containing JavaMail properties 
-     **/
-    private Properties getJavaMailProperties() {
-        Properties properties = new Properties();
+        final Integer port = this.getGmailSmtpPort();
+        final SMTPCredentialsData smtpCredentialsData = new SMTPCredentialsData(this.getGmailSmtpUsername(), this.getGmailSmtpPassword(),
+                this.getGmailSmtpServer(), port != null ? port.toString() : null, true, null, null);
         
-        properties.setProperty("mail.smtp.auth", "true");
-        properties.setProperty("mail.smtp.starttls.enable", "true");
-        properties.setProperty("mail.smtp.ssl.trust", this.getGmailSmtpServer());
+        final Map<ReportMailingJobEmailData, MimeMessagePreparator> messages = new LinkedHashMap<>();
+        for (final ReportMailingJobEmailData emailData : reportMailingJobEmailData) {
+            messages.put(emailData, mimeMessage -> {
+                // use the true flag to indicate you need a multipart message
+                MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, true);
+                
+                mimeMessageHelper.setTo(emailData.getTo());
+                mimeMessageHelper.setText(emailData.getText());
+                mimeMessageHelper.setSubject(emailData.getSubject());
+                
+                if (emailData.getAttachment() != null) {
+                    mimeMessageHelper.addAttachment(emailData.getAttachment().getName(), emailData.getAttachment());
+                }
+            });
+        }
         
-        return properties;
+        return this.emailDeliveryService.deliver(smtpCredentialsData, messages, callback);
     }
     
     /** 
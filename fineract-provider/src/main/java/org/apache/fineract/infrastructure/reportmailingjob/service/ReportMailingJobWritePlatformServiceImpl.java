@@ -20,14 +20,16 @@ package org.apache.fineract.infrastructure.reportmailingjob.service;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties.FineractPropertiesJobs;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.EmailDeliveryCallback;
 import org.apache.fineract.infrastructure.dataqueries.domain.Report;
 import org.apache.fineract.infrastructure.dataqueries.domain.ReportRepositoryWrapper;
 import org.apache.fineract.infrastructure.dataqueries.service.ReadReportingService;
-import org.apache.fineract.infrastructure.documentmanagement.contentrepository.FileSystemContentRepository;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
@@ -52,20 +54,35 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Service
 public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJobWritePlatformService {
@@ -81,7 +98,9 @@ public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJo
     private final ReportingProcessServiceProvider reportingProcessServiceProvider;
     private final ReportMailingJobRunHistoryRepository reportMailingJobRunHistoryRepository;
     private final static String DATETIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
-    
+    private final static int DEFAULT_REPORT_MAILING_THREADS = 4;
+    private final FineractProperties fineractProperties;
+
     @Autowired
     public ReportMailingJobWritePlatformServiceImpl(final ReportRepositoryWrapper reportRepositoryWrapper, 
             final ReportMailingJobValidator reportMailingJobValidator, 
@@ -91,7 +110,8 @@ public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJo
             final ReportMailingJobEmailService reportMailingJobEmailService,  
             final ReadReportingService readReportingService, 
             final ReportMailingJobRunHistoryRepository reportMailingJobRunHistoryRepository, 
-            final ReportingProcessServiceProvider reportingProcessServiceProvider) {
+            final ReportingProcessServiceProvider reportingProcessServiceProvider, 
+            final FineractProperties fineractProperties) {
         this.reportRepositoryWrapper = reportRepositoryWrapper;
         this.reportMailingJobValidator = reportMailingJobValidator;
         this.reportMailingJobRepositoryWrapper = reportMailingJobRepositoryWrapper;
@@ -101,6 +121,7 @@ public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJo
         this.readReportingService = readReportingService;
         this.reportMailingJobRunHistoryRepository = reportMailingJobRunHistoryRepository;
         this.reportingProcessServiceProvider = reportingProcessServiceProvider;
+        this.fineractProperties = fineractProperties;
     }
 
     @Override
@@ -240,6 +261,9 @@ public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJo
     public void executeReportMailingJobs() throws JobExecutionException {
         final Collection<ReportMailingJob> reportMailingJobCollection = this.reportMailingJobRepository.findByIsActiveTrueAndIsDeletedFalse();
         
+        // due jobs grouped by report, format and parameters; every group renders its report once
+        final Map<String, List<ReportMailingJobRun>> reportMailingJobRuns = new LinkedHashMap<>();
+        
         for (ReportMailingJob reportMailingJob : reportMailingJobCollection) {
             // get the tenant's date as a DateTime object
             final DateTime localDateTimeOftenant = DateUtils.getLocalDateTimeOfTenant().toDateTime();
@@ -253,7 +277,6 @@ public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJo
                 if (emailAttachmentFileFormat != null && emailAttachmentFileFormat.isValid()) {
                     final Report stretchyReport = reportMailingJob.getStretchyReport();
                     final String reportName = (stretchyReport != null) ? stretchyReport.getReportName() : null;
-                    final StringBuilder errorLog = new StringBuilder();
                     final Map<String, String> validateStretchyReportParamMap = this.reportMailingJobValidator.
                             validateStretchyReportParamMap(reportMailingJob.getStretchyReportParamMap());
                     MultivaluedMap<String, String> reportParams = new MultivaluedHashMap<>();
@@ -279,13 +302,83 @@ public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJo
                         }
                     }
                     
-                    // generate the report output stream, method in turn call another that sends the file to the email recipients
-                    this.generateReportOutputStream(reportMailingJob, emailAttachmentFileFormat, reportParams, reportName, errorLog);
+                    final ReportMailingJobRun reportMailingJobRun = new ReportMailingJobRun(reportMailingJob, emailAttachmentFileFormat, 
+                            reportName, reportParams);
+                    reportMailingJobRuns.computeIfAbsent(reportMailingJobRun.getRenderingKey(), key -> new ArrayList<>()).add(reportMailingJobRun);
+                }
+            }
+        }
+        
+        if (reportMailingJobRuns.isEmpty()) { return; }
+        
+        final FineractPropertiesJobs jobProperties = this.fineractProperties.getJobs();
+        final int threads = jobProperties == null || jobProperties.getReportMailingThreads() == null ? DEFAULT_REPORT_MAILING_THREADS
+                : jobProperties.getReportMailingThreads();
+        logger.info("Executing {} report mailing jobs rendering {} reports on {} threads", 
+                reportMailingJobRuns.values().stream().mapToInt(List::size).sum(), reportMailingJobRuns.size(), threads);
+        
+        final List<Callable<Void>> tasks = new ArrayList<>(reportMailingJobRuns.size());
+        for (final List<ReportMailingJobRun> runs : reportMailingJobRuns.values()) {
+            tasks.add(() -> {
+                this.executeReportMailingJobRuns(runs);
+                return null;
+            });
+        }
+        final ExecutorService executorService = new DelegatingSecurityContextExecutorService(
+                Executors.newFixedThreadPool(Math.max(1, Math.min(threads, tasks.size()))));
+        try {
+            for (final Future<Void> future : executorService.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (final ExecutionException e) {
+                    logger.error("Report mailing jobs failed", e.getCause());
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+    
+    /** 
+     * render the report shared by the runs once, then mail it and record the outcome of every run
+     * 
+     * @param reportMailingJobRuns -- due jobs of the same report, format and parameters
+     */
+    private void executeReportMailingJobRuns(final List<ReportMailingJobRun> reportMailingJobRuns) {
+        final ReportMailingJobRun firstRun = reportMailingJobRuns.get(0);
+        final DateTime jobStartDateTime = DateUtils.getLocalDateTimeOfTenant().toDateTime();
+        final long startedAt = System.currentTimeMillis();
+        final StringBuilder renderingErrorLog = new StringBuilder();
+        final File reportFile = this.renderReport(firstRun.reportName, firstRun.emailAttachmentFileFormat, firstRun.reportParams, 
+                renderingErrorLog);
+        final long renderingMillis = System.currentTimeMillis() - startedAt;
+        
+        try {
+            for (final ReportMailingJobRun reportMailingJobRun : reportMailingJobRuns) {
+                final ReportMailingJob reportMailingJob = reportMailingJobRun.reportMailingJob;
+                final long mailingStartedAt = System.currentTimeMillis();
+                final StringBuilder errorLog = new StringBuilder(renderingErrorLog);
+                
+                try {
+                    if (reportFile != null && errorLog.length() == 0) {
+                        // send the file to email recipients
+                        this.sendReportFileToEmailRecipients(reportMailingJob, reportFile, errorLog);
+                    }
                     
                     // update the previous run time, next run time, status, error log properties
-                    this.updateReportMailingJobAfterJobExecution(reportMailingJob, errorLog, localDateTimeOftenant);
+                    this.updateReportMailingJobAfterJobExecution(reportMailingJob, errorLog, jobStartDateTime);
+                } catch (final RuntimeException e) {
+                    logger.error("Report mailing job {} failed", reportMailingJob.getId(), e);
                 }
+                
+                logger.info("Report mailing job {} ran in {} ms (rendering {} ms shared by {} jobs, mailing {} ms){}", reportMailingJob.getId(), 
+                        renderingMillis + System.currentTimeMillis() - mailingStartedAt, renderingMillis, reportMailingJobRuns.size(), 
+                        System.currentTimeMillis() - mailingStartedAt, errorLog.length() > 0 ? " with errors: " + errorLog : "");
             }
+        } finally {
+            this.deleteReportFile(reportFile);
         }
     }
     
@@ -403,17 +496,17 @@ public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJo
     }
     
     /** 
-     * generate the report output stream
+     * render the report into a temporary file, the output is streamed to the file where the reporting plugin allows it
      * 
-     * @param reportMailingJob
+     * @param reportName
      * @param emailAttachmentFileFormat
      * @param reportParams
-     * @param reportName
      * @param errorLog
-     * @return the error log StringBuilder object
+     * @return the report file, null if the report could not be rendered
      */
-    private StringBuilder generateReportOutputStream(final ReportMailingJob reportMailingJob, final ReportMailingJobEmailAttachmentFileFormat emailAttachmentFileFormat, 
-            final MultivaluedMap<String, String> reportParams, final String reportName, final StringBuilder errorLog) {
+    private File renderReport(final String reportName, final ReportMailingJobEmailAttachmentFileFormat emailAttachmentFileFormat, 
+            final MultivaluedMap<String, String> reportParams, final StringBuilder errorLog) {
+        File reportFile = null;
         
         try {
         	final boolean isSelfServiceUserReport = false;
@@ -424,67 +517,127 @@ public class ReportMailingJobWritePlatformServiceImpl implements ReportMailingJo
                 final Response processReport = reportingProcessService.processRequest(reportName, reportParams);
                 final Object reponseObject = (processReport != null) ? processReport.getEntity() : null;
                 
-                if (reponseObject != null && reponseObject.getClass().equals(ByteArrayOutputStream.class)) {
-                    final ByteArrayOutputStream byteArrayOutputStream = ByteArrayOutputStream.class.cast(reponseObject);
-                    final String fileLocation = FileSystemContentRepository.FINERACT_BASE_DIR + File.separator + "";
-                    final String fileNameWithoutExtension = fileLocation + File.separator + reportName;
-                    
-                    // check if file directory exists, if not create directory
-                    if (!new File(fileLocation).isDirectory()) {
-                        new File(fileLocation).mkdirs();
-                    }
-                    
-                    if ((byteArrayOutputStream == null) || byteArrayOutputStream.size() == 0) {
-                        errorLog.append("Report processing failed, empty output stream created");
-                    } else if ((errorLog != null && errorLog.length() == 0) && (byteArrayOutputStream.size() > 0)) {
-                        final String fileName = fileNameWithoutExtension + "." + emailAttachmentFileFormat.getValue();
-                        
-                        // send the file to email recipients
-                        this.sendReportFileToEmailRecipients(reportMailingJob, fileName, byteArrayOutputStream, errorLog);
-                    }
-                } else {
-                    errorLog.append("Response object entity is not equal to ByteArrayOutputStream ---------- ");
+                // the file is named after the report, it is the name of the email attachment; the name is built first so
+                // nothing can fail between creating the directory and handing it to deleteReportFile
+                final String reportFileName = reportName.replaceAll("[\\\\/:*?\"<>|]", "_") + "." + emailAttachmentFileFormat.getValue();
+                reportFile = new File(Files.createTempDirectory("report-mailing-").toFile(), reportFileName);
+                
+                if (!writeReportOutput(reponseObject, reportFile)) {
+                    errorLog.append("Response object entity is not a supported report output ---------- ");
+                } else if (reportFile.length() == 0) {
+                    errorLog.append("Report processing failed, empty output stream created");
                 }
             } else {
                 errorLog.append("ReportingProcessService object is null ---------- ");
             }
         } catch (Exception e) {
-            errorLog.append("The ReportMailingJobWritePlatformServiceImpl.generateReportOutputStream method threw an Exception: "
+            errorLog.append("The ReportMailingJobWritePlatformServiceImpl.renderReport method threw an Exception: "
                     + e + " ---------- ");
         }
         
-        return errorLog;
+        return reportFile;
+    }
+    
+    /** 
+     * write the entity of a report response to a file
+     * 
+     * @return false if the entity is not a report output
+     */
+    private static boolean writeReportOutput(final Object reportOutput, final File reportFile) throws IOException {
+        if (reportOutput instanceof StreamingOutput) {
+            try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(reportFile))) {
+                ((StreamingOutput) reportOutput).write(outputStream);
+            }
+        } else if (reportOutput instanceof InputStream) {
+            try (InputStream inputStream = (InputStream) reportOutput) {
+                Files.copy(inputStream, reportFile.toPath());
+            }
+        } else if (reportOutput instanceof File) {
+            Files.copy(((File) reportOutput).toPath(), reportFile.toPath());
+        } else if (reportOutput instanceof byte[]) {
+            Files.write(reportFile.toPath(), (byte[]) reportOutput);
+        } else if (reportOutput instanceof ByteArrayOutputStream) {
+            try (OutputStream outputStream = new FileOutputStream(reportFile)) {
+                ((ByteArrayOutputStream) reportOutput).writeTo(outputStream);
+            }
+        } else {
+            return false;
+        }
+        
+        return true;
+    }
+    
+    /** 
+     * delete a report file and its temporary directory
+     * 
+     * @param reportFile
+     */
+    private void deleteReportFile(final File reportFile) {
+        if (reportFile == null) { return; }
+        
+        try {
+            Files.deleteIfExists(reportFile.toPath());
+            Files.deleteIfExists(reportFile.getParentFile().toPath());
+        } catch (IOException e) {
+            logger.warn("Could not delete report file {}", reportFile, e);
+        }
     }
     
     /** 
      * send report file to email recipients
      * 
      * @param reportMailingJob
-     * @param fileName
-     * @param byteArrayOutputStream
+     * @param file
      * @param errorLog
      */
-    private void sendReportFileToEmailRecipients(final ReportMailingJob reportMailingJob, final String fileName, 
-            final ByteArrayOutputStream byteArrayOutputStream, final StringBuilder errorLog) {
+    private void sendReportFileToEmailRecipients(final ReportMailingJob reportMailingJob, final File file, final StringBuilder errorLog) {
         final Set<String> emailRecipients = this.reportMailingJobValidator.validateEmailRecipients(reportMailingJob.getEmailRecipients());
         
-        try {
-            final File file = new File(fileName);
-            final FileOutputStream outputStream = new FileOutputStream(file);
-            byteArrayOutputStream.writeTo(outputStream);
-            
-            for (String emailRecipient : emailRecipients) {
-                final ReportMailingJobEmailData reportMailingJobEmailData = new ReportMailingJobEmailData(emailRecipient, 
-                        reportMailingJob.getEmailMessage(), reportMailingJob.getEmailSubject(), file);
-                
-                this.reportMailingJobEmailService.sendEmailWithAttachment(reportMailingJobEmailData);
-            }
+        final List<ReportMailingJobEmailData> reportMailingJobEmailData = new ArrayList<>();
+        for (String emailRecipient : emailRecipients) {
+            reportMailingJobEmailData.add(new ReportMailingJobEmailData(emailRecipient, 
+                    reportMailingJob.getEmailMessage(), reportMailingJob.getEmailSubject(), file));
+        }
+        
+        // wait for the delivery, the file has to stay around until every recipient got it
+        this.reportMailingJobEmailService.sendEmailsWithAttachment(reportMailingJobEmailData,
+                new EmailDeliveryCallback<ReportMailingJobEmailData>() {
             
-            outputStream.close();
+            @Override
+            public void delivered(@SuppressWarnings("unused") final ReportMailingJobEmailData emailData) {}
             
-        } catch (IOException e) {
-            errorLog.append("The ReportMailingJobWritePlatformServiceImpl.sendReportFileToEmailRecipients method threw an IOException "
-                    + "exception: " + e + " ---------- ");
+            @Override
+            public void failed(final ReportMailingJobEmailData emailData, final Exception cause) {
+                synchronized (errorLog) {
+                    errorLog.append("Sending the report to " + emailData.getTo() + " failed: " + cause + " ---------- ");
+                }
+            }
+        }).join();
+    }
+    
+    /** 
+     * a due report mailing job with the report parameters of this run
+     */
+    private static final class ReportMailingJobRun {
+        
+        private final ReportMailingJob reportMailingJob;
+        private final ReportMailingJobEmailAttachmentFileFormat emailAttachmentFileFormat;
+        private final String reportName;
+        private final MultivaluedMap<String, String> reportParams;
+        
+        private ReportMailingJobRun(final ReportMailingJob reportMailingJob, final ReportMailingJobEmailAttachmentFileFormat emailAttachmentFileFormat, 
+                final String reportName, final MultivaluedMap<String, String> reportParams) {
+            this.reportMailingJob = reportMailingJob;
+            this.emailAttachmentFileFormat = emailAttachmentFileFormat;
+            this.reportName = reportName;
+            this.reportParams = reportParams;
+        }
+        
+        /** 
+         * @return identifies the rendered report; runs with the same key can share one rendering
+         */
+        private String getRenderingKey() {
+            return this.reportName + "|" + this.emailAttachmentFileFormat.getValue() + "|" + new TreeMap<>(this.reportParams);
         }
     }
 }
@@ -113,11 +113,13 @@ public class InteropApiResource {
                                          @DefaultValue("false") @QueryParam("credit") @ApiParam(value = "credit") boolean credit,
                                          @QueryParam("fromBookingDateTime") @ApiParam(value = "fromBookingDateTime") String fromBookingDateTime,
                                          @QueryParam("toBookingDateTime") @ApiParam(value = "toBookingDateTime") String toBookingDateTime,
+                                         @QueryParam("page") @ApiParam(value = "page") Integer page,
+                                         @QueryParam("size") @ApiParam(value = "size") Integer size,
                                          @Context UriInfo uriInfo) {
         LocalDateTime transactionsFrom = fromBookingDateTime == null ? null : LocalDateTime.parse(fromBookingDateTime, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
         LocalDateTime transactionsTo = toBookingDateTime == null ? null : LocalDateTime.parse(toBookingDateTime, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 
-        InteropTransactionsData result = interopService.getAccountTransactions(accountId, debit, credit, transactionsFrom, transactionsTo);
+        InteropTransactionsData result = interopService.getAccountTransactions(accountId, debit, credit, transactionsFrom, transactionsTo, page, size);
         ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
 
         return jsonSerializer.serialize(settings, result);
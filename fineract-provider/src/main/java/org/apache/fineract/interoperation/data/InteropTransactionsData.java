@@ -51,4 +51,12 @@ public class InteropTransactionsData extends CommandProcessingResult {
         }).map(InteropTransactionData::build).collect(Collectors.toList());
         return new InteropTransactionsData(account.getId(), trans);
     }
+
+    public static InteropTransactionsData build(SavingsAccount account, @NotNull List<SavingsAccountTransaction> transactions) {
+        if (account == null)
+            return null;
+
+        List<InteropTransactionData> trans = transactions.stream().map(InteropTransactionData::build).collect(Collectors.toList());
+        return new InteropTransactionsData(account.getId(), trans);
+    }
 }
@@ -0,0 +1,169 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.interoperation.domain;
+
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Ledger of the interoperation transfers executed on an account. Keyed by the transfer code (and transaction code), it links the
+ * hold, release and commit {@link SavingsAccountTransaction}s so that idempotency checks never need to scan the account history.
+ */
+@Entity
+@Table(name = "interop_transfer", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_interop_transfer_account", columnNames = {"account_id", "transfer_code"})
+})
+public class InteropTransfer extends AbstractPersistableCustom<Long> {
+
+    private static final long serialVersionUID = -7467829267490795268L;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "account_id", nullable = false)
+    private SavingsAccount account;
+
+    @Column(name = "transaction_code", length = 36)
+    private String transactionCode;
+
+    @Column(name = "transfer_code", nullable = false, length = 36)
+    private String transferCode;
+
+    @Column(name = "state", nullable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private InteropTransferState state;
+
+    @Column(name = "amount", scale = 6, precision = 19, nullable = false)
+    private BigDecimal amount;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "hold_transaction_id")
+    private SavingsAccountTransaction holdTransaction;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "release_transaction_id")
+    private SavingsAccountTransaction releaseTransaction;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "commit_transaction_id")
+    private SavingsAccountTransaction commitTransaction;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_on", nullable = false)
+    private Date createdOn;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "modified_on")
+    private Date modifiedOn;
+
+
+    protected InteropTransfer() {
+    }
+
+    private InteropTransfer(@NotNull SavingsAccount account, String transactionCode, @NotNull String transferCode,
+                            @NotNull InteropTransferState state, @NotNull BigDecimal amount, @NotNull Date createdOn) {
+        this.account = account;
+        this.transactionCode = transactionCode;
+        this.transferCode = transferCode;
+        this.state = state;
+        this.amount = amount;
+        this.createdOn = createdOn;
+    }
+
+    public static InteropTransfer prepared(@NotNull SavingsAccount account, String transactionCode, @NotNull String transferCode,
+                                           @NotNull SavingsAccountTransaction holdTransaction, @NotNull Date createdOn) {
+        InteropTransfer transfer = new InteropTransfer(account, transactionCode, transferCode, InteropTransferState.PREPARED,
+                holdTransaction.getAmount(), createdOn);
+        transfer.holdTransaction = holdTransaction;
+        return transfer;
+    }
+
+    public static InteropTransfer committed(@NotNull SavingsAccount account, String transactionCode, @NotNull String transferCode,
+                                            @NotNull SavingsAccountTransaction commitTransaction, @NotNull Date createdOn) {
+        InteropTransfer transfer = new InteropTransfer(account, transactionCode, transferCode, InteropTransferState.COMMITTED,
+                commitTransaction.getAmount(), createdOn);
+        transfer.commitTransaction = commitTransaction;
+        return transfer;
+    }
+
+    public void release(@NotNull SavingsAccountTransaction releaseTransaction, @NotNull Date modifiedOn) {
+        this.releaseTransaction = releaseTransaction;
+        this.modifiedOn = modifiedOn;
+    }
+
+    public void commit(String transactionCode, @NotNull SavingsAccountTransaction commitTransaction, @NotNull Date modifiedOn) {
+        if (this.transactionCode == null)
+            this.transactionCode = transactionCode;
+        this.commitTransaction = commitTransaction;
+        this.state = InteropTransferState.COMMITTED;
+        this.modifiedOn = modifiedOn;
+    }
+
+    public boolean isCommitted() {
+        return state == InteropTransferState.COMMITTED;
+    }
+
+    public boolean isReleased() {
+        return releaseTransaction != null;
+    }
+
+    public SavingsAccount getAccount() {
+        return account;
+    }
+
+    public String getTransactionCode() {
+        return transactionCode;
+    }
+
+    public String getTransferCode() {
+        return transferCode;
+    }
+
+    public InteropTransferState getState() {
+        return state;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public SavingsAccountTransaction getHoldTransaction() {
+        return holdTransaction;
+    }
+
+    public SavingsAccountTransaction getReleaseTransaction() {
+        return releaseTransaction;
+    }
+
+    public SavingsAccountTransaction getCommitTransaction() {
+        return commitTransaction;
+    }
+
+    public Date getCreatedOn() {
+        return createdOn;
+    }
+
+    public Date getModifiedOn() {
+        return modifiedOn;
+    }
+}
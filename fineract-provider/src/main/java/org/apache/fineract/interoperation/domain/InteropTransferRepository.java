@@ -16,18 +16,22 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.accounting.glaccount.domain;
+package org.apache.fineract.interoperation.domain;
+
+import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
 
-import java.util.List;
+@Repository
+public interface InteropTransferRepository extends JpaRepository<InteropTransfer, Long> {
 
-public interface TrialBalanceRepository extends JpaRepository<TrialBalance, Long>, JpaSpecificationExecutor<TrialBalance> {
+    @Query("select t from InteropTransfer t where t.account.id = :accountId and t.transferCode = :transferCode")
+    InteropTransfer findByAccountIdAndTransferCode(@Param("accountId") Long accountId, @Param("transferCode") String transferCode);
 
-    @Query(value = "select * from m_trial_balance where office_id=:officeId and account_id=:accountId and closing_balance is null order by created_date, entry_date", nativeQuery = true)
-    List<TrialBalance> findNewByOfficeAndAccount(@Param("officeId") final Long officeId,
-                                                 @Param("accountId") final Long accountId);
-}
\ No newline at end of file
+    @Query("select t from InteropTransfer t where t.transactionCode = :transactionCode and t.transferCode = :transferCode")
+    List<InteropTransfer> findByTransactionCodeAndTransferCode(@Param("transactionCode") String transactionCode,
+                                                         @Param("transferCode") String transferCode);
+}
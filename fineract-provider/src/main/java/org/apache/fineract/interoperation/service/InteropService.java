@@ -34,7 +34,8 @@ public interface InteropService {
     InteropAccountData getAccountDetails(@NotNull String accountId);
 
     @NotNull
-    InteropTransactionsData getAccountTransactions(@NotNull String accountId, boolean debit, boolean credit, LocalDateTime transactionsFrom, LocalDateTime transactionsTo);
+    InteropTransactionsData getAccountTransactions(@NotNull String accountId, boolean debit, boolean credit, LocalDateTime transactionsFrom, LocalDateTime transactionsTo,
+                                                   Integer page, Integer size);
 
     @NotNull
     InteropIdentifierAccountResponseData getAccountByIdentifier(@NotNull InteropIdentifierType idType, @NotNull String idValue, String subIdOrType);
@@ -26,6 +26,8 @@ import org.apache.fineract.interoperation.data.*;
 import org.apache.fineract.interoperation.domain.InteropIdentifier;
 import org.apache.fineract.interoperation.domain.InteropIdentifierRepository;
 import org.apache.fineract.interoperation.domain.InteropIdentifierType;
+import org.apache.fineract.interoperation.domain.InteropTransfer;
+import org.apache.fineract.interoperation.domain.InteropTransferRepository;
 import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
 import org.apache.fineract.organisation.monetary.domain.ApplicationCurrencyRepository;
 import org.apache.fineract.organisation.monetary.domain.Money;
@@ -56,6 +58,8 @@ import org.joda.time.format.DateTimeFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -67,11 +71,11 @@ import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotNull;
 import java.math.BigDecimal;
-import java.time.ZoneId;
+import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.function.Predicate;
 
 import static org.apache.fineract.interoperation.util.InteropUtil.DEFAULT_LOCALE;
 import static org.apache.fineract.interoperation.util.InteropUtil.DEFAULT_ROUTING_CODE;
@@ -82,6 +86,8 @@ public class InteropServiceImpl implements InteropService {
 
     private final static Logger LOG = LoggerFactory.getLogger(InteropServiceImpl.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 200;
+
     private final PlatformSecurityContext securityContext;
     private final InteropDataValidator dataValidator;
 
@@ -91,6 +97,7 @@ public class InteropServiceImpl implements InteropService {
     private final NoteRepository noteRepository;
     private final PaymentTypeRepository paymentTypeRepository;
     private final InteropIdentifierRepository identifierRepository;
+    private final InteropTransferRepository transferRepository;
 
     private final SavingsHelper savingsHelper;
     private final SavingsAccountTransactionSummaryWrapper savingsAccountTransactionSummaryWrapper;
@@ -107,6 +114,7 @@ public class InteropServiceImpl implements InteropService {
                               NoteRepository noteRepository,
                               PaymentTypeRepository paymentTypeRepository,
                               InteropIdentifierRepository identifierRepository,
+                              InteropTransferRepository transferRepository,
                               SavingsHelper savingsHelper,
                               SavingsAccountTransactionSummaryWrapper savingsAccountTransactionSummaryWrapper,
                               SavingsAccountDomainService savingsAccountService,
@@ -119,6 +127,7 @@ public class InteropServiceImpl implements InteropService {
         this.noteRepository = noteRepository;
         this.paymentTypeRepository = paymentTypeRepository;
         this.identifierRepository = identifierRepository;
+        this.transferRepository = transferRepository;
         this.savingsHelper = savingsHelper;
         this.savingsAccountTransactionSummaryWrapper = savingsAccountTransactionSummaryWrapper;
         this.savingsAccountService = savingsAccountService;
@@ -136,22 +145,34 @@ public class InteropServiceImpl implements InteropService {
     @NotNull
     @Override
     @Transactional
-    public InteropTransactionsData getAccountTransactions(@NotNull String accountId, boolean debit, boolean credit, java.time.LocalDateTime transactionsFrom, java.time.LocalDateTime transactionsTo) {
+    public InteropTransactionsData getAccountTransactions(@NotNull String accountId, boolean debit, boolean credit, java.time.LocalDateTime transactionsFrom,
+                                                          java.time.LocalDateTime transactionsTo, Integer page, Integer size) {
         SavingsAccount savingsAccount = validateAndGetSavingAccount(accountId);
-        ZoneId zoneId = DateUtils.getTimeZoneOfTenant().toZoneId();
-        Predicate<SavingsAccountTransaction> transFilter = t -> {
-            SavingsAccountTransactionType transactionType = SavingsAccountTransactionType.fromInt(t.getTypeOf());
-            if (debit != transactionType.isDebit() && credit != transactionType.isCredit())
-                return false;
-
-            if (transactionsFrom == null && transactionsTo == null)
-                return true;
-
-            java.time.LocalDateTime transactionDate = t.getTransactionLocalDate().toDateTimeAtStartOfDay().toDate().toInstant().atZone(zoneId).toLocalDateTime();
-            return (transactionsTo == null || transactionsTo.compareTo(transactionDate) > 0)
-                    && (transactionsFrom == null || transactionsFrom.compareTo(transactionDate.withHour(23).withMinute(59).withSecond(59)) <= 0);
-        };
-        return InteropTransactionsData.build(savingsAccount, transFilter);
+
+        List<Integer> transactionTypes = new ArrayList<>();
+        for (SavingsAccountTransactionType transactionType : SavingsAccountTransactionType.values()) {
+            if (debit == transactionType.isDebit() || credit == transactionType.isCredit())
+                transactionTypes.add(transactionType.getValue());
+        }
+        // booking date is compared at day precision: a transaction is included when its day overlaps [from, to)
+        Date fromDate = transactionsFrom == null ? null : toTenantDate(transactionsFrom.toLocalDate());
+        Date toDate = null;
+        if (transactionsTo != null) {
+            java.time.LocalDate toDay = transactionsTo.toLocalDate();
+            toDate = toTenantDate(transactionsTo.toLocalTime().equals(LocalTime.MIDNIGHT) ? toDay.minusDays(1) : toDay);
+        }
+
+        Specification<SavingsAccountTransaction> spec = where(transactionAccountEqual(savingsAccount.getId()))
+                .and(transactionTypeIn(transactionTypes))
+                .and(transactionDateBetween(fromDate, toDate));
+        Sort sort = Sort.by(Sort.Order.desc("dateOf"), Sort.Order.desc("id"));
+
+        // the whole history unless a page or a page size is asked for
+        List<SavingsAccountTransaction> transactions = page == null && size == null
+                ? savingsAccountTransactionRepository.findAll(spec, sort)
+                : savingsAccountTransactionRepository.findAll(spec, PageRequest.of(page == null ? 0 : page,
+                        size == null ? DEFAULT_PAGE_SIZE : size, sort)).getContent();
+        return InteropTransactionsData.build(savingsAccount, transactions);
     }
 
     @NotNull
@@ -248,8 +269,19 @@ public class InteropServiceImpl implements InteropService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public InteropTransferResponseData getTransfer(@NotNull String transactionCode, @NotNull String transferCode) {
-        return null;
+        InteropTransfer found = null;
+        for (InteropTransfer transfer : transferRepository.findByTransactionCodeAndTransferCode(transactionCode, transferCode)) {
+            if (found == null || (transfer.isCommitted() && !found.isCommitted()))
+                found = transfer;
+        }
+        if (found == null)
+            return null;
+
+        Date completedOn = found.isCommitted() ? (found.getModifiedOn() == null ? found.getCreatedOn() : found.getModifiedOn()) : null;
+        LocalDateTime completedTimestamp = completedOn == null ? null : LocalDateTime.fromDateFields(completedOn);
+        return InteropTransferResponseData.build(transactionCode, InteropActionState.ACCEPTED, null, transferCode, completedTimestamp);
     }
 
     @Override
@@ -266,12 +298,14 @@ public class InteropServiceImpl implements InteropService {
 
         String transferCode = request.getTransferCode();
         LocalDateTime transactionDate = DateUtils.getLocalDateTimeOfTenant();
-        if (MathUtil.isGreaterThanZero(total)) {
+        InteropTransfer transfer = findTransfer(savingsAccount, transferCode);
+        if (transfer != null && !transfer.isCommitted())
+            throw new UnsupportedOperationException("Transfer amount was already put on hold " + transferCode);
+        // a transfer that was already committed needs no hold any more
+        if (transfer == null && MathUtil.isGreaterThanZero(total)) {
             if (MathUtil.isLessThan(savingsAccount.getWithdrawableBalance(), total)) {
                 throw new UnsupportedOperationException();
             }
-            if (findTransaction(savingsAccount, transferCode, SavingsAccountTransactionType.AMOUNT_HOLD) != null)
-                throw new UnsupportedOperationException("Transfer amount was already put on hold " + transferCode);
 
             PaymentDetail paymentDetail = PaymentDetail.instance(findPaymentType(), savingsAccount.getExternalId(), null, getRoutingCode(), transferCode, null);
             AppUser appUser = getLoginUser();
@@ -282,7 +316,8 @@ public class InteropServiceImpl implements InteropService {
             savingsAccount.holdAmount(total);
             savingsAccount.addTransaction(transaction);
 
-            savingsAccountRepository.save(savingsAccount);
+            savingsAccountRepository.saveAndFlush(savingsAccount);
+            transferRepository.save(InteropTransfer.prepared(savingsAccount, request.getTransactionCode(), transferCode, transaction, new Date()));
         }
 
         return InteropTransferResponseData.build(command.commandId(), request.getTransactionCode(), InteropActionState.ACCEPTED, request.getExpiration(),
@@ -304,7 +339,8 @@ public class InteropServiceImpl implements InteropService {
         validateTransfer(request, savingsAccount);
 
         String transferCode = request.getTransferCode();
-        if (findTransaction(savingsAccount, transferCode, debit ? SavingsAccountTransactionType.WITHDRAWAL : SavingsAccountTransactionType.DEPOSIT) != null)
+        InteropTransfer transfer = findTransfer(savingsAccount, transferCode);
+        if (transfer != null && transfer.isCommitted())
             throw new UnsupportedOperationException("Transfer was already committed " + transferCode);
 
         PaymentDetail paymentDetail = PaymentDetail.instance(findPaymentType(), savingsAccount.getExternalId(), null, getRoutingCode(), transferCode, null);
@@ -313,13 +349,14 @@ public class InteropServiceImpl implements InteropService {
         LocalDate transactionDate = transactionDateTime.toLocalDate();
         Date createdDate = new Date();
 
-        SavingsAccountTransaction holdTransaction = findTransaction(savingsAccount, transferCode, SavingsAccountTransactionType.AMOUNT_HOLD);
+        SavingsAccountTransaction holdTransaction = transfer == null ? null : transfer.getHoldTransaction();
         if (holdTransaction != null && holdTransaction.getReleaseIdOfHoldAmountTransaction() == null) {
             AppUser appUser = getLoginUser();
 
             SavingsAccountTransaction releaseTransaction = SavingsAccountTransaction.releaseAmount(holdTransaction, transactionDate, createdDate, appUser);
             releaseTransaction = savingsAccountTransactionRepository.saveAndFlush(releaseTransaction);
             holdTransaction.updateReleaseId(releaseTransaction.getId());
+            transfer.release(releaseTransaction, createdDate);
 
             savingsAccount.releaseAmount(holdTransaction.getAmount());
             savingsAccount.addTransaction(releaseTransaction);
@@ -341,6 +378,12 @@ public class InteropServiceImpl implements InteropService {
                     paymentDetail, false, true);
         }
 
+        if (transfer == null)
+            transfer = InteropTransfer.committed(savingsAccount, request.getTransactionCode(), transferCode, transaction, createdDate);
+        else
+            transfer.commit(request.getTransactionCode(), transaction, createdDate);
+        transferRepository.save(transfer);
+
         String note = request.getNote();
         if (!StringUtils.isBlank(note)) {
             noteRepository.save(Note.savingsTransactionNote(savingsAccount, transaction, note));
@@ -424,17 +467,8 @@ public class InteropServiceImpl implements InteropService {
         return null;
     }
 
-    SavingsAccountTransaction findTransaction(@NotNull SavingsAccount savingsAccount, @NotNull String transactionCode, SavingsAccountTransactionType transactionType) {
-        String routingCode = getRoutingCode();
-        for (SavingsAccountTransaction transaction : savingsAccount.getTransactions()) {
-            if (transactionType != null && !transactionType.getValue().equals(transaction.getTypeOf()))
-                continue;
-
-            PaymentDetail detail = transaction.getPaymentDetail();
-            if (detail != null && routingCode.equals(detail.getRoutingCode()) && transactionCode.equals(detail.getReceiptNumber()))
-                return transaction;
-        }
-        return null;
+    InteropTransfer findTransfer(@NotNull SavingsAccount savingsAccount, @NotNull String transferCode) {
+        return transferRepository.findByAccountIdAndTransferCode(savingsAccount.getId(), transferCode);
     }
 
     public InteropIdentifier findIdentifier(@NotNull InteropIdentifierType idType, @NotNull String idValue, String subIdOrType) {
@@ -456,6 +490,27 @@ public class InteropServiceImpl implements InteropService {
         };
     }
 
+    public static Specification<SavingsAccountTransaction> transactionAccountEqual(@NotNull Long savingsAccountId) {
+        return (Root<SavingsAccountTransaction> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> cb.equal(root.get("savingsAccount").get("id"), savingsAccountId);
+    }
+
+    public static Specification<SavingsAccountTransaction> transactionTypeIn(@NotNull List<Integer> transactionTypes) {
+        return (Root<SavingsAccountTransaction> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> root.get("typeOf").in(transactionTypes);
+    }
+
+    public static Specification<SavingsAccountTransaction> transactionDateBetween(Date fromDate, Date toDate) {
+        return (Root<SavingsAccountTransaction> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+            Path<Date> path = root.get("dateOf");
+            if (fromDate == null)
+                return toDate == null ? cb.conjunction() : cb.lessThanOrEqualTo(path, toDate);
+            return toDate == null ? cb.greaterThanOrEqualTo(path, fromDate) : cb.between(path, fromDate, toDate);
+        };
+    }
+
+    private static Date toTenantDate(@NotNull java.time.LocalDate date) {
+        return new LocalDate(date.getYear(), date.getMonthValue(), date.getDayOfMonth()).toDate();
+    }
+
     private AppUser getLoginUser() {
         return securityContext.getAuthenticatedUserIfPresent();
     }
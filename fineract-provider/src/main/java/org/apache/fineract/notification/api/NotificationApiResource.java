@@ -26,7 +26,10 @@ import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.notification.data.NotificationData;
+import org.apache.fineract.notification.service.NotificationPushService;
 import org.apache.fineract.notification.service.NotificationReadPlatformService;
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.SseFeature;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
@@ -45,16 +48,19 @@ public class NotificationApiResource {
     private final NotificationReadPlatformService notificationReadPlatformService;
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final ToApiJsonSerializer<NotificationData> toApiJsonSerializer;
+    private final NotificationPushService notificationPushService;
 
     @Autowired
     public NotificationApiResource(PlatformSecurityContext context,
                                    NotificationReadPlatformService notificationReadPlatformService,
                                    ApiRequestParameterHelper apiRequestParameterHelper,
-                                   ToApiJsonSerializer<NotificationData> toApiJsonSerializer) {
+                                   ToApiJsonSerializer<NotificationData> toApiJsonSerializer,
+                                   NotificationPushService notificationPushService) {
         this.context = context;
         this.notificationReadPlatformService = notificationReadPlatformService;
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.toApiJsonSerializer = toApiJsonSerializer;
+        this.notificationPushService = notificationPushService;
     }
 
     @GET
@@ -86,4 +92,16 @@ public class NotificationApiResource {
         this.context.authenticatedUser();
         this.notificationReadPlatformService.updateNotificationReadStatus();
     }
+
+    /**
+     * Server-sent event stream of the authenticated user's notifications, so
+     * clients no longer need to poll for the unread badge.
+     */
+    @GET
+    @Path("stream")
+    @Produces(SseFeature.SERVER_SENT_EVENTS)
+    public EventOutput stream() {
+        final Long appUserId = this.context.authenticatedUser().getId();
+        return this.notificationPushService.subscribe(appUserId);
+    }
 }
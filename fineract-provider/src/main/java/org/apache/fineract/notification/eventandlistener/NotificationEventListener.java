@@ -20,7 +20,6 @@ package org.apache.fineract.notification.eventandlistener;
 
 import org.apache.fineract.notification.data.NotificationData;
 import org.apache.fineract.notification.service.NotificationWritePlatformService;
-import org.apache.fineract.useradministration.domain.AppUser;
 import org.apache.fineract.useradministration.domain.AppUserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jms.listener.SessionAwareMessageListener;
@@ -30,9 +29,7 @@ import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.ObjectMessage;
 import javax.jms.Session;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 @Service
 public class NotificationEventListener implements SessionAwareMessageListener {
@@ -57,14 +54,8 @@ public class NotificationEventListener implements SessionAwareMessageListener {
 
             List<Long> userIds = notificationData.getUserIds();
 
-            if (notificationData.getOfficeId() != null) {
-                List<Long> tempUserIds = new ArrayList<>(userIds);
-                for (Long userId : tempUserIds) {
-                    AppUser appUser = appUserRepository.findById(userId).get();
-                    if (!Objects.equals(appUser.getOffice().getId(), notificationData.getOfficeId())) {
-                        userIds.remove(userId);
-                    }
-                }
+            if (notificationData.getOfficeId() != null && !userIds.isEmpty()) {
+                userIds.retainAll(appUserRepository.findIdsByIdsAndOfficeId(userIds, notificationData.getOfficeId()));
             }
 
             if (userIds.contains(appUserId)) {
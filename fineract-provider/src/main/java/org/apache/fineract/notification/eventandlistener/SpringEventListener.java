@@ -20,15 +20,12 @@ package org.apache.fineract.notification.eventandlistener;
 
 import org.apache.fineract.notification.data.NotificationData;
 import org.apache.fineract.notification.service.NotificationWritePlatformService;
-import org.apache.fineract.useradministration.domain.AppUser;
 import org.apache.fineract.useradministration.domain.AppUserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationListener;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 @Component
 public class SpringEventListener implements ApplicationListener<SpringEvent> {
@@ -52,14 +49,8 @@ public class SpringEventListener implements ApplicationListener<SpringEvent> {
 
         List<Long> userIds = notificationData.getUserIds();
 
-        if (notificationData.getOfficeId() != null) {
-            List<Long> tempUserIds = new ArrayList<>(userIds);
-            for (Long userId : tempUserIds) {
-                AppUser appUser = appUserRepository.findById(userId).get();
-                if (!Objects.equals(appUser.getOffice().getId(), notificationData.getOfficeId())) {
-                    userIds.remove(userId);
-                }
-            }
+        if (notificationData.getOfficeId() != null && !userIds.isEmpty()) {
+            userIds.retainAll(appUserRepository.findIdsByIdsAndOfficeId(userIds, notificationData.getOfficeId()));
         }
 
         if (userIds.contains(appUserId)) {
@@ -20,8 +20,12 @@ package org.apache.fineract.notification.service;
 
 import org.apache.fineract.notification.domain.NotificationMapper;
 
+import java.util.Collection;
+
 
 public interface NotificationMapperWritePlatformService {
 
     Long create(NotificationMapper notificationMapper);
+
+    void createAll(Long notificationId, Collection<Long> userIds, String createdAt);
 }
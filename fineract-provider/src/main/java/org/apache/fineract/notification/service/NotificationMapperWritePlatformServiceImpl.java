@@ -21,16 +21,25 @@ package org.apache.fineract.notification.service;
 import org.apache.fineract.notification.domain.NotificationMapper;
 import org.apache.fineract.notification.domain.NotificationMapperRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 @Service
 public class NotificationMapperWritePlatformServiceImpl implements NotificationMapperWritePlatformService {
 
     private final NotificationMapperRepository notificationMapperRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     @Autowired
-    public NotificationMapperWritePlatformServiceImpl(NotificationMapperRepository notificationMapperRepository) {
+    public NotificationMapperWritePlatformServiceImpl(NotificationMapperRepository notificationMapperRepository,
+                                                      DataSource dataSource) {
         this.notificationMapperRepository = notificationMapperRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
     @Override
@@ -38,4 +47,17 @@ public class NotificationMapperWritePlatformServiceImpl implements NotificationM
         this.notificationMapperRepository.save(notificationMapper);
         return notificationMapper.getId();
     }
+
+    @Override
+    public void createAll(Long notificationId, Collection<Long> userIds, String createdAt) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        final String sql = "INSERT INTO notification_mapper (notification_id, user_id, is_read, created_at) VALUES (?, ?, false, ?)";
+        final List<Object[]> batchArgs = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            batchArgs.add(new Object[] {notificationId, userId, createdAt});
+        }
+        this.jdbcTemplate.batchUpdate(sql, batchArgs);
+    }
 }
@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.service;
+
+import org.apache.fineract.notification.data.NotificationData;
+import org.glassfish.jersey.media.sse.EventOutput;
+
+import java.util.Collection;
+
+/**
+ * Keeps the unread notification count of every user in memory and pushes new
+ * notifications to the server-sent event streams the user has open.
+ */
+public interface NotificationPushService {
+
+    EventOutput subscribe(Long appUserId);
+
+    long getUnreadCount(Long appUserId);
+
+    void notificationCreated(Collection<Long> userIds, NotificationData notificationData);
+
+    void notificationsRead(Long appUserId);
+}
@@ -0,0 +1,275 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification.service;
+
+import com.google.gson.Gson;
+import org.apache.fineract.notification.data.NotificationData;
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.glassfish.jersey.media.sse.SseBroadcaster;
+import org.glassfish.jersey.server.BroadcasterListener;
+import org.glassfish.jersey.server.ChunkedOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The unread count of a user is read from <code>notification_mapper</code>
+ * and reused for a few seconds, so the unread badge no longer costs a query
+ * per poll. Notifications can be created and read on any node, so the count
+ * of every user with an open stream on this node is recounted on that same
+ * interval and pushed when it changed. Events are only pushed once the
+ * transaction that created or read the notifications has committed.
+ * <p>
+ * Two named events are sent on a stream: <code>unread</code> with the current
+ * count (also sent right after subscribing) and <code>notification</code>
+ * with the new notification. A stream without changes gets a comment every
+ * interval, which is how closed streams are noticed and dropped.
+ */
+@Service
+public class NotificationPushServiceImpl implements NotificationPushService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPushServiceImpl.class);
+
+    private static final String UNREAD_EVENT = "unread";
+    private static final String NOTIFICATION_EVENT = "notification";
+    private static final long UNREAD_COUNT_TTL_MILLIS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Gson gson = new Gson();
+    private final ConcurrentMap<Long, UnreadCount> unreadCounts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Subscribers> subscribers = new ConcurrentHashMap<>();
+    private ScheduledExecutorService refresher;
+
+    @Autowired
+    public NotificationPushServiceImpl(final DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void startRefreshing() {
+        if (this.refresher != null) { return; }
+        this.refresher = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+            final Thread thread = new Thread(runnable, "notification-unread-counts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refresher.scheduleWithFixedDelay(this::refreshSubscribedCounts, UNREAD_COUNT_TTL_MILLIS, UNREAD_COUNT_TTL_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public EventOutput subscribe(Long appUserId) {
+        final EventOutput eventOutput = new EventOutput();
+        try {
+            // queued by Jersey until the response is committed
+            eventOutput.write(unreadEvent(getUnreadCount(appUserId)));
+        } catch (IOException e) {
+            logger.debug("Could not send initial unread count to user {}", appUserId, e);
+        }
+        this.subscribers.compute(appUserId, (id, existing) -> {
+            final Subscribers userSubscribers = existing == null ? new Subscribers(id) : existing;
+            userSubscribers.add(eventOutput);
+            return userSubscribers;
+        });
+        return eventOutput;
+    }
+
+    @Override
+    public long getUnreadCount(Long appUserId) {
+        final UnreadCount unreadCount = this.unreadCounts.get(appUserId);
+        if (unreadCount != null && !unreadCount.isStale()) { return unreadCount.count; }
+        final long count = countUnread(appUserId);
+        this.unreadCounts.put(appUserId, new UnreadCount(count));
+        return count;
+    }
+
+    @Override
+    public void notificationCreated(Collection<Long> userIds, NotificationData notificationData) {
+        afterCommit(() -> {
+            final String json = this.gson.toJson(notificationData);
+            for (Long userId : userIds) {
+                final Subscribers userSubscribers = this.subscribers.get(userId);
+                if (userSubscribers == null) {
+                    this.unreadCounts.remove(userId);
+                    continue;
+                }
+                final long count = countUnread(userId);
+                this.unreadCounts.put(userId, new UnreadCount(count));
+                userSubscribers.broadcaster.broadcast(new OutboundEvent.Builder().name(NOTIFICATION_EVENT)
+                        .mediaType(MediaType.APPLICATION_JSON_TYPE).data(String.class, json).build());
+                userSubscribers.broadcaster.broadcast(unreadEvent(count));
+            }
+        });
+    }
+
+    @Override
+    public void notificationsRead(Long appUserId) {
+        afterCommit(() -> {
+            this.unreadCounts.put(appUserId, new UnreadCount(0));
+            final Subscribers userSubscribers = this.subscribers.get(appUserId);
+            if (userSubscribers != null) {
+                userSubscribers.broadcaster.broadcast(unreadEvent(0));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void closeStreams() {
+        if (this.refresher != null) {
+            this.refresher.shutdownNow();
+        }
+        for (Subscribers userSubscribers : new ArrayList<>(this.subscribers.values())) {
+            userSubscribers.broadcaster.closeAll();
+        }
+        this.subscribers.clear();
+    }
+
+    private void refreshSubscribedCounts() {
+        try {
+            this.unreadCounts.entrySet().removeIf(entry -> entry.getValue().isStale() && !this.subscribers.containsKey(entry.getKey()));
+            final List<Long> userIds = new ArrayList<>(this.subscribers.keySet());
+            if (userIds.isEmpty()) { return; }
+            final Map<Long, Long> counts = countUnread(userIds);
+            for (Long userId : userIds) {
+                final Subscribers userSubscribers = this.subscribers.get(userId);
+                if (userSubscribers == null) {
+                    continue;
+                }
+                final long count = counts.getOrDefault(userId, 0L);
+                final UnreadCount previous = this.unreadCounts.put(userId, new UnreadCount(count));
+                if (previous == null || previous.count != count) {
+                    userSubscribers.broadcaster.broadcast(unreadEvent(count));
+                } else {
+                    userSubscribers.broadcaster.broadcast(new OutboundEvent.Builder().comment("").build());
+                }
+            }
+        } catch (final Exception e) {
+            logger.warn("Unread notification counts could not be refreshed", e);
+        }
+    }
+
+    private long countUnread(Long appUserId) {
+        final Long count = this.jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification_mapper WHERE user_id = ? AND is_read = false", Long.class, appUserId);
+        return count == null ? 0 : count;
+    }
+
+    private Map<Long, Long> countUnread(List<Long> appUserIds) {
+        final Map<Long, Long> counts = new HashMap<>();
+        final String placeholders = String.join(",", Collections.nCopies(appUserIds.size(), "?"));
+        this.jdbcTemplate.query("SELECT user_id, COUNT(*) AS unread FROM notification_mapper WHERE is_read = false AND user_id IN ("
+                + placeholders + ") GROUP BY user_id", appUserIds.toArray(),
+                rs -> {
+                    counts.put(rs.getLong("user_id"), rs.getLong("unread"));
+                });
+        return counts;
+    }
+
+    private OutboundEvent unreadEvent(long count) {
+        return new OutboundEvent.Builder().name(UNREAD_EVENT).mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(String.class, this.gson.toJson(Collections.singletonMap("unreadCount", count))).build();
+    }
+
+    private void afterCommit(final Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private static final class UnreadCount {
+
+        private final long count;
+        private final long countedAt = System.currentTimeMillis();
+
+        private UnreadCount(final long count) {
+            this.count = count;
+        }
+
+        private boolean isStale() {
+            return System.currentTimeMillis() - this.countedAt > UNREAD_COUNT_TTL_MILLIS;
+        }
+    }
+
+    /**
+     * The open streams of one user. The broadcaster reports a stream as closed
+     * on the first broadcast after it was closed; the entry is removed with the
+     * last stream.
+     */
+    private final class Subscribers implements BroadcasterListener<OutboundEvent> {
+
+        private final Long appUserId;
+        private final SseBroadcaster broadcaster = new SseBroadcaster();
+        private final Set<ChunkedOutput<OutboundEvent>> outputs = ConcurrentHashMap.newKeySet();
+
+        private Subscribers(final Long appUserId) {
+            this.appUserId = appUserId;
+            this.broadcaster.add(this);
+        }
+
+        private void add(final EventOutput eventOutput) {
+            this.outputs.add(eventOutput);
+            this.broadcaster.add(eventOutput);
+        }
+
+        @Override
+        public void onException(final ChunkedOutput<OutboundEvent> chunkedOutput, final Exception exception) {
+            logger.debug("Could not push to a stream of user {}", this.appUserId, exception);
+        }
+
+        @Override
+        public void onClose(final ChunkedOutput<OutboundEvent> chunkedOutput) {
+            NotificationPushServiceImpl.this.subscribers.computeIfPresent(this.appUserId, (id, existing) -> {
+                existing.outputs.remove(chunkedOutput);
+                return existing.outputs.isEmpty() ? null : existing;
+            });
+        }
+    }
+}
@@ -18,15 +18,12 @@
  */
 package org.apache.fineract.notification.service;
 
-import org.apache.fineract.infrastructure.core.boot.FineractProperties;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
-import org.apache.fineract.notification.cache.CacheNotificationResponseHeader;
 import org.apache.fineract.notification.data.NotificationData;
-import org.apache.fineract.notification.data.NotificationMapperData;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -35,8 +32,6 @@ import org.springframework.stereotype.Service;
 import javax.sql.DataSource;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.List;
 
 @Service
 public class NotificationReadPlatformServiceImpl implements NotificationReadPlatformService {
@@ -46,61 +41,22 @@ public class NotificationReadPlatformServiceImpl implements NotificationReadPlat
     private final ColumnValidator columnValidator;
     private final PaginationHelper<NotificationData> paginationHelper = new PaginationHelper<>();
     private final NotificationDataRow notificationDataRow = new NotificationDataRow();
-    private final NotificationMapperRow notificationMapperRow = new NotificationMapperRow();
-    private final FineractProperties fineractProperties;
-    @Deprecated
-    private HashMap<String, HashMap<Long, CacheNotificationResponseHeader>> tenantNotificationResponseHeaderCache = new HashMap<>();
-    private HashMap<Long, CacheNotificationResponseHeader> appUserNotificationResponseHeaderCache = new HashMap<>();
+    private final NotificationPushService notificationPushService;
 
     @Autowired
     public NotificationReadPlatformServiceImpl(final DataSource dataSource,
     		final PlatformSecurityContext context,
     		final ColumnValidator columnValidator,
-            final FineractProperties fineractProperties) {
+            final NotificationPushService notificationPushService) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.context = context;
         this.columnValidator = columnValidator;
-        this.fineractProperties = fineractProperties;
+        this.notificationPushService = notificationPushService;
     }
 
     @Override
     public boolean hasUnreadNotifications(Long appUserId) {
-        // TODO:  @aleks nested tenant map not necessary anymore
-
-        Long now = System.currentTimeMillis()/1000L;
-
-        if (appUserNotificationResponseHeaderCache.containsKey(appUserId)) {
-            Long lastFetch = appUserNotificationResponseHeaderCache.get(appUserId).getLastFetch();
-
-            if ((now - lastFetch) > 1) {
-                return this.createUpdateCacheValue(appUserId, now, appUserNotificationResponseHeaderCache);
-            } else {
-                return appUserNotificationResponseHeaderCache.get(appUserId).hasNotifications();
-            }
-        } else {
-            return this.createUpdateCacheValue(appUserId, now, appUserNotificationResponseHeaderCache);
-        }
-    }
-
-    private boolean createUpdateCacheValue(Long appUserId, Long now, HashMap<Long,
-            CacheNotificationResponseHeader> notificationResponseHeaderCache) {
-        boolean hasNotifications;
-        CacheNotificationResponseHeader cacheNotificationResponseHeader;
-        hasNotifications = checkForUnreadNotifications(appUserId);
-        cacheNotificationResponseHeader = new CacheNotificationResponseHeader(hasNotifications, now);
-        notificationResponseHeaderCache.put(appUserId, cacheNotificationResponseHeader);
-        this.tenantNotificationResponseHeaderCache.put(fineractProperties.getTenantId(), notificationResponseHeaderCache);
-        return hasNotifications;
-    }
-
-    private boolean checkForUnreadNotifications(Long appUserId) {
-        String sql = "SELECT id, notification_id as notificationId, user_id as userId, is_read as isRead, created_at " +
-                "as createdAt FROM notification_mapper WHERE user_id = ? AND is_read = false";
-        List<NotificationMapperData > notificationMappers = this.jdbcTemplate.query(
-                sql,
-                notificationMapperRow,
-                appUserId);
-        return notificationMappers.size() > 0;
+        return this.notificationPushService.getUnreadCount(appUserId) > 0;
     }
 
     @Override
@@ -108,6 +64,7 @@ public class NotificationReadPlatformServiceImpl implements NotificationReadPlat
         final Long appUserId = context.authenticatedUser().getId();
         String sql = "UPDATE notification_mapper SET is_read = true WHERE is_read = false and user_id = ?";
         this.jdbcTemplate.update(sql, appUserId);
+        this.notificationPushService.notificationsRead(appUserId);
     }
 
     @Override
@@ -161,31 +118,6 @@ public class NotificationReadPlatformServiceImpl implements NotificationReadPlat
                 params, this.notificationDataRow);
     }
 
-    private static final class NotificationMapperRow implements RowMapper<NotificationMapperData> {
-
-        @Override
-        public NotificationMapperData mapRow(ResultSet rs, int rowNum) throws SQLException {
-            NotificationMapperData notificationMapperData = new NotificationMapperData();
-
-            final Long id = rs.getLong("id");
-            notificationMapperData.setId(id);
-
-            final Long notificationId = rs.getLong("notificationId");
-            notificationMapperData.setNotificationId(notificationId);
-
-            final Long userId = rs.getLong("userId");
-            notificationMapperData.setUserId(userId);
-
-            final boolean isRead = rs.getBoolean("isRead");
-            notificationMapperData.setRead(isRead);
-
-            final String createdAt = rs.getString("createdAt");
-            notificationMapperData.setCreatedAt(createdAt);
-
-            return notificationMapperData;
-        }
-    }
-
     private static final class NotificationDataRow implements RowMapper<NotificationData> {
 
         @Override
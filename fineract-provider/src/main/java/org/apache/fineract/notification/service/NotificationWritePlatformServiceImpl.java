@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.notification.service;
 
+import org.apache.fineract.notification.data.NotificationData;
 import org.apache.fineract.notification.domain.Notification;
 import org.apache.fineract.notification.domain.NotificationMapper;
 import org.apache.fineract.useradministration.domain.AppUser;
@@ -26,7 +27,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -41,16 +42,20 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
 
     private final NotificationMapperWritePlatformService notificationMapperWritePlatformService;
 
+    private final NotificationPushService notificationPushService;
+
     @Autowired
     public NotificationWritePlatformServiceImpl(
             final NotificationGeneratorWritePlatformService notificationGeneratorWritePlatformService,
             final NotificationGeneratorReadRepositoryWrapper notificationGeneratorReadRepositoryWrapper,
             final AppUserRepository appUserRepository,
-            final NotificationMapperWritePlatformService notificationMapperWritePlatformService) {
+            final NotificationMapperWritePlatformService notificationMapperWritePlatformService,
+            final NotificationPushService notificationPushService) {
         this.notificationGeneratorWritePlatformService = notificationGeneratorWritePlatformService;
         this.notificationGeneratorReadRepositoryWrapper = notificationGeneratorReadRepositoryWrapper;
         this.appUserRepository = appUserRepository;
         this.notificationMapperWritePlatformService = notificationMapperWritePlatformService;
+        this.notificationPushService = notificationPushService;
     }
 
 
@@ -61,6 +66,8 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
         Long generatedNotificationId = insertIntoNotificationGenerator(objectType, objectIdentifier, action,
                 actorId, notificationContent, isSystemGenerated);
         insertIntoNotificationMapper(userId, generatedNotificationId);
+        this.notificationPushService.notificationCreated(Collections.singletonList(userId), toNotificationData(
+                generatedNotificationId, objectType, objectIdentifier, action, actorId, notificationContent, isSystemGenerated));
         return generatedNotificationId;
     }
 
@@ -102,23 +109,27 @@ public class NotificationWritePlatformServiceImpl implements NotificationWritePl
                 actorId, notificationContent, isSystemGenerated);
 
         insertIntoNotificationMapper(userIds, generatedNotificationId);
+        this.notificationPushService.notificationCreated(userIds, toNotificationData(generatedNotificationId, objectType,
+                objectId, action, actorId, notificationContent, isSystemGenerated));
         return generatedNotificationId;
     }
 
-    private List<Long> insertIntoNotificationMapper(List<Long> userIds, Long generatedNotificationId) {
-        List<Long> mappedIds = new ArrayList<>();
-        for (Long userId : userIds) {
-            AppUser appUser = this.appUserRepository.findById(userId).get();
-            NotificationMapper notificationMapper = new NotificationMapper(
-                    this.notificationGeneratorReadRepositoryWrapper.findById(generatedNotificationId),
-                    appUser,
-                    false,
-                    getCurrentDateTime()
-            );
-            this.notificationMapperWritePlatformService.create(notificationMapper);
-            mappedIds.add(notificationMapper.getId());
-        }
-        return mappedIds;
+    private void insertIntoNotificationMapper(List<Long> userIds, Long generatedNotificationId) {
+        this.notificationMapperWritePlatformService.createAll(generatedNotificationId, userIds, getCurrentDateTime());
+    }
+
+    private NotificationData toNotificationData(Long notificationId, String objectType, Long objectId, String action,
+                                                Long actorId, String notificationContent, boolean isSystemGenerated) {
+        NotificationData notificationData = new NotificationData();
+        notificationData.setId(notificationId);
+        notificationData.setObjectType(objectType);
+        notificationData.entifier(objectId);
+        notificationData.setAction(action);
+        notificationData.setActor(actorId);
+        notificationData.setContent(notificationContent);
+        notificationData.setSystemGenerated(isSystemGenerated);
+        notificationData.setCreatedAt(getCurrentDateTime());
+        return notificationData;
     }
 
     private String getCurrentDateTime() {
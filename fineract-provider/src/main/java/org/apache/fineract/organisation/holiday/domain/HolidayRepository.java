@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.organisation.holiday.domain;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -32,6 +33,10 @@ public interface HolidayRepository extends JpaRepository<Holiday, Long>, JpaSpec
     List<Holiday> findByOfficeIdAndGreaterThanDate(@Param("officeId") Long officeId, @Param("date") Date date,
             @Param("status") Integer status);
 
+    @Query("select office.id, holiday from Holiday holiday, IN(holiday.offices) office where (holiday.fromDate >= :date OR :date <= holiday.toDate) and holiday.status = :status and office.id IN :officeIds")
+    List<Object[]> findByOfficeIdsAndGreaterThanDate(@Param("officeIds") Collection<Long> officeIds, @Param("date") Date date,
+            @Param("status") Integer status);
+
     @Query("select holiday from Holiday holiday where holiday.processed = false and holiday.status = :status")
     List<Holiday> findUnprocessed(@Param("status") Integer status);
 }
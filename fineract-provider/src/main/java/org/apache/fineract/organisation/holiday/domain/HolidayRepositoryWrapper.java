@@ -18,8 +18,12 @@
  */
 package org.apache.fineract.organisation.holiday.domain;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.fineract.organisation.holiday.exception.HolidayNotFoundException;
 import org.apache.fineract.organisation.holiday.service.HolidayUtil;
@@ -68,6 +72,24 @@ public class HolidayRepositoryWrapper {
         return this.repository.findByOfficeIdAndGreaterThanDate(officeId, date, HolidayStatusType.ACTIVE.getValue());
     }
 
+    /**
+     * Loads the active holidays of several offices with a single query, keyed
+     * by office id. Offices without holidays are mapped to an empty list.
+     */
+    public Map<Long, List<Holiday>> findByOfficeIdsAndGreaterThanDate(final Collection<Long> officeIds, final Date date) {
+        final Map<Long, List<Holiday>> holidaysByOffice = new HashMap<>();
+        for (final Long officeId : officeIds) {
+            holidaysByOffice.put(officeId, new ArrayList<>());
+        }
+        if (officeIds.isEmpty()) { return holidaysByOffice; }
+        final List<Object[]> rows = this.repository.findByOfficeIdsAndGreaterThanDate(officeIds, date,
+                HolidayStatusType.ACTIVE.getValue());
+        for (final Object[] row : rows) {
+            holidaysByOffice.get((Long) row[0]).add((Holiday) row[1]);
+        }
+        return holidaysByOffice;
+    }
+
     public List<Holiday> findUnprocessed() {
         return this.repository.findUnprocessed(HolidayStatusType.ACTIVE.getValue());
     }
@@ -32,6 +32,7 @@ import org.apache.fineract.accounting.glaccount.domain.GLAccount;
 import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
 import org.apache.fineract.accounting.journalentry.domain.JournalEntryRepository;
 import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+import org.apache.fineract.accounting.journalentry.service.JournalEntryDailyBalanceService;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
@@ -79,6 +80,7 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
     private final JournalEntryRepository glJournalEntryRepository;
     private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper;
     private final CashierTransactionDataValidator cashierTransactionDataValidator;
+    private final JournalEntryDailyBalanceService journalEntryDailyBalanceService;
 
     @Autowired
     public TellerWritePlatformServiceJpaImpl(final PlatformSecurityContext context,
@@ -87,7 +89,8 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
             final StaffRepository staffRepository, CashierRepository cashierRepository, CashierTransactionRepository cashierTxnRepository,
             JournalEntryRepository glJournalEntryRepository,
             FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper,
-            final CashierTransactionDataValidator cashierTransactionDataValidator) {
+            final CashierTransactionDataValidator cashierTransactionDataValidator,
+            final JournalEntryDailyBalanceService journalEntryDailyBalanceService) {
         this.context = context;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.tellerRepositoryWrapper = tellerRepositoryWrapper;
@@ -98,6 +101,7 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
         this.glJournalEntryRepository = glJournalEntryRepository;
         this.financialActivityAccountRepositoryWrapper = financialActivityAccountRepositoryWrapper;
         this.cashierTransactionDataValidator = cashierTransactionDataValidator;
+        this.journalEntryDailyBalanceService = journalEntryDailyBalanceService;
     }
 
     @Override
@@ -455,7 +459,9 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
                     null, null, clientTransaction, shareTransactionId); // Loan and Savings Txn
 
             this.glJournalEntryRepository.saveAndFlush(debitJournalEntry);
+            this.journalEntryDailyBalanceService.addToDailyBalance(debitJournalEntry);
             this.glJournalEntryRepository.saveAndFlush(creditJournalEntry);
+            this.journalEntryDailyBalanceService.addToDailyBalance(creditJournalEntry);
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -19,11 +19,13 @@
 package org.apache.fineract.portfolio.account.service;
 
 import java.util.Collection;
+import java.util.Map;
 
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.portfolio.account.data.StandingInstructionDTO;
 import org.apache.fineract.portfolio.account.data.StandingInstructionData;
 import org.apache.fineract.portfolio.account.data.StandingInstructionDuesData;
+import org.joda.time.LocalDate;
 
 public interface StandingInstructionReadPlatformService {
 
@@ -34,8 +36,18 @@ public interface StandingInstructionReadPlatformService {
 
     StandingInstructionData retrieveOne(Long instructionId);
 
-    Collection<StandingInstructionData> retrieveAll(Integer status);
-
-    StandingInstructionDuesData retriveLoanDuesData(Long loanId);
+    /**
+     * Retrieves the instructions with the given status that may be due for
+     * transfer on <code>transactionDate</code>, highest priority first. The
+     * recurrence is only pre-filtered here, periodic instructions still have to
+     * be checked against their schedule.
+     */
+    Collection<StandingInstructionData> retrieveAllDueForTransfer(Integer status, LocalDate transactionDate);
+
+    /**
+     * Retrieves the dues up to <code>transactionDate</code> of the given loans
+     * in one query; loans without dues are not part of the result.
+     */
+    Map<Long, StandingInstructionDuesData> retriveLoanDuesData(Collection<Long> loanIds, LocalDate transactionDate);
 
 }
\ No newline at end of file
@@ -31,7 +31,10 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
@@ -57,6 +60,7 @@ import org.apache.fineract.portfolio.account.domain.StandingInstructionType;
 import org.apache.fineract.portfolio.account.exception.AccountTransferNotFoundException;
 import org.apache.fineract.portfolio.client.data.ClientData;
 import org.apache.fineract.portfolio.client.service.ClientReadPlatformService;
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
 import org.apache.fineract.portfolio.common.service.CommonEnumerations;
 import org.apache.fineract.portfolio.common.service.DropdownReadPlatformService;
 import org.joda.time.LocalDate;
@@ -64,14 +68,20 @@ import org.joda.time.MonthDay;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 @Service
 public class StandingInstructionReadPlatformServiceImpl implements StandingInstructionReadPlatformService {
 
+    private static final int LOAN_DUES_BATCH_SIZE = 1000;
+
     private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
     private final ColumnValidator columnValidator;
     private final ClientReadPlatformService clientReadPlatformService;
     private final OfficeReadPlatformService officeReadPlatformService;
@@ -91,6 +101,7 @@ public class StandingInstructionReadPlatformServiceImpl implements StandingInstr
             final DropdownReadPlatformService dropdownReadPlatformService,
             final ColumnValidator columnValidator) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
         this.clientReadPlatformService = clientReadPlatformService;
         this.officeReadPlatformService = officeReadPlatformService;
         this.portfolioAccountReadPlatformService = portfolioAccountReadPlatformService;
@@ -334,15 +345,31 @@ public class StandingInstructionReadPlatformServiceImpl implements StandingInstr
     }
 
     @Override
-    public Collection<StandingInstructionData> retrieveAll(final Integer status) {
-        final StringBuilder sqlBuilder = new StringBuilder(200);
+    public Collection<StandingInstructionData> retrieveAllDueForTransfer(final Integer status, final LocalDate transactionDate) {
+        final Date date = transactionDate.toDate();
+        final StringBuilder sqlBuilder = new StringBuilder(1000);
         sqlBuilder.append("select ");
         sqlBuilder.append(this.standingInstructionMapper.schema());
         sqlBuilder
-                .append(" where atsi.status=? and CURRENT_DATE() >= atsi.valid_from and (atsi.valid_till IS NULL or CURRENT_DATE() < atsi.valid_till) ")
-                .append(" and  (atsi.last_run_date <> CURRENT_DATE() or atsi.last_run_date IS NULL)")
+                .append(" where atsi.status=? and ? >= atsi.valid_from and (atsi.valid_till IS NULL or ? < atsi.valid_till) ")
+                .append(" and  (atsi.last_run_date <> ? or atsi.last_run_date IS NULL)")
+                // dues based instructions only when an unpaid installment of the loan falls due on the date
+                .append(" and ((atsi.recurrence_type = ").append(AccountTransferRecurrenceType.AS_PER_DUES.getValue())
+                .append(" and exists (select 1 from m_loan_repayment_schedule ls where ls.loan_id = atd.to_loan_account_id")
+                .append(" and ls.duedate = ? and ls.completed_derived <> 1))")
+                // periodic instructions only when the day (and month) of the date can match the recurrence
+                .append(" or (atsi.recurrence_type = ").append(AccountTransferRecurrenceType.PERIODIC.getValue())
+                .append(" and (atsi.recurrence_frequency = ").append(PeriodFrequencyType.DAYS.getValue())
+                .append(" or (atsi.recurrence_frequency = ").append(PeriodFrequencyType.WEEKS.getValue())
+                .append(" and mod(datediff(?, atsi.valid_from), 7) = 0)")
+                .append(" or (atsi.recurrence_frequency = ").append(PeriodFrequencyType.MONTHS.getValue())
+                .append(" and (atsi.recurrence_on_day = day(?) or (atsi.recurrence_on_day > day(?) and ? = last_day(?))))")
+                .append(" or (atsi.recurrence_frequency = ").append(PeriodFrequencyType.YEARS.getValue())
+                .append(" and atsi.recurrence_on_month = month(?)")
+                .append(" and (atsi.recurrence_on_day = day(?) or (atsi.recurrence_on_day > day(?) and ? = last_day(?)))))))")
                 .append(" ORDER BY atsi.priority DESC");
-        return this.jdbcTemplate.query(sqlBuilder.toString(), this.standingInstructionMapper, status);
+        return this.jdbcTemplate.query(sqlBuilder.toString(), this.standingInstructionMapper, status, date, date, date, date, date,
+                date, date, date, date, date, date, date, date, date);
     }
 
     @Override
@@ -358,10 +385,20 @@ public class StandingInstructionReadPlatformServiceImpl implements StandingInstr
     }
 
     @Override
-    public StandingInstructionDuesData retriveLoanDuesData(final Long loanId) {
+    public Map<Long, StandingInstructionDuesData> retriveLoanDuesData(final Collection<Long> loanIds, final LocalDate transactionDate) {
         final StandingInstructionLoanDuesMapper rm = new StandingInstructionLoanDuesMapper();
-        final String sql = "select " + rm.schema() + " where ml.id= ? and ls.duedate <= CURRENT_DATE() and ls.completed_derived <> 1";
-        return this.jdbcTemplate.queryForObject(sql, rm, new Object[] { loanId });
+        final String sql = "select ls.loan_id as loanId, " + rm.schema()
+                + " where ls.loan_id in (:loanIds) and ls.duedate <= :transactionDate and ls.completed_derived <> 1 group by ls.loan_id";
+        final Map<Long, StandingInstructionDuesData> duesByLoan = new HashMap<>();
+        final List<Long> ids = new ArrayList<>(loanIds);
+        for (int from = 0; from < ids.size(); from += LOAN_DUES_BATCH_SIZE) {
+            final MapSqlParameterSource params = new MapSqlParameterSource("loanIds",
+                    ids.subList(from, Math.min(from + LOAN_DUES_BATCH_SIZE, ids.size())));
+            params.addValue("transactionDate", transactionDate.toDate());
+            this.namedParameterJdbcTemplate.query(sql, params,
+                    (RowCallbackHandler) rs -> duesByLoan.put(rs.getLong("loanId"), rm.mapRow(rs, rs.getRow())));
+        }
+        return duesByLoan;
     }
 
     private static final class StandingInstructionMapper implements RowMapper<StandingInstructionData> {
@@ -24,11 +24,25 @@ import static org.apache.fineract.portfolio.account.AccountDetailConstants.toAcc
 import static org.apache.fineract.portfolio.account.api.StandingInstructionApiConstants.statusParamName;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties.FineractPropertiesJobs;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.infrastructure.core.exception.AbstractPlatformServiceUnavailableException;
@@ -64,8 +78,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class StandingInstructionWritePlatformServiceImpl implements StandingInstructionWritePlatformService {
@@ -79,6 +96,15 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
     private final StandingInstructionReadPlatformService standingInstructionReadPlatformService;
     private final AccountTransfersWritePlatformService accountTransfersWritePlatformService;
     private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FineractProperties fineractProperties;
+
+    private static final int DEFAULT_STANDING_INSTRUCTION_THREADS = 4;
+    private static final int HISTORY_BATCH_SIZE = 1000;
+    private static final StandingInstructionDuesData NO_LOAN_DUES = new StandingInstructionDuesData(null, BigDecimal.ZERO);
+    private static final String UPDATE_LAST_RUN_DATE_SQL = "UPDATE m_account_transfer_standing_instructions SET last_run_date = ? where id = ?";
+    private static final String INSERT_HISTORY_SQL = "INSERT INTO `m_account_transfer_standing_instructions_history` "
+            + "(`standing_instruction_id`, `status`, `amount`,`execution_time`, `error_log`) VALUES (?, ?, ?, ?, ?)";
 
     @Autowired
     public StandingInstructionWritePlatformServiceImpl(final StandingInstructionDataValidator standingInstructionDataValidator,
@@ -86,7 +112,8 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
             final AccountTransferDetailRepository accountTransferDetailRepository,
             final StandingInstructionRepository standingInstructionRepository,
             final StandingInstructionReadPlatformService standingInstructionReadPlatformService,
-            final AccountTransfersWritePlatformService accountTransfersWritePlatformService, final DataSource dataSource) {
+            final AccountTransfersWritePlatformService accountTransfersWritePlatformService, final DataSource dataSource,
+            final PlatformTransactionManager transactionManager, final FineractProperties fineractProperties) {
         this.standingInstructionDataValidator = standingInstructionDataValidator;
         this.standingInstructionAssembler = standingInstructionAssembler;
         this.accountTransferDetailRepository = accountTransferDetailRepository;
@@ -94,6 +121,8 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
         this.standingInstructionReadPlatformService = standingInstructionReadPlatformService;
         this.accountTransfersWritePlatformService = accountTransfersWritePlatformService;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fineractProperties = fineractProperties;
     }
 
     @Transactional
@@ -192,79 +221,176 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
     @Override
     @CronTarget(jobName = JobName.EXECUTE_STANDING_INSTRUCTIONS)
     public void executeStandingInstructions() throws JobExecutionException {
-        Collection<StandingInstructionData> instructionDatas = this.standingInstructionReadPlatformService
-                .retrieveAll(StandingInstructionStatus.ACTIVE.getValue());
+        final LocalDate transactionDate = new LocalDate();
+        final Collection<StandingInstructionData> instructionDatas = this.standingInstructionReadPlatformService
+                .retrieveAllDueForTransfer(StandingInstructionStatus.ACTIVE.getValue(), transactionDate);
+
+        // dues of all loans paid by dues based instructions in one query instead of one query per instruction
+        final Set<Long> duesLoanIds = new HashSet<>();
+        for (final StandingInstructionData data : instructionDatas) {
+            if (data.toAccountType().isLoanAccount()
+                    && (data.recurrenceType().isDuesRecurrence() || data.instructionType().isDuesAmoutTransfer())) {
+                duesLoanIds.add(data.toAccount().accountId());
+            }
+        }
+        final Map<Long, StandingInstructionDuesData> loanDues = duesLoanIds.isEmpty() ? Collections.emptyMap()
+                : this.standingInstructionReadPlatformService.retriveLoanDuesData(duesLoanIds, transactionDate);
+
+        final List<StandingInstructionTransfer> transfers = new ArrayList<>();
+        for (final StandingInstructionData data : instructionDatas) {
+            final AccountTransferDTO accountTransferDTO = dueTransfer(data, transactionDate, loanDues);
+            if (accountTransferDTO != null) {
+                transfers.add(new StandingInstructionTransfer(data.getId(), accountTransferDTO));
+            }
+        }
+        if (transfers.isEmpty()) { return; }
+
+        final Collection<List<StandingInstructionTransfer>> groups = groupByAccount(transfers);
+        final FineractPropertiesJobs jobProperties = this.fineractProperties.getJobs();
+        final int threads = jobProperties == null || jobProperties.getStandingInstructionThreads() == null
+                ? DEFAULT_STANDING_INSTRUCTION_THREADS
+                : jobProperties.getStandingInstructionThreads();
+        logger.info("Executing {} standing instructions in {} independent groups on {} threads", transfers.size(), groups.size(),
+                threads);
+
         final StringBuilder sb = new StringBuilder();
-        for (StandingInstructionData data : instructionDatas) {
-            boolean isDueForTransfer = false;
-            AccountTransferRecurrenceType recurrenceType = data.recurrenceType();
-            StandingInstructionType instructionType = data.instructionType();
-            LocalDate transactionDate = new LocalDate();
-            if (recurrenceType.isPeriodicRecurrence()) {
-                final ScheduledDateGenerator scheduledDateGenerator = new DefaultScheduledDateGenerator();
-                PeriodFrequencyType frequencyType = data.recurrenceFrequency();
-                LocalDate startDate = data.validFrom();
-                if (frequencyType.isMonthly()) {
-                    startDate = startDate.withDayOfMonth(data.recurrenceOnDay());
-                    if (startDate.isBefore(data.validFrom())) {
-                        startDate = startDate.plusMonths(1);
-                    }
-                } else if (frequencyType.isYearly()) {
-                    startDate = startDate.withDayOfMonth(data.recurrenceOnDay()).withMonthOfYear(data.recurrenceOnMonth());
-                    if (startDate.isBefore(data.validFrom())) {
-                        startDate = startDate.plusYears(1);
-                    }
+        final List<Object[]> history = new ArrayList<>(transfers.size());
+        final List<Callable<StandingInstructionGroupResult>> tasks = new ArrayList<>(groups.size());
+        for (final List<StandingInstructionTransfer> group : groups) {
+            tasks.add(() -> executeStandingInstructions(group));
+        }
+        final ExecutorService executorService = new DelegatingSecurityContextExecutorService(
+                Executors.newFixedThreadPool(Math.max(1, Math.min(threads, groups.size()))));
+        try {
+            for (final Future<StandingInstructionGroupResult> future : executorService.invokeAll(tasks)) {
+                try {
+                    final StandingInstructionGroupResult result = future.get();
+                    sb.append(result.errors);
+                    history.addAll(result.history);
+                } catch (final ExecutionException e) {
+                    logger.error("Standing instructions group failed", e.getCause());
+                    sb.append("Standing instructions group failed with message ").append(e.getCause().getMessage());
                 }
-                isDueForTransfer = scheduledDateGenerator.isDateFallsInSchedule(frequencyType, data.recurrenceInterval(), startDate,
-                        transactionDate);
-
             }
-            BigDecimal transactionAmount = data.amount();
-            if (data.toAccountType().isLoanAccount()
-                    && (recurrenceType.isDuesRecurrence() || (isDueForTransfer && instructionType.isDuesAmoutTransfer()))) {
-                StandingInstructionDuesData standingInstructionDuesData = this.standingInstructionReadPlatformService
-                        .retriveLoanDuesData(data.toAccount().accountId());
-                if (data.instructionType().isDuesAmoutTransfer()) {
-                    transactionAmount = standingInstructionDuesData.totalDueAmount();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sb.append("Execution of standing instructions was interrupted");
+        } finally {
+            executorService.shutdownNow();
+            for (int from = 0; from < history.size(); from += HISTORY_BATCH_SIZE) {
+                this.jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, history.subList(from, Math.min(from + HISTORY_BATCH_SIZE, history.size())));
+            }
+        }
+        if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+
+    }
+
+    /**
+     * Returns the transfer of the instruction for <code>transactionDate</code>,
+     * or null when the instruction is not due on that date.
+     */
+    private AccountTransferDTO dueTransfer(final StandingInstructionData data, final LocalDate transactionDate,
+            final Map<Long, StandingInstructionDuesData> loanDues) {
+        boolean isDueForTransfer = false;
+        AccountTransferRecurrenceType recurrenceType = data.recurrenceType();
+        StandingInstructionType instructionType = data.instructionType();
+        if (recurrenceType.isPeriodicRecurrence()) {
+            final ScheduledDateGenerator scheduledDateGenerator = new DefaultScheduledDateGenerator();
+            PeriodFrequencyType frequencyType = data.recurrenceFrequency();
+            LocalDate startDate = data.validFrom();
+            if (frequencyType.isMonthly()) {
+                startDate = startDate.withDayOfMonth(data.recurrenceOnDay());
+                if (startDate.isBefore(data.validFrom())) {
+                    startDate = startDate.plusMonths(1);
                 }
-                if (recurrenceType.isDuesRecurrence()) {
-                    isDueForTransfer = new LocalDate().equals(standingInstructionDuesData.dueDate());
+            } else if (frequencyType.isYearly()) {
+                startDate = startDate.withDayOfMonth(data.recurrenceOnDay()).withMonthOfYear(data.recurrenceOnMonth());
+                if (startDate.isBefore(data.validFrom())) {
+                    startDate = startDate.plusYears(1);
                 }
             }
+            isDueForTransfer = scheduledDateGenerator.isDateFallsInSchedule(frequencyType, data.recurrenceInterval(), startDate,
+                    transactionDate);
 
-            if (isDueForTransfer && transactionAmount != null && transactionAmount.compareTo(BigDecimal.ZERO) > 0) {
-                final SavingsAccount fromSavingsAccount = null;
-                final boolean isRegularTransaction = true;
-                final boolean isExceptionForBalanceCheck = false;
-                AccountTransferDTO accountTransferDTO = new AccountTransferDTO(transactionDate, transactionAmount, data.fromAccountType(),
-                        data.toAccountType(), data.fromAccount().accountId(), data.toAccount().accountId(), data.name()
-                                + " Standing instruction trasfer ", null, null, null, null, data.toTransferType(), null, null, data
-                                .transferType().getValue(), null, null, null, null, null, fromSavingsAccount,
-                        isRegularTransaction, isExceptionForBalanceCheck);
-                final boolean transferCompleted = transferAmount(sb, accountTransferDTO, data.getId());
-
-                if(transferCompleted){
-                    final String updateQuery = "UPDATE m_account_transfer_standing_instructions SET last_run_date = ? where id = ?";
-                    this.jdbcTemplate.update(updateQuery, transactionDate.toDate(), data.getId());
-                }
+        }
+        BigDecimal transactionAmount = data.amount();
+        if (data.toAccountType().isLoanAccount()
+                && (recurrenceType.isDuesRecurrence() || (isDueForTransfer && instructionType.isDuesAmoutTransfer()))) {
+            StandingInstructionDuesData standingInstructionDuesData = loanDues.getOrDefault(data.toAccount().accountId(),
+                    NO_LOAN_DUES);
+            if (data.instructionType().isDuesAmoutTransfer()) {
+                transactionAmount = standingInstructionDuesData.totalDueAmount();
+            }
+            if (recurrenceType.isDuesRecurrence()) {
+                isDueForTransfer = transactionDate.equals(standingInstructionDuesData.dueDate());
+            }
+        }
+
+        if (!isDueForTransfer || transactionAmount == null || transactionAmount.compareTo(BigDecimal.ZERO) <= 0) { return null; }
+
+        final SavingsAccount fromSavingsAccount = null;
+        final boolean isRegularTransaction = true;
+        final boolean isExceptionForBalanceCheck = false;
+        return new AccountTransferDTO(transactionDate, transactionAmount, data.fromAccountType(), data.toAccountType(),
+                data.fromAccount().accountId(), data.toAccount().accountId(), data.name() + " Standing instruction trasfer ", null, null,
+                null, null, data.toTransferType(), null, null, data.transferType().getValue(), null, null, null, null, null,
+                fromSavingsAccount, isRegularTransaction, isExceptionForBalanceCheck);
+    }
 
+    /**
+     * Groups the transfers so that all transfers touching the same account,
+     * directly or through other transfers, end up in the same group. Groups are
+     * independent of each other and keep the priority order of the transfers.
+     */
+    private static Collection<List<StandingInstructionTransfer>> groupByAccount(final List<StandingInstructionTransfer> transfers) {
+        final Map<String, String> parents = new HashMap<>();
+        for (final StandingInstructionTransfer transfer : transfers) {
+            final String fromRoot = root(parents, transfer.fromAccountKey());
+            final String toRoot = root(parents, transfer.toAccountKey());
+            if (!fromRoot.equals(toRoot)) {
+                parents.put(toRoot, fromRoot);
             }
         }
-        if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+        final Map<String, List<StandingInstructionTransfer>> groups = new LinkedHashMap<>();
+        for (final StandingInstructionTransfer transfer : transfers) {
+            groups.computeIfAbsent(root(parents, transfer.fromAccountKey()), (key) -> new ArrayList<>()).add(transfer);
+        }
+        return groups.values();
+    }
 
+    private static String root(final Map<String, String> parents, final String accountKey) {
+        String root = accountKey;
+        String parent;
+        while ((parent = parents.get(root)) != null) {
+            root = parent;
+        }
+        if (!root.equals(accountKey)) {
+            parents.put(accountKey, root);
+        }
+        return root;
     }
 
     /**
-     * @param sb
-     * @param accountTransferDTO
+     * Executes the transfers of one group one after the other. Every transfer
+     * is committed together with the last run date of its instruction, so an
+     * interrupted run never transfers twice.
      */
-    private boolean transferAmount(final StringBuilder sb, final AccountTransferDTO accountTransferDTO, final Long instructionId) {
-        boolean transferCompleted = true;
+    private StandingInstructionGroupResult executeStandingInstructions(final List<StandingInstructionTransfer> group) {
+        final StandingInstructionGroupResult result = new StandingInstructionGroupResult();
+        for (final StandingInstructionTransfer transfer : group) {
+            result.history.add(transferAmount(result.errors, transfer.accountTransferDTO, transfer.instructionId));
+        }
+        return result;
+    }
+
+    private Object[] transferAmount(final StringBuilder sb, final AccountTransferDTO accountTransferDTO, final Long instructionId) {
         StringBuffer errorLog = new StringBuffer();
-        StringBuffer updateQuery = new StringBuffer(
-                "INSERT INTO `m_account_transfer_standing_instructions_history` (`standing_instruction_id`, `status`, `amount`,`execution_time`, `error_log`) VALUES (");
         try {
-            this.accountTransfersWritePlatformService.transferFunds(accountTransferDTO);
+            this.transactionTemplate.execute(status -> {
+                this.accountTransfersWritePlatformService.transferFunds(accountTransferDTO);
+                this.jdbcTemplate.update(UPDATE_LAST_RUN_DATE_SQL, accountTransferDTO.getTransactionDate().toDate(), instructionId);
+                return null;
+            });
         } catch (final PlatformApiDataValidationException e) {
             sb.append("Validation exception while trasfering funds for standing Instruction id").append(instructionId).append(" from ")
                     .append(accountTransferDTO.getFromAccountId()).append(" to ").append(accountTransferDTO.getToAccountId())
@@ -287,17 +413,32 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
             errorLog.append("Exception while trasfering funds " + e.getMessage());
 
         }
-        updateQuery.append(instructionId).append(",");
-        if (errorLog.length() > 0) {
-            transferCompleted = false;
-            updateQuery.append("'failed'").append(",");
-        } else {
-            updateQuery.append("'success'").append(",");
+        final String status = errorLog.length() > 0 ? "failed" : "success";
+        return new Object[] { instructionId, status, accountTransferDTO.getTransactionAmount(), new Date(), errorLog.toString() };
+    }
+
+    private static final class StandingInstructionTransfer {
+
+        private final Long instructionId;
+        private final AccountTransferDTO accountTransferDTO;
+
+        StandingInstructionTransfer(final Long instructionId, final AccountTransferDTO accountTransferDTO) {
+            this.instructionId = instructionId;
+            this.accountTransferDTO = accountTransferDTO;
+        }
+
+        String fromAccountKey() {
+            return this.accountTransferDTO.getFromAccountType() + ":" + this.accountTransferDTO.getFromAccountId();
+        }
+
+        String toAccountKey() {
+            return this.accountTransferDTO.getToAccountType() + ":" + this.accountTransferDTO.getToAccountId();
         }
-        updateQuery.append(accountTransferDTO.getTransactionAmount().doubleValue());
-        updateQuery.append(", now(),");
-        updateQuery.append("'").append(errorLog.toString()).append("')");
-        this.jdbcTemplate.update(updateQuery.toString());
-        return transferCompleted;
     }
-}
\ No newline at end of file
+
+    private static final class StandingInstructionGroupResult {
+
+        private final StringBuilder errors = new StringBuilder();
+        private final List<Object[]> history = new ArrayList<>();
+    }
+}
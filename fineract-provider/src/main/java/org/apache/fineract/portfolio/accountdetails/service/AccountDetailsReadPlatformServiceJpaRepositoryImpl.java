@@ -27,6 +27,7 @@ import java.util.List;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.core.service.AssociationLoader;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
 import org.apache.fineract.organisation.monetary.data.CurrencyData;
 import org.apache.fineract.portfolio.accountdetails.data.AccountSummaryCollectionData;
@@ -59,15 +60,18 @@ public class AccountDetailsReadPlatformServiceJpaRepositoryImpl implements Accou
     private final ClientReadPlatformService clientReadPlatformService;
     private final GroupReadPlatformService groupReadPlatformService;
     private final ColumnValidator columnValidator;
+    private final AssociationLoader associationLoader;
 
     @Autowired
     public AccountDetailsReadPlatformServiceJpaRepositoryImpl(final ClientReadPlatformService clientReadPlatformService,
             final DataSource dataSource, final GroupReadPlatformService groupReadPlatformService,
-            final ColumnValidator columnValidator) {
+            final ColumnValidator columnValidator,
+            final AssociationLoader associationLoader) {
         this.clientReadPlatformService = clientReadPlatformService;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.groupReadPlatformService = groupReadPlatformService;
         this.columnValidator = columnValidator;
+        this.associationLoader = associationLoader;
     }
 
     @Override
@@ -78,12 +82,19 @@ public class AccountDetailsReadPlatformServiceJpaRepositoryImpl implements Accou
         final String savingswhereClause = " where sa.client_id = ? order by sa.status_enum ASC, sa.account_no ASC";
         final String guarantorWhereClause = " where g.entity_id = ? and g.is_active = 1 order by l.account_no ASC";
 
-        final List<LoanAccountSummaryData> loanAccounts = retrieveLoanAccountDetails(loanwhereClause, new Object[] { clientId });
-        final List<SavingsAccountSummaryData> savingsAccounts = retrieveAccountDetails(savingswhereClause, new Object[] { clientId });
-        final List<ShareAccountSummaryData> shareAccounts = retrieveShareAccountDetails(clientId) ;
-        final List<GuarantorAccountSummaryData> guarantorloanAccounts = retrieveGuarantorLoanAccountDetails(
-				guarantorWhereClause, new Object[] { clientId });
-        return new AccountSummaryCollectionData(loanAccounts, savingsAccounts, shareAccounts, guarantorloanAccounts);
+        final AssociationLoader.Batch associations = this.associationLoader.batch("client " + clientId + " accounts");
+        final AssociationLoader.Association<List<LoanAccountSummaryData>> loanAccounts = associations.submit("loanAccounts",
+                () -> retrieveLoanAccountDetails(loanwhereClause, new Object[] { clientId }));
+        final AssociationLoader.Association<List<SavingsAccountSummaryData>> savingsAccounts = associations.submit("savingsAccounts",
+                () -> retrieveAccountDetails(savingswhereClause, new Object[] { clientId }));
+        final AssociationLoader.Association<List<ShareAccountSummaryData>> shareAccounts = associations.submit("shareAccounts",
+                () -> retrieveShareAccountDetails(clientId));
+        final AssociationLoader.Association<List<GuarantorAccountSummaryData>> guarantorloanAccounts = associations.submit(
+                "guarantorLoanAccounts", () -> retrieveGuarantorLoanAccountDetails(guarantorWhereClause, new Object[] { clientId }));
+        final AccountSummaryCollectionData accountSummaryCollectionData = new AccountSummaryCollectionData(loanAccounts.get(),
+                savingsAccounts.get(), shareAccounts.get(), guarantorloanAccounts.get());
+        associations.complete();
+        return accountSummaryCollectionData;
     }
 
     @Override
@@ -97,18 +108,26 @@ public class AccountDetailsReadPlatformServiceJpaRepositoryImpl implements Accou
         final String guarantorWhereClauseForGroup = " where l.group_id = ? and l.client_id is null and g.is_active = 1 order by l.account_no ASC";
         final String guarantorWhereClauseForMembers = " where l.group_id = ? and l.client_id is not null and g.is_active = 1 order by l.account_no ASC";
 
-        final List<LoanAccountSummaryData> groupLoanAccounts = retrieveLoanAccountDetails(loanWhereClauseForGroup, new Object[] { groupId });
-        final List<SavingsAccountSummaryData> groupSavingsAccounts = retrieveAccountDetails(savingswhereClauseForGroup,
-                new Object[] { groupId });
-        final List<GuarantorAccountSummaryData> groupGuarantorloanAccounts = retrieveGuarantorLoanAccountDetails(
-        		guarantorWhereClauseForGroup, new Object[] { groupId });
-        final List<LoanAccountSummaryData> memberLoanAccounts = retrieveLoanAccountDetails(loanWhereClauseForMembers,
-                new Object[] { groupId });
-        final List<SavingsAccountSummaryData> memberSavingsAccounts = retrieveAccountDetails(savingswhereClauseForMembers,
-                new Object[] { groupId });
-        final List<GuarantorAccountSummaryData> memberGuarantorloanAccounts = retrieveGuarantorLoanAccountDetails(
-        		guarantorWhereClauseForMembers, new Object[] { groupId });
-        return new AccountSummaryCollectionData(groupLoanAccounts, groupSavingsAccounts, groupGuarantorloanAccounts, memberLoanAccounts, memberSavingsAccounts, memberGuarantorloanAccounts);
+        final AssociationLoader.Batch associations = this.associationLoader.batch("group " + groupId + " accounts");
+        final AssociationLoader.Association<List<LoanAccountSummaryData>> groupLoanAccounts = associations.submit("groupLoanAccounts",
+                () -> retrieveLoanAccountDetails(loanWhereClauseForGroup, new Object[] { groupId }));
+        final AssociationLoader.Association<List<SavingsAccountSummaryData>> groupSavingsAccounts = associations.submit(
+                "groupSavingsAccounts", () -> retrieveAccountDetails(savingswhereClauseForGroup, new Object[] { groupId }));
+        final AssociationLoader.Association<List<GuarantorAccountSummaryData>> groupGuarantorloanAccounts = associations.submit(
+                "groupGuarantorLoanAccounts",
+                () -> retrieveGuarantorLoanAccountDetails(guarantorWhereClauseForGroup, new Object[] { groupId }));
+        final AssociationLoader.Association<List<LoanAccountSummaryData>> memberLoanAccounts = associations.submit(
+                "memberLoanAccounts", () -> retrieveLoanAccountDetails(loanWhereClauseForMembers, new Object[] { groupId }));
+        final AssociationLoader.Association<List<SavingsAccountSummaryData>> memberSavingsAccounts = associations.submit(
+                "memberSavingsAccounts", () -> retrieveAccountDetails(savingswhereClauseForMembers, new Object[] { groupId }));
+        final AssociationLoader.Association<List<GuarantorAccountSummaryData>> memberGuarantorloanAccounts = associations.submit(
+                "memberGuarantorLoanAccounts",
+                () -> retrieveGuarantorLoanAccountDetails(guarantorWhereClauseForMembers, new Object[] { groupId }));
+        final AccountSummaryCollectionData accountSummaryCollectionData = new AccountSummaryCollectionData(groupLoanAccounts.get(),
+                groupSavingsAccounts.get(), groupGuarantorloanAccounts.get(), memberLoanAccounts.get(), memberSavingsAccounts.get(),
+                memberGuarantorloanAccounts.get());
+        associations.complete();
+        return accountSummaryCollectionData;
     }
 
     @Override
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.common.api;
+
+import java.util.Collection;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriInfo;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.commands.service.CommandWrapperBuilder;
+import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
+import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.exception.UnrecognizedQueryParamException;
+import org.apache.fineract.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
+import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.portfolio.common.data.BusinessEventDeadLetterData;
+import org.apache.fineract.portfolio.common.service.BusinessEventOutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+@Path("businessevents")
+@Component
+@Scope("singleton")
+public class BusinessEventsApiResource {
+
+    private static final String RESOURCE_NAME_FOR_PERMISSIONS = "BUSINESSEVENT";
+
+    private final PlatformSecurityContext context;
+    private final BusinessEventOutboxService businessEventOutboxService;
+    private final ToApiJsonSerializer<Object> toApiJsonSerializer;
+    private final ApiRequestParameterHelper apiRequestParameterHelper;
+    private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
+
+    @Autowired
+    public BusinessEventsApiResource(final PlatformSecurityContext context, final BusinessEventOutboxService businessEventOutboxService,
+            final ToApiJsonSerializer<Object> toApiJsonSerializer, final ApiRequestParameterHelper apiRequestParameterHelper,
+            final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
+        this.context = context;
+        this.businessEventOutboxService = businessEventOutboxService;
+        this.toApiJsonSerializer = toApiJsonSerializer;
+        this.apiRequestParameterHelper = apiRequestParameterHelper;
+        this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
+    }
+
+    @GET
+    @Path("deadletters")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String retrieveDeadLetters(@Context final UriInfo uriInfo, @DefaultValue("200") @QueryParam("limit") final Integer limit) {
+
+        this.context.authenticatedUser().validateHasReadPermission(RESOURCE_NAME_FOR_PERMISSIONS);
+
+        final Collection<BusinessEventDeadLetterData> deadLetters = this.businessEventOutboxService.retrieveDeadLetters(limit);
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.toApiJsonSerializer.serialize(settings, deadLetters);
+    }
+
+    @POST
+    @Path("deadletters")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String replayDeadLetters(@QueryParam("command") final String commandParam) {
+        validateReplay(commandParam);
+        // the relay dispatches the replayed events in the background
+        return replay(new CommandWrapperBuilder().withNoJsonBody().replayBusinessEventDeadLetters().build());
+    }
+
+    @POST
+    @Path("deadletters/{deadLetterId}")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String replayDeadLetter(@PathParam("deadLetterId") final Long deadLetterId, @QueryParam("command") final String commandParam) {
+        validateReplay(commandParam);
+        return replay(new CommandWrapperBuilder().withNoJsonBody().replayBusinessEventDeadLetter(deadLetterId).build());
+    }
+
+    private String replay(final CommandWrapper commandRequest) {
+        final CommandProcessingResult result = this.commandsSourceWritePlatformService.logCommandSource(commandRequest);
+        return this.toApiJsonSerializer.serialize(result);
+    }
+
+    private void validateReplay(final String commandParam) {
+        if (StringUtils.isBlank(commandParam) || !commandParam.trim().equalsIgnoreCase("replay")) {
+            throw new UnrecognizedQueryParamException("command", commandParam);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.common.data;
+
+import java.util.Date;
+
+/**
+ * Immutable data object for a business event a listener still failed on
+ * after the last retry.
+ */
+public class BusinessEventDeadLetterData {
+
+    @SuppressWarnings("unused")
+    private final Long id;
+    @SuppressWarnings("unused")
+    private final Long outboxId;
+    @SuppressWarnings("unused")
+    private final String event;
+    @SuppressWarnings("unused")
+    private final String listener;
+    @SuppressWarnings("unused")
+    private final String aggregateType;
+    @SuppressWarnings("unused")
+    private final Long aggregateId;
+    @SuppressWarnings("unused")
+    private final Long actorId;
+    @SuppressWarnings("unused")
+    private final Integer attempts;
+    @SuppressWarnings("unused")
+    private final Date createdOn;
+    @SuppressWarnings("unused")
+    private final Date failedOn;
+    @SuppressWarnings("unused")
+    private final String lastError;
+
+    public BusinessEventDeadLetterData(final Long id, final Long outboxId, final String event, final String listener,
+            final String aggregateType, final Long aggregateId, final Long actorId, final Integer attempts, final Date createdOn,
+            final Date failedOn, final String lastError) {
+        this.id = id;
+        this.outboxId = outboxId;
+        this.event = event;
+        this.listener = listener;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.actorId = actorId;
+        this.attempts = attempts;
+        this.createdOn = createdOn;
+        this.failedOn = failedOn;
+        this.lastError = lastError;
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.common.data;
+
+/**
+ * Immutable data object for an entry of the business event outbox, i. e. a
+ * business event still to be handed to one post-processing listener.
+ */
+public class BusinessEventOutboxData {
+
+    private final Long id;
+    private final String event;
+    private final String listener;
+    private final String aggregateType;
+    private final Long aggregateId;
+    private final String payload;
+    private final Long actorId;
+    private final int attempts;
+
+    public BusinessEventOutboxData(final Long id, final String event, final String listener, final String aggregateType,
+            final Long aggregateId, final String payload, final Long actorId, final int attempts) {
+        this.id = id;
+        this.event = event;
+        this.listener = listener;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.actorId = actorId;
+        this.attempts = attempts;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public String getEvent() {
+        return this.event;
+    }
+
+    public String getListener() {
+        return this.listener;
+    }
+
+    public String getAggregateType() {
+        return this.aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return this.aggregateId;
+    }
+
+    public String getPayload() {
+        return this.payload;
+    }
+
+    public Long getActorId() {
+        return this.actorId;
+    }
+
+    public int getAttempts() {
+        return this.attempts;
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.common.handler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.fineract.commands.annotation.CommandType;
+import org.apache.fineract.commands.handler.NewCommandSourceHandler;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.portfolio.common.service.BusinessEventOutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves one dead letter, or all of them when no dead letter is given, back
+ * into the business event outbox; the relay dispatches them after commit.
+ */
+@Service
+@CommandType(entity = "BUSINESSEVENT", action = "REPLAY")
+public class ReplayBusinessEventDeadLettersCommandHandler implements NewCommandSourceHandler {
+
+    private final BusinessEventOutboxService businessEventOutboxService;
+
+    @Autowired
+    public ReplayBusinessEventDeadLettersCommandHandler(final BusinessEventOutboxService businessEventOutboxService) {
+        this.businessEventOutboxService = businessEventOutboxService;
+    }
+
+    @Override
+    public CommandProcessingResult processCommand(final JsonCommand command) {
+        final Map<String, Object> changes = new HashMap<>();
+        if (command.entityId() == null) {
+            changes.put("replayed", this.businessEventOutboxService.replayAll());
+        } else {
+            this.businessEventOutboxService.replay(command.entityId());
+            changes.put("replayed", 1);
+        }
+        return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withEntityId(command.entityId()).with(changes)
+                .build();
+    }
+
+}
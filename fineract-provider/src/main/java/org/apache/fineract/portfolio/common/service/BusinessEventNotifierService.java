@@ -38,7 +38,8 @@ public interface BusinessEventNotifierService {
 
     /**
      * Method should be called to notify listeners after Business event
-     * execution for any post-processing of event
+     * execution for any post-processing of event; listeners that are not
+     * {@link SynchronousBusinessEventListner}s are invoked after commit
      */
     public void notifyBusinessEventWasExecuted(BUSINESS_EVENTS businessEvent, Map<BUSINESS_ENTITY, Object> businessEventEntity);
 
@@ -54,4 +55,10 @@ public interface BusinessEventNotifierService {
      */
     public void addBusinessEventPostListners(BUSINESS_EVENTS businessEvent, BusinessEventListner businessEventListner);
 
+    /**
+     * Method is to find the post-processing listener a business event outbox
+     * entry was recorded for, null when it is no longer registered
+     */
+    public BusinessEventListner findBusinessEventPostListner(BUSINESS_EVENTS businessEvent, String listnerKey);
+
 }
@@ -19,19 +19,41 @@
 package org.apache.fineract.portfolio.common.service;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
 import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_ENTITY;
 import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
 
 @Service
 public class BusinessEventNotifierServiceImpl implements BusinessEventNotifierService {
 
-    private final Map<BUSINESS_EVENTS, List<BusinessEventListner>> preListners = new HashMap<>(5);
-    private final Map<BUSINESS_EVENTS, List<BusinessEventListner>> postListners = new HashMap<>(5);
+    private static final boolean DEFAULT_OUTBOX_ENABLED = true;
+
+    // the business event relay reads the post listeners from its own thread
+    private final Map<BUSINESS_EVENTS, List<BusinessEventListner>> preListners = new ConcurrentHashMap<>(5);
+    private final Map<BUSINESS_EVENTS, List<BusinessEventListner>> postListners = new ConcurrentHashMap<>(5);
+
+    private final BusinessEventOutboxService businessEventOutboxService;
+    private final boolean outboxEnabled;
+
+    @Autowired
+    public BusinessEventNotifierServiceImpl(final BusinessEventOutboxService businessEventOutboxService,
+            final FineractProperties fineractProperties) {
+        this.businessEventOutboxService = businessEventOutboxService;
+        final FineractProperties.FineractPropertiesEvents eventProperties = fineractProperties.getEvents();
+        this.outboxEnabled = eventProperties == null || eventProperties.getOutboxEnabled() == null ? DEFAULT_OUTBOX_ENABLED
+                : eventProperties.getOutboxEnabled();
+    }
 
     /*
      * (non-Javadoc)
@@ -67,8 +89,18 @@ public class BusinessEventNotifierServiceImpl implements BusinessEventNotifierSe
     public void notifyBusinessEventWasExecuted(BUSINESS_EVENTS businessEvent, Map<BUSINESS_ENTITY, Object> businessEventEntity) {
         List<BusinessEventListner> businessEventListners = this.postListners.get(businessEvent);
         if (businessEventListners != null) {
+            final List<String> outboxListnerKeys = new ArrayList<>();
             for (BusinessEventListner eventListner : businessEventListners) {
-                eventListner.businessEventWasExecuted(businessEventEntity);
+                if (!this.outboxEnabled || eventListner instanceof SynchronousBusinessEventListner) {
+                    eventListner.businessEventWasExecuted(businessEventEntity);
+                } else {
+                    outboxListnerKeys.add(listnerKey(businessEventListners, eventListner));
+                }
+            }
+            if (!outboxListnerKeys.isEmpty()) {
+                final Map.Entry<String, Long> aggregate = BusinessEventOutboxPayload.aggregateOf(businessEventEntity);
+                this.businessEventOutboxService.enqueue(businessEvent, outboxListnerKeys, aggregate.getKey(), aggregate.getValue(),
+                        BusinessEventOutboxPayload.serialize(businessEventEntity), authenticatedUserId());
             }
         }
     }
@@ -105,12 +137,43 @@ public class BusinessEventNotifierServiceImpl implements BusinessEventNotifierSe
 
     private void addBusinessEventListners(BUSINESS_EVENTS businessEvent, BusinessEventListner businessEventListner,
             final Map<BUSINESS_EVENTS, List<BusinessEventListner>> businessEventListnerMap) {
-        List<BusinessEventListner> businessEventListners = businessEventListnerMap.get(businessEvent);
-        if (businessEventListners == null) {
-            businessEventListners = new ArrayList<>();
-            businessEventListnerMap.put(businessEvent, businessEventListners);
+        businessEventListnerMap.computeIfAbsent(businessEvent, (event) -> new CopyOnWriteArrayList<>()).add(businessEventListner);
+    }
+
+    @Override
+    public BusinessEventListner findBusinessEventPostListner(BUSINESS_EVENTS businessEvent, String listnerKey) {
+        List<BusinessEventListner> businessEventListners = this.postListners.get(businessEvent);
+        if (businessEventListners != null) {
+            for (BusinessEventListner eventListner : businessEventListners) {
+                if (listnerKey(businessEventListners, eventListner).equals(listnerKey)) { return eventListner; }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Outbox entries name their listener by class, which stays the same
+     * across restarts and nodes; a class registered more than once for an
+     * event is told apart by the order of registration.
+     */
+    private static String listnerKey(final List<BusinessEventListner> businessEventListners, final BusinessEventListner businessEventListner) {
+        final Class<?> listnerClass = ClassUtils.getUserClass(businessEventListner);
+        int occurrence = 0;
+        for (final BusinessEventListner eventListner : businessEventListners) {
+            if (eventListner == businessEventListner) {
+                break;
+            }
+            if (ClassUtils.getUserClass(eventListner) == listnerClass) {
+                occurrence++;
+            }
         }
-        businessEventListners.add(businessEventListner);
+        return occurrence == 0 ? listnerClass.getName() : listnerClass.getName() + "#" + occurrence;
+    }
+
+    private static Long authenticatedUserId() {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AppUser ? ((AppUser) authentication.getPrincipal()).getId()
+                : null;
     }
 
 }
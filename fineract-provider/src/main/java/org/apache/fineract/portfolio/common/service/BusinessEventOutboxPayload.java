@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.common.service;
+
+import java.util.AbstractMap;
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_ENTITY;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
+import org.hibernate.Hibernate;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Converts the entities of a business event to and from the payload of a
+ * business event outbox entry.
+ * <p>
+ * Entities are stored as type and id and are loaded again when the event is
+ * dispatched, so listeners see the committed state; an entity deleted in the
+ * meantime fails the entry with {@link MissingEntityException}. Other values
+ * are stored with their scalar fields only.
+ */
+final class BusinessEventOutboxPayload {
+
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String VALUE = "value";
+
+    private static final Gson GSON = new GsonBuilder().setExclusionStrategies(new ExclusionStrategy() {
+
+        @Override
+        public boolean shouldSkipField(final FieldAttributes field) {
+            final Class<?> type = field.getDeclaredClass();
+            return !(type.isPrimitive() || type.isEnum() || Number.class.isAssignableFrom(type) || type == String.class
+                    || type == Boolean.class || type == Character.class);
+        }
+
+        @Override
+        public boolean shouldSkipClass(@SuppressWarnings("unused") final Class<?> type) {
+            return false;
+        }
+    }).create();
+
+    private BusinessEventOutboxPayload() {}
+
+    static String serialize(final Map<BUSINESS_ENTITY, Object> businessEventEntity) {
+        final JsonObject payload = new JsonObject();
+        for (final Map.Entry<BUSINESS_ENTITY, Object> entry : businessEventEntity.entrySet()) {
+            final Object entity = entry.getValue();
+            if (entity == null) {
+                continue;
+            }
+            final JsonObject element = new JsonObject();
+            if (entity instanceof AbstractPersistableCustom) {
+                element.addProperty(TYPE, Hibernate.getClass(entity).getName());
+                element.addProperty(ID, ((AbstractPersistableCustom<?>) entity).getId());
+            } else {
+                element.addProperty(TYPE, entity.getClass().getName());
+                element.add(VALUE, GSON.toJsonTree(entity));
+            }
+            payload.add(entry.getKey().name(), element);
+        }
+        return payload.toString();
+    }
+
+    static Map<BUSINESS_ENTITY, Object> deserialize(final String payload, final EntityManager entityManager) {
+        final Map<BUSINESS_ENTITY, Object> businessEventEntity = new EnumMap<>(BUSINESS_ENTITY.class);
+        for (final Map.Entry<String, JsonElement> entry : new JsonParser().parse(payload).getAsJsonObject().entrySet()) {
+            final JsonObject element = entry.getValue().getAsJsonObject();
+            final Class<?> type = typeOf(element.get(TYPE).getAsString());
+            final Object entity;
+            if (element.has(ID)) {
+                final Long id = element.get(ID).getAsLong();
+                entity = entityManager.find(type, id);
+                // a listener handed an incomplete event would fail or act on the wrong data
+                if (entity == null) { throw new MissingEntityException(type, id); }
+            } else {
+                entity = GSON.fromJson(element.get(VALUE), type);
+            }
+            businessEventEntity.put(BUSINESS_ENTITY.valueOf(entry.getKey()), entity);
+        }
+        return businessEventEntity;
+    }
+
+    /**
+     * The aggregate whose events a listener receives in order: loans for
+     * their transactions and charges, savings accounts for theirs, otherwise
+     * the first entity of the event.
+     */
+    static Map.Entry<String, Long> aggregateOf(final Map<BUSINESS_ENTITY, Object> businessEventEntity) {
+        for (final BUSINESS_ENTITY entityType : BUSINESS_ENTITY.values()) {
+            final Object entity = businessEventEntity.get(entityType);
+            if (entity instanceof LoanTransaction) {
+                return aggregate(BUSINESS_ENTITY.LOAN, ((LoanTransaction) entity).getLoan().getId());
+            } else if (entity instanceof LoanCharge) {
+                return aggregate(BUSINESS_ENTITY.LOAN, ((LoanCharge) entity).getLoan().getId());
+            } else if (entity instanceof SavingsAccountTransaction) {
+                return aggregate(BUSINESS_ENTITY.SAVING, ((SavingsAccountTransaction) entity).getSavingsAccount().getId());
+            } else if (entity instanceof SavingsAccount) {
+                return aggregate(BUSINESS_ENTITY.SAVING, ((SavingsAccount) entity).getId());
+            } else if (entity instanceof AbstractPersistableCustom) {
+                return aggregate(entityType, ((AbstractPersistableCustom<?>) entity).getId());
+            } else if (entity instanceof CommandProcessingResult) {
+                return aggregate(entityType, ((CommandProcessingResult) entity).resourceId());
+            } else if (entity instanceof Long) {
+                return aggregate(entityType, (Long) entity);
+            } else if (entity != null) {
+                return aggregate(entityType, null);
+            }
+        }
+        return aggregate(null, null);
+    }
+
+    private static Map.Entry<String, Long> aggregate(final BUSINESS_ENTITY entityType, final Long id) {
+        return new AbstractMap.SimpleImmutableEntry<>(entityType == null ? "" : entityType.name(), id == null ? 0L : id);
+    }
+
+    /**
+     * An entity of the event no longer exists; retrying will not bring it
+     * back.
+     */
+    static final class MissingEntityException extends RuntimeException {
+
+        private static final long serialVersionUID = 8718133413062499526L;
+
+        MissingEntityException(final Class<?> type, final Long id) {
+            super(type.getSimpleName() + " " + id + " no longer exists");
+        }
+    }
+
+    private static Class<?> typeOf(final String name) {
+        try {
+            return Class.forName(name);
+        } catch (final ClassNotFoundException e) {
+            throw new IllegalStateException("Unknown business event entity type " + name, e);
+        }
+    }
+}
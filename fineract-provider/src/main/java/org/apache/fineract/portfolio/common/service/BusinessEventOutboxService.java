@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.common.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
+import org.apache.fineract.portfolio.common.data.BusinessEventDeadLetterData;
+import org.apache.fineract.portfolio.common.data.BusinessEventOutboxData;
+
+/**
+ * Stores business events until their post-processing listeners ran.
+ * <p>
+ * Entries are written in the transaction of the business event, so they
+ * exist exactly when the event committed, and are handed to the listeners
+ * by the {@link BusinessEventRelay}: in order per listener and aggregate,
+ * retried with a growing delay and moved to the dead letters when they keep
+ * failing. A dead letter holds back the later entries of its listener and
+ * aggregate until it is replayed.
+ */
+public interface BusinessEventOutboxService {
+
+    /**
+     * Adds one entry per listener, joining the current transaction.
+     */
+    void enqueue(BUSINESS_EVENTS businessEvent, Collection<String> listnerKeys, String aggregateType, Long aggregateId, String payload,
+            Long actorId);
+
+    /**
+     * The oldest entries that are due, at most one per listener and aggregate.
+     * Entries behind a dead letter of their listener and aggregate are held
+     * back until it is replayed.
+     */
+    List<BusinessEventOutboxData> retrieveDue(int limit);
+
+    /**
+     * Counts an attempt and hides the entry from other relays for the given
+     * time; false when another relay got the entry first.
+     */
+    boolean claim(Long id, int leaseSeconds);
+
+    /**
+     * Removes the entry, joining the transaction its listener ran in.
+     */
+    void delivered(Long id);
+
+    void retryLater(Long id, int delaySeconds, String error);
+
+    void deadLetter(Long id, String error);
+
+    Collection<BusinessEventDeadLetterData> retrieveDeadLetters(int limit);
+
+    /**
+     * Moves the dead letter back into the outbox under its original id, so it
+     * is dispatched before the entries of its aggregate it held back.
+     */
+    void replay(Long deadLetterId);
+
+    /**
+     * Moves all dead letters back into the outbox.
+     *
+     * @return the number of replayed dead letters
+     */
+    int replayAll();
+}
@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.common.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
+import org.apache.fineract.portfolio.common.data.BusinessEventDeadLetterData;
+import org.apache.fineract.portfolio.common.data.BusinessEventOutboxData;
+import org.apache.fineract.portfolio.common.exception.BusinessEventDeadLetterNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class BusinessEventOutboxServiceImpl implements BusinessEventOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    public BusinessEventOutboxServiceImpl(final DataSource dataSource, final ApplicationEventPublisher applicationEventPublisher) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public void enqueue(final BUSINESS_EVENTS businessEvent, final Collection<String> listnerKeys, final String aggregateType,
+            final Long aggregateId, final String payload, final Long actorId) {
+        final List<Object[]> batchArgs = new ArrayList<>(listnerKeys.size());
+        for (final String listnerKey : listnerKeys) {
+            batchArgs.add(new Object[] { businessEvent.name(), listnerKey, aggregateType, aggregateId, payload, actorId });
+        }
+        this.jdbcTemplate.batchUpdate("INSERT INTO m_business_event_outbox (event, listener, aggregate_type, aggregate_id, payload, actor_id, "
+                + "created_on, attempts, next_attempt_on) VALUES (?, ?, ?, ?, ?, ?, NOW(), 0, NOW())", batchArgs);
+        this.applicationEventPublisher.publishEvent(new BusinessEventsEnqueuedEvent(this));
+    }
+
+    @Override
+    public List<BusinessEventOutboxData> retrieveDue(final int limit) {
+        // an entry is only due once the entries before it for the same listener and aggregate are gone, including dead letters
+        return this.jdbcTemplate.query("SELECT o.id, o.event, o.listener, o.aggregate_type, o.aggregate_id, o.payload, o.actor_id, o.attempts "
+                + "FROM m_business_event_outbox o WHERE o.next_attempt_on <= NOW() AND NOT EXISTS (SELECT p.id FROM m_business_event_outbox p "
+                + "WHERE p.listener = o.listener AND p.aggregate_type = o.aggregate_type AND p.aggregate_id = o.aggregate_id AND p.id < o.id) "
+                + "AND NOT EXISTS (SELECT d.id FROM m_business_event_dead_letter d WHERE d.listener = o.listener "
+                + "AND d.aggregate_type = o.aggregate_type AND d.aggregate_id = o.aggregate_id AND d.outbox_id < o.id) "
+                + "ORDER BY o.id LIMIT ?", new OutboxMapper(), limit);
+    }
+
+    @Override
+    public boolean claim(final Long id, final int leaseSeconds) {
+        return this.jdbcTemplate.update("UPDATE m_business_event_outbox SET attempts = attempts + 1, "
+                + "next_attempt_on = DATE_ADD(NOW(), INTERVAL ? SECOND) WHERE id = ? AND next_attempt_on <= NOW()", leaseSeconds, id) == 1;
+    }
+
+    @Override
+    public void delivered(final Long id) {
+        this.jdbcTemplate.update("DELETE FROM m_business_event_outbox WHERE id = ?", id);
+    }
+
+    @Override
+    public void retryLater(final Long id, final int delaySeconds, final String error) {
+        this.jdbcTemplate.update("UPDATE m_business_event_outbox SET next_attempt_on = DATE_ADD(NOW(), INTERVAL ? SECOND), last_error = ? "
+                + "WHERE id = ?", delaySeconds, StringUtils.left(error, MAX_ERROR_LENGTH), id);
+    }
+
+    @Override
+    @Transactional
+    public void deadLetter(final Long id, final String error) {
+        this.jdbcTemplate.update("INSERT INTO m_business_event_dead_letter (outbox_id, event, listener, aggregate_type, aggregate_id, payload, "
+                + "actor_id, created_on, attempts, failed_on, last_error) SELECT id, event, listener, aggregate_type, aggregate_id, payload, "
+                + "actor_id, created_on, attempts, NOW(), ? FROM m_business_event_outbox WHERE id = ?", StringUtils.left(error, MAX_ERROR_LENGTH),
+                id);
+        this.jdbcTemplate.update("DELETE FROM m_business_event_outbox WHERE id = ?", id);
+    }
+
+    @Override
+    public Collection<BusinessEventDeadLetterData> retrieveDeadLetters(final int limit) {
+        return this.jdbcTemplate.query("SELECT id, outbox_id, event, listener, aggregate_type, aggregate_id, actor_id, attempts, created_on, "
+                + "failed_on, last_error FROM m_business_event_dead_letter ORDER BY id LIMIT ?", new DeadLetterMapper(), limit);
+    }
+
+    @Override
+    @Transactional
+    public void replay(final Long deadLetterId) {
+        final int replayed = this.jdbcTemplate.update(replaySql("WHERE id = ?"), deadLetterId);
+        if (replayed == 0) { throw new BusinessEventDeadLetterNotFoundException(deadLetterId); }
+        this.jdbcTemplate.update("DELETE FROM m_business_event_dead_letter WHERE id = ?", deadLetterId);
+        this.applicationEventPublisher.publishEvent(new BusinessEventsEnqueuedEvent(this));
+    }
+
+    @Override
+    @Transactional
+    public int replayAll() {
+        final Long lastId = this.jdbcTemplate.queryForObject("SELECT MAX(id) FROM m_business_event_dead_letter", Long.class);
+        if (lastId == null) { return 0; }
+        final int replayed = this.jdbcTemplate.update(replaySql("WHERE id <= ?"), lastId);
+        this.jdbcTemplate.update("DELETE FROM m_business_event_dead_letter WHERE id <= ?", lastId);
+        this.applicationEventPublisher.publishEvent(new BusinessEventsEnqueuedEvent(this));
+        return replayed;
+    }
+
+    private static String replaySql(final String where) {
+        // the original id puts the entry back in front of the entries its dead letter held back
+        return "INSERT INTO m_business_event_outbox (id, event, listener, aggregate_type, aggregate_id, payload, actor_id, created_on, "
+                + "attempts, next_attempt_on) SELECT outbox_id, event, listener, aggregate_type, aggregate_id, payload, actor_id, created_on, "
+                + "0, NOW() FROM m_business_event_dead_letter " + where;
+    }
+
+    private static final class OutboxMapper implements RowMapper<BusinessEventOutboxData> {
+
+        @Override
+        public BusinessEventOutboxData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new BusinessEventOutboxData(rs.getLong("id"), rs.getString("event"), rs.getString("listener"),
+                    rs.getString("aggregate_type"), rs.getLong("aggregate_id"), rs.getString("payload"), JdbcSupport.getLong(rs, "actor_id"),
+                    rs.getInt("attempts"));
+        }
+    }
+
+    private static final class DeadLetterMapper implements RowMapper<BusinessEventDeadLetterData> {
+
+        @Override
+        public BusinessEventDeadLetterData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new BusinessEventDeadLetterData(rs.getLong("id"), rs.getLong("outbox_id"), rs.getString("event"), rs.getString("listener"),
+                    rs.getString("aggregate_type"), rs.getLong("aggregate_id"), JdbcSupport.getLong(rs, "actor_id"), rs.getInt("attempts"),
+                    rs.getTimestamp("created_on"), rs.getTimestamp("failed_on"), rs.getString("last_error"));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.common.service;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
+import org.apache.fineract.portfolio.common.data.BusinessEventOutboxData;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.apache.fineract.useradministration.domain.AppUserRepositoryWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.core.authority.mapping.NullAuthoritiesMapper;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands the entries of the business event outbox to their listeners.
+ * <p>
+ * The relay runs on one background thread per node. It is woken up after
+ * every commit that added entries and otherwise polls every
+ * <code>fineract.events.relayPollMillis</code>, so entries of a node that
+ * went down are picked up by the others. Each listener runs in its own
+ * transaction, as the user who caused the event, and the entry is removed in
+ * that same transaction; a failing entry is retried with a doubling delay and
+ * becomes a dead letter after <code>fineract.events.maxAttempts</code>, or
+ * right away when an entity of the event was deleted since.
+ * Delivery is at least once: an entry whose relay dies mid-way is dispatched
+ * again once its claim expires.
+ */
+@Component
+public class BusinessEventRelay {
+
+    private final static Logger logger = LoggerFactory.getLogger(BusinessEventRelay.class);
+    private static final int DEFAULT_POLL_MILLIS = 1000;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int DEFAULT_MAX_ATTEMPTS = 10;
+    private static final int DEFAULT_RETRY_BACKOFF_SECONDS = 5;
+    private static final int DEFAULT_DISPATCH_LEASE_SECONDS = 300;
+    private static final int MAX_RETRY_BACKOFF_SECONDS = 3600;
+
+    private final BusinessEventNotifierService businessEventNotifierService;
+    private final BusinessEventOutboxService businessEventOutboxService;
+    private final AppUserRepository appUserRepository;
+    private final AppUserRepositoryWrapper appUserRepositoryWrapper;
+    private final TransactionTemplate transactionTemplate;
+    private final GrantedAuthoritiesMapper authoritiesMapper = new NullAuthoritiesMapper();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final int pollMillis;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final int retryBackoffSeconds;
+    private final int dispatchLeaseSeconds;
+    private ScheduledExecutorService relay;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public BusinessEventRelay(final BusinessEventNotifierService businessEventNotifierService,
+            final BusinessEventOutboxService businessEventOutboxService, final AppUserRepository appUserRepository,
+            final AppUserRepositoryWrapper appUserRepositoryWrapper, final PlatformTransactionManager transactionManager,
+            final FineractProperties fineractProperties) {
+        this.businessEventNotifierService = businessEventNotifierService;
+        this.businessEventOutboxService = businessEventOutboxService;
+        this.appUserRepository = appUserRepository;
+        this.appUserRepositoryWrapper = appUserRepositoryWrapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        final FineractProperties.FineractPropertiesEvents eventProperties = fineractProperties.getEvents();
+        this.pollMillis = eventProperties == null || eventProperties.getRelayPollMillis() == null ? DEFAULT_POLL_MILLIS
+                : eventProperties.getRelayPollMillis();
+        this.batchSize = eventProperties == null || eventProperties.getRelayBatchSize() == null ? DEFAULT_BATCH_SIZE
+                : eventProperties.getRelayBatchSize();
+        this.maxAttempts = eventProperties == null || eventProperties.getMaxAttempts() == null ? DEFAULT_MAX_ATTEMPTS
+                : eventProperties.getMaxAttempts();
+        this.retryBackoffSeconds = eventProperties == null || eventProperties.getRetryBackoffSeconds() == null
+                ? DEFAULT_RETRY_BACKOFF_SECONDS
+                : eventProperties.getRetryBackoffSeconds();
+        this.dispatchLeaseSeconds = eventProperties == null || eventProperties.getDispatchLeaseSeconds() == null
+                ? DEFAULT_DISPATCH_LEASE_SECONDS
+                : eventProperties.getDispatchLeaseSeconds();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        // also runs with the outbox switched off, to drain the entries written before
+        if (this.relay != null) { return; }
+        this.relay = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+            final Thread thread = new Thread(runnable, "business-event-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.relay.scheduleWithFixedDelay(this::relay, 0, this.pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (this.relay != null) {
+            this.relay.shutdownNow();
+            this.relay = null;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void wakeUp(@SuppressWarnings("unused") final BusinessEventsEnqueuedEvent event) {
+        // one pending wake up covers all commits until the relay gets to it
+        if (this.relay != null && this.wakeUpPending.compareAndSet(false, true)) {
+            this.relay.execute(this::relay);
+        }
+    }
+
+    void relay() {
+        this.wakeUpPending.set(false);
+        try {
+            // only the head entry of an aggregate is due, so fetch again as long as a pass dispatched anything
+            boolean dispatched;
+            do {
+                dispatched = false;
+                for (final BusinessEventOutboxData entry : this.businessEventOutboxService.retrieveDue(this.batchSize)) {
+                    if (this.businessEventOutboxService.claim(entry.getId(), this.dispatchLeaseSeconds)) {
+                        dispatch(entry);
+                        dispatched = true;
+                    }
+                }
+            } while (dispatched);
+        } catch (final RuntimeException e) {
+            // keep polling, a failure must not cancel the periodic task
+            logger.error("Could not relay the business event outbox", e);
+        }
+    }
+
+    private void dispatch(final BusinessEventOutboxData entry) {
+        final BusinessEventListner listner = this.businessEventNotifierService
+                .findBusinessEventPostListner(BUSINESS_EVENTS.valueOf(entry.getEvent()), entry.getListener());
+        if (listner == null) {
+            // retrying will not register it, most likely the listener was removed by an upgrade
+            this.businessEventOutboxService.deadLetter(entry.getId(), "No listener " + entry.getListener() + " is registered");
+            logger.warn("Business event {} {} has no listener {}, moved to the dead letters", entry.getEvent(), entry.getId(),
+                    entry.getListener());
+            return;
+        }
+        try {
+            this.transactionTemplate.execute((status) -> {
+                authenticate(entry.getActorId());
+                listner.businessEventWasExecuted(BusinessEventOutboxPayload.deserialize(entry.getPayload(), this.entityManager));
+                this.businessEventOutboxService.delivered(entry.getId());
+                return null;
+            });
+        } catch (final BusinessEventOutboxPayload.MissingEntityException e) {
+            this.businessEventOutboxService.deadLetter(entry.getId(), e.getMessage());
+            logger.warn("Business event {} {} for {} moved to the dead letters: {}", entry.getEvent(), entry.getId(), entry.getListener(),
+                    e.getMessage());
+        } catch (final RuntimeException e) {
+            final int attempts = entry.getAttempts() + 1;
+            final String error = ExceptionUtils.getRootCauseMessage(e);
+            if (attempts >= this.maxAttempts) {
+                this.businessEventOutboxService.deadLetter(entry.getId(), error);
+                logger.error("Business event {} {} failed {} times on {}, moved to the dead letters", entry.getEvent(), entry.getId(),
+                        attempts, entry.getListener(), e);
+            } else {
+                this.businessEventOutboxService.retryLater(entry.getId(), retryDelaySeconds(attempts), error);
+                logger.warn("Business event {} {} failed on {}, will retry: {}", entry.getEvent(), entry.getId(), entry.getListener(), error);
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void authenticate(final Long actorId) {
+        final AppUser user = actorId == null ? this.appUserRepositoryWrapper.fetchSystemUser()
+                : this.appUserRepository.findById(actorId).orElseGet(this.appUserRepositoryWrapper::fetchSystemUser);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, user.getPassword(), this.authoritiesMapper.mapAuthorities(user.getAuthorities())));
+    }
+
+    int retryDelaySeconds(final int attempts) {
+        return (int) Math.min(MAX_RETRY_BACKOFF_SECONDS, (long) this.retryBackoffSeconds << Math.min(attempts - 1, 20));
+    }
+}
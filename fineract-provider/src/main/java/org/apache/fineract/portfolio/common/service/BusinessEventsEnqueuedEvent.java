@@ -16,13 +16,18 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.fineract.accounting.trialbalance.exception;
+package org.apache.fineract.portfolio.common.service;
 
-import org.apache.fineract.infrastructure.core.exception.AbstractPlatformResourceNotFoundException;
+import org.springframework.context.ApplicationEvent;
 
-public class TrialBalanceNotFoundException extends AbstractPlatformResourceNotFoundException{
-    public TrialBalanceNotFoundException(final Long officeId,final Long accountId){
-        super("error.msg.trial.balance.invalid", "Trial balance with officeId " + officeId +"and accountId"+accountId+" does not exist");
+/**
+ * Published when entries were added to the business event outbox; the
+ * {@link BusinessEventRelay} picks it up once the transaction has committed.
+ */
+@SuppressWarnings("serial")
+public class BusinessEventsEnqueuedEvent extends ApplicationEvent {
 
+    public BusinessEventsEnqueuedEvent(final Object source) {
+        super(source);
     }
 }
@@ -38,7 +38,9 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import org.apache.commons.lang3.StringUtils;
@@ -48,6 +50,7 @@ import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformS
 import org.apache.fineract.infrastructure.bulkimport.data.GlobalEntityType;
 import org.apache.fineract.infrastructure.bulkimport.service.BulkImportWorkbookPopulatorService;
 import org.apache.fineract.infrastructure.bulkimport.service.BulkImportWorkbookService;
+import org.apache.fineract.infrastructure.cache.service.VersionedResponseCache;
 import org.apache.fineract.infrastructure.codes.data.CodeValueData;
 import org.apache.fineract.infrastructure.codes.service.CodeValueReadPlatformService;
 import org.apache.fineract.infrastructure.core.api.ApiParameterHelper;
@@ -59,6 +62,7 @@ import org.apache.fineract.infrastructure.core.exception.UnrecognizedQueryParamE
 import org.apache.fineract.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
 import org.apache.fineract.infrastructure.core.serialization.DefaultToApiJsonSerializer;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.service.AssociationLoader;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.dataqueries.data.DatatableData;
@@ -175,6 +179,9 @@ public class LoansApiResource {
     private final BulkImportWorkbookService bulkImportWorkbookService;
     private final BulkImportWorkbookPopulatorService bulkImportWorkbookPopulatorService;
 
+    private final VersionedResponseCache versionedResponseCache;
+
+    private final AssociationLoader associationLoader;
 
     @Autowired
     public LoansApiResource(final PlatformSecurityContext context, final LoanReadPlatformService loanReadPlatformService,
@@ -197,7 +204,9 @@ public class LoansApiResource {
             final AccountDetailsReadPlatformService accountDetailsReadPlatformService,
             final EntityDatatableChecksReadService entityDatatableChecksReadService,
             final BulkImportWorkbookService bulkImportWorkbookService,
-            final BulkImportWorkbookPopulatorService bulkImportWorkbookPopulatorService) {
+            final BulkImportWorkbookPopulatorService bulkImportWorkbookPopulatorService,
+            final VersionedResponseCache versionedResponseCache,
+            final AssociationLoader associationLoader) {
         this.context = context;
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanProductReadPlatformService = loanProductReadPlatformService;
@@ -225,6 +234,8 @@ public class LoansApiResource {
         this.entityDatatableChecksReadService = entityDatatableChecksReadService;
         this.bulkImportWorkbookService=bulkImportWorkbookService;
         this.bulkImportWorkbookPopulatorService=bulkImportWorkbookPopulatorService;
+        this.versionedResponseCache = versionedResponseCache;
+        this.associationLoader = associationLoader;
     }
 
     /*
@@ -263,13 +274,20 @@ public class LoansApiResource {
     @Produces({ MediaType.APPLICATION_JSON })
     @ApiOperation(value = "Retrieve Loan Details Template", httpMethod = "GET", notes = "This is a convenience resource. It can be useful when building maintenance user interface screens for client applications. The template data returned consists of any or all of:\n" + "\n" + "Field Defaults\n" + "Allowed Value Lists\n" + "Example Requests:\n" + "\n" + "loans/template?templateType=individual&clientId=1\n" + "\n" + "\n" + "loans/template?templateType=individual&clientId=1&productId=1")
     @ApiResponses({@ApiResponse(code = 200, message = "OK", response = LoansApiResourceSwagger.GetLoansTemplateResponse.class)})
-    public String template(@QueryParam("clientId") @ApiParam(value = "clientId") final Long clientId, @QueryParam("groupId") @ApiParam(value = "groupId") final Long groupId,
+    public Response template(@QueryParam("clientId") @ApiParam(value = "clientId") final Long clientId, @QueryParam("groupId") @ApiParam(value = "groupId") final Long groupId,
             @QueryParam("productId")@ApiParam(value = "productId") final Long productId, @QueryParam("templateType") @ApiParam(value = "templateType") final String templateType,
             @DefaultValue("false") @QueryParam("staffInSelectedOfficeOnly") @ApiParam(value = "staffInSelectedOfficeOnly") final boolean staffInSelectedOfficeOnly,
-            @DefaultValue("false") @QueryParam("activeOnly") @ApiParam(value = "activeOnly") final boolean onlyActive, @Context final UriInfo uriInfo) {
+            @DefaultValue("false") @QueryParam("activeOnly") @ApiParam(value = "activeOnly") final boolean onlyActive, @Context final UriInfo uriInfo, @Context final Request request) {
 
         this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
 
+        return this.versionedResponseCache.respond(request, uriInfo, () -> buildTemplate(clientId, groupId, productId, templateType,
+                staffInSelectedOfficeOnly, onlyActive, uriInfo));
+    }
+
+    private String buildTemplate(final Long clientId, final Long groupId, final Long productId, final String templateType,
+            final boolean staffInSelectedOfficeOnly, final boolean onlyActive, final UriInfo uriInfo) {
+
         // template
         final Collection<LoanProductData> productOptions = this.loanProductReadPlatformService.retrieveAllLoanProductsForLookup(onlyActive);
 
@@ -389,7 +407,7 @@ public class LoansApiResource {
     @Produces({ MediaType.APPLICATION_JSON })
     @ApiOperation(value = "Retrieve a Loan", httpMethod = "GET", notes = "Note: template=true parameter doesn't apply to this resource." + "Example Requests:\n" + "\n" + "loans/1\n" + "\n" + "\n" + "loans/1?fields=id,principal,annualInterestRate\n" + "\n" + "\n" + "loans/1?associations=all\n" + "\n" + "loans/1?associations=all&exclude=guarantors\n" + "\n" + "\n" + "loans/1?fields=id,principal,annualInterestRate&associations=repaymentSchedule,transactions")
     @ApiResponses({@ApiResponse(code = 200, message = "OK", response = LoansApiResourceSwagger.GetLoansLoanIdResponse.class)})
-    public String retrieveLoan(@PathParam("loanId") @ApiParam(value = "loanId") final Long loanId,
+    public StreamingOutput retrieveLoan(@PathParam("loanId") @ApiParam(value = "loanId") final Long loanId,
             @DefaultValue("false") @QueryParam("staffInSelectedOfficeOnly") @ApiParam(value = "staffInSelectedOfficeOnly") final boolean staffInSelectedOfficeOnly,
             @Context final UriInfo uriInfo) {
         long start = System.currentTimeMillis() ;
@@ -426,7 +444,26 @@ public class LoansApiResource {
             if(calendarData != null)
             	loanBasicDetails = LoanAccountData.withLoanCalendarData(loanBasicDetails, calendarData);
         }
-        Collection<InterestRatePeriodData> interestRatesPeriods = this.loanReadPlatformService.retrieveLoanInterestRatePeriodData(loanBasicDetails);
+        final LoanAccountData basicDetails = loanBasicDetails;
+        final AssociationLoader.Batch associations = this.associationLoader.batch("loan " + loanId);
+        final AssociationLoader.Association<Collection<InterestRatePeriodData>> interestRatesPeriodsAssociation = associations
+                .submit("interestRatePeriods", () -> this.loanReadPlatformService.retrieveLoanInterestRatePeriodData(basicDetails));
+        final AssociationLoader.Association<Collection<ChargeData>> overdueChargesAssociation = associations.submit("overdueCharges",
+                () -> this.chargeReadPlatformService.retrieveLoanProductCharges(basicDetails.loanProductId(),
+                        ChargeTimeType.OVERDUE_INSTALLMENT));
+        final AssociationLoader.Association<PaidInAdvanceData> paidInAdvanceAssociation = associations.submit("paidInAdvance",
+                () -> this.loanReadPlatformService.retrieveTotalPaidInAdvance(loanId));
+        AssociationLoader.Association<Collection<GuarantorData>> guarantorsAssociation = null;
+        AssociationLoader.Association<Collection<LoanTransactionData>> transactionsAssociation = null;
+        AssociationLoader.Association<Collection<DisbursementData>> disbursementDataAssociation = null;
+        AssociationLoader.Association<Collection<LoanTermVariationsData>> emiAmountVariationsAssociation = null;
+        AssociationLoader.Association<LoanScheduleAssociations> repaymentScheduleAssociation = null;
+        AssociationLoader.Association<Collection<LoanChargeData>> chargesAssociation = null;
+        AssociationLoader.Association<Collection<CollateralData>> collateralAssociation = null;
+        AssociationLoader.Association<CalendarData> meetingAssociation = null;
+        AssociationLoader.Association<Collection<NoteData>> notesAssociation = null;
+        AssociationLoader.Association<PortfolioAccountData> linkedAccountAssociation = null;
+
         Collection<LoanTransactionData> loanRepayments = null;
         LoanScheduleData repaymentSchedule = null;
         Collection<LoanChargeData> charges = null;
@@ -451,86 +488,128 @@ public class LoansApiResource {
 
             if (associationParameters.contains("guarantors")) {
                 mandatoryResponseParameters.add("guarantors");
-                guarantors = this.guarantorReadPlatformService.retrieveGuarantorsForLoan(loanId);
-                if (CollectionUtils.isEmpty(guarantors)) {
-                    guarantors = null;
-                }
+                guarantorsAssociation = associations.submit("guarantors",
+                        () -> this.guarantorReadPlatformService.retrieveGuarantorsForLoan(loanId));
             }
 
             if (associationParameters.contains("transactions")) {
                 mandatoryResponseParameters.add("transactions");
-                final Collection<LoanTransactionData> currentLoanRepayments = this.loanReadPlatformService.retrieveLoanTransactions(loanId);
-                if (!CollectionUtils.isEmpty(currentLoanRepayments)) {
-                    loanRepayments = currentLoanRepayments;
-                }
-            }
-
-            if (associationParameters.contains("multiDisburseDetails") || associationParameters.contains("repaymentSchedule")) {
-                mandatoryResponseParameters.add("multiDisburseDetails");
-                disbursementData = this.loanReadPlatformService.retrieveLoanDisbursementDetails(loanId);
-            }
-
-            if (associationParameters.contains("emiAmountVariations") || associationParameters.contains("repaymentSchedule")) {
-                mandatoryResponseParameters.add("emiAmountVariations");
-                emiAmountVariations = this.loanReadPlatformService.retrieveLoanTermVariations(loanId,
-                        LoanTermVariationType.EMI_AMOUNT.getValue());
+                transactionsAssociation = associations.submit("transactions",
+                        () -> this.loanReadPlatformService.retrieveLoanTransactions(loanId));
             }
 
             if (associationParameters.contains("repaymentSchedule")) {
+                // the schedules are built from the disbursement details, so
+                // they are loaded together in one association
+                mandatoryResponseParameters.add("multiDisburseDetails");
                 mandatoryResponseParameters.add("repaymentSchedule");
-                final RepaymentScheduleRelatedLoanData repaymentScheduleRelatedData = loanBasicDetails.repaymentScheduleRelatedData();
-                repaymentSchedule = this.loanReadPlatformService.retrieveRepaymentSchedule(loanId, repaymentScheduleRelatedData,
-                        disbursementData, loanBasicDetails.isInterestRecalculationEnabled(), loanBasicDetails.getTotalPaidFeeCharges());
-
-                if (associationParameters.contains("futureSchedule") && loanBasicDetails.isInterestRecalculationEnabled()) {
+                final boolean futureSchedule = associationParameters.contains("futureSchedule")
+                        && basicDetails.isInterestRecalculationEnabled();
+                final boolean originalSchedule = associationParameters.contains("originalSchedule")
+                        && basicDetails.isInterestRecalculationEnabled() && basicDetails.isActive();
+                if (futureSchedule) {
                     mandatoryResponseParameters.add("futureSchedule");
-                    this.calculationPlatformService.updateFutureSchedule(repaymentSchedule, loanId);
                 }
-
-                if (associationParameters.contains("originalSchedule") && loanBasicDetails.isInterestRecalculationEnabled()
-                        && loanBasicDetails.isActive()) {
+                if (originalSchedule) {
                     mandatoryResponseParameters.add("originalSchedule");
-                    LoanScheduleData loanScheduleData = this.loanScheduleHistoryReadPlatformService.retrieveRepaymentArchiveSchedule(
-                            loanId, repaymentScheduleRelatedData, disbursementData);
-                    loanBasicDetails = LoanAccountData.withOriginalSchedule(loanBasicDetails, loanScheduleData);
                 }
+                repaymentScheduleAssociation = associations.submit("repaymentSchedule",
+                        () -> retrieveLoanScheduleAssociations(loanId, basicDetails, futureSchedule, originalSchedule));
+            } else if (associationParameters.contains("multiDisburseDetails")) {
+                mandatoryResponseParameters.add("multiDisburseDetails");
+                disbursementDataAssociation = associations.submit("multiDisburseDetails",
+                        () -> this.loanReadPlatformService.retrieveLoanDisbursementDetails(loanId));
+            }
+
+            if (associationParameters.contains("emiAmountVariations") || associationParameters.contains("repaymentSchedule")) {
+                mandatoryResponseParameters.add("emiAmountVariations");
+                emiAmountVariationsAssociation = associations.submit("emiAmountVariations",
+                        () -> this.loanReadPlatformService.retrieveLoanTermVariations(loanId, LoanTermVariationType.EMI_AMOUNT.getValue()));
             }
 
             if (associationParameters.contains("charges")) {
                 mandatoryResponseParameters.add("charges");
-                charges = this.loanChargeReadPlatformService.retrieveLoanCharges(loanId);
-                if (CollectionUtils.isEmpty(charges)) {
-                    charges = null;
-                }
+                chargesAssociation = associations.submit("charges", () -> this.loanChargeReadPlatformService.retrieveLoanCharges(loanId));
             }
 
             if (associationParameters.contains("collateral")) {
                 mandatoryResponseParameters.add("collateral");
-                collateral = this.loanCollateralReadPlatformService.retrieveCollaterals(loanId);
-                if (CollectionUtils.isEmpty(collateral)) {
-                    collateral = null;
-                }
+                collateralAssociation = associations.submit("collateral",
+                        () -> this.loanCollateralReadPlatformService.retrieveCollaterals(loanId));
             }
 
             if (associationParameters.contains("meeting")) {
                 mandatoryResponseParameters.add("meeting");
-                meeting = this.calendarReadPlatformService.retrieveLoanCalendar(loanId);
+                meetingAssociation = associations.submit("meeting", () -> this.calendarReadPlatformService.retrieveLoanCalendar(loanId));
             }
 
             if (associationParameters.contains("notes")) {
                 mandatoryResponseParameters.add("notes");
-                notes = this.noteReadPlatformService.retrieveNotesByResource(loanId, NoteType.LOAN.getValue());
-                if (CollectionUtils.isEmpty(notes)) {
-                    notes = null;
-                }
+                notesAssociation = associations.submit("notes",
+                        () -> this.noteReadPlatformService.retrieveNotesByResource(loanId, NoteType.LOAN.getValue()));
             }
 
             if (associationParameters.contains("linkedAccount")) {
                 mandatoryResponseParameters.add("linkedAccount");
-                linkedAccount = this.accountAssociationsReadPlatformService.retriveLoanLinkedAssociation(loanId);
+                linkedAccountAssociation = associations.submit("linkedAccount",
+                        () -> this.accountAssociationsReadPlatformService.retriveLoanLinkedAssociation(loanId));
             }
 
+            if (guarantorsAssociation != null) {
+                guarantors = guarantorsAssociation.get();
+                if (CollectionUtils.isEmpty(guarantors)) {
+                    guarantors = null;
+                }
+            }
+            if (transactionsAssociation != null) {
+                final Collection<LoanTransactionData> currentLoanRepayments = transactionsAssociation.get();
+                if (!CollectionUtils.isEmpty(currentLoanRepayments)) {
+                    loanRepayments = currentLoanRepayments;
+                }
+            }
+            if (repaymentScheduleAssociation != null) {
+                final LoanScheduleAssociations scheduleAssociations = repaymentScheduleAssociation.get();
+                disbursementData = scheduleAssociations.disbursementData;
+                repaymentSchedule = scheduleAssociations.repaymentSchedule;
+                if (scheduleAssociations.originalSchedule != null) {
+                    loanBasicDetails = LoanAccountData.withOriginalSchedule(loanBasicDetails, scheduleAssociations.originalSchedule);
+                }
+            }
+            if (disbursementDataAssociation != null) {
+                disbursementData = disbursementDataAssociation.get();
+            }
+            if (emiAmountVariationsAssociation != null) {
+                emiAmountVariations = emiAmountVariationsAssociation.get();
+            }
+            if (chargesAssociation != null) {
+                charges = chargesAssociation.get();
+                if (CollectionUtils.isEmpty(charges)) {
+                    charges = null;
+                }
+            }
+            if (collateralAssociation != null) {
+                collateral = collateralAssociation.get();
+                if (CollectionUtils.isEmpty(collateral)) {
+                    collateral = null;
+                }
+            }
+            if (meetingAssociation != null) {
+                meeting = meetingAssociation.get();
+            }
+            if (notesAssociation != null) {
+                notes = notesAssociation.get();
+                if (CollectionUtils.isEmpty(notes)) {
+                    notes = null;
+                }
+            }
+            if (linkedAccountAssociation != null) {
+                linkedAccount = linkedAccountAssociation.get();
+            }
         }
+        final Collection<InterestRatePeriodData> interestRatesPeriods = interestRatesPeriodsAssociation.get();
+        final Collection<ChargeData> overdueCharges = overdueChargesAssociation.get();
+        final PaidInAdvanceData paidInAdvanceTemplate = paidInAdvanceAssociation.get();
+        associations.complete();
 
         Collection<LoanProductData> productOptions = null;
         LoanProductData product = null;
@@ -551,7 +630,6 @@ public class LoansApiResource {
         Collection<CodeValueData> loanCollateralOptions = null;
         Collection<CalendarData> calendarOptions = null;
         Collection<PortfolioAccountData> accountLinkingOptions = null;
-        PaidInAdvanceData paidInAdvanceTemplate = null;
         Collection<LoanAccountSummaryData> clientActiveLoanOptions = null;
 
         final boolean template = ApiParameterHelper.template(uriInfo.getQueryParameters());
@@ -614,11 +692,6 @@ public class LoansApiResource {
 
         }
 
-        Collection<ChargeData> overdueCharges = this.chargeReadPlatformService.retrieveLoanProductCharges(loanBasicDetails.loanProductId(),
-                ChargeTimeType.OVERDUE_INSTALLMENT);
-
-        paidInAdvanceTemplate = this.loanReadPlatformService.retrieveTotalPaidInAdvance(loanId);
-
         final LoanAccountData loanAccount = LoanAccountData.associationsAndTemplate(loanBasicDetails, repaymentSchedule, loanRepayments,
                 charges, collateral, guarantors, meeting, productOptions, loanTermFrequencyTypeOptions, repaymentFrequencyTypeOptions,
                 repaymentFrequencyNthDayTypeOptions, repaymentFrequencyDayOfWeekTypeOptions, repaymentStrategyOptions, 
@@ -629,8 +702,39 @@ public class LoansApiResource {
 
         final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters(),
                 mandatoryResponseParameters);
-        String toReturn = this.toApiJsonSerializer.serialize(settings, loanAccount, this.LOAN_DATA_PARAMETERS);
-        return toReturn ;
+        return this.toApiJsonSerializer.serializeStreaming(settings, loanAccount, this.LOAN_DATA_PARAMETERS);
+    }
+
+    private LoanScheduleAssociations retrieveLoanScheduleAssociations(final Long loanId, final LoanAccountData loanBasicDetails,
+            final boolean futureSchedule, final boolean originalSchedule) {
+        final Collection<DisbursementData> disbursementData = this.loanReadPlatformService.retrieveLoanDisbursementDetails(loanId);
+        final RepaymentScheduleRelatedLoanData repaymentScheduleRelatedData = loanBasicDetails.repaymentScheduleRelatedData();
+        final LoanScheduleData repaymentSchedule = this.loanReadPlatformService.retrieveRepaymentSchedule(loanId,
+                repaymentScheduleRelatedData, disbursementData, loanBasicDetails.isInterestRecalculationEnabled(),
+                loanBasicDetails.getTotalPaidFeeCharges());
+        if (futureSchedule) {
+            this.calculationPlatformService.updateFutureSchedule(repaymentSchedule, loanId);
+        }
+        LoanScheduleData originalScheduleData = null;
+        if (originalSchedule) {
+            originalScheduleData = this.loanScheduleHistoryReadPlatformService.retrieveRepaymentArchiveSchedule(loanId,
+                    repaymentScheduleRelatedData, disbursementData);
+        }
+        return new LoanScheduleAssociations(disbursementData, repaymentSchedule, originalScheduleData);
+    }
+
+    private static final class LoanScheduleAssociations {
+
+        private final Collection<DisbursementData> disbursementData;
+        private final LoanScheduleData repaymentSchedule;
+        private final LoanScheduleData originalSchedule;
+
+        private LoanScheduleAssociations(final Collection<DisbursementData> disbursementData, final LoanScheduleData repaymentSchedule,
+                final LoanScheduleData originalSchedule) {
+            this.disbursementData = disbursementData;
+            this.repaymentSchedule = repaymentSchedule;
+            this.originalSchedule = originalSchedule;
+        }
     }
 
     @GET
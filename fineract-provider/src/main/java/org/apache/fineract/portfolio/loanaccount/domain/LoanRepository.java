@@ -27,6 +27,10 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+/**
+ * Use {@link LoanRepositoryWrapper} outside of it: saving through this
+ * repository directly skips the summary dirty marker the wrapper writes.
+ */
 public interface LoanRepository extends JpaRepository<Loan, Long>, JpaSpecificationExecutor<Loan> {
 
     public static final String FIND_GROUP_LOANS_DISBURSED_AFTER = "select l from Loan l where ( l.actualDisbursementDate IS NOT NULL and l.actualDisbursementDate > :disbursementDate) and "
@@ -125,6 +129,32 @@ public interface LoanRepository extends JpaRepository<Loan, Long>, JpaSpecificat
     List<Loan> findByIdsAndLoanStatusAndLoanType(@Param("ids") Collection<Long> ids,
             @Param("loanStatuses") Collection<Integer> loanStatuses, @Param("loanTypes") Collection<Integer> loanTypes);
 
+    @Query("select distinct loan from Loan loan left join fetch loan.client left join fetch loan.group "
+            + "left join fetch loan.loanInterestRecalculationDetails left join fetch loan.loanTopupDetails "
+            + "left join fetch loan.repaymentScheduleInstallments where loan.id IN :ids")
+    List<Loan> findByIdsFetchingRepaymentSchedule(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct loan from Loan loan left join fetch loan.loanTransactions where loan.id IN :ids")
+    List<Loan> findByIdsFetchingTransactions(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct loan from Loan loan left join fetch loan.charges where loan.id IN :ids")
+    List<Loan> findByIdsFetchingCharges(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct loan from Loan loan left join fetch loan.trancheCharges where loan.id IN :ids")
+    List<Loan> findByIdsFetchingTrancheCharges(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct loan from Loan loan left join fetch loan.disbursementDetails where loan.id IN :ids")
+    List<Loan> findByIdsFetchingDisbursementDetails(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct loan from Loan loan left join fetch loan.loanTermVariations where loan.id IN :ids")
+    List<Loan> findByIdsFetchingTermVariations(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct loan from Loan loan left join fetch loan.collateral where loan.id IN :ids")
+    List<Loan> findByIdsFetchingCollateral(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct loan from Loan loan left join fetch loan.loanOfficerHistory where loan.id IN :ids")
+    List<Loan> findByIdsFetchingLoanOfficerHistory(@Param("ids") Collection<Long> ids);
+
     @Query("select loan.id from Loan loan where loan.actualDisbursementDate > :disbursalDate order by loan.actualDisbursementDate")
     List<Long> getLoansDisbursedAfter(@Param("disbursalDate") Date disbursalDate);
 
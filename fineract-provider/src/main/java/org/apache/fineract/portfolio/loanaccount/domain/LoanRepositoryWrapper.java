@@ -21,12 +21,18 @@ package org.apache.fineract.portfolio.loanaccount.domain;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
 
 import org.apache.fineract.portfolio.loanaccount.exception.LoanNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -40,10 +46,12 @@ import org.springframework.transaction.annotation.Transactional;
 public class LoanRepositoryWrapper {
 
     private final LoanRepository repository;
+    private final JdbcTemplate jdbcTemplate;
 
     @Autowired
-    public LoanRepositoryWrapper(final LoanRepository repository) {
+    public LoanRepositoryWrapper(final LoanRepository repository, final DataSource dataSource) {
         this.repository = repository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
     public Loan findOneWithNotFoundDetection(final Long id) {
@@ -60,6 +68,40 @@ public class LoanRepositoryWrapper {
         return loan;
     }
     
+    /**
+     * Loads several loans with their client, group, schedule and
+     * transactions, and with loadLazyCollections their remaining collections
+     * too, using one query per collection instead of one round trip per
+     * loan. The loans stay
+     * attached to the current persistence context, so later single-loan
+     * lookups inside the same transaction are served without hitting the
+     * database.
+     */
+    @Transactional(readOnly=true)
+    public Map<Long, Loan> findByIdsWithNotFoundDetection(final Collection<Long> ids, boolean loadLazyCollections) {
+        final Map<Long, Loan> loans = new LinkedHashMap<>();
+        if (ids.isEmpty()) { return loans; }
+        for (final Loan loan : this.repository.findByIdsFetchingRepaymentSchedule(ids)) {
+            loans.put(loan.getId(), loan);
+        }
+        for (final Long id : ids) {
+            if (!loans.containsKey(id)) { throw new LoanNotFoundException(id); }
+        }
+        this.repository.findByIdsFetchingTransactions(ids);
+        if (loadLazyCollections) {
+            this.repository.findByIdsFetchingCharges(ids);
+            this.repository.findByIdsFetchingTrancheCharges(ids);
+            this.repository.findByIdsFetchingDisbursementDetails(ids);
+            this.repository.findByIdsFetchingTermVariations(ids);
+            this.repository.findByIdsFetchingCollateral(ids);
+            this.repository.findByIdsFetchingLoanOfficerHistory(ids);
+            for (final Loan loan : loans.values()) {
+                loan.initializeLazyCollections();
+            }
+        }
+        return loans;
+    }
+
     //Root Entities are enough
     public Collection<Loan> findActiveLoansByLoanIdAndGroupId(Long clientId, Long groupId) {
         final Collection<Integer> loanStatuses = new ArrayList<>(Arrays.asList(LoanStatus.SUBMITTED_AND_PENDING_APPROVAL.getValue(),
@@ -69,16 +111,40 @@ public class LoanRepositoryWrapper {
     }
 
     public Loan saveAndFlush(final Loan loan) {
-        return this.repository.saveAndFlush(loan) ;
+        final Loan savedLoan = this.repository.saveAndFlush(loan);
+        markSummaryDirty(Collections.singletonList(savedLoan));
+        return savedLoan;
     }
     
     @Transactional
     public Loan save(final Loan loan) {
-        return this.repository.save(loan) ;
+        final Loan savedLoan = this.repository.save(loan);
+        markSummaryDirty(Collections.singletonList(savedLoan));
+        return savedLoan;
     }
     
     public List<Loan> save(List<Loan> loans) {
-        return this.repository.saveAll(loans) ;
+        final List<Loan> savedLoans = this.repository.saveAll(loans);
+        markSummaryDirty(savedLoans);
+        return savedLoans;
+    }
+
+    /**
+     * Records that the derived summary of these loans has to be reconciled by
+     * the Update Loan Summary job. The marker is written in the caller's
+     * transaction, so it only becomes visible together with the change.
+     */
+    private void markSummaryDirty(final List<Loan> loans) {
+        final List<Object[]> batchArgs = new ArrayList<>(loans.size());
+        for (final Loan loan : loans) {
+            if (loan.getId() != null) {
+                batchArgs.add(new Object[] { loan.getId() });
+            }
+        }
+        if (!batchArgs.isEmpty()) {
+            this.jdbcTemplate.batchUpdate("INSERT INTO m_loan_summary_dirty (loan_id, version) VALUES (?, 1) "
+                    + "ON DUPLICATE KEY UPDATE version = version + 1", batchArgs);
+        }
     }
     public void flush() {
         this.repository.flush(); 
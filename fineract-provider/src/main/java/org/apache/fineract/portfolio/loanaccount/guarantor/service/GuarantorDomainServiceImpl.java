@@ -39,8 +39,8 @@ import org.apache.fineract.portfolio.account.domain.AccountTransferType;
 import org.apache.fineract.portfolio.account.service.AccountTransfersWritePlatformService;
 import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_ENTITY;
 import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
-import org.apache.fineract.portfolio.common.service.BusinessEventListner;
 import org.apache.fineract.portfolio.common.service.BusinessEventNotifierService;
+import org.apache.fineract.portfolio.common.service.SynchronousBusinessEventListner;
 import org.apache.fineract.portfolio.loanaccount.domain.Loan;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
 import org.apache.fineract.portfolio.loanaccount.guarantor.GuarantorConstants;
@@ -529,7 +529,7 @@ public class GuarantorDomainServiceImpl implements GuarantorDomainService {
         }
     }
 
-    private class ValidateOnBusinessEvent implements BusinessEventListner {
+    private class ValidateOnBusinessEvent implements SynchronousBusinessEventListner {
 
         @Override
         public void businessEventToBeExecuted(@SuppressWarnings("unused") Map<BUSINESS_ENTITY, Object> businessEventEntity) {}
@@ -544,7 +544,7 @@ public class GuarantorDomainServiceImpl implements GuarantorDomainService {
         }
     }
 
-    private class HoldFundsOnBusinessEvent implements BusinessEventListner {
+    private class HoldFundsOnBusinessEvent implements SynchronousBusinessEventListner {
 
         @Override
         public void businessEventToBeExecuted(@SuppressWarnings("unused") Map<BUSINESS_ENTITY, Object> businessEventEntity) {}
@@ -559,7 +559,7 @@ public class GuarantorDomainServiceImpl implements GuarantorDomainService {
         }
     }
 
-    private class ReleaseFundsOnBusinessEvent implements BusinessEventListner {
+    private class ReleaseFundsOnBusinessEvent implements SynchronousBusinessEventListner {
 
         @Override
         public void businessEventToBeExecuted(@SuppressWarnings("unused") Map<BUSINESS_ENTITY, Object> businessEventEntity) {}
@@ -578,7 +578,7 @@ public class GuarantorDomainServiceImpl implements GuarantorDomainService {
         }
     }
 
-    private class ReverseFundsOnBusinessEvent implements BusinessEventListner {
+    private class ReverseFundsOnBusinessEvent implements SynchronousBusinessEventListner {
 
         @Override
         public void businessEventToBeExecuted(@SuppressWarnings("unused") Map<BUSINESS_ENTITY, Object> businessEventEntity) {}
@@ -595,7 +595,7 @@ public class GuarantorDomainServiceImpl implements GuarantorDomainService {
         }
     }
 
-    private class AdjustFundsOnBusinessEvent implements BusinessEventListner {
+    private class AdjustFundsOnBusinessEvent implements SynchronousBusinessEventListner {
 
         @Override
         public void businessEventToBeExecuted(@SuppressWarnings("unused") Map<BUSINESS_ENTITY, Object> businessEventEntity) {}
@@ -617,7 +617,7 @@ public class GuarantorDomainServiceImpl implements GuarantorDomainService {
         }
     }
 
-    private class ReverseAllFundsOnBusinessEvent implements BusinessEventListner {
+    private class ReverseAllFundsOnBusinessEvent implements SynchronousBusinessEventListner {
 
         @Override
         public void businessEventToBeExecuted(@SuppressWarnings("unused") Map<BUSINESS_ENTITY, Object> businessEventEntity) {}
@@ -634,7 +634,7 @@ public class GuarantorDomainServiceImpl implements GuarantorDomainService {
         }
     }
 
-    private class UndoAllFundTransactions implements BusinessEventListner {
+    private class UndoAllFundTransactions implements SynchronousBusinessEventListner {
 
         @Override
         public void businessEventToBeExecuted(@SuppressWarnings("unused") Map<BUSINESS_ENTITY, Object> businessEventEntity) {}
@@ -649,7 +649,7 @@ public class GuarantorDomainServiceImpl implements GuarantorDomainService {
         }
     }
 
-    private class ReleaseAllFunds implements BusinessEventListner {
+    private class ReleaseAllFunds implements SynchronousBusinessEventListner {
 
         @Override
         public void businessEventToBeExecuted(@SuppressWarnings("unused") Map<BUSINESS_ENTITY, Object> businessEventEntity) {}
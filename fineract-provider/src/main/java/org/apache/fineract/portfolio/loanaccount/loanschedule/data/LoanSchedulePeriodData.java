@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.portfolio.loanaccount.loanschedule.data;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 
 import org.joda.time.Days;
@@ -27,7 +28,9 @@ import org.joda.time.LocalDate;
  * Immutable data object that represents a period of a loan schedule.
  * 
  */
-public class LoanSchedulePeriodData {
+public class LoanSchedulePeriodData implements Serializable {
+
+    private static final long serialVersionUID = -5838010328124427211L;
 
     private final Integer period;
     private final LocalDate fromDate;
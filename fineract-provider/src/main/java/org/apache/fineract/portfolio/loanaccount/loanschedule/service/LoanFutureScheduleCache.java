@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule.service;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager;
+import org.apache.fineract.infrastructure.cache.service.VersionedResponseCache;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.data.LoanSchedulePeriodData;
+import org.joda.time.LocalDate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the projected future schedule of interest recalculation loans, one
+ * entry per loan.
+ * <p>
+ * An entry is only used while its stamp matches: the business date, the
+ * optimistic lock version of the loan row (bumped by transactions, charges,
+ * reschedules and jobs that update the loan) and the reference data version of
+ * {@link VersionedResponseCache} (bumped by any command on reference data such
+ * as holidays and working days). Both are read from the database, so the stamp
+ * is the same on every node. Entries are
+ * kept in the <code>futureSchedules</code> cache, which follows the cache
+ * type configured through the cache API.
+ */
+@Component
+public class LoanFutureScheduleCache {
+
+    public static final String CACHE_NAME = "futureSchedules";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RuntimeDelegatingCacheManager cacheManager;
+
+    @Autowired
+    public LoanFutureScheduleCache(final DataSource dataSource,
+            @Qualifier("runtimeDelegatingCacheManager") final RuntimeDelegatingCacheManager cacheManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Returns the cached future periods of the loan, calculating them with
+     * <code>calculator</code> when the cache holds none for the current
+     * stamp. The calculator returns null for loans without a future schedule.
+     */
+    public Collection<LoanSchedulePeriodData> retrieve(final Long loanId, final LocalDate businessDate,
+            final Supplier<Collection<LoanSchedulePeriodData>> calculator) {
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        if (cache == null) { return calculator.get(); }
+
+        // the stamp is taken before calculating, so a change committed in
+        // between leaves an entry that is already stale
+        final String stamp = stamp(loanId, businessDate);
+        if (stamp == null) { return calculator.get(); }
+        final FutureSchedule cached = cache.get(loanId, FutureSchedule.class);
+        if (cached != null && cached.stamp.equals(stamp)) { return cached.periods; }
+
+        final Collection<LoanSchedulePeriodData> periods = calculator.get();
+        cache.put(loanId, new FutureSchedule(stamp, periods));
+        return periods;
+    }
+
+    private String stamp(final Long loanId, final LocalDate businessDate) {
+        try {
+            return this.jdbcTemplate.queryForObject(
+                    "select l.version as rowVersion, v.version as referenceDataVersion from m_loan l, m_reference_data_version v "
+                            + "where l.id = ?",
+                    (rs, rowNum) -> businessDate + "|" + rs.getInt("rowVersion") + "|" + rs.getLong("referenceDataVersion"), loanId);
+        } catch (final EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    private static final class FutureSchedule implements Serializable {
+
+        private static final long serialVersionUID = 2748225065913431590L;
+
+        private final String stamp;
+        private final ArrayList<LoanSchedulePeriodData> periods;
+
+        private FutureSchedule(final String stamp, final Collection<LoanSchedulePeriodData> periods) {
+            this.stamp = stamp;
+            this.periods = periods == null ? null : new ArrayList<>(periods);
+        }
+    }
+}
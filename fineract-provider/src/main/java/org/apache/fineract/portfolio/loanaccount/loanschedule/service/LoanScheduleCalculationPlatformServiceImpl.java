@@ -75,6 +75,7 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
     private final ConfigurationDomainService configurationDomainService;
     private final CurrencyReadPlatformService currencyReadPlatformService;
     private final LoanUtilService loanUtilService;
+    private final LoanFutureScheduleCache loanFutureScheduleCache;
 
     @Autowired
     public LoanScheduleCalculationPlatformServiceImpl(final CalculateLoanScheduleQueryFromApiJsonHelper fromApiJsonDeserializer,
@@ -84,7 +85,7 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
             final LoanAssembler loanAssembler,
             final LoanRepaymentScheduleTransactionProcessorFactory loanRepaymentScheduleTransactionProcessorFactory,
             final ConfigurationDomainService configurationDomainService, final CurrencyReadPlatformService currencyReadPlatformService,
-            final LoanUtilService loanUtilService) {
+            final LoanUtilService loanUtilService, final LoanFutureScheduleCache loanFutureScheduleCache) {
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.loanScheduleAssembler = loanScheduleAssembler;
         this.fromJsonHelper = fromJsonHelper;
@@ -97,6 +98,7 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
         this.configurationDomainService = configurationDomainService;
         this.currencyReadPlatformService = currencyReadPlatformService;
         this.loanUtilService = loanUtilService;
+        this.loanFutureScheduleCache = loanFutureScheduleCache;
     }
 
     @Override
@@ -140,21 +142,29 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
 
     @Override
     public void updateFutureSchedule(LoanScheduleData loanScheduleData, final Long loanId) {
+        final LocalDate today = DateUtils.getLocalDateOfTenant();
+        final Collection<LoanSchedulePeriodData> futureInstallments = this.loanFutureScheduleCache.retrieve(loanId, today,
+                () -> calculateFutureSchedule(loanId, today));
+        if (futureInstallments != null) {
+            loanScheduleData.updateFuturePeriods(futureInstallments);
+        }
+    }
+
+    private Collection<LoanSchedulePeriodData> calculateFutureSchedule(final Long loanId, final LocalDate today) {
 
         final Loan loan = this.loanAssembler.assembleFrom(loanId);
 
-        LocalDate today = DateUtils.getLocalDateOfTenant();
         final LoanRepaymentScheduleTransactionProcessor loanRepaymentScheduleTransactionProcessor = loanRepaymentScheduleTransactionProcessorFactory
                 .determineProcessor(loan.transactionProcessingStrategy());
 
         if (!loan.repaymentScheduleDetail().isInterestRecalculationEnabled() || loan.isNpa() || !loan.status().isActive()
-                || !loanRepaymentScheduleTransactionProcessor.isInterestFirstRepaymentScheduleTransactionProcessor()) { return; }
+                || !loanRepaymentScheduleTransactionProcessor.isInterestFirstRepaymentScheduleTransactionProcessor()) { return null; }
 
         if (loan.loanProduct().isMultiDisburseLoan()) {
             BigDecimal disbursedAmount = loan.getDisbursedAmount();
             BigDecimal principalRepaid = loan.getLoanSummary().getTotalPrincipalRepaid();
             BigDecimal principalWrittenOff = loan.getLoanSummary().getTotalPrincipalWrittenOff();
-            if (disbursedAmount.subtract(principalWrittenOff).subtract(principalRepaid).compareTo(BigDecimal.ZERO) != 1) { return; }
+            if (disbursedAmount.subtract(principalWrittenOff).subtract(principalRepaid).compareTo(BigDecimal.ZERO) != 1) { return null; }
         }
         MonetaryCurrency currency = loan.getCurrency();
         Money totalPrincipal = Money.zero(currency);
@@ -209,7 +219,7 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
             }
 
         }
-        loanScheduleData.updateFuturePeriods(futureInstallments);
+        return futureInstallments;
     }
 
     @Override
@@ -20,12 +20,15 @@ package org.apache.fineract.portfolio.loanaccount.service;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties.FineractPropertiesJobs;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionRunner;
 import org.apache.fineract.portfolio.loanaccount.data.LoanScheduleAccrualData;
 import org.joda.time.LocalDate;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,51 +37,57 @@ import org.springframework.stereotype.Service;
 @Service
 public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformService {
 
+    private static final int DEFAULT_THREADS = 4;
+    private static final int DEFAULT_PARTITION_SIZE = 1000;
+
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanAccrualWritePlatformService loanAccrualWritePlatformService;
+    private final JobPartitionRunner jobPartitionRunner;
+    private final FineractProperties fineractProperties;
 
     @Autowired
     public LoanAccrualPlatformServiceImpl(final LoanReadPlatformService loanReadPlatformService,
-            final LoanAccrualWritePlatformService loanAccrualWritePlatformService) {
+            final LoanAccrualWritePlatformService loanAccrualWritePlatformService, final JobPartitionRunner jobPartitionRunner,
+            final FineractProperties fineractProperties) {
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanAccrualWritePlatformService = loanAccrualWritePlatformService;
+        this.jobPartitionRunner = jobPartitionRunner;
+        this.fineractProperties = fineractProperties;
     }
 
     @Override
     @CronTarget(jobName = JobName.ADD_ACCRUAL_ENTRIES)
     public void addAccrualAccounting() throws JobExecutionException {
-        Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas = this.loanReadPlatformService.retriveScheduleAccrualData();
-        StringBuilder sb = new StringBuilder();
-        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new HashMap<>();
-        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
-            if (loanDataMap.containsKey(accrualData.getLoanId())) {
-                loanDataMap.get(accrualData.getLoanId()).add(accrualData);
-            } else {
-                Collection<LoanScheduleAccrualData> accrualDatas = new ArrayList<>();
-                accrualDatas.add(accrualData);
-                loanDataMap.put(accrualData.getLoanId(), accrualDatas);
-            }
-        }
-
-        for (Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry : loanDataMap.entrySet()) {
-            try {
-                this.loanAccrualWritePlatformService.addAccrualAccounting(mapEntry.getKey(), mapEntry.getValue());
-            } catch (Exception e) {
-                Throwable realCause = e;
-                if (e.getCause() != null) {
-                    realCause = e.getCause();
-                }
-                sb.append("failed to add accural transaction for loan " + mapEntry.getKey() + " with message " + realCause.getMessage());
-            }
-        }
+        final String errors = this.jobPartitionRunner.run(JobName.ADD_ACCRUAL_ENTRIES, LocalDate.now().toString(), threads(),
+                (afterLoanId) -> this.loanReadPlatformService.retrieveAccrualLoanPartitions(afterLoanId, partitionSize()),
+                (partition) -> {
+                    final StringBuilder sb = new StringBuilder();
+                    for (Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry : groupByLoan(
+                            this.loanReadPlatformService.retriveScheduleAccrualData(partition)).entrySet()) {
+                        try {
+                            this.loanAccrualWritePlatformService.addAccrualAccounting(mapEntry.getKey(), mapEntry.getValue());
+                        } catch (Exception e) {
+                            Throwable realCause = e;
+                            if (e.getCause() != null) {
+                                realCause = e.getCause();
+                            }
+                            sb.append("failed to add accural transaction for loan " + mapEntry.getKey() + " with message "
+                                    + realCause.getMessage());
+                        }
+                    }
+                    return sb.toString();
+                });
 
-        if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+        if (errors.length() > 0) { throw new JobExecutionException(errors); }
     }
 
     @Override
     @CronTarget(jobName = JobName.ADD_PERIODIC_ACCRUAL_ENTRIES)
     public void addPeriodicAccruals() throws JobExecutionException {
-        String errors = addPeriodicAccruals(LocalDate.now());
+        final LocalDate tilldate = LocalDate.now();
+        final String errors = this.jobPartitionRunner.run(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, tilldate.toString(), threads(),
+                (afterLoanId) -> this.loanReadPlatformService.retrieveAccrualLoanPartitions(afterLoanId, partitionSize()),
+                (partition) -> addPeriodicAccruals(tilldate, this.loanReadPlatformService.retrivePeriodicAccrualData(tilldate, partition)));
         if (errors.length() > 0) { throw new JobExecutionException(errors); }
     }
 
@@ -91,18 +100,7 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
     @Override
     public String addPeriodicAccruals(final LocalDate tilldate, Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas) {
         StringBuilder sb = new StringBuilder();
-        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new HashMap<>();
-        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
-            if (loanDataMap.containsKey(accrualData.getLoanId())) {
-                loanDataMap.get(accrualData.getLoanId()).add(accrualData);
-            } else {
-                Collection<LoanScheduleAccrualData> accrualDatas = new ArrayList<>();
-                accrualDatas.add(accrualData);
-                loanDataMap.put(accrualData.getLoanId(), accrualDatas);
-            }
-        }
-
-        for (Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry : loanDataMap.entrySet()) {
+        for (Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry : groupByLoan(loanScheduleAccrualDatas).entrySet()) {
             try {
                 this.loanAccrualWritePlatformService.addPeriodicAccruals(tilldate, mapEntry.getKey(), mapEntry.getValue());
             } catch (Exception e) {
@@ -117,6 +115,32 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
         return sb.toString();
     }
 
+    private Map<Long, Collection<LoanScheduleAccrualData>> groupByLoan(final Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas) {
+        // rows arrive ordered by loan, keep that order so partitions are processed in ascending loan id
+        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new LinkedHashMap<>();
+        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
+            if (loanDataMap.containsKey(accrualData.getLoanId())) {
+                loanDataMap.get(accrualData.getLoanId()).add(accrualData);
+            } else {
+                Collection<LoanScheduleAccrualData> accrualDatas = new ArrayList<>();
+                accrualDatas.add(accrualData);
+                loanDataMap.put(accrualData.getLoanId(), accrualDatas);
+            }
+        }
+        return loanDataMap;
+    }
+
+    private int threads() {
+        final FineractPropertiesJobs jobProperties = this.fineractProperties.getJobs();
+        return jobProperties == null || jobProperties.getAccrualThreads() == null ? DEFAULT_THREADS : jobProperties.getAccrualThreads();
+    }
+
+    private int partitionSize() {
+        final FineractPropertiesJobs jobProperties = this.fineractProperties.getJobs();
+        return jobProperties == null || jobProperties.getAccrualPartitionSize() == null ? DEFAULT_PARTITION_SIZE
+                : jobProperties.getAccrualPartitionSize();
+    }
+
     @Override
     @CronTarget(jobName = JobName.ADD_PERIODIC_ACCRUAL_ENTRIES_FOR_LOANS_WITH_INCOME_POSTED_AS_TRANSACTIONS)
     public void addPeriodicAccrualsForLoansWithIncomePostedAsTransactions() throws JobExecutionException {
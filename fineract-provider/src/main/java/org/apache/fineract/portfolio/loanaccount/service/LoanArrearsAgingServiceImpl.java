@@ -18,13 +18,17 @@
  */
 package org.apache.fineract.portfolio.loanaccount.service;
 
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties.FineractPropertiesJobs;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobCheckpointService;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
 import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_ENTITY;
 import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
-import org.apache.fineract.portfolio.common.service.BusinessEventListner;
 import org.apache.fineract.portfolio.common.service.BusinessEventNotifierService;
+import org.apache.fineract.portfolio.common.service.SynchronousBusinessEventListner;
 import org.apache.fineract.portfolio.loanaccount.domain.*;
 import org.apache.fineract.portfolio.loanaccount.loanschedule.data.LoanSchedulePeriodData;
 import org.apache.fineract.scheduledjobs.service.ScheduledJobRunnerServiceImpl;
@@ -38,7 +42,8 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
@@ -46,22 +51,45 @@ import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Service
-public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, BusinessEventListner {
+public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, SynchronousBusinessEventListner {
 
     private final static Logger logger = LoggerFactory.getLogger(ScheduledJobRunnerServiceImpl.class);
+    private static final String LAST_RUN_CHECKPOINT = "lastRun";
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+    private static final int DEFAULT_THREADS = 4;
+    private static final String UPSERT_ASSIGNMENTS = "principal_overdue_derived = VALUES(principal_overdue_derived), "
+            + "interest_overdue_derived = VALUES(interest_overdue_derived), fee_charges_overdue_derived = VALUES(fee_charges_overdue_derived), "
+            + "penalty_charges_overdue_derived = VALUES(penalty_charges_overdue_derived), total_overdue_derived = VALUES(total_overdue_derived), "
+            + "overdue_since_date_derived = VALUES(overdue_since_date_derived)";
     private final BusinessEventNotifierService businessEventNotifierService;
     private final DateTimeFormatter formatter = DateTimeFormat.forPattern("yyyy-MM-dd");
+    private final DateTimeFormatter timestampFormatter = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss");
     private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobCheckpointService jobCheckpointService;
+    private final FineractProperties fineractProperties;
 
     @Autowired
-    public LoanArrearsAgingServiceImpl(final DataSource dataSource, final BusinessEventNotifierService businessEventNotifierService) {
+    public LoanArrearsAgingServiceImpl(final DataSource dataSource, final BusinessEventNotifierService businessEventNotifierService,
+            final PlatformTransactionManager transactionManager, final JobCheckpointService jobCheckpointService,
+            final FineractProperties fineractProperties) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.businessEventNotifierService = businessEventNotifierService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobCheckpointService = jobCheckpointService;
+        this.fineractProperties = fineractProperties;
     }
 
     @PostConstruct
@@ -79,14 +107,95 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
         this.businessEventNotifierService.addBusinessEventPostListners(BUSINESS_EVENTS.LOAN_FORECLOSURE, this);
     }
 
-    @Transactional
     @Override
     @CronTarget(jobName = JobName.UPDATE_LOAN_ARREARS_AGEING)
-    public void updateLoanArrearsAgeingDetails() {
+    public void updateLoanArrearsAgeingDetails() throws JobExecutionException {
+        final FineractPropertiesJobs jobProperties = this.fineractProperties.getJobs();
+        final boolean incremental = jobProperties == null || !Boolean.FALSE.equals(jobProperties.getArrearsAgeingIncremental());
+        final int chunkSize = jobProperties == null || jobProperties.getArrearsAgeingChunkSize() == null ? DEFAULT_CHUNK_SIZE
+                : jobProperties.getArrearsAgeingChunkSize();
+        final int threads = jobProperties == null || jobProperties.getArrearsAgeingThreads() == null ? DEFAULT_THREADS
+                : jobProperties.getArrearsAgeingThreads();
+
+        final Date runStartedOn = this.jdbcTemplate.queryForObject("select NOW()", Date.class);
+        final String lastRun = incremental ? this.jobCheckpointService.retrieve(JobName.UPDATE_LOAN_ARREARS_AGEING, LAST_RUN_CHECKPOINT)
+                : null;
+
+        // the table is never truncated: every chunk replaces the rows of its own loans in one short transaction, so readers always see
+        // either the previous or the new figures of a loan
+        final List<Long> regularLoanIds = new ArrayList<>();
+        final List<Long> originalScheduleLoanIds = new ArrayList<>();
+        final String candidateSql = lastRun == null ? allCandidateLoansSql() : changedCandidateLoansSql();
+        final Object[] candidateParams = lastRun == null ? new Object[0] : new Object[] { lastRun, lastRun, lastRun };
+        this.jdbcTemplate.query(candidateSql, candidateParams, (rs) -> {
+            if (rs.getBoolean("originalSchedule")) {
+                originalScheduleLoanIds.add(rs.getLong("loanId"));
+            } else {
+                regularLoanIds.add(rs.getLong("loanId"));
+            }
+        });
+        logger.info("Updating arrears ageing ({}) for {} loans and {} loans based on original schedule", lastRun == null ? "full"
+                : "changes since " + lastRun, regularLoanIds.size(), originalScheduleLoanIds.size());
+
+        final List<Callable<Integer>> chunks = new ArrayList<>();
+        for (int i = 0; i < regularLoanIds.size(); i += chunkSize) {
+            final List<Long> chunk = regularLoanIds.subList(i, Math.min(i + chunkSize, regularLoanIds.size()));
+            chunks.add(() -> this.transactionTemplate.execute(status -> updateArrearsAgeingChunk(chunk)));
+        }
+        for (int i = 0; i < originalScheduleLoanIds.size(); i += chunkSize) {
+            final List<Long> chunk = originalScheduleLoanIds.subList(i, Math.min(i + chunkSize, originalScheduleLoanIds.size()));
+            chunks.add(() -> this.transactionTemplate.execute(status -> updateArrearsAgeingWithOriginalScheduleChunk(chunk)));
+        }
+
+        final StringBuilder errors = new StringBuilder();
+        int result = 0;
+        final ExecutorService executorService = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, chunks.size())));
+        try {
+            for (final Future<Integer> future : executorService.invokeAll(chunks)) {
+                try {
+                    result += future.get();
+                } catch (final ExecutionException e) {
+                    logger.error("Arrears ageing update failed for a chunk of loans", e.getCause());
+                    errors.append("Arrears ageing update failed with message ").append(e.getCause().getMessage()).append(' ');
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.append("Arrears ageing update was interrupted");
+        } finally {
+            executorService.shutdownNow();
+        }
 
-        this.jdbcTemplate.execute("truncate table m_loan_arrears_aging");
+        if (errors.length() > 0) { throw new JobExecutionException(errors.toString()); }
+        // only move the watermark when every chunk went through, failed chunks are picked up again by the next run
+        this.jobCheckpointService.store(JobName.UPDATE_LOAN_ARREARS_AGEING, LAST_RUN_CHECKPOINT, this.timestampFormatter.print(runStartedOn.getTime()));
+        logger.info("Results affected by update: {}", result);
+    }
 
-        final StringBuilder updateSqlBuilder = new StringBuilder(900);
+    private String allCandidateLoansSql() {
+        return "select candidates.loan_id as loanId, ifnull(prd.arrears_based_on_original_schedule, 0) as originalSchedule "
+                + "from (select ml.id as loan_id from m_loan ml where ml.loan_status_id = 300 "
+                + "union select mla.loan_id from m_loan_arrears_aging mla) candidates "
+                + "inner join m_loan ml on ml.id = candidates.loan_id "
+                + "left join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id order by candidates.loan_id";
+    }
+
+    private String changedCandidateLoansSql() {
+        return "select candidates.loan_id as loanId, ifnull(prd.arrears_based_on_original_schedule, 0) as originalSchedule "
+                + "from (select mr.loan_id from m_loan_repayment_schedule mr inner join m_loan ml on ml.id = mr.loan_id "
+                + "where ml.loan_status_id = 300 and mr.completed_derived is false "
+                + "and mr.duedate >= SUBDATE(DATE(?), INTERVAL ifnull(ml.grace_on_arrears_ageing, 0) day) "
+                + "and mr.duedate < SUBDATE(CURDATE(), INTERVAL ifnull(ml.grace_on_arrears_ageing, 0) day) "
+                + "union select mr.loan_id from m_loan_repayment_schedule mr where mr.lastmodified_date >= ? "
+                + "union select lt.loan_id from m_loan_transaction lt where lt.created_date >= ? "
+                + "union select mla.loan_id from m_loan_arrears_aging mla inner join m_loan ml on ml.id = mla.loan_id "
+                + "where ml.loan_status_id <> 300) candidates "
+                + "inner join m_loan ml on ml.id = candidates.loan_id "
+                + "left join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id order by candidates.loan_id";
+    }
+
+    private Integer updateArrearsAgeingChunk(final List<Long> loanIds) {
+        final String loanIdsAsString = toSqlList(loanIds);
         final String principalOverdueCalculationSql = "SUM(ifnull(mr.principal_amount, 0) - ifnull(mr.principal_completed_derived, 0) - ifnull(mr.principal_writtenoff_derived, 0))";
         final String interestOverdueCalculationSql = "SUM(ifnull(mr.interest_amount, 0) - ifnull(mr.interest_writtenoff_derived, 0) - ifnull(mr.interest_waived_derived, 0) - "
                 + "ifnull(mr.interest_completed_derived, 0))";
@@ -94,7 +203,10 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
                 + "ifnull(mr.fee_charges_waived_derived, 0) - ifnull(mr.fee_charges_completed_derived, 0))";
         final String penaltyChargesOverdueCalculationSql = "SUM(ifnull(mr.penalty_charges_amount, 0) - ifnull(mr.penalty_charges_writtenoff_derived, 0) - "
                 + "ifnull(mr.penalty_charges_waived_derived, 0) - ifnull(mr.penalty_charges_completed_derived, 0))";
+        final String overdueInstallmentSql = " ml.loan_status_id = 300 and mr.completed_derived is false "
+                + " and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) ";
 
+        final StringBuilder updateSqlBuilder = new StringBuilder(900);
         updateSqlBuilder
                 .append("INSERT INTO m_loan_arrears_aging(`loan_id`,`principal_overdue_derived`,`interest_overdue_derived`,`fee_charges_overdue_derived`,`penalty_charges_overdue_derived`,`total_overdue_derived`,`overdue_since_date_derived`)");
         updateSqlBuilder.append("select ml.id as loanId,");
@@ -108,21 +220,63 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
         updateSqlBuilder.append(" FROM m_loan ml ");
         updateSqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
         updateSqlBuilder.append(" left join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id ");
-        updateSqlBuilder.append(" WHERE ml.loan_status_id = 300 "); // active
-        updateSqlBuilder.append(" and mr.completed_derived is false ");
-        updateSqlBuilder.append(" and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) ");
+        updateSqlBuilder.append(" WHERE ml.id IN (").append(loanIdsAsString).append(") and ");
+        updateSqlBuilder.append(overdueInstallmentSql);
         updateSqlBuilder.append(" and (prd.arrears_based_on_original_schedule = 0 or prd.arrears_based_on_original_schedule is null) ");
         updateSqlBuilder.append(" GROUP BY ml.id");
+        updateSqlBuilder.append(" ON DUPLICATE KEY UPDATE ").append(UPSERT_ASSIGNMENTS);
+
+        final int updated = this.jdbcTemplate.update(updateSqlBuilder.toString());
+        final int deleted = this.jdbcTemplate.update("DELETE FROM m_loan_arrears_aging WHERE loan_id IN (" + loanIdsAsString + ") "
+                + "AND NOT EXISTS (select 1 from m_loan ml INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id "
+                + "WHERE ml.id = m_loan_arrears_aging.loan_id and " + overdueInstallmentSql + ")");
+        return updated + deleted;
+    }
+
+    private Integer updateArrearsAgeingWithOriginalScheduleChunk(final List<Long> loanIds) {
+        final String loanIdsAsString = toSqlList(loanIds);
+        final OriginalScheduleExtractor originalScheduleExtractor = new OriginalScheduleExtractor(loanIdsAsString);
+        final Map<Long, List<LoanSchedulePeriodData>> scheduleDate = this.jdbcTemplate.query(originalScheduleExtractor.schema,
+                originalScheduleExtractor);
+
+        final List<Object[]> arrears = new ArrayList<>();
+        if (!scheduleDate.isEmpty()) {
+            final List<Map<String, Object>> loanSummary = getLoanSummary(toSqlList(scheduleDate.keySet()));
+            updateSchheduleWithPaidDetail(scheduleDate, loanSummary);
+            collectArrears(arrears, scheduleDate);
+        }
 
-        List<String> insertStatements = updateLoanArrearsAgeingDetailsWithOriginalSchedule();
-        insertStatements.add(0, updateSqlBuilder.toString());
-        final int[] results = this.jdbcTemplate.batchUpdate(insertStatements.toArray(new String[0]));
         int result = 0;
-        for (int i : results) {
-            result += i;
+        if (!arrears.isEmpty()) {
+            final String upsertSql = "INSERT INTO m_loan_arrears_aging(`loan_id`,`principal_overdue_derived`,`interest_overdue_derived`,"
+                    + "`fee_charges_overdue_derived`,`penalty_charges_overdue_derived`,`total_overdue_derived`,`overdue_since_date_derived`) "
+                    + "VALUES (?,?,?,?,?,?,?) ON DUPLICATE KEY UPDATE " + UPSERT_ASSIGNMENTS;
+            for (final int i : this.jdbcTemplate.batchUpdate(upsertSql, arrears)) {
+                result += Math.max(i, 0);
+            }
         }
 
-        logger.info("Results affected by update: {}", result);
+        final StringBuilder deleteSql = new StringBuilder("DELETE FROM m_loan_arrears_aging WHERE loan_id IN (").append(loanIdsAsString)
+                .append(")");
+        if (!arrears.isEmpty()) {
+            final List<Long> loansInArrears = new ArrayList<>(arrears.size());
+            for (final Object[] row : arrears) {
+                loansInArrears.add((Long) row[0]);
+            }
+            deleteSql.append(" AND loan_id NOT IN (").append(toSqlList(loansInArrears)).append(")");
+        }
+        return result + this.jdbcTemplate.update(deleteSql.toString());
+    }
+
+    private static String toSqlList(final Collection<Long> loanIds) {
+        final StringBuilder sb = new StringBuilder(loanIds.size() * 8);
+        for (final Long loanId : loanIds) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(loanId);
+        }
+        return sb.toString();
     }
 
     @Override
@@ -192,33 +346,6 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
         return updateSql;
     }
 
-    private List<String> updateLoanArrearsAgeingDetailsWithOriginalSchedule() {
-        List<String> insertStatement = new ArrayList<>();
-
-        final StringBuilder loanIdentifier = new StringBuilder();
-        loanIdentifier.append("select ml.id as loanId FROM m_loan ml  ");
-        loanIdentifier.append("INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
-        loanIdentifier
-                .append("inner join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id and prd.arrears_based_on_original_schedule = 1  ");
-        loanIdentifier
-                .append("WHERE ml.loan_status_id = 300  and mr.completed_derived is false  and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) group by ml.id");
-        List<Long> loanIds = this.jdbcTemplate.queryForList(loanIdentifier.toString(), Long.class);
-        if (!loanIds.isEmpty()) {
-            String loanIdsAsString = loanIds.toString();
-            loanIdsAsString = loanIdsAsString.substring(1, loanIdsAsString.length() - 1);
-            OriginalScheduleExtractor originalScheduleExtractor = new OriginalScheduleExtractor(loanIdsAsString);
-            Map<Long, List<LoanSchedulePeriodData>> scheduleDate = this.jdbcTemplate.query(originalScheduleExtractor.schema,
-                    originalScheduleExtractor);
-
-            List<Map<String, Object>> loanSummary = getLoanSummary(loanIdsAsString);
-            updateSchheduleWithPaidDetail(scheduleDate, loanSummary);
-            createInsertStatements(insertStatement, scheduleDate, true);
-        }
-
-        return insertStatement;
-
-    }
-
     private List<Map<String, Object>> getLoanSummary(final String loanIdsAsString) {
         final StringBuilder transactionsSql = new StringBuilder();
         transactionsSql.append("select ml.id as loanId, ");
@@ -255,6 +382,29 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
 
     private void createInsertStatements(List<String> insertStatement, Map<Long, List<LoanSchedulePeriodData>> scheduleDate,
             boolean isInsertStatement) {
+        final List<Object[]> arrears = new ArrayList<>();
+        collectArrears(arrears, scheduleDate);
+        for (final Object[] row : arrears) {
+            final Long loanId = (Long) row[0];
+            final LocalDate overDueSince = LocalDate.fromDateFields((Date) row[6]);
+            String sqlStatement = null;
+            if (isInsertStatement) {
+                sqlStatement = constructInsertStatement(loanId, (BigDecimal) row[1], (BigDecimal) row[2], (BigDecimal) row[3],
+                        (BigDecimal) row[4], overDueSince);
+            } else {
+                sqlStatement = constructUpdateStatement(loanId, (BigDecimal) row[1], (BigDecimal) row[2], (BigDecimal) row[3],
+                        (BigDecimal) row[4], overDueSince);
+            }
+            insertStatement.add(sqlStatement);
+        }
+    }
+
+    /**
+     * Adds one row (loan id, principal, interest, fee, penalty and total
+     * overdue, overdue since date) per loan that has principal in arrears
+     * against its original schedule.
+     */
+    private void collectArrears(final List<Object[]> arrears, final Map<Long, List<LoanSchedulePeriodData>> scheduleDate) {
         for (Map.Entry<Long, List<LoanSchedulePeriodData>> entry : scheduleDate.entrySet()) {
             final Long loanId = entry.getKey();
             BigDecimal principalOverdue = BigDecimal.ZERO;
@@ -280,17 +430,10 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
                 }
             }
             if (principalOverdue.compareTo(BigDecimal.ZERO) == 1) {
-                String sqlStatement = null;
-                if (isInsertStatement) {
-                    sqlStatement = constructInsertStatement(loanId, principalOverdue, interestOverdue, feeOverdue, penaltyOverdue,
-                            overDueSince);
-                } else {
-                    sqlStatement = constructUpdateStatement(loanId, principalOverdue, interestOverdue, feeOverdue, penaltyOverdue,
-                            overDueSince);
-                }
-                insertStatement.add(sqlStatement);
+                final BigDecimal totalOverDue = principalOverdue.add(interestOverdue).add(feeOverdue).add(penaltyOverdue);
+                arrears.add(new Object[] { loanId, principalOverdue, interestOverdue, feeOverdue, penaltyOverdue, totalOverDue,
+                        overDueSince.toDate() });
             }
-
         }
     }
 
@@ -490,7 +633,7 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
         }
     }
 
-    private class DisbursementEventListner implements BusinessEventListner {
+    private class DisbursementEventListner implements SynchronousBusinessEventListner {
 
         @SuppressWarnings("unused")
         @Override
@@ -21,8 +21,10 @@ package org.apache.fineract.portfolio.loanaccount.service;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.fineract.infrastructure.codes.domain.CodeValue;
@@ -146,6 +148,14 @@ public class LoanAssembler {
         return loanAccount;
     }
 
+    public Map<Long, Loan> assembleFrom(final Collection<Long> accountIds) {
+        final Map<Long, Loan> loanAccounts = this.loanRepository.findByIdsWithNotFoundDetection(accountIds, true);
+        for (final Loan loanAccount : loanAccounts.values()) {
+            setHelpers(loanAccount);
+        }
+        return loanAccounts;
+    }
+
     public void setHelpers(final Loan loanAccount) {
         loanAccount.setHelpers(defaultLoanLifecycleStateMachine(), this.loanSummaryWrapper,
                 this.loanRepaymentScheduleTransactionProcessorFactory);
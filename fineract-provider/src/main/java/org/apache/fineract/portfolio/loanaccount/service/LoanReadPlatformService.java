@@ -25,6 +25,7 @@ import java.util.List;
 
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
+import org.apache.fineract.infrastructure.jobs.data.JobPartition;
 import org.apache.fineract.organisation.staff.data.StaffData;
 import org.apache.fineract.portfolio.calendar.data.CalendarData;
 import org.apache.fineract.portfolio.floatingrates.data.InterestRatePeriodData;
@@ -90,7 +91,14 @@ public interface LoanReadPlatformService {
      * result overdue installments with this charge already applied are not
      * returned.
      */
-    Collection<OverdueLoanScheduleData> retrieveAllLoansWithOverdueInstallments(final Long penaltyWaitPeriod, final Boolean backdatePenalties);
+    Collection<OverdueLoanScheduleData> retrieveAllLoansWithOverdueInstallments(final Long penaltyWaitPeriod, final Boolean backdatePenalties,
+            JobPartition partition);
+
+    /**
+     * Splits the ids of loans with overdue installments that are greater than
+     * <code>afterLoanId</code> into ranges of <code>partitionSize</code> loans.
+     */
+    List<JobPartition> retrieveOverdueLoanPartitions(Long penaltyWaitPeriod, Boolean backdatePenalties, Long afterLoanId, int partitionSize);
 
     Integer retriveLoanCounter(Long groupId, Integer loanType, Long productId);
 
@@ -104,12 +112,23 @@ public interface LoanReadPlatformService {
 
     Collection<LoanScheduleAccrualData> retriveScheduleAccrualData();
 
+    Collection<LoanScheduleAccrualData> retriveScheduleAccrualData(JobPartition partition);
+
     LoanTransactionData retrieveRecoveryPaymentTemplate(Long loanId);
 
     LoanTransactionData retrieveLoanWriteoffTemplate(Long loanId);
 
     Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(LocalDate tillDate);
 
+    Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(LocalDate tillDate, JobPartition partition);
+
+    /**
+     * Splits the ids of active loans with periodic accrual accounting that are
+     * greater than <code>afterLoanId</code> into ranges of
+     * <code>partitionSize</code> loans.
+     */
+    List<JobPartition> retrieveAccrualLoanPartitions(Long afterLoanId, int partitionSize);
+
     Collection<Long> fetchLoansForInterestRecalculation();
 
     List<Long> fetchLoansForInterestRecalculation(Integer pageSize, Long maxLoanIdInList, String officeHierarchy);
@@ -44,6 +44,7 @@ import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import javax.sql.DataSource;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
+import org.apache.fineract.infrastructure.jobs.data.JobPartition;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
 import org.apache.fineract.infrastructure.security.utils.SQLInjectionValidator;
@@ -125,6 +126,7 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -1494,21 +1496,67 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
     @Override
     public Collection<OverdueLoanScheduleData> retrieveAllLoansWithOverdueInstallments(final Long penaltyWaitPeriod,
-            final Boolean backdatePenalties) {
+            final Boolean backdatePenalties, final JobPartition partition) {
         final MusoniOverdueLoanScheduleMapper rm = new MusoniOverdueLoanScheduleMapper();
 
+        final List<Object> params = new ArrayList<>(4);
         final StringBuilder sqlBuilder = new StringBuilder(400);
-        sqlBuilder.append("select ").append(rm.schema()).append(" where DATE_SUB(CURDATE(),INTERVAL ? DAY) > ls.duedate ")
+        sqlBuilder.append("select ").append(rm.schema()).append(overdueInstallmentsWhereClause(penaltyWaitPeriod, backdatePenalties, params))
+                .append(" and ls.loan_id between ? and ? order by ls.loan_id");
+        params.add(partition.getFromId());
+        params.add(partition.getToId());
+
+        return this.jdbcTemplate.query(sqlBuilder.toString(), rm, params.toArray());
+    }
+
+    @Override
+    public List<JobPartition> retrieveOverdueLoanPartitions(final Long penaltyWaitPeriod, final Boolean backdatePenalties,
+            final Long afterLoanId, final int partitionSize) {
+        final List<Object> params = new ArrayList<>(3);
+        final StringBuilder sqlBuilder = new StringBuilder(400);
+        sqlBuilder.append("select distinct ls.loan_id from m_loan_repayment_schedule ls inner join m_loan ml on ml.id = ls.loan_id ")
+                .append(" join m_product_loan_charge plc on plc.product_loan_id = ml.product_id ")
+                .append(" join m_charge mc on mc.id = plc.charge_id ")
+                .append(overdueInstallmentsWhereClause(penaltyWaitPeriod, backdatePenalties, params))
+                .append(" and ls.loan_id > ? order by ls.loan_id");
+        params.add(afterLoanId);
+
+        final List<JobPartition> partitions = new ArrayList<>();
+        // only the bounds of each partition are kept, the ids themselves are streamed
+        final Long[] bounds = new Long[2];
+        final int[] count = new int[1];
+        this.jdbcTemplate.query(sqlBuilder.toString(), params.toArray(), (RowCallbackHandler) rs -> {
+            final Long loanId = rs.getLong(1);
+            if (count[0] == 0) {
+                bounds[0] = loanId;
+            }
+            bounds[1] = loanId;
+            if (++count[0] == partitionSize) {
+                partitions.add(new JobPartition(bounds[0], bounds[1]));
+                count[0] = 0;
+            }
+        });
+        if (count[0] > 0) {
+            partitions.add(new JobPartition(bounds[0], bounds[1]));
+        }
+        return partitions;
+    }
+
+    private String overdueInstallmentsWhereClause(final Long penaltyWaitPeriod, final Boolean backdatePenalties, final List<Object> params) {
+        final StringBuilder sqlBuilder = new StringBuilder(300);
+        sqlBuilder.append(" where DATE_SUB(CURDATE(),INTERVAL ? DAY) > ls.duedate ")
                 .append(" and ls.completed_derived <> 1 and mc.charge_applies_to_enum =1 ")
                 .append(" and ls.recalculated_interest_component <> 1 ")
                 .append(" and mc.charge_time_enum = 9 and ml.loan_status_id = 300 ");
+        params.add(penaltyWaitPeriod);
 
-        if (backdatePenalties) { return this.jdbcTemplate.query(sqlBuilder.toString(), rm, new Object[] { penaltyWaitPeriod }); }
-        // Only apply for duedate = yesterday (so that we don't apply
-        // penalties on the duedate itself)
-        sqlBuilder.append(" and ls.duedate >= DATE_SUB(CURDATE(),INTERVAL (? + 1) DAY)");
-
-        return this.jdbcTemplate.query(sqlBuilder.toString(), rm, new Object[] { penaltyWaitPeriod, penaltyWaitPeriod });
+        if (!backdatePenalties) {
+            // Only apply for duedate = yesterday (so that we don't apply
+            // penalties on the duedate itself)
+            sqlBuilder.append(" and ls.duedate >= DATE_SUB(CURDATE(),INTERVAL (? + 1) DAY)");
+            params.add(penaltyWaitPeriod);
+        }
+        return sqlBuilder.toString();
     }
 
     @SuppressWarnings("deprecation")
@@ -1596,6 +1644,11 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
     @Override
     public Collection<LoanScheduleAccrualData> retriveScheduleAccrualData() {
+        return retriveScheduleAccrualData(null);
+    }
+
+    @Override
+    public Collection<LoanScheduleAccrualData> retriveScheduleAccrualData(final JobPartition partition) {
 
         LoanScheduleAccrualMapper mapper = new LoanScheduleAccrualMapper();
         Date organisationStartDate = this.configurationDomainService.retrieveOrganisationStartDate();
@@ -1611,17 +1664,29 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         if(organisationStartDate != null){
             sqlBuilder.append(" and ls.duedate > :organisationstartdate ");
         }
+        if (partition != null) {
+            sqlBuilder.append(" and loan.id between :fromLoanId and :toLoanId ");
+        }
         sqlBuilder.append(" order by loan.id,ls.duedate ");
-        Map<String, Object> paramMap = new HashMap<>(3);
+        Map<String, Object> paramMap = new HashMap<>(5);
         paramMap.put("active", LoanStatus.ACTIVE.getValue());
         paramMap.put("type", AccountingRuleType.ACCRUAL_PERIODIC.getValue());
         paramMap.put("organisationstartdate", formatter.print(new LocalDate(organisationStartDate)));
+        if (partition != null) {
+            paramMap.put("fromLoanId", partition.getFromId());
+            paramMap.put("toLoanId", partition.getToId());
+        }
 
         return this.namedParameterJdbcTemplate.query(sqlBuilder.toString(), paramMap, mapper);
     }
 
     @Override
     public Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(final LocalDate tillDate) {
+        return retrivePeriodicAccrualData(tillDate, null);
+    }
+
+    @Override
+    public Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(final LocalDate tillDate, final JobPartition partition) {
 
         LoanSchedulePeriodicAccrualMapper mapper = new LoanSchedulePeriodicAccrualMapper();
         Date organisationStartDate = this.configurationDomainService.retrieveOrganisationStartDate();
@@ -1638,16 +1703,49 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         if(organisationStartDate != null){
             sqlBuilder.append(" and ls.duedate > :organisationstartdate ");
         }
+        if (partition != null) {
+            sqlBuilder.append(" and loan.id between :fromLoanId and :toLoanId ");
+        }
         sqlBuilder.append(" order by loan.id,ls.duedate ");
-        Map<String, Object> paramMap = new HashMap<>(4);
+        Map<String, Object> paramMap = new HashMap<>(6);
         paramMap.put("active", LoanStatus.ACTIVE.getValue());
         paramMap.put("type", AccountingRuleType.ACCRUAL_PERIODIC.getValue());
         paramMap.put("tilldate", formatter.print(tillDate));
         paramMap.put("organisationstartdate", formatter.print(new LocalDate(organisationStartDate)));
+        if (partition != null) {
+            paramMap.put("fromLoanId", partition.getFromId());
+            paramMap.put("toLoanId", partition.getToId());
+        }
 
         return this.namedParameterJdbcTemplate.query(sqlBuilder.toString(), paramMap, mapper);
     }
 
+    @Override
+    public List<JobPartition> retrieveAccrualLoanPartitions(final Long afterLoanId, final int partitionSize) {
+        final String sql = "select loan.id from m_loan loan inner join m_product_loan mpl on mpl.id = loan.product_id "
+                + "where loan.loan_status_id = ? and mpl.accounting_type = ? and loan.is_npa = 0 and loan.id > ? order by loan.id";
+        final List<JobPartition> partitions = new ArrayList<>();
+        // only the bounds of each partition are kept, the ids themselves are streamed
+        final Long[] bounds = new Long[2];
+        final int[] count = new int[1];
+        this.jdbcTemplate.query(sql, new Object[] { LoanStatus.ACTIVE.getValue(), AccountingRuleType.ACCRUAL_PERIODIC.getValue(), afterLoanId },
+                (RowCallbackHandler) rs -> {
+                    final Long loanId = rs.getLong(1);
+                    if (count[0] == 0) {
+                        bounds[0] = loanId;
+                    }
+                    bounds[1] = loanId;
+                    if (++count[0] == partitionSize) {
+                        partitions.add(new JobPartition(bounds[0], bounds[1]));
+                        count[0] = 0;
+                    }
+                });
+        if (count[0] > 0) {
+            partitions.add(new JobPartition(bounds[0], bounds[1]));
+        }
+        return partitions;
+    }
+
     private static final class LoanSchedulePeriodicAccrualMapper implements RowMapper<LoanScheduleAccrualData> {
 
         public String schema() {
@@ -21,12 +21,15 @@ package org.apache.fineract.portfolio.loanaccount.service;
 import lombok.RequiredArgsConstructor;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties.FineractPropertiesJobs;
 import org.apache.fineract.infrastructure.core.data.ApiParameterError;
 import org.apache.fineract.infrastructure.core.exception.AbstractPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionRunner;
 import org.apache.fineract.organisation.office.data.OfficeData;
 import org.apache.fineract.organisation.office.exception.OfficeNotFoundException;
 import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
@@ -52,6 +55,10 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
 	private final OfficeReadPlatformService officeReadPlatformService;
 	private final RecalculateInterestPoster poster;
 	private final FineractProperties fineractProperties;
+	private final JobPartitionRunner jobPartitionRunner;
+
+	private static final int DEFAULT_OVERDUE_CHARGE_THREADS = 4;
+	private static final int DEFAULT_OVERDUE_CHARGE_PARTITION_SIZE = 1000;
 
 	@Override
 	@CronTarget(jobName = JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT)
@@ -59,26 +66,56 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
 
 		final Long penaltyWaitPeriodValue = this.configurationDomainService.retrievePenaltyWaitPeriod();
 		final Boolean backdatePenalties = this.configurationDomainService.isBackdatePenaltiesEnabled();
-		final Collection<OverdueLoanScheduleData> overdueLoanScheduledInstallments = this.loanReadPlatformService
-				.retrieveAllLoansWithOverdueInstallments(penaltyWaitPeriodValue,backdatePenalties);
+		final FineractPropertiesJobs jobProperties = this.fineractProperties.getJobs();
+		final int threads = jobProperties == null || jobProperties.getOverdueChargeThreads() == null ? DEFAULT_OVERDUE_CHARGE_THREADS
+				: jobProperties.getOverdueChargeThreads();
+		final int partitionSize = jobProperties == null || jobProperties.getOverdueChargePartitionSize() == null
+				? DEFAULT_OVERDUE_CHARGE_PARTITION_SIZE
+				: jobProperties.getOverdueChargePartitionSize();
 
-		if (!overdueLoanScheduledInstallments.isEmpty()) {
-			final StringBuilder sb = new StringBuilder();
-			final Map<Long, Collection<OverdueLoanScheduleData>> overdueScheduleData = new HashMap<>();
-			for (final OverdueLoanScheduleData overdueInstallment : overdueLoanScheduledInstallments) {
-				if (overdueScheduleData.containsKey(overdueInstallment.getLoanId())) {
-					overdueScheduleData.get(overdueInstallment.getLoanId()).add(overdueInstallment);
-				} else {
-					Collection<OverdueLoanScheduleData> loanData = new ArrayList<>();
-					loanData.add(overdueInstallment);
-					overdueScheduleData.put(overdueInstallment.getLoanId(), loanData);
-				}
-			}
+		// partitions are ranges of loan ids, every loan is charged by exactly one thread
+		final String errors = this.jobPartitionRunner.run(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT,
+				DateUtils.getLocalDateOfTenant().toString(), threads,
+				(afterLoanId) -> this.loanReadPlatformService.retrieveOverdueLoanPartitions(penaltyWaitPeriodValue, backdatePenalties,
+						afterLoanId, partitionSize),
+				(partition) -> applyChargeForOverdueLoans(this.loanReadPlatformService
+						.retrieveAllLoansWithOverdueInstallments(penaltyWaitPeriodValue, backdatePenalties, partition)));
+
+		if (errors.length() > 0) { throw new JobExecutionException(errors); }
+	}
+
+	/**
+	 * Applies the overdue charges of every loan in its own transaction. Loans
+	 * that lose a lock conflict are not retried in place; they are deferred
+	 * until the rest of the partition has been charged and then retried, for at
+	 * most the configured number of deadlock retries.
+	 */
+	private String applyChargeForOverdueLoans(final Collection<OverdueLoanScheduleData> overdueLoanScheduledInstallments) {
+		final StringBuilder sb = new StringBuilder();
+		Map<Long, Collection<OverdueLoanScheduleData>> overdueScheduleData = new LinkedHashMap<>();
+		for (final OverdueLoanScheduleData overdueInstallment : overdueLoanScheduledInstallments) {
+			overdueScheduleData.computeIfAbsent(overdueInstallment.getLoanId(), (loanId) -> new ArrayList<>()).add(overdueInstallment);
+		}
 
-			for (final Long loanId : overdueScheduleData.keySet()) {
+		final Integer maxRetriesOnDeadlock = this.fineractProperties.getConnection() == null ? null
+				: this.fineractProperties.getConnection().getMaxRetriesOnDeadlock();
+		final int maxRounds = 1 + (maxRetriesOnDeadlock == null ? 0 : maxRetriesOnDeadlock);
+		for (int round = 1; round <= maxRounds && !overdueScheduleData.isEmpty(); round++) {
+			final Map<Long, Collection<OverdueLoanScheduleData>> conflicted = new LinkedHashMap<>();
+			for (final Map.Entry<Long, Collection<OverdueLoanScheduleData>> loan : overdueScheduleData.entrySet()) {
+				final Long loanId = loan.getKey();
 				try {
-					this.loanWritePlatformService.applyOverdueChargesForLoan(loanId, overdueScheduleData.get(loanId));
+					this.loanWritePlatformService.applyOverdueChargesForLoan(loanId, loan.getValue());
 
+				} catch (CannotAcquireLockException | ObjectOptimisticLockingFailureException e) {
+					if (round < maxRounds) {
+						conflicted.put(loanId, loan.getValue());
+					} else {
+						logger.warn("Apply Charges due for overdue loans failed for account:" + loanId + " after " + round
+								+ " attempt(s) with message " + e.getMessage());
+						sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" after ")
+								.append(round).append(" attempt(s) with message ").append(e.getMessage());
+					}
 				} catch (final PlatformApiDataValidationException e) {
 					final List<ApiParameterError> errors = e.getErrors();
 					for (final ApiParameterError error : errors) {
@@ -103,8 +140,12 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
 							.append(realCause.getMessage());
 				}
 			}
-			if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+			if (!conflicted.isEmpty()) {
+				logger.info("Apply Charges due for overdue loans deferred " + conflicted.size() + " loan(s) after lock conflicts");
+			}
+			overdueScheduleData = conflicted;
 		}
+		return sb.toString();
 	}
 
 	@Override
@@ -26,6 +26,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -625,10 +626,16 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         final LocalDate nextPossibleRepaymentDate = null;
         final Date rescheduledRepaymentDate = null;
 
+        final Set<Long> loanIds = new LinkedHashSet<>();
+        for (final SingleDisbursalCommand singleLoanDisbursalCommand : disbursalCommand) {
+            loanIds.add(singleLoanDisbursalCommand.getLoanId());
+        }
+        final Map<Long, Loan> loans = this.loanAssembler.assembleFrom(loanIds);
+
         for (int i = 0; i < disbursalCommand.length; i++) {
             final SingleDisbursalCommand singleLoanDisbursalCommand = disbursalCommand[i];
 
-            final Loan loan = this.loanAssembler.assembleFrom(singleLoanDisbursalCommand.getLoanId());
+            final Loan loan = loans.get(singleLoanDisbursalCommand.getLoanId());
             final LocalDate actualDisbursementDate = command.localDateValueOfParameterNamed("actualDisbursementDate");
             
             // validate ActualDisbursement Date Against Expected Disbursement Date
@@ -837,32 +844,56 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         if (repaymentCommand == null) { return changes; }
         List<Long> transactionIds = new ArrayList<>();
         boolean isAccountTransfer = false;
-        HolidayDetailDTO holidayDetailDTO = null;
-        Boolean isHolidayValidationDone = false;
+
+        // Load every loan of the sheet up front so the per-loan lookups below
+        // are served from the persistence context instead of the database.
+        final Set<Long> loanIds = new LinkedHashSet<>();
+        LocalDate earliestTransactionDate = null;
+        for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
+            if (singleLoanRepaymentCommand != null) {
+                loanIds.add(singleLoanRepaymentCommand.getLoanId());
+                if (earliestTransactionDate == null || singleLoanRepaymentCommand.getTransactionDate().isBefore(earliestTransactionDate)) {
+                    earliestTransactionDate = singleLoanRepaymentCommand.getTransactionDate();
+                }
+            }
+        }
+        if (loanIds.isEmpty()) {
+            changes.put("loanTransactions", transactionIds);
+            return changes;
+        }
+        final Map<Long, Loan> loans = this.loanAssembler.assembleFrom(loanIds);
+
+        final Set<Long> officeIds = new HashSet<>();
+        for (final Loan loan : loans.values()) {
+            officeIds.add(loan.getOfficeId());
+        }
+        final Map<Long, List<Holiday>> holidaysByOffice = this.holidayRepository.findByOfficeIdsAndGreaterThanDate(officeIds,
+                earliestTransactionDate.toDate());
+        final WorkingDays workingDays = this.workingDaysRepository.findOne();
+        final boolean isHolidayEnabled = this.configurationDomainService.isRescheduleRepaymentsOnHolidaysEnabled();
         final boolean allowTransactionsOnHoliday = this.configurationDomainService.allowTransactionsOnHolidayEnabled();
+        final boolean allowTransactionsOnNonWorkingDay = this.configurationDomainService.allowTransactionsOnNonWorkingDayEnabled();
+        final Map<Long, HolidayDetailDTO> holidayDetailsByOffice = new HashMap<>();
+        for (final Long officeId : officeIds) {
+            holidayDetailsByOffice.put(officeId, new HolidayDetailDTO(isHolidayEnabled, holidaysByOffice.get(officeId), workingDays,
+                    allowTransactionsOnHoliday, allowTransactionsOnNonWorkingDay));
+        }
+
         for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
             if (singleLoanRepaymentCommand != null) {
-                Loan loan = this.loanRepositoryWrapper.findOneWithNotFoundDetection(singleLoanRepaymentCommand.getLoanId());
-                final List<Holiday> holidays = this.holidayRepository.findByOfficeIdAndGreaterThanDate(loan.getOfficeId(),
-                        singleLoanRepaymentCommand.getTransactionDate().toDate());
-                final WorkingDays workingDays = this.workingDaysRepository.findOne();
-                final boolean allowTransactionsOnNonWorkingDay = this.configurationDomainService.allowTransactionsOnNonWorkingDayEnabled();
-                boolean isHolidayEnabled = false;
-                isHolidayEnabled = this.configurationDomainService.isRescheduleRepaymentsOnHolidaysEnabled();
-                holidayDetailDTO = new HolidayDetailDTO(isHolidayEnabled, holidays, workingDays, allowTransactionsOnHoliday,
-                        allowTransactionsOnNonWorkingDay);
+                final Loan loan = loans.get(singleLoanRepaymentCommand.getLoanId());
+                final HolidayDetailDTO holidayDetailDTO = holidayDetailsByOffice.get(loan.getOfficeId());
                 loan.validateRepaymentDateIsOnHoliday(singleLoanRepaymentCommand.getTransactionDate(),
                         holidayDetailDTO.isAllowTransactionsOnHoliday(), holidayDetailDTO.getHolidays());
                 loan.validateRepaymentDateIsOnNonWorkingDay(singleLoanRepaymentCommand.getTransactionDate(),
                         holidayDetailDTO.getWorkingDays(), holidayDetailDTO.isAllowTransactionsOnNonWorkingDay());
-                isHolidayValidationDone = true;
-                break;
             }
-
         }
+
+        final Boolean isHolidayValidationDone = true;
         for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
             if (singleLoanRepaymentCommand != null) {
-                final Loan loan = this.loanAssembler.assembleFrom(singleLoanRepaymentCommand.getLoanId());
+                final Loan loan = loans.get(singleLoanRepaymentCommand.getLoanId());
                 final PaymentDetail paymentDetail = singleLoanRepaymentCommand.getPaymentDetail();
                 if (paymentDetail != null && paymentDetail.getId() == null) {
                     this.paymentDetailWritePlatformService.persistPaymentDetail(paymentDetail);
@@ -870,8 +901,8 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
                 final CommandProcessingResultBuilder commandProcessingResultBuilder = new CommandProcessingResultBuilder();
                 LoanTransaction loanTransaction = this.loanAccountDomainService.makeRepayment(loan, commandProcessingResultBuilder,
                         bulkRepaymentCommand.getTransactionDate(), singleLoanRepaymentCommand.getTransactionAmount(), paymentDetail,
-                        bulkRepaymentCommand.getNote(), null, isRecoveryRepayment, isAccountTransfer, holidayDetailDTO,
-                        isHolidayValidationDone);
+                        bulkRepaymentCommand.getNote(), null, isRecoveryRepayment, isAccountTransfer,
+                        holidayDetailsByOffice.get(loan.getOfficeId()), isHolidayValidationDone);
                 transactionIds.add(loanTransaction.getId());
             }
         }
@@ -27,6 +27,7 @@ import org.apache.fineract.accounting.producttoaccountmapping.service.ProductToG
 import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
+import org.apache.fineract.infrastructure.cache.service.VersionedResponseCache;
 import org.apache.fineract.infrastructure.core.api.ApiParameterHelper;
 import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
@@ -59,6 +60,8 @@ import org.springframework.stereotype.Component;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 import java.util.*;
 
@@ -103,6 +106,7 @@ public class LoanProductsApiResource {
     private final DropdownReadPlatformService commonDropdownReadPlatformService;
     private final PaymentTypeReadPlatformService paymentTypeReadPlatformService;
     private final FloatingRatesReadPlatformService floatingRateReadPlatformService;
+    private final VersionedResponseCache versionedResponseCache;
 
     @Autowired
     public LoanProductsApiResource(final PlatformSecurityContext context, final LoanProductReadPlatformService readPlatformService,
@@ -117,7 +121,7 @@ public class LoanProductsApiResource {
             final ProductMixReadPlatformService productMixReadPlatformService,
             final DropdownReadPlatformService commonDropdownReadPlatformService,
             PaymentTypeReadPlatformService paymentTypeReadPlatformService,
-            final FloatingRatesReadPlatformService floatingRateReadPlatformService) {
+            final FloatingRatesReadPlatformService floatingRateReadPlatformService, final VersionedResponseCache versionedResponseCache) {
         this.context = context;
         this.loanProductReadPlatformService = readPlatformService;
         this.chargeReadPlatformService = chargeReadPlatformService;
@@ -134,6 +138,7 @@ public class LoanProductsApiResource {
         this.commonDropdownReadPlatformService = commonDropdownReadPlatformService;
         this.paymentTypeReadPlatformService = paymentTypeReadPlatformService;
         this.floatingRateReadPlatformService = floatingRateReadPlatformService;
+        this.versionedResponseCache = versionedResponseCache;
     }
 
     @POST
@@ -156,23 +161,26 @@ public class LoanProductsApiResource {
     @Produces({ MediaType.APPLICATION_JSON })
     @ApiOperation(value = "List Loan Products", httpMethod = "GET", notes = "Lists Loan Products\n\n" + "Example Requests:\n" + "\n" + "loanproducts\n" + "\n" + "\n" + "loanproducts?fields=name,description,interestRateFrequencyType,amortizationType")
     @ApiResponses({@ApiResponse(code = 200, message = "OK", responseContainer = "List", response = LoanProductsApiResourceSwagger.GetLoanProductsResponse.class)})
-    public String retrieveAllLoanProducts(@Context final UriInfo uriInfo) {
+    public Response retrieveAllLoanProducts(@Context final UriInfo uriInfo, @Context final Request request) {
 
         this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
-        final Set<String> associationParameters = ApiParameterHelper.extractAssociationsForResponseIfProvided(uriInfo.getQueryParameters());
-        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
 
-        if (!associationParameters.isEmpty()) {
-            if (associationParameters.contains("productMixes")) {
-                this.context.authenticatedUser().validateHasReadPermission("PRODUCTMIX");
-                final Collection<ProductMixData> productMixes = this.productMixReadPlatformService.retrieveAllProductMixes();
-                return this.productMixDataApiJsonSerializer.serialize(settings, productMixes, this.PRODUCT_MIX_DATA_PARAMETERS);
+        return this.versionedResponseCache.respond(request, uriInfo, () -> {
+            final Set<String> associationParameters = ApiParameterHelper.extractAssociationsForResponseIfProvided(uriInfo.getQueryParameters());
+            final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+
+            if (!associationParameters.isEmpty()) {
+                if (associationParameters.contains("productMixes")) {
+                    this.context.authenticatedUser().validateHasReadPermission("PRODUCTMIX");
+                    final Collection<ProductMixData> productMixes = this.productMixReadPlatformService.retrieveAllProductMixes();
+                    return this.productMixDataApiJsonSerializer.serialize(settings, productMixes, this.PRODUCT_MIX_DATA_PARAMETERS);
+                }
             }
-        }
 
-        final Collection<LoanProductData> products = this.loanProductReadPlatformService.retrieveAllLoanProducts();
+            final Collection<LoanProductData> products = this.loanProductReadPlatformService.retrieveAllLoanProducts();
 
-        return this.toApiJsonSerializer.serialize(settings, products, this.LOAN_PRODUCT_DATA_PARAMETERS);
+            return this.toApiJsonSerializer.serialize(settings, products, this.LOAN_PRODUCT_DATA_PARAMETERS);
+        });
     }
 
     @GET
@@ -181,23 +189,26 @@ public class LoanProductsApiResource {
     @Produces({ MediaType.APPLICATION_JSON })
     @ApiOperation(value = "Retrieve Loan Product Details Template", httpMethod = "GET", notes = "This is a convenience resource. It can be useful when building maintenance user interface screens for client applications. The template data returned consists of any or all of:\n" + "\n" + "Field Defaults\n" + "Allowed Value Lists\n" + "Example Request:\n" + "\n" + "loanproducts/template")
     @ApiResponses({@ApiResponse(code = 200, message = "OK", response = LoanProductsApiResourceSwagger.GetLoanProductsTemplateResponse.class)})
-    public String retrieveTemplate(@Context final UriInfo uriInfo, @QueryParam("isProductMixTemplate") @ApiParam(value = "isProductMixTemplate") final boolean isProductMixTemplate) {
+    public Response retrieveTemplate(@Context final UriInfo uriInfo, @QueryParam("isProductMixTemplate") @ApiParam(value = "isProductMixTemplate") final boolean isProductMixTemplate, @Context final Request request) {
 
         this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
-        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
 
-        if (isProductMixTemplate) {
-            this.context.authenticatedUser().validateHasReadPermission("PRODUCTMIX");
+        return this.versionedResponseCache.respond(request, uriInfo, () -> {
+            final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
 
-            final Collection<LoanProductData> productOptions = this.loanProductReadPlatformService.retrieveAvailableLoanProductsForMix();
-            final ProductMixData productMixData = ProductMixData.template(productOptions);
-            return this.productMixDataApiJsonSerializer.serialize(settings, productMixData, this.PRODUCT_MIX_DATA_PARAMETERS);
-        }
+            if (isProductMixTemplate) {
+                this.context.authenticatedUser().validateHasReadPermission("PRODUCTMIX");
 
-        LoanProductData loanProduct = this.loanProductReadPlatformService.retrieveNewLoanProductDetails();
-        loanProduct = handleTemplate(loanProduct);
+                final Collection<LoanProductData> productOptions = this.loanProductReadPlatformService.retrieveAvailableLoanProductsForMix();
+                final ProductMixData productMixData = ProductMixData.template(productOptions);
+                return this.productMixDataApiJsonSerializer.serialize(settings, productMixData, this.PRODUCT_MIX_DATA_PARAMETERS);
+            }
 
-        return this.toApiJsonSerializer.serialize(settings, loanProduct, this.LOAN_PRODUCT_DATA_PARAMETERS);
+            LoanProductData loanProduct = this.loanProductReadPlatformService.retrieveNewLoanProductDetails();
+            loanProduct = handleTemplate(loanProduct);
+
+            return this.toApiJsonSerializer.serialize(settings, loanProduct, this.LOAN_PRODUCT_DATA_PARAMETERS);
+        });
     }
 
     @GET
@@ -206,35 +217,37 @@ public class LoanProductsApiResource {
     @Produces({ MediaType.APPLICATION_JSON })
     @ApiOperation(value = "Retrieve a Loan Product", httpMethod = "GET", notes = "Retrieves a Loan Product\n\n" + "Example Requests:\n" + "\n" + "loanproducts/1\n" + "\n" + "\n" + "loanproducts/1?template=true\n" + "\n" + "\n" + "loanproducts/1?fields=name,description,numberOfRepayments")
     @ApiResponses({@ApiResponse(code = 200, message = "OK", response = LoanProductsApiResourceSwagger.GetLoanProductsProductIdResponse.class)})
-    public String retrieveLoanProductDetails(@PathParam("productId") @ApiParam(value = "productId") final Long productId, @Context final UriInfo uriInfo) {
+    public Response retrieveLoanProductDetails(@PathParam("productId") @ApiParam(value = "productId") final Long productId, @Context final UriInfo uriInfo, @Context final Request request) {
 
         this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
 
-        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
-
-        LoanProductData loanProduct = this.loanProductReadPlatformService.retrieveLoanProduct(productId);
-
-        Map<String, Object> accountingMappings = null;
-        Collection<PaymentTypeToGLAccountMapper> paymentChannelToFundSourceMappings = null;
-        Collection<ChargeToGLAccountMapper> feeToGLAccountMappings = null;
-        Collection<ChargeToGLAccountMapper> penaltyToGLAccountMappings = null;
-        if (loanProduct.hasAccountingEnabled()) {
-            accountingMappings = this.accountMappingReadPlatformService.fetchAccountMappingDetailsForLoanProduct(productId, loanProduct
-                    .accountingRuleType().getId().intValue());
-            paymentChannelToFundSourceMappings = this.accountMappingReadPlatformService
-                    .fetchPaymentTypeToFundSourceMappingsForLoanProduct(productId);
-            feeToGLAccountMappings = this.accountMappingReadPlatformService
-                    .fetchFeeToIncomeOrLiabilityAccountMappingsForLoanProduct(productId);
-            penaltyToGLAccountMappings = this.accountMappingReadPlatformService
-                    .fetchPenaltyToIncomeAccountMappingsForLoanProduct(productId);
-            loanProduct = LoanProductData.withAccountingDetails(loanProduct, accountingMappings, paymentChannelToFundSourceMappings,
-                    feeToGLAccountMappings, penaltyToGLAccountMappings);
-        }
+        return this.versionedResponseCache.respond(request, uriInfo, () -> {
+            final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+
+            LoanProductData loanProduct = this.loanProductReadPlatformService.retrieveLoanProduct(productId);
+
+            Map<String, Object> accountingMappings = null;
+            Collection<PaymentTypeToGLAccountMapper> paymentChannelToFundSourceMappings = null;
+            Collection<ChargeToGLAccountMapper> feeToGLAccountMappings = null;
+            Collection<ChargeToGLAccountMapper> penaltyToGLAccountMappings = null;
+            if (loanProduct.hasAccountingEnabled()) {
+                accountingMappings = this.accountMappingReadPlatformService.fetchAccountMappingDetailsForLoanProduct(productId, loanProduct
+                        .accountingRuleType().getId().intValue());
+                paymentChannelToFundSourceMappings = this.accountMappingReadPlatformService
+                        .fetchPaymentTypeToFundSourceMappingsForLoanProduct(productId);
+                feeToGLAccountMappings = this.accountMappingReadPlatformService
+                        .fetchFeeToIncomeOrLiabilityAccountMappingsForLoanProduct(productId);
+                penaltyToGLAccountMappings = this.accountMappingReadPlatformService
+                        .fetchPenaltyToIncomeAccountMappingsForLoanProduct(productId);
+                loanProduct = LoanProductData.withAccountingDetails(loanProduct, accountingMappings, paymentChannelToFundSourceMappings,
+                        feeToGLAccountMappings, penaltyToGLAccountMappings);
+            }
 
-        if (settings.isTemplate()) {
-            loanProduct = handleTemplate(loanProduct);
-        }
-        return this.toApiJsonSerializer.serialize(settings, loanProduct, this.LOAN_PRODUCT_DATA_PARAMETERS);
+            if (settings.isTemplate()) {
+                loanProduct = handleTemplate(loanProduct);
+            }
+            return this.toApiJsonSerializer.serialize(settings, loanProduct, this.LOAN_PRODUCT_DATA_PARAMETERS);
+        });
     }
 
     @PUT
@@ -0,0 +1,49 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings;
+
+import org.apache.fineract.portfolio.calendar.domain.CalendarFrequencyType;
+import org.apache.fineract.portfolio.calendar.service.CalendarUtils;
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+import org.joda.time.LocalDate;
+
+/**
+ * A deposit recurrence rule parsed once, so that consecutive deposit dates can
+ * be calculated without parsing the rule for every installment.
+ */
+public final class DepositAccountRecurrence {
+
+    private final PeriodFrequencyType frequencyType;
+    private final int recurringEvery;
+
+    private DepositAccountRecurrence(final PeriodFrequencyType frequencyType, final int recurringEvery) {
+        this.frequencyType = frequencyType;
+        this.recurringEvery = recurringEvery;
+    }
+
+    public static DepositAccountRecurrence compile(final String recurrence) {
+        final PeriodFrequencyType frequencyType = CalendarFrequencyType.from(CalendarUtils.getFrequency(recurrence));
+        final int interval = CalendarUtils.getInterval(recurrence);
+        return new DepositAccountRecurrence(frequencyType, interval == -1 ? 1 : interval);
+    }
+
+    public LocalDate nextDepositDate(final LocalDate lastDepositDate) {
+        return DepositAccountUtils.calculateNextDepositDate(lastDepositDate, this.frequencyType, this.recurringEvery);
+    }
+}
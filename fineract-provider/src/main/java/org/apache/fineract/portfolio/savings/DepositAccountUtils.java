@@ -18,8 +18,6 @@
  */
 package org.apache.fineract.portfolio.savings;
 
-import org.apache.fineract.portfolio.calendar.domain.CalendarFrequencyType;
-import org.apache.fineract.portfolio.calendar.service.CalendarUtils;
 import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
 import org.joda.time.LocalDate;
 
@@ -51,10 +49,7 @@ public class DepositAccountUtils {
     }
 
     public static LocalDate calculateNextDepositDate(final LocalDate lastDepositDate, final String recurrence) {
-        final PeriodFrequencyType frequencyType = CalendarFrequencyType.from(CalendarUtils.getFrequency(recurrence));
-        Integer frequency = CalendarUtils.getInterval(recurrence);
-        frequency = frequency == -1 ? 1 : frequency;
-        return calculateNextDepositDate(lastDepositDate, frequencyType, frequency);
+        return DepositAccountRecurrence.compile(recurrence).nextDepositDate(lastDepositDate);
     }
 
 }
@@ -29,6 +29,7 @@ import org.apache.fineract.accounting.producttoaccountmapping.service.ProductToG
 import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
+import org.apache.fineract.infrastructure.cache.service.VersionedResponseCache;
 import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
@@ -56,6 +57,8 @@ import org.springframework.util.CollectionUtils;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -80,6 +83,7 @@ public class SavingsProductsApiResource {
     private final ChargeReadPlatformService chargeReadPlatformService;
     private final PaymentTypeReadPlatformService paymentTypeReadPlatformService;
     private final TaxReadPlatformService taxReadPlatformService;
+    private final VersionedResponseCache versionedResponseCache;
 
     @Autowired
     public SavingsProductsApiResource(final SavingsProductReadPlatformService savingProductReadPlatformService,
@@ -91,7 +95,7 @@ public class SavingsProductsApiResource {
             final AccountingDropdownReadPlatformService accountingDropdownReadPlatformService,
             final ProductToGLAccountMappingReadPlatformService accountMappingReadPlatformService,
             final ChargeReadPlatformService chargeReadPlatformService, PaymentTypeReadPlatformService paymentTypeReadPlatformService,
-            final TaxReadPlatformService taxReadPlatformService) {
+            final TaxReadPlatformService taxReadPlatformService, final VersionedResponseCache versionedResponseCache) {
         this.savingProductReadPlatformService = savingProductReadPlatformService;
         this.dropdownReadPlatformService = dropdownReadPlatformService;
         this.currencyReadPlatformService = currencyReadPlatformService;
@@ -104,6 +108,7 @@ public class SavingsProductsApiResource {
         this.chargeReadPlatformService = chargeReadPlatformService;
         this.paymentTypeReadPlatformService = paymentTypeReadPlatformService;
         this.taxReadPlatformService = taxReadPlatformService;
+        this.versionedResponseCache = versionedResponseCache;
     }
 
     @POST
@@ -144,15 +149,17 @@ public class SavingsProductsApiResource {
     @Produces({ MediaType.APPLICATION_JSON })
     @ApiOperation(value = "List Savings Products", httpMethod = "GET", notes = "Lists Savings Products\n\n" + "Example Requests:\n" + "\n" + "savingsproducts\n" + "\n" + "savingsproducts?fields=name")
     @ApiResponses({@ApiResponse(code = 200, message = "OK", responseContainer = "List", response = SavingsProductsApiResourceSwagger.GetSavingsProductsResponse.class)})
-    public String retrieveAll(@Context final UriInfo uriInfo) {
+    public Response retrieveAll(@Context final UriInfo uriInfo, @Context final Request request) {
 
         this.context.authenticatedUser().validateHasReadPermission(SavingsApiConstants.SAVINGS_PRODUCT_RESOURCE_NAME);
 
-        final Collection<SavingsProductData> products = this.savingProductReadPlatformService.retrieveAll();
+        return this.versionedResponseCache.respond(request, uriInfo, () -> {
+            final Collection<SavingsProductData> products = this.savingProductReadPlatformService.retrieveAll();
 
-        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
-		return this.toApiJsonSerializer.serialize(settings, products,
-				SavingsApiSetConstants.SAVINGS_PRODUCT_RESPONSE_DATA_PARAMETERS);
+            final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+            return this.toApiJsonSerializer.serialize(settings, products,
+                    SavingsApiSetConstants.SAVINGS_PRODUCT_RESPONSE_DATA_PARAMETERS);
+        });
     }
 
     @GET
@@ -161,37 +168,39 @@ public class SavingsProductsApiResource {
     @Produces({ MediaType.APPLICATION_JSON })
     @ApiOperation(value = "Retrieve a Savings Product", httpMethod = "GET", notes = "Retrieves a Savings Product\n\n" + "Example Requests:\n" + "\n" + "savingsproducts/1\n" + "\n" + "savingsproducts/1?template=true\n" + "\n" + "savingsproducts/1?fields=name,description")
     @ApiResponses({@ApiResponse(code = 200, message = "OK", response = SavingsProductsApiResourceSwagger.GetSavingsProductsProductIdResponse.class)})
-    public String retrieveOne(@PathParam("productId") @ApiParam(value = "productId") final Long productId, @Context final UriInfo uriInfo) {
+    public Response retrieveOne(@PathParam("productId") @ApiParam(value = "productId") final Long productId, @Context final UriInfo uriInfo, @Context final Request request) {
 
         this.context.authenticatedUser().validateHasReadPermission(SavingsApiConstants.SAVINGS_PRODUCT_RESOURCE_NAME);
 
-        SavingsProductData savingProductData = this.savingProductReadPlatformService.retrieveOne(productId);
+        return this.versionedResponseCache.respond(request, uriInfo, () -> {
+            SavingsProductData savingProductData = this.savingProductReadPlatformService.retrieveOne(productId);
 
-        final Collection<ChargeData> charges = this.chargeReadPlatformService.retrieveSavingsProductCharges(productId);
+            final Collection<ChargeData> charges = this.chargeReadPlatformService.retrieveSavingsProductCharges(productId);
 
-        savingProductData = SavingsProductData.withCharges(savingProductData, charges);
+            savingProductData = SavingsProductData.withCharges(savingProductData, charges);
 
-        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+            final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
 
-        if (savingProductData.hasAccountingEnabled()) {
-            final Map<String, Object> accountingMappings = this.accountMappingReadPlatformService
-                    .fetchAccountMappingDetailsForSavingsProduct(productId, savingProductData.accountingRuleTypeId());
-            final Collection<PaymentTypeToGLAccountMapper> paymentChannelToFundSourceMappings = this.accountMappingReadPlatformService
-                    .fetchPaymentTypeToFundSourceMappingsForSavingsProduct(productId);
-            Collection<ChargeToGLAccountMapper> feeToGLAccountMappings = this.accountMappingReadPlatformService
-                    .fetchFeeToIncomeAccountMappingsForSavingsProduct(productId);
-            Collection<ChargeToGLAccountMapper> penaltyToGLAccountMappings = this.accountMappingReadPlatformService
-                    .fetchPenaltyToIncomeAccountMappingsForSavingsProduct(productId);
-            savingProductData = SavingsProductData.withAccountingDetails(savingProductData, accountingMappings,
-                    paymentChannelToFundSourceMappings, feeToGLAccountMappings, penaltyToGLAccountMappings);
-        }
+            if (savingProductData.hasAccountingEnabled()) {
+                final Map<String, Object> accountingMappings = this.accountMappingReadPlatformService
+                        .fetchAccountMappingDetailsForSavingsProduct(productId, savingProductData.accountingRuleTypeId());
+                final Collection<PaymentTypeToGLAccountMapper> paymentChannelToFundSourceMappings = this.accountMappingReadPlatformService
+                        .fetchPaymentTypeToFundSourceMappingsForSavingsProduct(productId);
+                Collection<ChargeToGLAccountMapper> feeToGLAccountMappings = this.accountMappingReadPlatformService
+                        .fetchFeeToIncomeAccountMappingsForSavingsProduct(productId);
+                Collection<ChargeToGLAccountMapper> penaltyToGLAccountMappings = this.accountMappingReadPlatformService
+                        .fetchPenaltyToIncomeAccountMappingsForSavingsProduct(productId);
+                savingProductData = SavingsProductData.withAccountingDetails(savingProductData, accountingMappings,
+                        paymentChannelToFundSourceMappings, feeToGLAccountMappings, penaltyToGLAccountMappings);
+            }
 
-        if (settings.isTemplate()) {
-            savingProductData = handleTemplateRelatedData(savingProductData);
-        }
+            if (settings.isTemplate()) {
+                savingProductData = handleTemplateRelatedData(savingProductData);
+            }
 
-		return this.toApiJsonSerializer.serialize(settings, savingProductData,
-				SavingsApiSetConstants.SAVINGS_PRODUCT_RESPONSE_DATA_PARAMETERS);
+            return this.toApiJsonSerializer.serialize(settings, savingProductData,
+                    SavingsApiSetConstants.SAVINGS_PRODUCT_RESPONSE_DATA_PARAMETERS);
+        });
     }
 
     @GET
@@ -200,15 +209,17 @@ public class SavingsProductsApiResource {
     @Produces({ MediaType.APPLICATION_JSON })
     @ApiOperation(value = "Retrieve Savings Product Template", httpMethod = "GET", notes = "This is a convenience resource. It can be useful when building maintenance user interface screens for client applications. The template data returned consists of any or all of:\n" + "\n" + "Field Defaults\n" + "Allowed Value Lists\n" + "Example Request:\n" + "\n" + "savingsproducts/template")
     @ApiResponses({@ApiResponse(code = 200, message = "OK", response = SavingsProductsApiResourceSwagger.GetSavingsProductsTemplateResponse.class)})
-    public String retrieveTemplate(@Context final UriInfo uriInfo) {
+    public Response retrieveTemplate(@Context final UriInfo uriInfo, @Context final Request request) {
 
         this.context.authenticatedUser().validateHasReadPermission(SavingsApiConstants.SAVINGS_PRODUCT_RESOURCE_NAME);
 
-        final SavingsProductData savingProduct = handleTemplateRelatedData(null);
+        return this.versionedResponseCache.respond(request, uriInfo, () -> {
+            final SavingsProductData savingProduct = handleTemplateRelatedData(null);
 
-        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
-		return this.toApiJsonSerializer.serialize(settings, savingProduct,
-				SavingsApiSetConstants.SAVINGS_PRODUCT_RESPONSE_DATA_PARAMETERS);
+            final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+            return this.toApiJsonSerializer.serialize(settings, savingProduct,
+                    SavingsApiSetConstants.SAVINGS_PRODUCT_RESPONSE_DATA_PARAMETERS);
+        });
     }
 
     private SavingsProductData handleTemplateRelatedData(final SavingsProductData savingsProduct) {
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.portfolio.savings.domain;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -49,6 +50,16 @@ public interface SavingsAccountRepository extends JpaRepository<SavingsAccount,
     SavingsAccount findByIdAndDepositAccountType(@Param("accountId") Long accountId,
             @Param("depositAccountTypeId") Integer depositAccountTypeId);
 
+    @Query("select distinct sa from SavingsAccount sa left join fetch sa.client left join fetch sa.group "
+            + "left join fetch sa.transactions where sa.id IN :accountIds")
+    List<SavingsAccount> findByIdsFetchingTransactions(@Param("accountIds") Collection<Long> accountIds);
+
+    @Query("select distinct sa from SavingsAccount sa left join fetch sa.charges where sa.id IN :accountIds")
+    List<SavingsAccount> findByIdsFetchingCharges(@Param("accountIds") Collection<Long> accountIds);
+
+    @Query("select distinct sa from SavingsAccount sa left join fetch sa.savingsOfficerHistory where sa.id IN :accountIds")
+    List<SavingsAccount> findByIdsFetchingSavingsOfficerHistory(@Param("accountIds") Collection<Long> accountIds);
+
     @Query("select sa from SavingsAccount sa where sa.accountNumber = :accountNumber and sa.status in (100, 200, 300, 303, 304) ")
     SavingsAccount findNonClosedAccountByAccountNumber(@Param("accountNumber") String accountNumber);
     
@@ -18,6 +18,8 @@
  */
 package org.apache.fineract.portfolio.savings.domain;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.fineract.portfolio.savings.DepositAccountType;
@@ -60,10 +62,32 @@ public class SavingsAccountRepositoryWrapper {
         return account;
     }
 
+    /**
+     * Loads several accounts together with their transactions, charges and
+     * officer history using one query per collection so that subsequent
+     * per-account lookups in the same transaction find them already
+     * initialized in the persistence context.
+     */
+    @Transactional(readOnly=true)
+    public List<SavingsAccount> prefetch(final Collection<Long> savingsIds) {
+        if (savingsIds.isEmpty()) { return new ArrayList<>(); }
+        final List<SavingsAccount> accounts = this.repository.findByIdsFetchingTransactions(savingsIds);
+        this.repository.findByIdsFetchingCharges(savingsIds);
+        this.repository.findByIdsFetchingSavingsOfficerHistory(savingsIds);
+        loadLazyCollections(accounts);
+        return accounts;
+    }
+
+    /**
+     * Looks the account up by id so that an account already loaded by
+     * {@link #prefetch(Collection)} is served from the persistence context.
+     */
     @Transactional(readOnly=true)
     public SavingsAccount findOneWithNotFoundDetection(final Long savingsId, final DepositAccountType depositAccountType) {
-        final SavingsAccount account = this.repository.findByIdAndDepositAccountType(savingsId, depositAccountType.getValue());
-        if (account == null) { throw new SavingsAccountNotFoundException(savingsId); }
+        final SavingsAccount account = this.repository.findById(savingsId).orElse(null);
+        if (account == null || !depositAccountType.equals(account.depositAccountType())) {
+            throw new SavingsAccountNotFoundException(savingsId);
+        }
         account.loadLazyCollections();
         return account;
     }
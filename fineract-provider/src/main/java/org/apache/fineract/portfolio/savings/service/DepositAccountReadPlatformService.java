@@ -19,14 +19,17 @@
 package org.apache.fineract.portfolio.savings.service;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.fineract.infrastructure.core.data.PaginationParameters;
 import org.apache.fineract.infrastructure.core.service.Page;
+import org.apache.fineract.infrastructure.jobs.data.JobPartition;
 import org.apache.fineract.portfolio.account.data.AccountTransferDTO;
 import org.apache.fineract.portfolio.savings.DepositAccountType;
 import org.apache.fineract.portfolio.savings.data.DepositAccountData;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionData;
+import org.springframework.jdbc.core.RowCallbackHandler;
 
 public interface DepositAccountReadPlatformService {
 
@@ -53,5 +56,12 @@ public interface DepositAccountReadPlatformService {
 
     Collection<AccountTransferDTO> retrieveDataForInterestTransfer();
 
-    Collection<Map<String, Object>> retriveDataForRDScheduleCreation();
+    /**
+     * Streams the active recurring deposit accounts of the partition that have
+     * fewer than the minimum number of future installments, one row per account
+     * with its amount, recurrence, last due date and installment number.
+     */
+    void retriveDataForRDScheduleCreation(JobPartition partition, RowCallbackHandler handler);
+
+    List<JobPartition> retrieveRDScheduleCreationPartitions(Long afterSavingsId, int partitionSize);
 }
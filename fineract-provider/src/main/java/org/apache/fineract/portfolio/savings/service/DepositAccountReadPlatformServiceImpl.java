@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -36,6 +37,7 @@ import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import javax.sql.DataSource;
+import org.apache.fineract.infrastructure.jobs.data.JobPartition;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.organisation.monetary.data.CurrencyData;
 import org.apache.fineract.organisation.staff.data.StaffData;
@@ -65,6 +67,7 @@ import org.apache.fineract.portfolio.paymenttype.data.PaymentTypeData;
 import org.apache.fineract.portfolio.paymenttype.service.PaymentTypeReadPlatformService;
 import org.apache.fineract.portfolio.savings.DepositAccountOnClosureType;
 import org.apache.fineract.portfolio.savings.DepositAccountType;
+import org.apache.fineract.portfolio.savings.DepositAccountUtils;
 import org.apache.fineract.portfolio.savings.SavingsAccountTransactionType;
 import org.apache.fineract.portfolio.savings.SavingsCompoundingInterestPeriodType;
 import org.apache.fineract.portfolio.savings.SavingsInterestCalculationDaysInYearType;
@@ -93,6 +96,7 @@ import org.joda.time.format.DateTimeFormatter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
@@ -509,7 +513,7 @@ public class DepositAccountReadPlatformServiceImpl implements DepositAccountRead
     }
 
     @Override
-    public Collection<Map<String, Object>> retriveDataForRDScheduleCreation() {
+    public void retriveDataForRDScheduleCreation(final JobPartition partition, final RowCallbackHandler handler) {
         final StringBuilder sb = new StringBuilder(300);
         sb.append(" select rd.savings_account_id savingsId, rd.mandatory_recommended_deposit_amount as amount,");
         sb.append(" mc.recurrence as recurrence ,");
@@ -521,12 +525,39 @@ public class DepositAccountReadPlatformServiceImpl implements DepositAccountRead
         sb.append(" inner join m_calendar_instance mci on mci.entity_type_enum = ? and mci.entity_id = dat.savings_account_id  ");
         sb.append(" inner join m_calendar mc  on mc.id = mci.calendar_id and mc.calendar_type_enum = ?");
         sb.append(" inner join m_mandatory_savings_schedule ms on ms.savings_account_id = dat.savings_account_id and ms.duedate > ?");
-        sb.append(" where dat.deposit_period is null");
+        sb.append(" where dat.deposit_period is null and dat.savings_account_id between ? and ?");
         sb.append(" group by ms.savings_account_id, rd.mandatory_recommended_deposit_amount, mc.recurrence");
+        sb.append(" having count(ms.installment) < ?");
 
-        return this.jdbcTemplate.queryForList(sb.toString(), SavingsAccountStatusType.ACTIVE.getValue(),
-                CalendarEntityType.SAVINGS.getValue(), CalendarType.COLLECTION.getValue(),
-                formatter.print(DateUtils.getLocalDateOfTenant()));
+        this.jdbcTemplate.query(sb.toString(), new Object[] { SavingsAccountStatusType.ACTIVE.getValue(),
+                CalendarEntityType.SAVINGS.getValue(), CalendarType.COLLECTION.getValue(), formatter.print(DateUtils.getLocalDateOfTenant()),
+                partition.getFromId(), partition.getToId(), DepositAccountUtils.GENERATE_MINIMUM_NUMBER_OF_FUTURE_INSTALMENTS }, handler);
+    }
+
+    @Override
+    public List<JobPartition> retrieveRDScheduleCreationPartitions(final Long afterSavingsId, final int partitionSize) {
+        final String sql = "select dat.savings_account_id from m_deposit_account_term_and_preclosure dat "
+                + "inner join m_savings_account sa on sa.id = dat.savings_account_id and sa.status_enum = ? "
+                + "where dat.deposit_period is null and dat.savings_account_id > ? order by dat.savings_account_id";
+        final List<JobPartition> partitions = new ArrayList<>();
+        // only the bounds of each partition are kept, the ids themselves are streamed
+        final Long[] bounds = new Long[2];
+        final int[] count = new int[1];
+        this.jdbcTemplate.query(sql, new Object[] { SavingsAccountStatusType.ACTIVE.getValue(), afterSavingsId }, (RowCallbackHandler) rs -> {
+            final Long savingsId = rs.getLong(1);
+            if (count[0] == 0) {
+                bounds[0] = savingsId;
+            }
+            bounds[1] = savingsId;
+            if (++count[0] == partitionSize) {
+                partitions.add(new JobPartition(bounds[0], bounds[1]));
+                count[0] = 0;
+            }
+        });
+        if (count[0] > 0) {
+            partitions.add(new JobPartition(bounds[0], bounds[1]));
+        }
+        return partitions;
     }
 
     private static abstract class DepositAccountMapper implements RowMapper<DepositAccountData> {
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import java.util.Collection;
+
+import org.apache.fineract.portfolio.search.data.SearchConditions;
+import org.apache.fineract.portfolio.search.data.SearchData;
+
+/**
+ * On-disk inverted index over the names, account numbers, external ids,
+ * mobile numbers and document keys matched by the global search.
+ */
+public interface SearchIndexService {
+
+    String CLIENT = "CLIENT";
+    String GROUP = "GROUP";
+    String LOAN = "LOAN";
+    String SAVING = "SAVING";
+    String SHARE = "SHARE";
+    String CLIENT_IDENTIFIER = "CLIENTIDENTIFIER";
+
+    /**
+     * @return false until the index has been built completely once, callers
+     *         should fall back to querying the database
+     */
+    boolean isReady();
+
+    Collection<SearchData> search(SearchConditions searchConditions, String hierarchy);
+
+    /**
+     * Records that one entity (one of the type constants above) changed; every
+     * node re-reads it and updates or removes its entry. When called inside a
+     * transaction the change is only seen after commit.
+     */
+    void reindex(String entityType, Long entityId);
+
+    /**
+     * Re-reads a client together with its identifiers and its loan, savings and
+     * share accounts, whose entries carry the client's name and office.
+     */
+    void reindexClient(Long clientId);
+
+    /**
+     * Starts a rebuild of the whole index in the background.
+     *
+     * @return false if a rebuild is already running
+     */
+    boolean rebuild();
+
+}
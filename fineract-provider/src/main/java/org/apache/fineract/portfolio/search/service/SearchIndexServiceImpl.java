@@ -0,0 +1,682 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties.FineractPropertiesSearch;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_ENTITY;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
+import org.apache.fineract.portfolio.common.service.BusinessEventNotifierService;
+import org.apache.fineract.portfolio.common.service.SynchronousBusinessEventListner;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.search.data.SearchConditions;
+import org.apache.fineract.portfolio.search.data.SearchData;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.KeywordTokenizer;
+import org.apache.lucene.analysis.core.LowerCaseFilter;
+import org.apache.lucene.analysis.ngram.NGramTokenFilter;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Lucene backed {@link SearchIndexService}.
+ * <p>
+ * Every searchable value is indexed as 1 to 3 character n-grams, so a
+ * "contains" search becomes a conjunction of trigram term lookups instead of a
+ * <code>LIKE '%term%'</code> scan. Candidates are verified against the stored
+ * values before they are returned. All writes go through one thread: the
+ * startup/on-demand rebuild and the incremental updates triggered by business
+ * events and write services never interleave.
+ * <p>
+ * Every node keeps its own index. Changes are not applied where they happen
+ * but written to the <code>m_search_index_change</code> feed in the writer's
+ * transaction, and each node tails that feed. The index remembers how far it
+ * got, so a restart only catches up on the feed; the index is rebuilt when it
+ * is incomplete or older than the feed's retention.
+ */
+@Service
+public class SearchIndexServiceImpl implements SearchIndexService {
+
+    private final static Logger logger = LoggerFactory.getLogger(SearchIndexServiceImpl.class);
+
+    private static final int NGRAM_SIZE = 3;
+    private static final String KEY = "key";
+    private static final String RESOURCE = "resource";
+    private static final String HIERARCHY = "hierarchy";
+    private static final String OWNING_CLIENT = "client";
+    private static final String NGRAM = "ngram";
+    private static final String EXACT = "exact";
+    private static final String VALUE = "value";
+    private static final String COMPLETE = "complete";
+    private static final String CHANGE_ID = "changeId";
+    private static final String CHANGED_ON = "changedOn";
+    // a client together with its identifiers and accounts, see reindexClient
+    private static final String CLIENT_WITH_ACCOUNTS = "CLIENTWITHACCOUNTS";
+    private static final int DEFAULT_CHANGE_POLL_MILLIS = 2000;
+    private static final int DEFAULT_CHANGE_RETENTION_DAYS = 7;
+    // feed entries are read again until they are this old, so entries of transactions that commit out of id order are not missed
+    private static final int CHANGE_GRACE_SECONDS = 60;
+    private static final long PRUNE_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final Map<String, IndexedEntity> INDEXED_ENTITIES = new HashMap<>();
+
+    static {
+        INDEXED_ENTITIES.put(CLIENT, new IndexedEntity("select 'CLIENT' as entityType, c.id as entityId, c.display_name as entityName, "
+                + "c.external_id as entityExternalId, c.account_no as entityAccountNo, c.office_id as parentId, o.name as parentName, "
+                + "c.mobile_no as entityMobileNo, c.status_enum as entityStatusEnum, null as parentType, o.hierarchy as hierarchy, c.id as clientId "
+                + "from m_client c join m_office o on o.id = c.office_id", "c.id", "c.id"));
+        INDEXED_ENTITIES.put(LOAN, new IndexedEntity("select 'LOAN' as entityType, l.id as entityId, pl.name as entityName, "
+                + "l.external_id as entityExternalId, l.account_no as entityAccountNo, IFNULL(c.id,g.id) as parentId, "
+                + "IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, l.loan_status_id as entityStatusEnum, "
+                + "IF(g.id is null, 'client', 'group') as parentType, o.hierarchy as hierarchy, l.client_id as clientId from m_loan l "
+                + "left join m_client c on l.client_id = c.id left join m_group g ON l.group_id = g.id left join m_office o on o.id = c.office_id "
+                + "left join m_product_loan pl on pl.id=l.product_id", "l.id", "l.client_id"));
+        INDEXED_ENTITIES.put(SAVING, new IndexedEntity("select 'SAVING' as entityType, s.id as entityId, sp.name as entityName, "
+                + "s.external_id as entityExternalId, s.account_no as entityAccountNo, IFNULL(c.id,g.id) as parentId, "
+                + "IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, s.status_enum as entityStatusEnum, "
+                + "IF(g.id is null, 'client', 'group') as parentType, o.hierarchy as hierarchy, s.client_id as clientId from m_savings_account s "
+                + "left join m_client c on s.client_id = c.id left join m_group g ON s.group_id = g.id left join m_office o on o.id = c.office_id "
+                + "left join m_savings_product sp on sp.id=s.product_id", "s.id", "s.client_id"));
+        INDEXED_ENTITIES.put(SHARE, new IndexedEntity("select 'SHARE' as entityType, s.id as entityId, sp.name as entityName, "
+                + "s.external_id as entityExternalId, s.account_no as entityAccountNo, c.id as parentId, c.display_name as parentName, "
+                + "null as entityMobileNo, s.status_enum as entityStatusEnum, 'client' as parentType, o.hierarchy as hierarchy, s.client_id as clientId "
+                + "from m_share_account s left join m_client c on s.client_id = c.id left join m_office o on o.id = c.office_id "
+                + "left join m_share_product sp on sp.id=s.product_id", "s.id", "s.client_id"));
+        INDEXED_ENTITIES.put(CLIENT_IDENTIFIER, new IndexedEntity("select 'CLIENTIDENTIFIER' as entityType, ci.id as entityId, "
+                + "ci.document_key as entityName, null as entityExternalId, null as entityAccountNo, c.id as parentId, "
+                + "c.display_name as parentName, null as entityMobileNo, c.status_enum as entityStatusEnum, null as parentType, "
+                + "o.hierarchy as hierarchy, ci.client_id as clientId from m_client_identifier ci join m_client c on ci.client_id=c.id join m_office o on o.id = c.office_id",
+                "ci.id", "ci.client_id"));
+        INDEXED_ENTITIES.put(GROUP, new IndexedEntity("select IF(g.level_id=1,'CENTER','GROUP') as entityType, g.id as entityId, "
+                + "g.display_name as entityName, g.external_id as entityExternalId, g.account_no as entityAccountNo, g.office_id as parentId, "
+                + "o.name as parentName, null as entityMobileNo, g.status_enum as entityStatusEnum, null as parentType, o.hierarchy as hierarchy, null as clientId "
+                + "from m_group g join m_office o on o.id = g.office_id", "g.id", null));
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final BusinessEventNotifierService businessEventNotifierService;
+    private final FineractProperties fineractProperties;
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private final AtomicBoolean tailRequested = new AtomicBoolean(false);
+    // feed entries above the change id that were applied already, only touched by the index thread
+    private final Set<Long> appliedChanges = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+    private long changeId;
+    private long changedOn;
+    private long prunedAt;
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+    private ThreadPoolExecutor indexExecutor;
+    private ScheduledExecutorService changePoller;
+
+    @Autowired
+    public SearchIndexServiceImpl(final DataSource dataSource, final BusinessEventNotifierService businessEventNotifierService,
+            final FineractProperties fineractProperties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        // MySQL Connector/J only streams rows instead of buffering the whole result set for this fetch size
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.businessEventNotifierService = businessEventNotifierService;
+        this.fineractProperties = fineractProperties;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        final FineractPropertiesSearch searchProperties = this.fineractProperties.getSearch();
+        if (searchProperties == null || !Boolean.TRUE.equals(searchProperties.getIndexEnabled())) { return; }
+        if (StringUtils.isBlank(searchProperties.getIndexDirectory())) { throw new IllegalStateException(
+                "fineract.search.indexDirectory must be set when fineract.search.indexEnabled is true"); }
+
+        final IndexWriterConfig config = new IndexWriterConfig(new NGramAnalyzer());
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        this.indexWriter = new IndexWriter(FSDirectory.open(Paths.get(searchProperties.getIndexDirectory())), config);
+        this.searcherManager = new SearcherManager(this.indexWriter, null);
+        if (this.indexWriter.getLiveCommitData() != null) {
+            for (final Map.Entry<String, String> entry : this.indexWriter.getLiveCommitData()) {
+                if (COMPLETE.equals(entry.getKey())) {
+                    this.ready = Boolean.parseBoolean(entry.getValue());
+                } else if (CHANGE_ID.equals(entry.getKey())) {
+                    this.changeId = Long.parseLong(entry.getValue());
+                } else if (CHANGED_ON.equals(entry.getKey())) {
+                    this.changedOn = Long.parseLong(entry.getValue());
+                }
+            }
+        }
+        this.indexExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+
+        for (final BUSINESS_EVENTS event : new BUSINESS_EVENTS[] { BUSINESS_EVENTS.CLIENTS_CREATE, BUSINESS_EVENTS.CLIENTS_ACTIVATE,
+                BUSINESS_EVENTS.CLIENTS_REJECT, BUSINESS_EVENTS.GROUPS_CREATE, BUSINESS_EVENTS.CENTERS_CREATE, BUSINESS_EVENTS.LOAN_CREATE,
+                BUSINESS_EVENTS.LOAN_APPROVED, BUSINESS_EVENTS.LOAN_REJECTED, BUSINESS_EVENTS.LOAN_UNDO_APPROVAL, BUSINESS_EVENTS.LOAN_DISBURSAL,
+                BUSINESS_EVENTS.LOAN_UNDO_DISBURSAL, BUSINESS_EVENTS.LOAN_CLOSE, BUSINESS_EVENTS.LOAN_CLOSE_AS_RESCHEDULE,
+                BUSINESS_EVENTS.LOAN_WRITTEN_OFF, BUSINESS_EVENTS.LOAN_UNDO_WRITTEN_OFF, BUSINESS_EVENTS.LOAN_FORECLOSURE,
+                BUSINESS_EVENTS.LOAN_MAKE_REPAYMENT, BUSINESS_EVENTS.LOAN_CHARGE_PAYMENT, BUSINESS_EVENTS.LOAN_WAIVE_INTEREST,
+                BUSINESS_EVENTS.LOAN_WAIVE_CHARGE, BUSINESS_EVENTS.LOAN_REFUND, BUSINESS_EVENTS.LOAN_ADJUST_TRANSACTION,
+                BUSINESS_EVENTS.SAVINGS_CREATE, BUSINESS_EVENTS.SAVINGS_APPROVE, BUSINESS_EVENTS.SAVINGS_ACTIVATE, BUSINESS_EVENTS.SAVINGS_REJECT,
+                BUSINESS_EVENTS.SAVINGS_CLOSE, BUSINESS_EVENTS.FIXED_DEPOSIT_ACCOUNT_CREATE, BUSINESS_EVENTS.RECURRING_DEPOSIT_ACCOUNT_CREATE,
+                BUSINESS_EVENTS.SHARE_ACCOUNT_CREATE, BUSINESS_EVENTS.SHARE_ACCOUNT_APPROVE }) {
+            this.businessEventNotifierService.addBusinessEventPostListners(event, new ReindexOnBusinessEvent());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void startTailing() {
+        if (this.indexWriter == null || this.changePoller != null) { return; }
+        final long retentionMillis = TimeUnit.DAYS.toMillis(changeRetentionDays());
+        if (!this.ready || this.changedOn < System.currentTimeMillis() - retentionMillis) {
+            // the feed no longer has all changes since this index was written, the current index keeps answering until the rebuild is done
+            rebuild();
+        }
+        this.changePoller = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+            final Thread thread = new Thread(runnable, "search-index-changes");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final FineractPropertiesSearch searchProperties = this.fineractProperties.getSearch();
+        final int pollMillis = searchProperties.getChangePollMillis() == null ? DEFAULT_CHANGE_POLL_MILLIS
+                : searchProperties.getChangePollMillis();
+        this.changePoller.scheduleWithFixedDelay(this::requestTail, 0, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        if (this.indexWriter == null) { return; }
+        if (this.changePoller != null) {
+            this.changePoller.shutdownNow();
+        }
+        this.indexExecutor.shutdownNow();
+        this.indexExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        this.searcherManager.close();
+        this.indexWriter.close();
+    }
+
+    @Override
+    public boolean isReady() {
+        return this.indexWriter != null && this.ready;
+    }
+
+    @Override
+    public Collection<SearchData> search(final SearchConditions searchConditions, final String hierarchy) {
+        final String searchQuery = searchConditions.getSearchQuery() == null ? "" : searchConditions.getSearchQuery().toLowerCase(Locale.ROOT);
+        final boolean exactMatch = Boolean.TRUE.equals(searchConditions.getExactMatch());
+
+        final BooleanQuery.Builder resources = new BooleanQuery.Builder();
+        addResource(resources, searchConditions.isClientSearch(), CLIENT);
+        addResource(resources, searchConditions.isGroupSearch(), GROUP);
+        addResource(resources, searchConditions.isLoanSeach(), LOAN);
+        addResource(resources, searchConditions.isSavingSeach(), SAVING);
+        addResource(resources, searchConditions.isShareSeach(), SHARE);
+        addResource(resources, searchConditions.isClientIdentifierSearch(), CLIENT_IDENTIFIER);
+
+        // accounts of group members have no office, like the "o.hierarchy IS NULL" of the SQL search they stay visible
+        final BooleanQuery.Builder scope = new BooleanQuery.Builder();
+        scope.add(new PrefixQuery(new Term(HIERARCHY, hierarchy)), Occur.SHOULD);
+        scope.add(new TermQuery(new Term(HIERARCHY, "")), Occur.SHOULD);
+
+        final BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(resources.build(), Occur.FILTER);
+        query.add(scope.build(), Occur.FILTER);
+        query.add(matchQuery(searchQuery, exactMatch), Occur.MUST);
+        // values starting with the query rank first
+        query.add(new PrefixQuery(new Term(EXACT, searchQuery)), Occur.SHOULD);
+
+        final boolean verify = !exactMatch && searchQuery.length() > NGRAM_SIZE;
+        final List<SearchData> results = new ArrayList<>();
+        try {
+            final IndexSearcher searcher = this.searcherManager.acquire();
+            try {
+                final BooleanQuery luceneQuery = query.build();
+                final TopDocs topDocs = searcher.search(luceneQuery, Math.max(1, searcher.count(luceneQuery)));
+                for (final ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    final Document document = searcher.doc(scoreDoc.doc);
+                    if (!verify || containsValue(document, searchQuery)) {
+                        results.add(toSearchData(document));
+                    }
+                }
+            } finally {
+                this.searcherManager.release(searcher);
+            }
+        } catch (final IOException e) {
+            throw new IllegalStateException("Search index could not be read", e);
+        }
+        return results;
+    }
+
+    @Override
+    public void reindex(final String entityType, final Long entityId) {
+        if (this.indexWriter == null || !INDEXED_ENTITIES.containsKey(entityType) || entityId == null) { return; }
+        recordChange(entityType, entityId);
+    }
+
+    @Override
+    public void reindexClient(final Long clientId) {
+        if (this.indexWriter == null || clientId == null) { return; }
+        recordChange(CLIENT_WITH_ACCOUNTS, clientId);
+    }
+
+    private void applyChange(final String entityType, final Long entityId) throws IOException {
+        if (CLIENT_WITH_ACCOUNTS.equals(entityType)) {
+            // removes the entries of deleted identifiers and pending accounts together with the client's own
+            this.indexWriter.deleteDocuments(new Term(OWNING_CLIENT, entityId.toString()));
+            for (final Map.Entry<String, IndexedEntity> entry : INDEXED_ENTITIES.entrySet()) {
+                if (entry.getValue().clientColumn == null) {
+                    continue;
+                }
+                for (final Document document : loadDocuments(entry.getKey(), entry.getValue().clientColumn, entityId)) {
+                    this.indexWriter.addDocument(document);
+                }
+            }
+            return;
+        }
+        final IndexedEntity indexedEntity = INDEXED_ENTITIES.get(entityType);
+        if (indexedEntity == null) { return; }
+        final List<Document> documents = loadDocuments(entityType, indexedEntity.idColumn, entityId);
+        if (documents.isEmpty()) {
+            this.indexWriter.deleteDocuments(new Term(KEY, key(entityType, entityId)));
+        } else {
+            this.indexWriter.updateDocument(new Term(KEY, key(entityType, entityId)), documents.get(0));
+        }
+    }
+
+    @Override
+    public boolean rebuild() {
+        if (this.indexWriter == null || !this.rebuilding.compareAndSet(false, true)) { return false; }
+        this.indexExecutor.submit(() -> {
+            try {
+                final long start = System.currentTimeMillis();
+                // changes recorded from here on are applied again by the tail, which is harmless
+                final long rebuildChangeId = settledChangeId();
+                this.indexWriter.deleteAll();
+                for (final Map.Entry<String, IndexedEntity> entry : INDEXED_ENTITIES.entrySet()) {
+                    this.streamingJdbcTemplate.query(entry.getValue().sql, (ResultSet rs) -> {
+                        try {
+                            this.indexWriter.addDocument(toDocument(entry.getKey(), rs));
+                        } catch (final IOException e) {
+                            throw new SQLException(e);
+                        }
+                    });
+                }
+                this.changeId = rebuildChangeId;
+                this.appliedChanges.clear();
+                this.ready = true;
+                commit();
+                this.searcherManager.maybeRefresh();
+                logger.info("Search index rebuilt with {} entries in {} ms", this.indexWriter.getDocStats().numDocs,
+                        System.currentTimeMillis() - start);
+            } catch (final Exception e) {
+                logger.error("Search index rebuild failed, searches fall back to the database until the next rebuild", e);
+                this.ready = false;
+                try {
+                    commit();
+                } catch (final IOException commitFailure) {
+                    logger.error("Search index could not be marked incomplete", commitFailure);
+                }
+            } finally {
+                this.rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    private void recordChange(final String entityType, final Long entityId) {
+        // joins the writer's transaction, the change becomes visible to the nodes together with the entity
+        this.jdbcTemplate.update("INSERT INTO m_search_index_change (entity_type, entity_id, created_on) VALUES (?, ?, NOW())", entityType,
+                entityId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    requestTail();
+                }
+            });
+        } else {
+            requestTail();
+        }
+    }
+
+    private void requestTail() {
+        // one queued tail covers all requests until it runs
+        if (!this.indexExecutor.isShutdown() && this.tailRequested.compareAndSet(false, true)) {
+            this.indexExecutor.submit(this::tail);
+        }
+    }
+
+    /**
+     * Applies the feed entries this node has not seen yet. Runs on the index
+     * thread, after a rebuild submitted before it.
+     */
+    private void tail() {
+        this.tailRequested.set(false);
+        try {
+            final long graceChangeId = this.changeId;
+            final List<Object[]> changes = this.jdbcTemplate.query(
+                    "SELECT id, entity_type, entity_id, created_on < DATE_SUB(NOW(), INTERVAL ? SECOND) AS settled "
+                            + "FROM m_search_index_change WHERE id > ? ORDER BY id",
+                    new Object[] { CHANGE_GRACE_SECONDS, graceChangeId }, (rs, rowNum) -> new Object[] { rs.getLong("id"),
+                            rs.getString("entity_type"), rs.getLong("entity_id"), rs.getBoolean("settled") });
+            long settledChangeId = graceChangeId;
+            boolean updated = false;
+            for (final Object[] change : changes) {
+                final Long id = (Long) change[0];
+                if (this.appliedChanges.add(id)) {
+                    applyChange((String) change[1], (Long) change[2]);
+                    updated = true;
+                }
+                if ((Boolean) change[3]) {
+                    // ids are taken at insert, so every entry below a settled one is at least as old
+                    settledChangeId = id;
+                }
+            }
+            if (updated) {
+                this.searcherManager.maybeRefresh();
+            }
+            if (updated || settledChangeId != graceChangeId) {
+                final long watermark = settledChangeId;
+                this.changeId = watermark;
+                this.appliedChanges.removeIf((id) -> id <= watermark);
+                commit();
+            }
+            prune();
+        } catch (final Exception e) {
+            logger.error("Search index changes could not be applied", e);
+        }
+    }
+
+    private long settledChangeId() {
+        final Long id = this.jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM m_search_index_change WHERE created_on < DATE_SUB(NOW(), INTERVAL ? SECOND)", Long.class,
+                CHANGE_GRACE_SECONDS);
+        return id == null ? 0L : id;
+    }
+
+    private void prune() {
+        if (System.currentTimeMillis() - this.prunedAt < PRUNE_INTERVAL_MILLIS) { return; }
+        this.prunedAt = System.currentTimeMillis();
+        this.jdbcTemplate.update("DELETE FROM m_search_index_change WHERE created_on < DATE_SUB(NOW(), INTERVAL ? DAY)",
+                changeRetentionDays());
+    }
+
+    private void commit() throws IOException {
+        this.changedOn = System.currentTimeMillis();
+        final Map<String, String> commitData = new HashMap<>();
+        commitData.put(COMPLETE, Boolean.toString(this.ready));
+        commitData.put(CHANGE_ID, Long.toString(this.changeId));
+        commitData.put(CHANGED_ON, Long.toString(this.changedOn));
+        this.indexWriter.setLiveCommitData(commitData.entrySet());
+        this.indexWriter.commit();
+    }
+
+    private int changeRetentionDays() {
+        final Integer retentionDays = this.fineractProperties.getSearch().getChangeRetentionDays();
+        return retentionDays == null ? DEFAULT_CHANGE_RETENTION_DAYS : retentionDays;
+    }
+
+    private List<Document> loadDocuments(final String entityType, final String column, final Long id) {
+        return this.jdbcTemplate.query(INDEXED_ENTITIES.get(entityType).sql + " where " + column + " = ?", new Object[] { id },
+                (rs, rowNum) -> toDocument(entityType, rs));
+    }
+
+    private static Document toDocument(final String entityType, final ResultSet rs) throws SQLException {
+        final Long entityId = JdbcSupport.getLong(rs, "entityId");
+        final String resultType = rs.getString("entityType");
+        final String entityName = rs.getString("entityName");
+        final String entityExternalId = rs.getString("entityExternalId");
+        final String entityAccountNo = rs.getString("entityAccountNo");
+        final String entityMobileNo = rs.getString("entityMobileNo");
+        final String hierarchy = rs.getString("hierarchy");
+
+        final Document document = new Document();
+        document.add(new StringField(KEY, key(entityType, entityId), Field.Store.YES));
+        document.add(new StringField(RESOURCE, entityType, Field.Store.NO));
+        document.add(new StringField(HIERARCHY, hierarchy == null ? "" : hierarchy, Field.Store.NO));
+        final Long clientId = JdbcSupport.getLong(rs, "clientId");
+        if (clientId != null) {
+            document.add(new StringField(OWNING_CLIENT, clientId.toString(), Field.Store.NO));
+        }
+        document.add(new StoredField("entityType", resultType));
+        document.add(new StoredField("entityId", entityId));
+        storeIfPresent(document, "entityName", entityName);
+        storeIfPresent(document, "entityExternalId", entityExternalId);
+        storeIfPresent(document, "entityAccountNo", entityAccountNo);
+        storeIfPresent(document, "entityMobileNo", entityMobileNo);
+        storeIfPresent(document, "parentName", rs.getString("parentName"));
+        storeIfPresent(document, "parentType", rs.getString("parentType"));
+        final Long parentId = JdbcSupport.getLong(rs, "parentId");
+        if (parentId != null) {
+            document.add(new StoredField("parentId", parentId));
+        }
+        final Integer entityStatusEnum = JdbcSupport.getInteger(rs, "entityStatusEnum");
+        if (entityStatusEnum != null) {
+            document.add(new StoredField("entityStatusEnum", entityStatusEnum));
+        }
+
+        // the same columns the SQL search matches on for each entity type
+        if (CLIENT.equals(entityType)) {
+            addSearchableValues(document, entityAccountNo, entityName, entityExternalId, entityMobileNo);
+        } else if (CLIENT_IDENTIFIER.equals(entityType)) {
+            addSearchableValues(document, entityName);
+        } else if (GROUP.equals(entityType)) {
+            addSearchableValues(document, entityAccountNo, entityName, entityExternalId, String.valueOf(entityId));
+        } else {
+            addSearchableValues(document, entityAccountNo, entityExternalId);
+        }
+        return document;
+    }
+
+    private static void addSearchableValues(final Document document, final String... values) {
+        for (final String value : values) {
+            if (value == null) {
+                continue;
+            }
+            final String lowerCaseValue = value.toLowerCase(Locale.ROOT);
+            document.add(new TextField(NGRAM, lowerCaseValue, Field.Store.NO));
+            document.add(new StringField(EXACT, lowerCaseValue, Field.Store.NO));
+            document.add(new StoredField(VALUE, lowerCaseValue));
+        }
+    }
+
+    private static void storeIfPresent(final Document document, final String name, final String value) {
+        if (value != null) {
+            document.add(new StoredField(name, value));
+        }
+    }
+
+    private static SearchData toSearchData(final Document document) {
+        final Number parentId = document.getField("parentId") == null ? null : document.getField("parentId").numericValue();
+        final Number entityStatusEnum = document.getField("entityStatusEnum") == null ? null
+                : document.getField("entityStatusEnum").numericValue();
+        return SearchReadPlatformServiceImpl.searchData(document.getField("entityId").numericValue().longValue(),
+                document.get("entityAccountNo"), document.get("entityExternalId"), document.get("entityName"), document.get("entityType"),
+                parentId == null ? null : parentId.longValue(), document.get("parentName"), document.get("parentType"),
+                document.get("entityMobileNo"), entityStatusEnum == null ? null : entityStatusEnum.intValue());
+    }
+
+    private static Query matchQuery(final String searchQuery, final boolean exactMatch) {
+        if (exactMatch) { return new TermQuery(new Term(EXACT, searchQuery)); }
+        if (searchQuery.isEmpty()) { return new MatchAllDocsQuery(); }
+        if (searchQuery.length() <= NGRAM_SIZE) { return new TermQuery(new Term(NGRAM, searchQuery)); }
+        final BooleanQuery.Builder ngrams = new BooleanQuery.Builder();
+        for (int i = 0; i + NGRAM_SIZE <= searchQuery.length(); i++) {
+            ngrams.add(new TermQuery(new Term(NGRAM, searchQuery.substring(i, i + NGRAM_SIZE))), Occur.FILTER);
+        }
+        return ngrams.build();
+    }
+
+    private static boolean containsValue(final Document document, final String searchQuery) {
+        for (final String value : document.getValues(VALUE)) {
+            if (value.contains(searchQuery)) { return true; }
+        }
+        return false;
+    }
+
+    private static void addResource(final BooleanQuery.Builder resources, final Boolean enabled, final String entityType) {
+        if (Boolean.TRUE.equals(enabled)) {
+            resources.add(new TermQuery(new Term(RESOURCE, entityType)), Occur.SHOULD);
+        }
+    }
+
+    private static String key(final String entityType, final Long entityId) {
+        return entityType + ":" + entityId;
+    }
+
+    private static final class IndexedEntity {
+
+        private final String sql;
+        private final String idColumn;
+        private final String clientColumn;
+
+        IndexedEntity(final String sql, final String idColumn, final String clientColumn) {
+            this.sql = sql;
+            this.idColumn = idColumn;
+            this.clientColumn = clientColumn;
+        }
+    }
+
+    /**
+     * Lower cases the whole value and splits it into all 1 to 3 character
+     * n-grams.
+     */
+    private static final class NGramAnalyzer extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(final String fieldName) {
+            final Tokenizer source = new KeywordTokenizer();
+            final TokenStream filter = new NGramTokenFilter(new LowerCaseFilter(source), 1, NGRAM_SIZE, false);
+            return new TokenStreamComponents(source, filter);
+        }
+    }
+
+    /**
+     * Only records the changes, which is cheap enough to stay in the writer's
+     * transaction; dispatching it from the outbox would reach a single node.
+     */
+    private final class ReindexOnBusinessEvent implements SynchronousBusinessEventListner {
+
+        @Override
+        public void businessEventToBeExecuted(final Map<BUSINESS_ENTITY, Object> businessEventEntity) {}
+
+        @Override
+        public void businessEventWasExecuted(final Map<BUSINESS_ENTITY, Object> businessEventEntity) {
+            for (final Map.Entry<BUSINESS_ENTITY, Object> entry : businessEventEntity.entrySet()) {
+                final Object entity = entry.getValue();
+                switch (entry.getKey()) {
+                    case CLIENT:
+                        reindex(CLIENT, idOf(entity));
+                    break;
+                    case LOAN:
+                        reindex(LOAN, idOf(entity));
+                    break;
+                    case LOAN_TRANSACTION:
+                        // repayments, waivers and refunds only change the indexed status when they close the loan
+                        reindexIfNotActive(((LoanTransaction) entity).getLoan());
+                    break;
+                    case LOAN_CHARGE:
+                        reindexIfNotActive(((LoanCharge) entity).getLoan());
+                    break;
+                    case LOAN_ADJUSTED_TRANSACTION:
+                        // an adjustment may reopen a closed loan
+                        reindex(LOAN, ((LoanTransaction) entity).getLoan().getId());
+                    break;
+                    case SAVING:
+                    case DEPOSIT_ACCOUNT:
+                        reindex(SAVING, idOf(entity));
+                    break;
+                    case SHARE_ACCOUNT:
+                        reindex(SHARE, idOf(entity));
+                    break;
+                    case GROUP:
+                        if (entity instanceof CommandProcessingResult) {
+                            reindex(GROUP, ((CommandProcessingResult) entity).getGroupId());
+                        }
+                    break;
+                    default:
+                    break;
+                }
+            }
+        }
+
+        private void reindexIfNotActive(final Loan loan) {
+            if (!loan.status().isActive()) {
+                reindex(LOAN, loan.getId());
+            }
+        }
+
+        private Long idOf(final Object entity) {
+            return entity instanceof AbstractPersistableCustom ? ((AbstractPersistableCustom<?>) entity).getId() : null;
+        }
+    }
+}
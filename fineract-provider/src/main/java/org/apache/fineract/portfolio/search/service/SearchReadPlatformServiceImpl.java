@@ -56,14 +56,17 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
     private final PlatformSecurityContext context;
     private final LoanProductReadPlatformService loanProductReadPlatformService;
     private final OfficeReadPlatformService officeReadPlatformService;
+    private final SearchIndexService searchIndexService;
 
     @Autowired
     public SearchReadPlatformServiceImpl(final PlatformSecurityContext context, final DataSource dataSource,
-            final LoanProductReadPlatformService loanProductReadPlatformService, final OfficeReadPlatformService officeReadPlatformService) {
+            final LoanProductReadPlatformService loanProductReadPlatformService, final OfficeReadPlatformService officeReadPlatformService,
+            final SearchIndexService searchIndexService) {
         this.context = context;
         this.namedParameterjdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
         this.loanProductReadPlatformService = loanProductReadPlatformService;
         this.officeReadPlatformService = officeReadPlatformService;
+        this.searchIndexService = searchIndexService;
     }
 
     @Override
@@ -71,6 +74,8 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
         final AppUser currentUser = this.context.authenticatedUser();
         final String hierarchy = currentUser.getOffice().getHierarchy();
 
+        if (this.searchIndexService.isReady()) { return this.searchIndexService.search(searchConditions, hierarchy); }
+
         final SearchMapper rm = new SearchMapper();
 
         final MapSqlParameterSource params = new MapSqlParameterSource();
@@ -160,27 +165,34 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
             final String entityMobileNo = rs.getString("entityMobileNo");
             final Integer entityStatusEnum = JdbcSupport.getInteger(rs, "entityStatusEnum");
             final String parentType = rs.getString("parentType");
-            
-            EnumOptionData entityStatus = new EnumOptionData(0L, "", "");
 
-            if (entityType.equalsIgnoreCase("client") || entityType.equalsIgnoreCase("clientidentifier")) {
-                entityStatus = ClientEnumerations.status(entityStatusEnum);
-            }
+            return searchData(entityId, entityAccountNo, entityExternalId, entityName, entityType, parentId, parentName, parentType,
+                    entityMobileNo, entityStatusEnum);
+        }
 
-            else if (entityType.equalsIgnoreCase("group") || entityType.equalsIgnoreCase("center")) {
-                entityStatus = GroupingTypeEnumerations.status(entityStatusEnum);
-            }
+    }
 
-            else if (entityType.equalsIgnoreCase("loan")) {
-                LoanStatusEnumData loanStatusEnumData = LoanEnumerations.status(entityStatusEnum);
+    static SearchData searchData(final Long entityId, final String entityAccountNo, final String entityExternalId, final String entityName,
+            final String entityType, final Long parentId, final String parentName, final String parentType, final String entityMobileNo,
+            final Integer entityStatusEnum) {
+        EnumOptionData entityStatus = new EnumOptionData(0L, "", "");
 
-                entityStatus = LoanEnumerations.status(loanStatusEnumData);
-            }
+        if (entityType.equalsIgnoreCase("client") || entityType.equalsIgnoreCase("clientidentifier")) {
+            entityStatus = ClientEnumerations.status(entityStatusEnum);
+        }
+
+        else if (entityType.equalsIgnoreCase("group") || entityType.equalsIgnoreCase("center")) {
+            entityStatus = GroupingTypeEnumerations.status(entityStatusEnum);
+        }
+
+        else if (entityType.equalsIgnoreCase("loan")) {
+            LoanStatusEnumData loanStatusEnumData = LoanEnumerations.status(entityStatusEnum);
 
-            return new SearchData(entityId, entityAccountNo, entityExternalId, entityName, entityType, parentId, parentName, parentType, 
-                    entityMobileNo, entityStatus);
+            entityStatus = LoanEnumerations.status(loanStatusEnumData);
         }
 
+        return new SearchData(entityId, entityAccountNo, entityExternalId, entityName, entityType, parentId, parentName, parentType,
+                entityMobileNo, entityStatus);
     }
 
     @Override
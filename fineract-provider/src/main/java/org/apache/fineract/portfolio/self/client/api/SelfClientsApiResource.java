@@ -39,6 +39,7 @@ import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import java.io.InputStream;
 
@@ -79,7 +80,7 @@ public class SelfClientsApiResource {
 	@Produces({ MediaType.APPLICATION_JSON })
 	@ApiOperation(value = "List Clients associated to the user", httpMethod = "GET", notes = "The list capability of clients can support pagination and sorting.\n\n" + "Example Requests:\n" + "\n" + "self/clients\n" + "\n" + "self/clients?fields=displayName,officeName\n" + "\n" + "self/clients?offset=10&limit=50\n" + "\n" + "self/clients?orderBy=displayName&sortOrder=DESC")
 	@ApiResponses({@ApiResponse(code = 200, message = "OK", response = SelfClientsApiResourceSwagger.GetSelfClientsResponse.class)})
-	public String retrieveAll(@Context final UriInfo uriInfo,
+	public StreamingOutput retrieveAll(@Context final UriInfo uriInfo,
 			@QueryParam("displayName") @ApiParam(value = "displayName") final String displayName,
 			@QueryParam("firstName") @ApiParam(value = "firstName") final String firstname,
 			@QueryParam("lastName") @ApiParam(value = "lastName") final String lastname,
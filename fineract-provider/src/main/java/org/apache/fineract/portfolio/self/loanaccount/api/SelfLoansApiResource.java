@@ -41,6 +41,9 @@ import org.springframework.stereotype.Component;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import java.util.HashMap;
 
@@ -83,7 +86,7 @@ public class SelfLoansApiResource {
 	@Produces({ MediaType.APPLICATION_JSON })
 	@ApiOperation(value = "Retrieve a Loan", httpMethod = "GET", notes = "Retrieves a Loan\n\n" + "Example Requests:\n" + "\n" + "self/loans/1\n" + "\n" + "\n" + "self/loans/1?fields=id,principal,annualInterestRate\n" + "\n" + "\n" + "self/loans/1?fields=id,principal,annualInterestRate&associations=repaymentSchedule,transactions")
 	@ApiResponses({@ApiResponse(code = 200, message = "OK", response = SelfLoansApiResourceSwagger.GetSelfLoansLoanIdResponse.class)})
-	public String retrieveLoan(@PathParam("loanId") @ApiParam(value = "loanId") final Long loanId,
+	public StreamingOutput retrieveLoan(@PathParam("loanId") @ApiParam(value = "loanId") final Long loanId,
 			@Context final UriInfo uriInfo) {
 
 		this.dataValidator.validateRetrieveLoan(uriInfo);
@@ -150,10 +153,10 @@ public class SelfLoansApiResource {
     @Produces({ MediaType.APPLICATION_JSON })
     @ApiOperation(value = "Retrieve Loan Details Template", httpMethod = "GET", notes = "Retrieves Loan Details Template\n\n" + "This is a convenience resource. It can be useful when building maintenance user interface screens for client applications. The template data returned consists of any or all of:\n" + "\n" + "Field Defaults\n" + "Allowed Value Lists\n\n" + "Example Requests:\n" + "\n" + "self/loans/template?templateType=individual&clientId=1\n" + "\n" + "\n" + "self/loans/template?templateType=individual&clientId=1&productId=1")
     @ApiResponses({@ApiResponse(code = 200, message = "OK", response = SelfLoansApiResourceSwagger.GetSelfLoansTemplateResponse.class)})
-    public String template(@QueryParam("clientId") @ApiParam(value = "clientId") final Long clientId,
+    public Response template(@QueryParam("clientId") @ApiParam(value = "clientId") final Long clientId,
     		@QueryParam("productId") @ApiParam(value = "productId") final Long productId,
     		@QueryParam("templateType") @ApiParam(value = "templateType") final String templateType,
-    		@Context final UriInfo uriInfo) {
+    		@Context final UriInfo uriInfo, @Context final Request request) {
     	
     	if(clientId != null){
         	validateAppuserClientsMapping(clientId);
@@ -171,7 +174,7 @@ public class SelfLoansApiResource {
     	final boolean staffInSelectedOfficeOnly = false;
     	final boolean onlyActive = true;
     	return this.loansApiResource.template(clientId, groupId, productId, 
-    			templateType, staffInSelectedOfficeOnly, onlyActive, uriInfo);
+    			templateType, staffInSelectedOfficeOnly, onlyActive, uriInfo, request);
 
     }
     
@@ -27,6 +27,8 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import org.apache.fineract.portfolio.loanaccount.api.LoanApiConstants;
@@ -55,11 +57,11 @@ public class SelfLoanProductsApiResource {
 	@GET
 	@Consumes({ MediaType.APPLICATION_JSON })
 	@Produces({ MediaType.APPLICATION_JSON })
-	public String retrieveAllLoanProducts(@QueryParam(LoanApiConstants.clientIdParameterName) final Long clientId,
-			@Context final UriInfo uriInfo) {
+	public Response retrieveAllLoanProducts(@QueryParam(LoanApiConstants.clientIdParameterName) final Long clientId,
+			@Context final UriInfo uriInfo, @Context final Request request) {
 
 		this.appUserClientMapperReadService.validateAppuserClientsMapping(clientId);
-		return this.loanProductsApiResource.retrieveAllLoanProducts(uriInfo);
+		return this.loanProductsApiResource.retrieveAllLoanProducts(uriInfo, request);
 
 	}
 
@@ -67,11 +69,11 @@ public class SelfLoanProductsApiResource {
 	@Path("{productId}")
 	@Consumes({ MediaType.APPLICATION_JSON })
 	@Produces({ MediaType.APPLICATION_JSON })
-	public String retrieveLoanProductDetails(@QueryParam(LoanApiConstants.clientIdParameterName) final Long clientId,
-			@PathParam(LoanApiConstants.productIdParameterName) final Long productId, @Context final UriInfo uriInfo) {
+	public Response retrieveLoanProductDetails(@QueryParam(LoanApiConstants.clientIdParameterName) final Long clientId,
+			@PathParam(LoanApiConstants.productIdParameterName) final Long productId, @Context final UriInfo uriInfo, @Context final Request request) {
 
 		this.appUserClientMapperReadService.validateAppuserClientsMapping(clientId);
-		return this.loanProductsApiResource.retrieveLoanProductDetails(productId, uriInfo);
+		return this.loanProductsApiResource.retrieveLoanProductDetails(productId, uriInfo, request);
 	}
 
 }
@@ -27,6 +27,8 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import org.apache.fineract.portfolio.savings.SavingsApiConstants;
@@ -55,11 +57,11 @@ public class SelfSavingsProductsApiResource {
 	@GET
 	@Consumes({ MediaType.APPLICATION_JSON })
 	@Produces({ MediaType.APPLICATION_JSON })
-	public String retrieveAll(@QueryParam(SavingsApiConstants.clientIdParamName) final Long clientId,
-			@Context final UriInfo uriInfo) {
+	public Response retrieveAll(@QueryParam(SavingsApiConstants.clientIdParamName) final Long clientId,
+			@Context final UriInfo uriInfo, @Context final Request request) {
 
 		this.appUserClientMapperReadService.validateAppuserClientsMapping(clientId);
-		return this.savingsProductsApiResource.retrieveAll(uriInfo);
+		return this.savingsProductsApiResource.retrieveAll(uriInfo, request);
 
 	}
 
@@ -67,11 +69,11 @@ public class SelfSavingsProductsApiResource {
 	@Path("{productId}")
 	@Consumes({ MediaType.APPLICATION_JSON })
 	@Produces({ MediaType.APPLICATION_JSON })
-	public String retrieveOne(@PathParam(SavingsApiConstants.productIdParamName) final Long productId,
-			@QueryParam(SavingsApiConstants.clientIdParamName) final Long clientId, @Context final UriInfo uriInfo) {
+	public Response retrieveOne(@PathParam(SavingsApiConstants.productIdParamName) final Long productId,
+			@QueryParam(SavingsApiConstants.clientIdParamName) final Long clientId, @Context final UriInfo uriInfo, @Context final Request request) {
 
 		this.appUserClientMapperReadService.validateAppuserClientsMapping(clientId);
-		return this.savingsProductsApiResource.retrieveOne(productId, uriInfo);
+		return this.savingsProductsApiResource.retrieveOne(productId, uriInfo, request);
 
 	}
 
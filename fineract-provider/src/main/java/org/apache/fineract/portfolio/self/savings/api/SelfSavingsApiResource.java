@@ -32,6 +32,9 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
@@ -87,7 +90,7 @@ public class SelfSavingsApiResource {
 	@Produces({ MediaType.APPLICATION_JSON })
 	@ApiOperation(value = "Retrieve a savings account", httpMethod = "GET", notes = "Retrieves a savings account\n\n" + "Example Requests :\n" + "\n" + "self/savingsaccounts/1\n" + "\n" + "\n" + "self/savingsaccounts/1?associations=transactions")
 	@ApiResponses({@ApiResponse(code = 200, message = "OK", response = SelfSavingsApiResourceSwagger.GetSelfSavingsAccountsResponse.class)})
-	public String retrieveSavings(
+	public StreamingOutput retrieveSavings(
 			@PathParam("accountId") @ApiParam(value = "accountId") final Long accountId,
 			@DefaultValue("all") @QueryParam("chargeStatus") @ApiParam(value = "chargeStatus") final String chargeStatus,
 			@Context final UriInfo uriInfo) {
@@ -169,13 +172,13 @@ public class SelfSavingsApiResource {
 	@Path("template")
 	@Consumes({ MediaType.APPLICATION_JSON })
 	@Produces({ MediaType.APPLICATION_JSON })
-	public String template(@QueryParam("clientId") final Long clientId, @QueryParam("productId") final Long productId, @Context final UriInfo uriInfo) {
+	public Response template(@QueryParam("clientId") final Long clientId, @QueryParam("productId") final Long productId, @Context final UriInfo uriInfo, @Context final Request request) {
 
 		validateAppuserClientsMapping(clientId);
 		Long groupId = null;
 		boolean staffInSelectedOfficeOnly = false;
 		return this.savingsAccountsApiResource.template(clientId, groupId, productId, staffInSelectedOfficeOnly,
-				uriInfo);
+				uriInfo, request);
 
 	}
 
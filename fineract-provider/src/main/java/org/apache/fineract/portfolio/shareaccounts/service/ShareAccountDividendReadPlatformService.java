@@ -23,11 +23,18 @@ import java.util.Map;
 
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
+import org.apache.fineract.infrastructure.jobs.data.JobPartition;
 import org.apache.fineract.portfolio.shareaccounts.data.ShareAccountDividendData;
 
 public interface ShareAccountDividendReadPlatformService {
 
-    List<Map<String, Object>> retriveDividendDetailsForPostDividents();
+    /**
+     * Returns the initiated dividends of approved pay outs to be posted to the
+     * savings accounts of the partition, ordered by savings account.
+     */
+    List<Map<String, Object>> retriveDividendDetailsForPostDividents(JobPartition partition);
+
+    List<JobPartition> retrieveDividendPostingPartitions(Long afterSavingsId, int partitionSize);
 
     Page<ShareAccountDividendData> retriveAll(Long payoutDetailId, SearchParameters searchParameters);
 
@@ -31,6 +31,7 @@ import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.PaginationHelper;
 import javax.sql.DataSource;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
+import org.apache.fineract.infrastructure.jobs.data.JobPartition;
 import org.apache.fineract.infrastructure.security.utils.ColumnValidator;
 import org.apache.fineract.portfolio.shareaccounts.data.ShareAccountData;
 import org.apache.fineract.portfolio.shareaccounts.data.ShareAccountDividendData;
@@ -38,6 +39,7 @@ import org.apache.fineract.portfolio.shareaccounts.domain.ShareAccountDividendSt
 import org.apache.fineract.portfolio.shareproducts.domain.ShareProductDividendStatusType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
@@ -56,7 +58,7 @@ public class ShareAccountDividendReadPlatformServiceImpl implements ShareAccount
     }
 
     @Override
-    public List<Map<String, Object>> retriveDividendDetailsForPostDividents() {
+    public List<Map<String, Object>> retriveDividendDetailsForPostDividents(final JobPartition partition) {
         StringBuilder sb = new StringBuilder();
         sb.append("select ");
         sb.append(" sadd.id as id, ");
@@ -64,9 +66,38 @@ public class ShareAccountDividendReadPlatformServiceImpl implements ShareAccount
         sb.append(" from m_share_account_dividend_details sadd");
         sb.append(" inner join m_share_product_dividend_pay_out spdpo on spdpo.id = sadd.dividend_pay_out_id ");
         sb.append(" inner join m_share_account sa on sa.id = sadd.account_id ");
-        sb.append(" where spdpo.status = ? and sadd.status = ?");
+        sb.append(" where spdpo.status = ? and sadd.status = ? and sa.savings_account_id between ? and ?");
+        sb.append(" order by sa.savings_account_id, sadd.id");
         return this.jdbcTemplate.queryForList(sb.toString(), ShareProductDividendStatusType.APPROVED.getValue(),
-                ShareAccountDividendStatusType.INITIATED.getValue());
+                ShareAccountDividendStatusType.INITIATED.getValue(), partition.getFromId(), partition.getToId());
+    }
+
+    @Override
+    public List<JobPartition> retrieveDividendPostingPartitions(final Long afterSavingsId, final int partitionSize) {
+        final String sql = "select distinct sa.savings_account_id from m_share_account_dividend_details sadd "
+                + "inner join m_share_product_dividend_pay_out spdpo on spdpo.id = sadd.dividend_pay_out_id "
+                + "inner join m_share_account sa on sa.id = sadd.account_id "
+                + "where spdpo.status = ? and sadd.status = ? and sa.savings_account_id > ? order by sa.savings_account_id";
+        final List<JobPartition> partitions = new ArrayList<>();
+        // only the bounds of each partition are kept, the ids themselves are streamed
+        final Long[] bounds = new Long[2];
+        final int[] count = new int[1];
+        this.jdbcTemplate.query(sql, new Object[] { ShareProductDividendStatusType.APPROVED.getValue(),
+                ShareAccountDividendStatusType.INITIATED.getValue(), afterSavingsId }, (RowCallbackHandler) rs -> {
+                    final Long savingsId = rs.getLong(1);
+                    if (count[0] == 0) {
+                        bounds[0] = savingsId;
+                    }
+                    bounds[1] = savingsId;
+                    if (++count[0] == partitionSize) {
+                        partitions.add(new JobPartition(bounds[0], bounds[1]));
+                        count[0] = 0;
+                    }
+                });
+        if (count[0] > 0) {
+            partitions.add(new JobPartition(bounds[0], bounds[1]));
+        }
+        return partitions;
     }
 
     @Override
@@ -18,7 +18,7 @@
  */
 package org.apache.fineract.portfolio.shareaccounts.service;
 
-import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.fineract.portfolio.accounts.service.AccountReadPlatformService;
@@ -36,7 +36,12 @@ public interface ShareAccountReadPlatformService extends AccountReadPlatformServ
     @Override
     public Set<String> getResponseDataParams();
 
-    Collection<ShareAccountData> retrieveAllShareAccountDataForDividends(Long productId, boolean fetchInActiveAccounts, LocalDate startDate);
+    /**
+     * Returns the share days of every account of the product that is eligible
+     * for a dividend over the given period, keyed and ordered by account id.
+     */
+    Map<Long, Long> retrieveShareDaysForDividends(Long productId, boolean fetchInActiveAccounts, LocalDate dividendPeriodStartDate,
+            LocalDate dividendPeriodEndDate, int minimumActivePeriod);
     
 	String retrieveAccountNumberByAccountId(Long accountId);
 }
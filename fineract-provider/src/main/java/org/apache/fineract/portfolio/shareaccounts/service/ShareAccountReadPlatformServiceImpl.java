@@ -24,7 +24,9 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
@@ -67,6 +69,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
@@ -211,28 +214,52 @@ public class ShareAccountReadPlatformServiceImpl implements ShareAccountReadPlat
     }
 
     @Override
-    public Collection<ShareAccountData> retrieveAllShareAccountDataForDividends(final Long id, final boolean fetchInActiveAccounts,
-            final LocalDate startDate) {
-        ShareAccountMapperForDividents mapper = new ShareAccountMapperForDividents();
-        StringBuilder sb = new StringBuilder("select ");
-        sb.append(mapper.schema);
+    public Map<Long, Long> retrieveShareDaysForDividends(final Long productId, final boolean fetchInActiveAccounts,
+            final LocalDate dividendPeriodStartDate, final LocalDate dividendPeriodEndDate, final int minimumActivePeriod) {
+        // share days of a transaction are counted from its date (or the period start) to the period end, negative for
+        // redemptions, which adds up to the same total as walking each account's transactions in date order
+        final String shareDays = "datediff(?, greatest(saps.transaction_date, ?))";
+        final StringBuilder sb = new StringBuilder(600);
+        sb.append("select sa.id as id, sum(case when saps.type_enum = ? then 0 ");
+        sb.append(" when saps.type_enum = ? and ").append(shareDays).append(" < ? then 0 ");
+        sb.append(" when saps.type_enum = ? then saps.total_shares * ").append(shareDays);
+        sb.append(" else -saps.total_shares * ").append(shareDays).append(" end) as shareDays ");
+        sb.append(" from m_share_account sa ");
+        sb.append(" join m_client c ON c.id = sa.client_id ");
+        sb.append(" join m_share_account_transactions saps ON saps.account_id = sa.id ");
         sb.append(" where sa.product_id = ? ");
 
-        List<Object> params = new ArrayList<>(3);
-        params.add(id);
+        final String endDate = formatter.print(dividendPeriodEndDate);
+        final String startDate = formatter.print(dividendPeriodStartDate);
+        final List<Object> params = new ArrayList<>(16);
+        params.add(PurchasedSharesStatusType.CHARGE_PAYMENT.getValue());
+        params.add(PurchasedSharesStatusType.PURCHASED.getValue());
+        params.add(endDate);
+        params.add(startDate);
+        params.add(minimumActivePeriod);
+        params.add(PurchasedSharesStatusType.PURCHASED.getValue());
+        params.add(endDate);
+        params.add(startDate);
+        params.add(endDate);
+        params.add(startDate);
+        params.add(productId);
         params.add(ShareAccountStatusType.ACTIVE.getValue());
         if (fetchInActiveAccounts) {
             sb.append(" and (sa.status_enum = ? or (sa.status_enum = ? ");
             sb.append(" and sa.closed_date >  ?)) ");
             params.add(ShareAccountStatusType.CLOSED.getValue());
-            params.add(formatter.print(startDate));
+            params.add(startDate);
         } else {
             sb.append(" and sa.status_enum = ? ");
         }
         sb.append(" and saps.status_enum = ?");
         params.add(PurchasedSharesStatusType.APPROVED.getValue());
-        Object[] whereClauseItems = params.toArray();
-        return this.jdbcTemplate.query(sb.toString(), whereClauseItems, mapper);
+        sb.append(" group by sa.id order by sa.id");
+
+        final Map<Long, Long> shareDaysPerAccount = new LinkedHashMap<>();
+        this.jdbcTemplate.query(sb.toString(), params.toArray(),
+                (RowCallbackHandler) rs -> shareDaysPerAccount.put(rs.getLong("id"), rs.getLong("shareDays")));
+        return shareDaysPerAccount;
     }
 
     public Collection<ShareAccountChargeData> convertChargesToShareAccountCharges(Collection<ChargeData> productCharges) {
@@ -374,107 +401,6 @@ public class ShareAccountReadPlatformServiceImpl implements ShareAccountReadPlat
         }
     }
 
-    private final static class ShareAccountMapperForDividents implements RowMapper<ShareAccountData> {
-
-        private final String schema;
-        final PurchasedSharesDataRowMapper purchasedSharesDataRowMapper = new PurchasedSharesDataRowMapper();
-
-        public ShareAccountMapperForDividents() {
-            StringBuilder sb = new StringBuilder();
-
-            sb.append("sa.id as id, sa.status_enum as statusEnum, ");
-            sb.append("c.id as clientId, c.display_name as clientName, ");
-            sb.append("sa.account_no as accountNo, ");
-            sb.append("sa.currency_code as currencyCode, sa.currency_digits as currencyDigits, sa.currency_multiplesof as inMultiplesOf, ");
-            sb.append(purchasedSharesDataRowMapper.schema());
-            sb.append(" from m_share_account sa ");
-            sb.append(" join m_client c ON c.id = sa.client_id ");
-            sb.append(" join m_share_account_transactions saps ON saps.account_id = sa.id ");
-            schema = sb.toString();
-        }
-
-        @Override
-        public ShareAccountData mapRow(ResultSet rs, int rowNum) throws SQLException {
-            final Long id = rs.getLong("id");
-            final String accountNo = rs.getString("accountNo");
-            final Long clientId = JdbcSupport.getLong(rs, "clientId");
-            final String clientName = rs.getString("clientName");
-            final Integer statusEnum = JdbcSupport.getInteger(rs, "statusEnum");
-            final ShareAccountStatusEnumData status = SharesEnumerations.status(statusEnum);
-
-            final CurrencyData currency = null;
-            final Long totalApprovedShares = null;
-            final Long totalPendingShares = null;
-            final String externalId = null;
-            final Long productId = null;
-            final String productName = null;
-            final String shortProductName = null;
-            final ShareAccountApplicationTimelineData timeline = null;
-            final Boolean allowdividendsforinactiveclients = null;
-
-            final Collection<ShareAccountChargeData> charges = null;
-            final Collection<ShareAccountTransactionData> purchasedSharesData = new ArrayList<>();
-            final Integer lockinPeriod = null;
-            final EnumOptionData lockPeriodTypeEnum = null;
-            final Integer minimumActivePeriod = null;
-            final EnumOptionData minimumActivePeriodTypeEnum = null;
-            purchasedSharesData.add(this.purchasedSharesDataRowMapper.mapRow(rs, rowNum));
-
-            while (rs.next()) {
-                if (id.equals(rs.getLong("id"))) {
-                    purchasedSharesData.add(this.purchasedSharesDataRowMapper.mapRow(rs, rowNum));
-                } else {
-                    rs.previous();
-                    break;
-                }
-            }
-
-            final ShareAccountSummaryData summary = new ShareAccountSummaryData(id, accountNo, externalId, productId, productName,
-                    shortProductName, status, currency, totalApprovedShares, totalPendingShares, timeline);
-
-            return new ShareAccountData(id, accountNo, externalId, clientId, clientName, productId, shortProductName, productId,
-                    shortProductName, status, timeline, currency, summary, charges, purchasedSharesData, lockinPeriod, lockPeriodTypeEnum,
-                    minimumActivePeriod, minimumActivePeriodTypeEnum, allowdividendsforinactiveclients);
-
-        }
-    }
-
-    private final static class PurchasedSharesDataRowMapper implements RowMapper<ShareAccountTransactionData> {
-
-        private final String schema;
-
-        public PurchasedSharesDataRowMapper() {
-            StringBuffer buff = new StringBuffer()
-                    .append("saps.id as purchasedId, saps.account_id as accountId, saps.transaction_date as transactionDate, saps.total_shares as purchasedShares, saps.unit_price as unitPrice, ")
-                    .append("saps.status_enum as purchaseStatus, saps.type_enum as purchaseType, saps.amount as amount, saps.charge_amount as chargeamount, ")
-                    .append("saps.amount_paid as amountPaid ");
-            
-            schema = buff.toString();
-        }
-
-        @Override
-        public ShareAccountTransactionData mapRow(ResultSet rs, @SuppressWarnings("unused") int rowNum) throws SQLException {
-            final Long id = rs.getLong("purchasedId");
-            final Long accountId = rs.getLong("accountId");
-            final LocalDate transactionDate = new LocalDate(rs.getDate("transactionDate"));
-            final Long numberOfShares = JdbcSupport.getLong(rs, "purchasedShares");
-            final BigDecimal purchasedPrice = rs.getBigDecimal("unitPrice");
-            final Integer status = rs.getInt("purchaseStatus");
-            final EnumOptionData statusEnum = SharesEnumerations.purchasedSharesEnum(status);
-            final Integer type = rs.getInt("purchaseType");
-            final EnumOptionData typeEnum = SharesEnumerations.purchasedSharesEnum(type);
-            final BigDecimal amount = JdbcSupport.getBigDecimalDefaultToNullIfZero(rs, "amount");
-            final BigDecimal chargeAmount = JdbcSupport.getBigDecimalDefaultToNullIfZero(rs, "chargeamount");
-            final BigDecimal amountPaid = JdbcSupport.getBigDecimalDefaultToNullIfZero(rs, "amountPaid");
-            return new ShareAccountTransactionData(id, accountId, transactionDate, numberOfShares, purchasedPrice, statusEnum, typeEnum, amount,
-                    chargeAmount, amountPaid);
-        }
-
-        public String schema() {
-            return this.schema;
-        }
-    }
-
     private final static class ShareAccountDividendRowMapper implements RowMapper<ShareAccountDividendData> {
 
         private final String schema;
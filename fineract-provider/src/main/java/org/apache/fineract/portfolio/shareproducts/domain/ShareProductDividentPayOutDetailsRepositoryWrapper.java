@@ -18,19 +18,32 @@
  */
 package org.apache.fineract.portfolio.shareproducts.domain;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.apache.fineract.portfolio.shareaccounts.domain.ShareAccountDividendStatusType;
 import org.apache.fineract.portfolio.shareproducts.exception.DividendNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 @Component
 public class ShareProductDividentPayOutDetailsRepositoryWrapper {
 
+    private static final int ACCOUNT_DIVIDEND_BATCH_SIZE = 1000;
+
     private final ShareProductDividentPayOutDetailsRepository shareProductDividentPayOutDetailsRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     @Autowired
     public ShareProductDividentPayOutDetailsRepositoryWrapper(
-            final ShareProductDividentPayOutDetailsRepository shareProductDividentPayOutDetailsRepository) {
+            final ShareProductDividentPayOutDetailsRepository shareProductDividentPayOutDetailsRepository, final DataSource dataSource) {
         this.shareProductDividentPayOutDetailsRepository = shareProductDividentPayOutDetailsRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
     public ShareProductDividendPayOutDetails findOneWithNotFoundDetection(final Long dividendId) {
@@ -42,6 +55,32 @@ public class ShareProductDividentPayOutDetailsRepositoryWrapper {
         this.shareProductDividentPayOutDetailsRepository.save(shareProductDividendPayOutDetails);
     }
 
+    /**
+     * Saves new pay out details together with the dividends of its share
+     * accounts, which are inserted in batches instead of one entity each.
+     */
+    public void save(final ShareProductDividendPayOutDetails shareProductDividendPayOutDetails, final Map<Long, BigDecimal> accountDividends) {
+        this.shareProductDividentPayOutDetailsRepository.saveAndFlush(shareProductDividendPayOutDetails);
+        final Long payOutDetailsId = shareProductDividendPayOutDetails.getId();
+        final Integer status = ShareAccountDividendStatusType.INITIATED.getValue();
+        final List<Object[]> batch = new ArrayList<>(Math.min(accountDividends.size(), ACCOUNT_DIVIDEND_BATCH_SIZE));
+        for (final Map.Entry<Long, BigDecimal> accountDividend : accountDividends.entrySet()) {
+            batch.add(new Object[] { payOutDetailsId, accountDividend.getKey(), accountDividend.getValue(), status });
+            if (batch.size() == ACCOUNT_DIVIDEND_BATCH_SIZE) {
+                insertAccountDividends(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertAccountDividends(batch);
+        }
+    }
+
+    private void insertAccountDividends(final List<Object[]> batch) {
+        this.jdbcTemplate.batchUpdate("insert into m_share_account_dividend_details (dividend_pay_out_id, account_id, amount, status) "
+                + "values (?, ?, ?, ?)", batch);
+    }
+
     public void delete(final ShareProductDividendPayOutDetails shareProductDividendPayOutDetails) {
         this.shareProductDividentPayOutDetailsRepository.delete(shareProductDividendPayOutDetails);
     }
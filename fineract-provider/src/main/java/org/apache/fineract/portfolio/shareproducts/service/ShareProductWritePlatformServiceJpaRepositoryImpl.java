@@ -20,6 +20,7 @@ package org.apache.fineract.portfolio.shareproducts.service;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import javax.persistence.PersistenceException;
@@ -142,11 +143,12 @@ public class ShareProductWritePlatformServiceJpaRepositoryImpl implements ShareP
             final BigDecimal dividendAmount = this.fromApiJsonHelper.extractBigDecimalWithLocaleNamed(
                     ShareProductApiConstants.dividendAmountParamName, element);
 
+            final Map<Long, BigDecimal> accountDividends = new LinkedHashMap<>();
             final ShareProductDividendPayOutDetails dividendPayOutDetails = this.shareProductDividendAssembler.calculateDividends(
-                    productId, dividendAmount, dividendPeriodStartDate, dividendPeriodEndDate);
+                    productId, dividendAmount, dividendPeriodStartDate, dividendPeriodEndDate, accountDividends);
             if (dividendPayOutDetails == null) { throw new DividentProcessingException("eligible.shares.not.found",
                     "No eligible shares for creating dividends"); }
-            this.shareProductDividentPayOutDetailsRepository.save(dividendPayOutDetails);
+            this.shareProductDividentPayOutDetailsRepository.save(dividendPayOutDetails, accountDividends);
 
 
             this.businessEventNotifierService.notifyBusinessEventWasExecuted(BUSINESS_EVENTS.SHARE_PRODUCT_DIVIDENDS_CREATE,
@@ -65,7 +65,7 @@ public final class TransfersDataValidator {
 			Arrays.asList(TransferApiConstants.localeParamName, TransferApiConstants.dateFormatParamName,
 					TransferApiConstants.destinationOfficeIdParamName, TransferApiConstants.transferActiveLoans,
 					TransferApiConstants.newStaffIdParamName, TransferApiConstants.destinationGroupIdParamName,
-					TransferApiConstants.note));
+					TransferApiConstants.note, TransferApiConstants.transferDate));
 
 	private static final Set<String> REJECT_CLIENT_TRANSFER_DATA_PARAMETERS = new HashSet<>(
 			Arrays.asList(TransferApiConstants.note));
@@ -55,6 +55,7 @@ import org.apache.fineract.portfolio.note.service.NoteWritePlatformService;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
 import org.apache.fineract.portfolio.savings.service.SavingsAccountWritePlatformService;
+import org.apache.fineract.portfolio.search.service.SearchIndexService;
 import org.apache.fineract.portfolio.transfer.api.TransferApiConstants;
 import org.apache.fineract.portfolio.transfer.data.TransfersDataValidator;
 import org.apache.fineract.portfolio.transfer.exception.ClientNotAwaitingTransferApprovalException;
@@ -86,6 +87,7 @@ public class TransferWritePlatformServiceJpaRepositoryImpl implements TransferWr
     private final StaffRepositoryWrapper staffRepositoryWrapper;
     private final ClientTransferDetailsRepositoryWrapper clientTransferDetailsRepositoryWrapper;
  	private final PlatformSecurityContext context;
+    private final SearchIndexService searchIndexService;
 
     @Autowired
     public TransferWritePlatformServiceJpaRepositoryImpl(final ClientRepositoryWrapper clientRepositoryWrapper,
@@ -96,7 +98,7 @@ public class TransferWritePlatformServiceJpaRepositoryImpl implements TransferWr
             final SavingsAccountRepositoryWrapper savingsAccountRepositoryWrapper,
 			final SavingsAccountWritePlatformService savingsAccountWritePlatformService,
 			final ClientTransferDetailsRepositoryWrapper clientTransferDetailsRepositoryWrapper,
-			final PlatformSecurityContext context) {
+			final PlatformSecurityContext context, final SearchIndexService searchIndexService) {
         this.clientRepositoryWrapper = clientRepositoryWrapper;
         this.officeRepository = officeRepository;
         this.calendarInstanceRepository = calendarInstanceRepository;
@@ -110,6 +112,7 @@ public class TransferWritePlatformServiceJpaRepositoryImpl implements TransferWr
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.clientTransferDetailsRepositoryWrapper = clientTransferDetailsRepositoryWrapper;
     	this.context = context;
+        this.searchIndexService = searchIndexService;
         
     }
 
@@ -488,6 +491,8 @@ public class TransferWritePlatformServiceJpaRepositoryImpl implements TransferWr
 				.save(ClientTransferDetails.instance(client.getId(), client.getOffice().getId(),
 						destinationOffice.getId(), proposedTransferDate, transferEventType.getValue(),
 						DateUtils.getLocalDateTimeOfTenant().toDate(), this.context.authenticatedUser().getId()));
+        // the client's status, and on acceptance the office of the client and its accounts, are part of their index entries
+        this.searchIndexService.reindexClient(client.getId());
 	}
 
     private List<Client> assembleListOfClients(final JsonCommand command) {
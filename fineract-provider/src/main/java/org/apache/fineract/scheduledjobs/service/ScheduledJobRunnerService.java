@@ -36,7 +36,7 @@ public interface ScheduledJobRunnerService {
 
     void updateMaturityDetailsOfDepositAccounts();
 
-    void generateRDSchedule();
+    void generateRDSchedule() throws JobExecutionException;
 
     void postDividends() throws JobExecutionException;
 
@@ -18,14 +18,18 @@
  */
 package org.apache.fineract.scheduledjobs.service;
 
-import org.apache.fineract.accounting.glaccount.domain.TrialBalance;
-import org.apache.fineract.accounting.glaccount.domain.TrialBalanceRepositoryWrapper;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties.FineractPropertiesJobs;
 import org.apache.fineract.infrastructure.core.data.ApiParameterError;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.data.JobPartition;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobCheckpointService;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionRunner;
+import org.apache.fineract.portfolio.savings.DepositAccountRecurrence;
 import org.apache.fineract.portfolio.savings.DepositAccountType;
 import org.apache.fineract.portfolio.savings.DepositAccountUtils;
 import org.apache.fineract.portfolio.savings.data.DepositAccountData;
@@ -36,8 +40,6 @@ import org.apache.fineract.portfolio.savings.service.SavingsAccountChargeReadPla
 import org.apache.fineract.portfolio.savings.service.SavingsAccountWritePlatformService;
 import org.apache.fineract.portfolio.shareaccounts.service.ShareAccountDividendReadPlatformService;
 import org.apache.fineract.portfolio.shareaccounts.service.ShareAccountSchedularService;
-import org.joda.time.DateTime;
-import org.joda.time.Days;
 import org.joda.time.LocalDate;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
@@ -45,16 +47,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.CollectionUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.sql.DataSource;
 import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.text.SimpleDateFormat;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -62,6 +68,14 @@ import java.util.Map;
 public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService {
 
     private final static Logger logger = LoggerFactory.getLogger(ScheduledJobRunnerServiceImpl.class);
+    private static final int DEFAULT_LOAN_SUMMARY_CHUNK_SIZE = 500;
+    private static final String LOAN_SUMMARY_INITIALIZED_CHECKPOINT = "initializedUpTo";
+    private static final int DEFAULT_TRIAL_BALANCE_THREADS = 4;
+    private static final int DEFAULT_RD_SCHEDULE_THREADS = 4;
+    private static final int DEFAULT_RD_SCHEDULE_PARTITION_SIZE = 1000;
+    private static final int DEFAULT_DIVIDEND_POSTING_THREADS = 4;
+    private static final int DEFAULT_DIVIDEND_POSTING_PARTITION_SIZE = 1000;
+    private static final int DIVIDEND_POSTING_CHUNK_SIZE = 50;
     private final DateTimeFormatter formatter = DateTimeFormat.forPattern("yyyy-MM-dd");
     private final DateTimeFormatter formatterWithTime = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss");
 
@@ -72,7 +86,10 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
     private final DepositAccountWritePlatformService depositAccountWritePlatformService;
     private final ShareAccountDividendReadPlatformService shareAccountDividendReadPlatformService;
     private final ShareAccountSchedularService shareAccountSchedularService;
-    private final TrialBalanceRepositoryWrapper trialBalanceRepositoryWrapper;
+    private final JobPartitionRunner jobPartitionRunner;
+    private final JobCheckpointService jobCheckpointService;
+    private final FineractProperties fineractProperties;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public ScheduledJobRunnerServiceImpl(final DataSource routingDataSource,
@@ -81,7 +98,9 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
             final DepositAccountReadPlatformService depositAccountReadPlatformService,
             final DepositAccountWritePlatformService depositAccountWritePlatformService,
             final ShareAccountDividendReadPlatformService shareAccountDividendReadPlatformService,
-            final ShareAccountSchedularService shareAccountSchedularService, final TrialBalanceRepositoryWrapper trialBalanceRepositoryWrapper) {
+            final ShareAccountSchedularService shareAccountSchedularService, final JobPartitionRunner jobPartitionRunner,
+            final JobCheckpointService jobCheckpointService, final FineractProperties fineractProperties,
+            final PlatformTransactionManager transactionManager) {
         this.routingDataSource = routingDataSource;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.savingsAccountChargeReadPlatformService = savingsAccountChargeReadPlatformService;
@@ -89,15 +108,62 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         this.depositAccountWritePlatformService = depositAccountWritePlatformService;
         this.shareAccountDividendReadPlatformService = shareAccountDividendReadPlatformService;
         this.shareAccountSchedularService = shareAccountSchedularService;
-        this.trialBalanceRepositoryWrapper=trialBalanceRepositoryWrapper;
+        this.jobPartitionRunner = jobPartitionRunner;
+        this.jobCheckpointService = jobCheckpointService;
+        this.fineractProperties = fineractProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
     @Override
     @CronTarget(jobName = JobName.UPDATE_LOAN_SUMMARY)
     public void updateLoanSummaryDetails() {
-
+        final FineractPropertiesJobs jobProperties = this.fineractProperties.getJobs();
+        final int chunkSize = jobProperties == null || jobProperties.getLoanSummaryChunkSize() == null ? DEFAULT_LOAN_SUMMARY_CHUNK_SIZE
+                : jobProperties.getLoanSummaryChunkSize();
         final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.routingDataSource);
+        final long startedAt = System.currentTimeMillis();
+
+        // the first run reconciles every disbursed loan, later runs only the loans marked dirty by the loan write paths
+        final boolean fullRun = this.jobCheckpointService.retrieve(JobName.UPDATE_LOAN_SUMMARY, LOAN_SUMMARY_INITIALIZED_CHECKPOINT) == null;
+        int chunks = 0;
+        int updated = 0;
+        Long lastLoanId = 0L;
+        while (true) {
+            final Long fromLoanId = lastLoanId;
+            final List<Map<String, Object>> markers;
+            if (fullRun) {
+                markers = jdbcTemplate.queryForList("select ml.id as loanId, null as version from m_loan ml "
+                        + "where ml.id > ? and ml.disbursedon_date is not null order by ml.id limit ?", fromLoanId, chunkSize);
+            } else {
+                markers = jdbcTemplate.queryForList("select loan_id as loanId, version from m_loan_summary_dirty "
+                        + "where loan_id > ? order by loan_id limit ?", fromLoanId, chunkSize);
+            }
+            if (markers.isEmpty()) {
+                break;
+            }
+            // one short transaction per chunk so repayments are never blocked for longer than a single chunk
+            updated += this.transactionTemplate.execute(status -> updateLoanSummaryChunk(jdbcTemplate, markers));
+            chunks++;
+            lastLoanId = ((Number) markers.get(markers.size() - 1).get("loanId")).longValue();
+        }
+        if (fullRun) {
+            // markers written meanwhile are kept, reconciling those loans once more on the next run is harmless
+            this.jobCheckpointService.store(JobName.UPDATE_LOAN_SUMMARY, LOAN_SUMMARY_INITIALIZED_CHECKPOINT, lastLoanId);
+        }
+
+        final long elapsed = Math.max(1, System.currentTimeMillis() - startedAt);
+        logger.info("Update loan summary ({}): {} loans updated in {} chunks, {} ms, {} rows/s", fullRun ? "full" : "dirty loans",
+                updated, chunks, elapsed, updated * 1000L / elapsed);
+    }
+
+    private Integer updateLoanSummaryChunk(final JdbcTemplate jdbcTemplate, final List<Map<String, Object>> markers) {
+        final StringBuilder loanIds = new StringBuilder();
+        for (final Map<String, Object> marker : markers) {
+            if (loanIds.length() > 0) {
+                loanIds.append(',');
+            }
+            loanIds.append(((Number) marker.get("loanId")).longValue());
+        }
 
         final StringBuilder updateSqlBuilder = new StringBuilder(900);
         updateSqlBuilder.append("update m_loan ");
@@ -110,10 +176,9 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         updateSqlBuilder.append("SUM(IFNULL(mr.interest_completed_derived,0)) as interest_repaid_derived,");
         updateSqlBuilder.append("SUM(IFNULL(mr.interest_waived_derived,0)) as interest_waived_derived,");
         updateSqlBuilder.append("SUM(IFNULL(mr.interest_writtenoff_derived,0)) as interest_writtenoff_derived,");
+        updateSqlBuilder.append("SUM(IFNULL(mr.fee_charges_amount,0)) + IFNULL(MAX(lc.disbursement_fee_amount),0) as fee_charges_charged_derived,");
         updateSqlBuilder
-                .append("SUM(IFNULL(mr.fee_charges_amount,0)) + IFNULL((select SUM(lc.amount) from  m_loan_charge lc where lc.loan_id=ml.id and lc.is_active=1 and lc.charge_time_enum=1),0) as fee_charges_charged_derived,");
-        updateSqlBuilder
-                .append("SUM(IFNULL(mr.fee_charges_completed_derived,0)) + IFNULL((select SUM(lc.amount_paid_derived) from  m_loan_charge lc where lc.loan_id=ml.id and lc.is_active=1 and lc.charge_time_enum=1),0) as fee_charges_repaid_derived,");
+                .append("SUM(IFNULL(mr.fee_charges_completed_derived,0)) + IFNULL(MAX(lc.disbursement_fee_paid),0) as fee_charges_repaid_derived,");
         updateSqlBuilder.append("SUM(IFNULL(mr.fee_charges_waived_derived,0)) as fee_charges_waived_derived,");
         updateSqlBuilder.append("SUM(IFNULL(mr.fee_charges_writtenoff_derived,0)) as fee_charges_writtenoff_derived,");
         updateSqlBuilder.append("SUM(IFNULL(mr.penalty_charges_amount,0)) as penalty_charges_charged_derived,");
@@ -122,7 +187,12 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         updateSqlBuilder.append("SUM(IFNULL(mr.penalty_charges_writtenoff_derived,0)) as penalty_charges_writtenoff_derived ");
         updateSqlBuilder.append(" FROM m_loan ml ");
         updateSqlBuilder.append("INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
-        updateSqlBuilder.append("WHERE ml.disbursedon_date is not null ");
+        // disbursement charges aggregated once per loan of the chunk instead of two correlated subqueries per loan
+        updateSqlBuilder.append("LEFT JOIN (select lc.loan_id, SUM(lc.amount) as disbursement_fee_amount, ");
+        updateSqlBuilder.append("SUM(lc.amount_paid_derived) as disbursement_fee_paid from m_loan_charge lc ");
+        updateSqlBuilder.append("where lc.is_active=1 and lc.charge_time_enum=1 and lc.loan_id in (").append(loanIds);
+        updateSqlBuilder.append(") group by lc.loan_id) lc on lc.loan_id = ml.id ");
+        updateSqlBuilder.append("WHERE ml.disbursedon_date is not null and ml.id in (").append(loanIds).append(") ");
         updateSqlBuilder.append("GROUP BY ml.id ");
         updateSqlBuilder.append(") x on x.loanId = m_loan.id ");
 
@@ -172,7 +242,17 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
 
         final int result = jdbcTemplate.update(updateSqlBuilder.toString());
 
-        logger.info("Results affected by update: {}", result);
+        // a marker whose version moved on was touched again while this chunk ran and stays for the next run
+        final List<Object[]> processedMarkers = new ArrayList<>();
+        for (final Map<String, Object> marker : markers) {
+            if (marker.get("version") != null) {
+                processedMarkers.add(new Object[] { marker.get("loanId"), marker.get("version") });
+            }
+        }
+        if (!processedMarkers.isEmpty()) {
+            jdbcTemplate.batchUpdate("delete from m_loan_summary_dirty where loan_id = ? and version = ?", processedMarkers);
+        }
+        return result;
     }
 
     @Transactional
@@ -326,157 +406,261 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
 
     @Override
     @CronTarget(jobName = JobName.GENERATE_RD_SCEHDULE)
-    public void generateRDSchedule() {
+    public void generateRDSchedule() throws JobExecutionException {
         final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.routingDataSource);
-        final Collection<Map<String, Object>> scheduleDetails = this.depositAccountReadPlatformService.retriveDataForRDScheduleCreation();
-        String insertSql = "INSERT INTO `m_mandatory_savings_schedule` (`savings_account_id`, `duedate`, `installment`, `deposit_amount`, `completed_derived`, `created_date`, `lastmodified_date`) VALUES ";
-        StringBuilder sb = new StringBuilder();
-        String currentDate = formatterWithTime.print(DateUtils.getLocalDateTimeOfTenant());
-        int iterations = 0;
-        for (Map<String, Object> details : scheduleDetails) {
-            Long count = (Long) details.get("futureInstallemts");
-            if (count == null) {
-                count = 0l;
-            }
-            final Long savingsId = (Long) details.get("savingsId");
-            final BigDecimal amount = (BigDecimal) details.get("amount");
-            final String recurrence = (String) details.get("recurrence");
-            Date date = (Date) details.get("dueDate");
-            LocalDate lastDepositDate = new LocalDate(date);
-            Integer installmentNumber = (Integer) details.get("installment");
+        final FineractPropertiesJobs jobProperties = this.fineractProperties.getJobs();
+        final int threads = jobProperties == null || jobProperties.getRdScheduleThreads() == null ? DEFAULT_RD_SCHEDULE_THREADS
+                : jobProperties.getRdScheduleThreads();
+        final int partitionSize = jobProperties == null || jobProperties.getRdSchedulePartitionSize() == null
+                ? DEFAULT_RD_SCHEDULE_PARTITION_SIZE
+                : jobProperties.getRdSchedulePartitionSize();
+        final String currentDate = formatterWithTime.print(DateUtils.getLocalDateTimeOfTenant());
+
+        // accounts that already have enough future installments are filtered by the query, so re-running a partition
+        // after a crash only generates the installments that are still missing
+        final String runKey = DateUtils.getLocalDateOfTenant().toString();
+        final String errors = this.jobPartitionRunner.run(JobName.GENERATE_RD_SCEHDULE, runKey, threads,
+                (afterSavingsId) -> this.depositAccountReadPlatformService.retrieveRDScheduleCreationPartitions(afterSavingsId,
+                        partitionSize),
+                (partition) -> {
+                    final RDScheduleBatchWriter writer = new RDScheduleBatchWriter(jdbcTemplate, currentDate);
+                    try {
+                        this.depositAccountReadPlatformService.retriveDataForRDScheduleCreation(partition, writer);
+                        writer.flush();
+                    } catch (final RuntimeException e) {
+                        logger.error("Generate RD schedule failed for savings accounts " + partition, e);
+                        return "Generate RD schedule failed for savings accounts " + partition + " with message " + e.getMessage();
+                    }
+                    logger.debug("Generated {} RD schedule installments for savings accounts {}", writer.inserted, partition);
+                    return "";
+                });
+
+        if (errors.length() > 0) { throw new JobExecutionException(errors); }
+    }
+
+    /**
+     * Generates the missing future installments of each streamed account with
+     * a recurrence compiled once per distinct rule and writes them with a
+     * parameterized batch insert.
+     */
+    private static final class RDScheduleBatchWriter implements RowCallbackHandler {
+
+        private static final int BATCH_SIZE = 500;
+        private static final String INSERT_SQL = "INSERT INTO `m_mandatory_savings_schedule` (`savings_account_id`, `duedate`, "
+                + "`installment`, `deposit_amount`, `completed_derived`, `created_date`, `lastmodified_date`) VALUES (?, ?, ?, ?, 0, ?, ?)";
+
+        private final JdbcTemplate jdbcTemplate;
+        private final String currentDate;
+        private final Map<String, DepositAccountRecurrence> recurrences = new HashMap<>();
+        private final List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        private int inserted;
+
+        RDScheduleBatchWriter(final JdbcTemplate jdbcTemplate, final String currentDate) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.currentDate = currentDate;
+        }
+
+        @Override
+        public void processRow(final ResultSet rs) throws SQLException {
+            final long savingsId = rs.getLong("savingsId");
+            final BigDecimal amount = rs.getBigDecimal("amount");
+            final DepositAccountRecurrence recurrence = this.recurrences.computeIfAbsent(rs.getString("recurrence"),
+                    DepositAccountRecurrence::compile);
+            LocalDate lastDepositDate = new LocalDate(rs.getDate("dueDate"));
+            int installmentNumber = rs.getInt("installment");
+            long count = rs.getLong("futureInstallemts");
             while (count < DepositAccountUtils.GENERATE_MINIMUM_NUMBER_OF_FUTURE_INSTALMENTS) {
                 count++;
                 installmentNumber++;
-                lastDepositDate = DepositAccountUtils.calculateNextDepositDate(lastDepositDate, recurrence);
-
-                if (sb.length() > 0) {
-                    sb.append(", ");
-                }
-                sb.append("(");
-                sb.append(savingsId);
-                sb.append(",'");
-                sb.append(formatter.print(lastDepositDate));
-                sb.append("',");
-                sb.append(installmentNumber);
-                sb.append(",");
-                sb.append(amount);
-                sb.append(", b'0','");
-                sb.append(currentDate);
-                sb.append("','");
-                sb.append(currentDate);
-                sb.append("')");
-                iterations++;
-                if (iterations > 200) {
-                    jdbcTemplate.update(insertSql + sb.toString());
-                    sb = new StringBuilder();
+                lastDepositDate = recurrence.nextDepositDate(lastDepositDate);
+                this.batch.add(new Object[] { savingsId, lastDepositDate.toDate(), installmentNumber, amount, this.currentDate,
+                        this.currentDate });
+                if (this.batch.size() >= BATCH_SIZE) {
+                    flush();
                 }
-
             }
         }
 
-        if (sb.length() > 0) {
-            jdbcTemplate.update(insertSql + sb.toString());
+        void flush() {
+            if (this.batch.isEmpty()) { return; }
+            this.jdbcTemplate.batchUpdate(INSERT_SQL, this.batch);
+            this.inserted += this.batch.size();
+            this.batch.clear();
         }
-
     }
 
     @Override
     @CronTarget(jobName = JobName.POST_DIVIDENTS_FOR_SHARES)
     public void postDividends() throws JobExecutionException {
-        List<Map<String, Object>> dividendDetails = this.shareAccountDividendReadPlatformService.retriveDividendDetailsForPostDividents();
-        StringBuilder errorMsg = new StringBuilder();
-        for (Map<String, Object> dividendMap : dividendDetails) {
-        	Long id = null ;
-        	Long savingsId = null ;
-        	if(dividendMap.get("id") instanceof BigInteger) { //Drizzle is returning BigInteger
-        		id = ((BigInteger)dividendMap.get("id")).longValue() ;
-        		savingsId = ((BigInteger)dividendMap.get("savingsAccountId")).longValue() ;
-        	}else { //MySQL connector is returning Long
-        		id = (Long) dividendMap.get("id") ;
-        		savingsId = (Long) dividendMap.get("savingsAccountId") ;
-        	}
+        final FineractPropertiesJobs jobProperties = this.fineractProperties.getJobs();
+        final int threads = jobProperties == null || jobProperties.getDividendPostingThreads() == null ? DEFAULT_DIVIDEND_POSTING_THREADS
+                : jobProperties.getDividendPostingThreads();
+        final int partitionSize = jobProperties == null || jobProperties.getDividendPostingPartitionSize() == null
+                ? DEFAULT_DIVIDEND_POSTING_PARTITION_SIZE
+                : jobProperties.getDividendPostingPartitionSize();
+
+        // partitions are ranges of savings account ids, so no two threads ever post to the same savings account
+        final String errors = this.jobPartitionRunner.run(JobName.POST_DIVIDENTS_FOR_SHARES, DateUtils.getLocalDateOfTenant().toString(),
+                threads, (afterSavingsId) -> this.shareAccountDividendReadPlatformService.retrieveDividendPostingPartitions(afterSavingsId,
+                        partitionSize),
+                (partition) -> postDividends(this.shareAccountDividendReadPlatformService.retriveDividendDetailsForPostDividents(partition)));
+
+        if (errors.length() > 0) { throw new JobExecutionException(errors); }
+    }
+
+    private String postDividends(final List<Map<String, Object>> dividendDetails) {
+        final StringBuilder errorMsg = new StringBuilder();
+        for (int from = 0; from < dividendDetails.size(); from += DIVIDEND_POSTING_CHUNK_SIZE) {
+            final List<Map<String, Object>> chunk = dividendDetails.subList(from,
+                    Math.min(from + DIVIDEND_POSTING_CHUNK_SIZE, dividendDetails.size()));
             try {
-                this.shareAccountSchedularService.postDividend(id, savingsId);
-            } catch (final PlatformApiDataValidationException e) {
-                final List<ApiParameterError> errors = e.getErrors();
-                for (final ApiParameterError error : errors) {
-                    logger.error("Post Dividends to savings failed for Divident detail Id:" + id + " and savings Id: " + savingsId
-                            + " with message " + error.getDeveloperMessage());
-                    errorMsg.append("Post Dividends to savings failed for Divident detail Id:").append(id).append(" and savings Id:")
-                            .append(savingsId).append(" with message ").append(error.getDeveloperMessage());
+                // one commit per chunk, a chunk with a failing dividend is rolled back and posted one dividend at a time
+                this.transactionTemplate.execute(status -> {
+                    for (final Map<String, Object> dividendMap : chunk) {
+                        this.shareAccountSchedularService.postDividend(((Number) dividendMap.get("id")).longValue(),
+                                ((Number) dividendMap.get("savingsAccountId")).longValue());
+                    }
+                    return null;
+                });
+            } catch (final RuntimeException chunkFailure) {
+                for (final Map<String, Object> dividendMap : chunk) {
+                    postDividend(dividendMap, errorMsg);
                 }
-            } catch (final Exception e) {
+            }
+        }
+        return errorMsg.toString();
+    }
+
+    private void postDividend(final Map<String, Object> dividendMap, final StringBuilder errorMsg) {
+        final Long id = ((Number) dividendMap.get("id")).longValue();
+        final Long savingsId = ((Number) dividendMap.get("savingsAccountId")).longValue();
+        try {
+            this.shareAccountSchedularService.postDividend(id, savingsId);
+        } catch (final PlatformApiDataValidationException e) {
+            final List<ApiParameterError> errors = e.getErrors();
+            for (final ApiParameterError error : errors) {
                 logger.error("Post Dividends to savings failed for Divident detail Id:" + id + " and savings Id: " + savingsId
-                        + " with message " + e.getLocalizedMessage());
+                        + " with message " + error.getDeveloperMessage());
                 errorMsg.append("Post Dividends to savings failed for Divident detail Id:").append(id).append(" and savings Id:")
-                        .append(savingsId).append(" with message ").append(e.getLocalizedMessage());
+                        .append(savingsId).append(" with message ").append(error.getDeveloperMessage());
             }
+        } catch (final Exception e) {
+            logger.error("Post Dividends to savings failed for Divident detail Id:" + id + " and savings Id: " + savingsId
+                    + " with message " + e.getLocalizedMessage());
+            errorMsg.append("Post Dividends to savings failed for Divident detail Id:").append(id).append(" and savings Id:")
+                    .append(savingsId).append(" with message ").append(e.getLocalizedMessage());
         }
-
-        if (errorMsg.length() > 0) { throw new JobExecutionException(errorMsg.toString()); }
     }
 
     @CronTarget(jobName = JobName.UPDATE_TRAIL_BALANCE_DETAILS)
     public void updateTrialBalanceDetails() throws JobExecutionException {
         final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.routingDataSource);
-        final StringBuilder tbGapSqlBuilder = new StringBuilder(500);
-        tbGapSqlBuilder.append("select distinct(je.transaction_date) ")
-                .append("from acc_gl_journal_entry je ")
-                .append("where je.transaction_date > (select IFNULL(MAX(created_date),'2010-01-01') from m_trial_balance)");
-
-        final List<Date> tbGaps = jdbcTemplate.queryForList(tbGapSqlBuilder.toString(), Date.class);
-
-        for(Date tbGap : tbGaps) {
-            LocalDate convDate = new DateTime(tbGap).toLocalDate();
-            int days = Days.daysBetween(convDate, DateUtils.getLocalDateOfTenant()).getDays();
-            if(days < 1)
-                continue;
-            final String formattedDate = new SimpleDateFormat("yyyy-MM-dd").format(tbGap);
-            final StringBuilder sqlBuilder = new StringBuilder(600);
-            sqlBuilder.append("Insert Into m_trial_balance(office_id, account_id, Amount, entry_date, created_date,closing_balance) ")
-                    .append("Select je.office_id, je.account_id, sum(if(je.type_enum=1, (-1) * je.amount, je.amount)) ")
-                    .append("as Amount, Date(je.entry_date) as 'Entry_Date', je.transaction_date as 'Created_Date',sum(je.amount) as closing_balance ")
-                    .append("from acc_gl_journal_entry je WHERE je.transaction_date = ? ")
-                    .append("group by je.account_id, je.office_id, je.transaction_date, Date(je.entry_date)");
-
-            final int result = jdbcTemplate.update(sqlBuilder.toString(), new Object[] {
-                    formattedDate
-            });
-            logger.info("Results affected by update: {}", result);
+        final LocalDate tenantDate = DateUtils.getLocalDateOfTenant();
+        // one partition per office, offices share no trial balance rows
+        final String errors = this.jobPartitionRunner.run(JobName.UPDATE_TRAIL_BALANCE_DETAILS, tenantDate.toString(), trialBalanceThreads(),
+                (afterOfficeId) -> jdbcTemplate.query("select id from m_office where id > ? order by id",
+                        (rs, rowNum) -> new JobPartition(rs.getLong("id"), rs.getLong("id")), afterOfficeId),
+                (partition) -> {
+                    // a failure propagates, so the office is not checkpointed and a resumed run processes it again
+                    updateTrialBalanceDetails(jdbcTemplate, partition.getFromId(), tenantDate);
+                    return "";
+                });
+
+        if (errors.length() > 0) { throw new JobExecutionException(errors); }
+    }
+
+    private void updateTrialBalanceDetails(final JdbcTemplate jdbcTemplate, final Long officeId, final LocalDate tenantDate) {
+        final long startedAt = System.currentTimeMillis();
+
+        // aggregates every closed day after the office's last trial balance day in one statement, the unique key on
+        // office, account and dates makes repeating it after a crash harmless
+        final Date lastCreatedDate = jdbcTemplate.queryForObject(
+                "select ifnull(max(created_date), '2010-01-01') from m_trial_balance where office_id = ?", Date.class, officeId);
+        final int inserted = jdbcTemplate.update("insert into m_trial_balance(office_id, account_id, amount, entry_date, created_date) "
+                + "select je.office_id, je.account_id, sum(if(je.type_enum=1, (-1) * je.amount, je.amount)), date(je.entry_date), "
+                + "je.transaction_date from acc_gl_journal_entry je "
+                + "where je.office_id = ? and je.transaction_date > ? and je.transaction_date < ? "
+                + "group by je.office_id, je.account_id, je.transaction_date, date(je.entry_date) "
+                + "on duplicate key update amount = values(amount)", officeId, lastCreatedDate, tenantDate.toDate());
+
+        // closing balances are recomputed from the first day that still has a row without one
+        final Date recomputeFrom = jdbcTemplate.queryForObject(
+                "select min(created_date) from m_trial_balance where office_id = ? and closing_balance is null", Date.class, officeId);
+        if (recomputeFrom == null) {
+            logger.info("Update trial balance details for office {}: {} rows inserted, closing balances up to date", officeId, inserted);
+            return;
         }
 
-        // Updating closing balance
-        String distinctOfficeQuery = "select distinct(office_id) from m_trial_balance where closing_balance is null group by office_id";
-        final List<Long> officeIds = jdbcTemplate.queryForList(distinctOfficeQuery, new Object[] {}, Long.class);
-
-
-        for(Long officeId : officeIds) {
-            String distinctAccountQuery = "select distinct(account_id) from m_trial_balance where office_id=? and closing_balance is null group by account_id";
-            final List<Long> accountIds = jdbcTemplate.queryForList(distinctAccountQuery, new Object[] {officeId}, Long.class);
-            for(Long accountId : accountIds) {
-                final String closingBalanceQuery = "select closing_balance from m_trial_balance where office_id=? and account_id=? and closing_balance " +
-                        "is not null order by created_date desc, entry_date desc limit 1";
-                List<BigDecimal> closingBalanceData = jdbcTemplate.queryForList(closingBalanceQuery, new Object[] {officeId, accountId}, BigDecimal.class);
-                List<TrialBalance> tbRows = this.trialBalanceRepositoryWrapper.findNewByOfficeAndAccount(officeId, accountId);
-                BigDecimal closingBalance = null;
-                if(!CollectionUtils.isEmpty(closingBalanceData))
-                    closingBalance = closingBalanceData.get(0);
-                if(CollectionUtils.isEmpty(closingBalanceData)) {
-                    closingBalance = BigDecimal.ZERO;
-                    for(TrialBalance row : tbRows) {
-                        closingBalance = closingBalance.add(row.getAmount());
-                        row.setClosingBalance(closingBalance);
-                    }
-                } else {
-                    for(TrialBalance tbRow : tbRows) {
-                        closingBalance = closingBalance.add(tbRow.getAmount());
-                        tbRow.setClosingBalance(closingBalance);
-                    }
+        final Map<Long, BigDecimal> openingBalances = new HashMap<>();
+        jdbcTemplate.query(
+                "select account_id, sum(amount) from m_trial_balance where office_id = ? and created_date < ? group by account_id",
+                (RowCallbackHandler) rs -> openingBalances.put(rs.getLong(1), rs.getBigDecimal(2)), officeId, recomputeFrom);
+
+        final TrialBalanceClosingBalanceHandler handler = new TrialBalanceClosingBalanceHandler(jdbcTemplate, openingBalances);
+        final JdbcTemplate streamingJdbcTemplate = new JdbcTemplate(this.routingDataSource);
+        streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        streamingJdbcTemplate.query("select id, account_id, amount, closing_balance from m_trial_balance "
+                + "where office_id = ? and created_date >= ? order by account_id, created_date, entry_date", handler, officeId, recomputeFrom);
+        handler.flush();
+
+        logger.info("Update trial balance details for office {}: {} rows inserted, {} of {} closing balances updated in {} ms", officeId,
+                inserted, handler.updated, handler.rows, System.currentTimeMillis() - startedAt);
+    }
+
+    private int trialBalanceThreads() {
+        final FineractPropertiesJobs jobProperties = this.fineractProperties.getJobs();
+        return jobProperties == null || jobProperties.getTrialBalanceThreads() == null ? DEFAULT_TRIAL_BALANCE_THREADS
+                : jobProperties.getTrialBalanceThreads();
+    }
+
+    /**
+     * Carries the running closing balance of each account over rows streamed in
+     * account and date order and writes the balances that changed in batches.
+     * Updates go through a separate connection while the result set is still
+     * streaming.
+     */
+    private static final class TrialBalanceClosingBalanceHandler implements RowCallbackHandler {
+
+        private static final int BATCH_SIZE = 1000;
+
+        private final JdbcTemplate jdbcTemplate;
+        private final Map<Long, BigDecimal> openingBalances;
+        private final List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        private long accountId = -1;
+        private BigDecimal closingBalance;
+        private int rows;
+        private int updated;
+
+        TrialBalanceClosingBalanceHandler(final JdbcTemplate jdbcTemplate, final Map<Long, BigDecimal> openingBalances) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.openingBalances = openingBalances;
+        }
+
+        @Override
+        public void processRow(final ResultSet rs) throws SQLException {
+            final long rowAccountId = rs.getLong("account_id");
+            if (rowAccountId != this.accountId) {
+                this.accountId = rowAccountId;
+                this.closingBalance = this.openingBalances.getOrDefault(rowAccountId, BigDecimal.ZERO);
+            }
+            this.closingBalance = this.closingBalance.add(rs.getBigDecimal("amount"));
+            this.rows++;
+
+            final BigDecimal storedClosingBalance = rs.getBigDecimal("closing_balance");
+            if (storedClosingBalance == null || storedClosingBalance.compareTo(this.closingBalance) != 0) {
+                this.batch.add(new Object[] { this.closingBalance, rs.getLong("id") });
+                if (this.batch.size() >= BATCH_SIZE) {
+                    flush();
                 }
-                this.trialBalanceRepositoryWrapper.save(tbRows);
             }
         }
 
+        void flush() {
+            if (this.batch.isEmpty()) { return; }
+            this.jdbcTemplate.batchUpdate("update m_trial_balance set closing_balance = ? where id = ?", this.batch);
+            this.updated += this.batch.size();
+            this.batch.clear();
+        }
     }
 
 }
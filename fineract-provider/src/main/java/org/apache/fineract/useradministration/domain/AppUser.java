@@ -39,6 +39,7 @@ import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
@@ -124,6 +125,10 @@ public class AppUser extends AbstractPersistableCustom<Long> implements Platform
     @JoinColumn(name = "appuser_id", referencedColumnName= "id", nullable = false)
     private Set<AppUserClientMapping> appUserClientMappings = new HashSet<>();
 
+    // compiled on the first permission check; users are reloaded when their roles or the permissions of a role change
+    @Transient
+    private transient volatile AppUserPermissions compiledPermissions;
+
 	public static AppUser fromJson(final Office userOffice, final Staff linkedStaff, final Set<Role> allRoles, 
 			final Collection<Client> clients, final JsonCommand command) {
 
@@ -217,6 +222,7 @@ public class AppUser extends AbstractPersistableCustom<Long> implements Platform
         if (!allRoles.isEmpty()) {
             this.roles.clear();
             this.roles = allRoles;
+            this.compiledPermissions = null;
         }
     }
 
@@ -352,6 +358,7 @@ public class AppUser extends AbstractPersistableCustom<Long> implements Platform
         this.firstTimeLoginRemaining = true;
         this.username = getId() + "_DELETED_" + this.username;
         this.roles.clear();
+        this.compiledPermissions = null;
     }
 
     public boolean isDeleted() {
@@ -480,15 +487,11 @@ public class AppUser extends AbstractPersistableCustom<Long> implements Platform
     }
 
     public boolean hasNotPermissionForAnyOf(final String... permissionCodes) {
-        boolean hasNotPermission = true;
+        final AppUserPermissions permissions = compiledPermissions();
         for (final String permissionCode : permissionCodes) {
-            final boolean checkPermission = hasPermissionTo(permissionCode);
-            if (checkPermission) {
-                hasNotPermission = false;
-                break;
-            }
+            if (permissions.hasPermissionTo(permissionCode)) { return false; }
         }
-        return hasNotPermission;
+        return true;
     }
 
     /**
@@ -498,14 +501,7 @@ public class AppUser extends AbstractPersistableCustom<Long> implements Platform
      * @return whether the user has the specified permission
      */
     public boolean hasSpecificPermissionTo(final String permissionCode) {
-        boolean hasPermission = false;
-        for (final Role role : this.roles) {
-            if(role.hasPermissionTo(permissionCode)) {
-                hasPermission = true;
-                break;
-            }
-        }
-        return hasPermission;
+        return compiledPermissions().hasCode(permissionCode);
     }
 
     public void validateHasReadPermission(final String resourceType) {
@@ -523,27 +519,16 @@ public class AppUser extends AbstractPersistableCustom<Long> implements Platform
     }
 
     private boolean hasPermissionTo(final String permissionCode) {
-        boolean hasPermission = hasAllFunctionsPermission();
-        if (!hasPermission) {
-            for (final Role role : this.roles) {
-                if (role.hasPermissionTo(permissionCode)) {
-                    hasPermission = true;
-                    break;
-                }
-            }
-        }
-        return hasPermission;
+        return compiledPermissions().hasPermissionTo(permissionCode);
     }
 
-    private boolean hasAllFunctionsPermission() {
-        boolean match = false;
-        for (final Role role : this.roles) {
-            if (role.hasPermissionTo("ALL_FUNCTIONS")) {
-                match = true;
-                break;
-            }
+    private AppUserPermissions compiledPermissions() {
+        AppUserPermissions permissions = this.compiledPermissions;
+        if (permissions == null) {
+            permissions = AppUserPermissions.compile(this.roles);
+            this.compiledPermissions = permissions;
         }
-        return match;
+        return permissions;
     }
 
     public boolean hasIdOf(final Long userId) {
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.useradministration.domain;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The permission codes of all roles of a user compiled into a bit set, so a
+ * permission check is a map lookup and a bit test instead of a walk over
+ * every permission of every role.
+ * <p>
+ * Codes are matched ignoring case like {@link Permission#hasCode(String)}.
+ * Each code gets its bit index the first time a user holding it is compiled,
+ * the indexes are shared by all users.
+ */
+final class AppUserPermissions {
+
+    private static final String ALL_FUNCTIONS = "ALL_FUNCTIONS";
+    private static final ConcurrentMap<String, Integer> INDEX_BY_CODE = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+    private final BitSet codes;
+    private final boolean allFunctions;
+
+    private AppUserPermissions(final BitSet codes) {
+        this.codes = codes;
+        this.allFunctions = hasCode(ALL_FUNCTIONS);
+    }
+
+    static AppUserPermissions compile(final Collection<Role> roles) {
+        final BitSet codes = new BitSet();
+        if (roles != null) {
+            for (final Role role : roles) {
+                for (final Permission permission : role.getPermissions()) {
+                    if (permission.getCode() != null) {
+                        codes.set(INDEX_BY_CODE.computeIfAbsent(permission.getCode().toUpperCase(Locale.ROOT),
+                                (code) -> NEXT_INDEX.getAndIncrement()));
+                    }
+                }
+            }
+        }
+        return new AppUserPermissions(codes);
+    }
+
+    /**
+     * Whether the user holds the permission itself or ALL_FUNCTIONS.
+     */
+    boolean hasPermissionTo(final String permissionCode) {
+        return this.allFunctions || hasCode(permissionCode);
+    }
+
+    boolean hasAllFunctions() {
+        return this.allFunctions;
+    }
+
+    /**
+     * Whether the user holds exactly this permission.
+     */
+    boolean hasCode(final String permissionCode) {
+        if (permissionCode == null) { return false; }
+        Integer index = INDEX_BY_CODE.get(permissionCode);
+        if (index == null) {
+            // codes are stored upper case, most callers already pass them like that
+            final String upperCaseCode = permissionCode.toUpperCase(Locale.ROOT);
+            if (!upperCaseCode.equals(permissionCode)) {
+                index = INDEX_BY_CODE.get(upperCaseCode);
+            }
+        }
+        return index != null && this.codes.get(index);
+    }
+}
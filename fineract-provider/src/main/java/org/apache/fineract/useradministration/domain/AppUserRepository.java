@@ -18,6 +18,9 @@
  */
 package org.apache.fineract.useradministration.domain;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.apache.fineract.infrastructure.security.domain.PlatformUserRepository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -28,4 +31,7 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long>, JpaSpec
 
     @Query("Select appUser from AppUser appUser where appUser.username = :username")
     AppUser findAppUserByName(@Param("username") String username);
+
+    @Query("Select appUser.id from AppUser appUser where appUser.id in :ids and appUser.office.id = :officeId")
+    List<Long> findIdsByIdsAndOfficeId(@Param("ids") Collection<Long> ids, @Param("officeId") Long officeId);
 }
@@ -0,0 +1,61 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+DROP TABLE IF EXISTS `interop_transfer`;
+CREATE TABLE `interop_transfer` (
+	`id`                     BIGINT(20)     NOT NULL AUTO_INCREMENT,
+	`account_id`             BIGINT(20)     NOT NULL,
+	`transaction_code`       VARCHAR(36)    NULL,
+	`transfer_code`          VARCHAR(36)    NOT NULL,
+	`state`                  VARCHAR(32)    NOT NULL,
+	`amount`                 DECIMAL(19,6)  NOT NULL,
+	`hold_transaction_id`    BIGINT(20)     NULL,
+	`release_transaction_id` BIGINT(20)     NULL,
+	`commit_transaction_id`  BIGINT(20)     NULL,
+	`created_on`             TIMESTAMP      NOT NULL,
+	`modified_on`            TIMESTAMP      NULL,
+	PRIMARY KEY (`id`),
+	UNIQUE INDEX `uk_interop_transfer_account` (`account_id`, `transfer_code`),
+	INDEX `idx_interop_transfer_code` (`transaction_code`, `transfer_code`),
+	CONSTRAINT `fk_interop_transfer_account` FOREIGN KEY (`account_id`) REFERENCES `m_savings_account` (`id`),
+	CONSTRAINT `fk_interop_transfer_hold` FOREIGN KEY (`hold_transaction_id`) REFERENCES `m_savings_account_transaction` (`id`),
+	CONSTRAINT `fk_interop_transfer_release` FOREIGN KEY (`release_transaction_id`) REFERENCES `m_savings_account_transaction` (`id`),
+	CONSTRAINT `fk_interop_transfer_commit` FOREIGN KEY (`commit_transaction_id`) REFERENCES `m_savings_account_transaction` (`id`)
+)
+	COLLATE = 'utf8_general_ci'
+	ENGINE = InnoDB;
+
+-- backfill transfers created before the ledger existed (transaction code was not stored, only the transfer code)
+
+INSERT IGNORE INTO `interop_transfer` (account_id, transaction_code, transfer_code, state, amount, hold_transaction_id, release_transaction_id, created_on)
+SELECT t.savings_account_id, NULL, pd.receipt_number, 'PREPARED', t.amount, t.id, t.release_id_of_hold_amount, t.created_date
+FROM m_savings_account_transaction t
+JOIN m_payment_detail pd ON pd.id = t.payment_detail_id
+WHERE pd.routing_code = 'INTEROPERATION' AND pd.receipt_number IS NOT NULL AND t.transaction_type_enum = 20;
+
+INSERT INTO `interop_transfer` (account_id, transaction_code, transfer_code, state, amount, commit_transaction_id, created_on)
+SELECT t.savings_account_id, NULL, pd.receipt_number, 'COMMITTED', t.amount, t.id, t.created_date
+FROM m_savings_account_transaction t
+JOIN m_payment_detail pd ON pd.id = t.payment_detail_id
+WHERE pd.routing_code = 'INTEROPERATION' AND pd.receipt_number IS NOT NULL AND t.transaction_type_enum IN (1, 2)
+ON DUPLICATE KEY UPDATE state = 'COMMITTED', commit_transaction_id = VALUES(commit_transaction_id), modified_on = VALUES(created_on);
+
+-- date bounded transaction history
+
+ALTER TABLE `m_savings_account_transaction` ADD INDEX `idx_savings_transaction_account_date` (`savings_account_id`, `transaction_date`);
@@ -0,0 +1,34 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE `job_checkpoint` (
+	`job_name`         VARCHAR(100) NOT NULL,
+	`checkpoint_key`   VARCHAR(100) NOT NULL,
+	`checkpoint_value` VARCHAR(255) NULL,
+	`updated_on`       DATETIME     NOT NULL,
+	PRIMARY KEY (`job_name`, `checkpoint_key`)
+)
+	COLLATE = 'utf8_general_ci'
+	ENGINE = InnoDB;
+
+-- incremental arrears ageing: loans with schedule changes, transactions or installments falling due since the last run
+
+ALTER TABLE `m_loan_transaction` ADD INDEX `idx_loan_transaction_created_date` (`created_date`);
+ALTER TABLE `m_loan_repayment_schedule` ADD INDEX `idx_loan_schedule_lastmodified_date` (`lastmodified_date`);
+ALTER TABLE `m_loan_repayment_schedule` ADD INDEX `idx_loan_schedule_duedate` (`duedate`);
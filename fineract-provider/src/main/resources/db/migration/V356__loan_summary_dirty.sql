@@ -0,0 +1,29 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- loans whose schedule, charges or transactions were saved since the Update Loan Summary job last reconciled them;
+-- version is bumped on every save so the job only clears a marker that did not change while it was being processed
+
+CREATE TABLE `m_loan_summary_dirty` (
+	`loan_id` BIGINT(20) NOT NULL,
+	`version` BIGINT(20) NOT NULL DEFAULT 1,
+	PRIMARY KEY (`loan_id`)
+)
+	COLLATE = 'utf8_general_ci'
+	ENGINE = InnoDB;
@@ -0,0 +1,33 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- the Update Trial Balance Details job computes closing balances incrementally per office: rows are inserted with a null
+-- closing balance and the job carries the running balance forward from the last row that already has one
+
+ALTER TABLE `m_trial_balance`
+	ADD COLUMN `id` BIGINT(20) NOT NULL AUTO_INCREMENT FIRST,
+	ADD PRIMARY KEY (`id`),
+	MODIFY COLUMN `closing_balance` DECIMAL(19,6) NULL DEFAULT NULL,
+	ADD UNIQUE KEY `uk_trial_balance_office_account_date` (`office_id`, `account_id`, `created_date`, `entry_date`),
+	ADD INDEX `idx_trial_balance_office_closing` (`office_id`, `closing_balance`, `created_date`);
+
+-- closing balances written by the previous implementation held the day's gross movement, recompute them on the next run
+UPDATE `m_trial_balance` SET `closing_balance` = NULL;
+
+ALTER TABLE `acc_gl_journal_entry` ADD INDEX `idx_journal_entry_office_transaction_date` (`office_id`, `transaction_date`);
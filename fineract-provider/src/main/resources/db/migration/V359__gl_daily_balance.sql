@@ -0,0 +1,42 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+
+-- debit and credit totals per office, GL account, currency and day; the slot spreads concurrent postings to the same
+-- account over several rows, readers always sum over all slots
+CREATE TABLE `acc_gl_daily_balance` (
+  `office_id` BIGINT(20) NOT NULL,
+  `account_id` BIGINT(20) NOT NULL,
+  `currency_code` VARCHAR(3) NOT NULL,
+  `entry_date` DATE NOT NULL,
+  `slot` TINYINT NOT NULL DEFAULT 0,
+  `debit_amount` DECIMAL(19,6) NOT NULL DEFAULT 0,
+  `credit_amount` DECIMAL(19,6) NOT NULL DEFAULT 0,
+  PRIMARY KEY (`office_id`, `account_id`, `currency_code`, `entry_date`, `slot`),
+  INDEX `idx_gl_daily_balance_entry_date` (`entry_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+INSERT INTO `acc_gl_daily_balance` (`office_id`, `account_id`, `currency_code`, `entry_date`, `slot`, `debit_amount`, `credit_amount`)
+SELECT je.office_id, je.account_id, je.currency_code, je.entry_date, 0,
+       SUM(CASE WHEN je.type_enum = 2 THEN je.amount ELSE 0 END),
+       SUM(CASE WHEN je.type_enum = 1 THEN je.amount ELSE 0 END)
+FROM `acc_gl_journal_entry` je
+GROUP BY je.office_id, je.account_id, je.currency_code, je.entry_date;
+
+INSERT INTO `m_permission` (`grouping`, `code`, `entity_name`, `action_name`, `can_maker_checker`) VALUES ('accounting', 'REBUILDDAILYBALANCES_JOURNALENTRY', 'JOURNALENTRY', 'REBUILDDAILYBALANCES', 0);
@@ -0,0 +1,60 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- business events dispatched after commit: one row per event and listener, removed once the listener ran
+
+CREATE TABLE `m_business_event_outbox` (
+	`id`              BIGINT        NOT NULL AUTO_INCREMENT,
+	`event`           VARCHAR(100)  NOT NULL,
+	`listener`        VARCHAR(200)  NOT NULL,
+	`aggregate_type`  VARCHAR(50)   NOT NULL,
+	`aggregate_id`    BIGINT        NOT NULL,
+	`payload`         TEXT          NOT NULL,
+	`actor_id`        BIGINT        NULL,
+	`created_on`      DATETIME      NOT NULL,
+	`attempts`        INT           NOT NULL DEFAULT 0,
+	`next_attempt_on` DATETIME      NOT NULL,
+	`last_error`      VARCHAR(1000) NULL,
+	PRIMARY KEY (`id`),
+	INDEX `idx_business_event_outbox_due` (`next_attempt_on`),
+	INDEX `idx_business_event_outbox_aggregate` (`listener`, `aggregate_type`, `aggregate_id`, `id`)
+)
+	COLLATE = 'utf8_general_ci'
+	ENGINE = InnoDB;
+
+CREATE TABLE `m_business_event_dead_letter` (
+	`id`              BIGINT        NOT NULL AUTO_INCREMENT,
+	`outbox_id`       BIGINT        NOT NULL,
+	`event`           VARCHAR(100)  NOT NULL,
+	`listener`        VARCHAR(200)  NOT NULL,
+	`aggregate_type`  VARCHAR(50)   NOT NULL,
+	`aggregate_id`    BIGINT        NOT NULL,
+	`payload`         TEXT          NOT NULL,
+	`actor_id`        BIGINT        NULL,
+	`created_on`      DATETIME      NOT NULL,
+	`attempts`        INT           NOT NULL,
+	`failed_on`       DATETIME      NOT NULL,
+	`last_error`      VARCHAR(1000) NULL,
+	PRIMARY KEY (`id`)
+)
+	COLLATE = 'utf8_general_ci'
+	ENGINE = InnoDB;
+
+INSERT INTO `m_permission` (`grouping`, `code`, `entity_name`, `action_name`, `can_maker_checker`) VALUES ('configuration', 'READ_BUSINESSEVENT', 'BUSINESSEVENT', 'READ', 0);
+INSERT INTO `m_permission` (`grouping`, `code`, `entity_name`, `action_name`, `can_maker_checker`) VALUES ('configuration', 'REPLAY_BUSINESSEVENT', 'BUSINESSEVENT', 'REPLAY', 0);
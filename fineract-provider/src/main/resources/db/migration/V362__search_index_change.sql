@@ -0,0 +1,31 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements. See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership. The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License. You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- changes to the searchable entities, tailed by every node to keep its own search index current
+
+CREATE TABLE `m_search_index_change` (
+	`id`          BIGINT      NOT NULL AUTO_INCREMENT,
+	`entity_type` VARCHAR(20) NOT NULL,
+	`entity_id`   BIGINT      NOT NULL,
+	`created_on`  DATETIME    NOT NULL,
+	PRIMARY KEY (`id`),
+	INDEX `idx_search_index_change_created_on` (`created_on`)
+)
+	COLLATE = 'utf8_general_ci'
+	ENGINE = InnoDB;
@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.serialization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class DefaultToApiJsonSerializerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultToApiJsonSerializerTest.class);
+    private static final Set<String> SUPPORTED_PARAMETERS = new HashSet<>(Arrays.asList("id", "name", "date", "amount"));
+
+    private GoogleGsonSerializerHelper helper;
+    private DefaultToApiJsonSerializer<Row> serializer;
+
+    @Before
+    public void setUp() {
+        this.helper = new GoogleGsonSerializerHelper();
+        this.serializer = new DefaultToApiJsonSerializer<>(new ExcludeNothingWithPrettyPrintingOffJsonSerializerGoogleGson(),
+                new ExcludeNothingWithPrettyPrintingOnJsonSerializerGoogleGson(), new CommandProcessingResultJsonSerializer(), this.helper);
+    }
+
+    @Test
+    public void streamingOutputMatchesStringSerialization() throws IOException {
+        final List<Row> rows = rows(25);
+        for (final ApiRequestJsonSerializationSettings settings : Arrays.asList(settings(false), settings(true),
+                settings(false, "id", "date"), settings(true, "name"))) {
+            assertEquals(this.serializer.serialize(settings, rows, SUPPORTED_PARAMETERS),
+                    write(this.serializer.serializeStreaming(settings, rows, SUPPORTED_PARAMETERS)));
+            assertEquals(this.serializer.serialize(settings, rows.get(3), SUPPORTED_PARAMETERS),
+                    write(this.serializer.serializeStreaming(settings, rows.get(3), SUPPORTED_PARAMETERS)));
+        }
+    }
+
+    @Test
+    public void partialResponseSerializerIsCachedPerFieldSet() {
+        assertSame(this.helper.createGsonBuilderForPartialResponseFiltering(false, new HashSet<>(Arrays.asList("id", "name"))),
+                this.helper.createGsonBuilderForPartialResponseFiltering(false, new HashSet<>(Arrays.asList("name", "id"))));
+        assertSame(
+                this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, true,
+                        Collections.singleton("id")),
+                this.helper.createGsonBuilderWithParameterExclusionSerializationStrategy(SUPPORTED_PARAMETERS, true,
+                        Collections.singleton("id")));
+    }
+
+    /**
+     * Compares latency and allocated bytes per response of the string and the
+     * streaming paths, run it manually.
+     */
+    @Ignore
+    @Test
+    public void benchmarkStringAgainstStreamingSerialization() throws IOException {
+        final List<Row> rows = rows(50000);
+        final ApiRequestJsonSerializationSettings settings = settings(false, "id", "amount");
+        final int iterations = 50;
+        for (int i = 0; i < iterations; i++) {
+            this.serializer.serialize(settings, rows, SUPPORTED_PARAMETERS).getBytes(StandardCharsets.UTF_8);
+            this.serializer.serializeStreaming(settings, rows, SUPPORTED_PARAMETERS).write(new DiscardingOutputStream());
+        }
+
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            new DiscardingOutputStream().write(this.serializer.serialize(settings, rows, SUPPORTED_PARAMETERS).getBytes(StandardCharsets.UTF_8));
+        }
+        logger.info("string:    {} ms, {} KB allocated per response", (System.nanoTime() - startedAt) / 1000000 / iterations,
+                (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / 1024 / iterations);
+
+        allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        startedAt = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            this.serializer.serializeStreaming(settings, rows, SUPPORTED_PARAMETERS).write(new DiscardingOutputStream());
+        }
+        logger.info("streaming: {} ms, {} KB allocated per response", (System.nanoTime() - startedAt) / 1000000 / iterations,
+                (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / 1024 / iterations);
+    }
+
+    private static String write(final StreamingOutput output) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        output.write(bytes);
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static ApiRequestJsonSerializationSettings settings(final boolean prettyPrint, final String... fields) {
+        return new ApiRequestJsonSerializationSettings(prettyPrint, new HashSet<>(Arrays.asList(fields)), false, false, false);
+    }
+
+    private static List<Row> rows(final int count) {
+        final List<Row> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Row((long) i, i % 7 == 0 ? null : "row <" + i + ">", new LocalDate(2020, 1, 1).plusDays(i),
+                    BigDecimal.valueOf(i * 100L, 2)));
+        }
+        return rows;
+    }
+
+    private static final class DiscardingOutputStream extends OutputStream {
+
+        @Override
+        public void write(final int b) {}
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {}
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Row {
+
+        private final Long id;
+        private final String name;
+        private final LocalDate date;
+        private final BigDecimal amount;
+
+        Row(final Long id, final String name, final LocalDate date, final BigDecimal amount) {
+            this.id = id;
+            this.name = name;
+            this.date = date;
+            this.amount = amount;
+        }
+    }
+}
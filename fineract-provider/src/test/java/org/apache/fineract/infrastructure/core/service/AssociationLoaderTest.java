@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+public class AssociationLoaderTest {
+
+    private final List<TransactionDefinition> definitions = Collections.synchronizedList(new ArrayList<>());
+    private AssociationLoader loader;
+
+    @After
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (this.loader != null) {
+            this.loader.shutdown();
+        }
+    }
+
+    @Test
+    public void loadsAssociationsConcurrently() {
+        this.loader = loader(4);
+        final CountDownLatch bothStarted = new CountDownLatch(2);
+        final AssociationLoader.Batch batch = this.loader.batch("loan 1");
+
+        final AssociationLoader.Association<Boolean> first = batch.submit("first", () -> awaitOther(bothStarted));
+        final AssociationLoader.Association<Boolean> second = batch.submit("second", () -> awaitOther(bothStarted));
+
+        assertTrue(first.get());
+        assertTrue(second.get());
+        batch.complete();
+    }
+
+    @Test
+    public void loadsInReadOnlyTransactionWithCallerSecurityContext() {
+        this.loader = loader(2);
+        final TestingAuthenticationToken authentication = new TestingAuthenticationToken("mifos", "password");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        final AssociationLoader.Association<Object> principal = this.loader.batch("loan 1").submit("principal",
+                () -> SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+
+        assertEquals("mifos", principal.get());
+        assertEquals(1, this.definitions.size());
+        assertTrue(this.definitions.get(0).isReadOnly());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rethrowsFailureOfAssociation() {
+        this.loader = loader(2);
+
+        this.loader.batch("loan 1").submit("failing", () -> {
+            throw new IllegalArgumentException("missing");
+        }).get();
+    }
+
+    @Test
+    public void loadsOnCallingThreadWithoutThreads() {
+        this.loader = loader(0);
+        final Thread caller = Thread.currentThread();
+
+        final AssociationLoader.Association<Thread> thread = this.loader.batch("loan 1").submit("thread", Thread::currentThread);
+
+        assertEquals(caller, thread.get());
+    }
+
+    @Test
+    public void loadsOnPoolThreadWhenThreadsConfigured() {
+        this.loader = loader(1);
+        final Thread caller = Thread.currentThread();
+
+        final AssociationLoader.Association<Thread> thread = this.loader.batch("loan 1").submit("thread", Thread::currentThread);
+
+        assertNotEquals(caller, thread.get());
+    }
+
+    private AssociationLoader loader(final int threads) {
+        final FineractProperties properties = new FineractProperties();
+        properties.setAssociations(new FineractProperties.FineractPropertiesAssociations(threads, 8));
+        return new AssociationLoader(new RecordingTransactionManager(), properties);
+    }
+
+    private static Boolean awaitOther(final CountDownLatch bothStarted) {
+        bothStarted.countDown();
+        try {
+            return bothStarted.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private final class RecordingTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(final TransactionDefinition definition) {
+            AssociationLoaderTest.this.definitions.add(definition);
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(final TransactionStatus status) {}
+
+        @Override
+        public void rollback(final TransactionStatus status) {}
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.mail.Address;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import org.apache.fineract.infrastructure.configuration.data.SMTPCredentialsData;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+
+public class EmailDeliveryServiceTest {
+
+    private SmtpStubServer smtpServer;
+    private SMTPCredentialsData smtpCredentialsData;
+    private EmailDeliveryService emailDeliveryService;
+
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+    private final Map<String, Exception> failed = new ConcurrentHashMap<>();
+    private final EmailDeliveryCallback<String> callback = new EmailDeliveryCallback<String>() {
+
+        @Override
+        public void delivered(final String key) {
+            EmailDeliveryServiceTest.this.delivered.add(key);
+        }
+
+        @Override
+        public void failed(final String key, final Exception cause) {
+            EmailDeliveryServiceTest.this.failed.put(key, cause);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        this.smtpServer = new SmtpStubServer();
+        this.smtpCredentialsData = new SMTPCredentialsData(null, null, "127.0.0.1", String.valueOf(this.smtpServer.getPort()), false,
+                "fineract@localhost", "Fineract");
+        final FineractProperties fineractProperties = FineractProperties.builder()
+                .email(FineractProperties.FineractPropertiesEmail.builder().threads(2).queueCapacity(10).batchSize(2).maxAttempts(3)
+                        .retryBackoffMillis(1L).build())
+                .build();
+        this.emailDeliveryService = new EmailDeliveryService(new SmtpMailSenderPool(fineractProperties), fineractProperties);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.emailDeliveryService.shutdown();
+        this.smtpServer.close();
+    }
+
+    @Test
+    public void sendsEveryBatchOverOneConnection() {
+        this.emailDeliveryService.deliver(this.smtpCredentialsData, messages("a@localhost", "b@localhost", "c@localhost",
+                "d@localhost", "e@localhost"), this.callback).join();
+
+        assertEquals(5, this.delivered.size());
+        assertTrue(this.failed.isEmpty());
+        assertEquals(5, this.smtpServer.getRecipients().size());
+        assertEquals(3, this.smtpServer.getConnections());
+    }
+
+    @Test
+    public void retriesTemporaryFailures() {
+        this.smtpServer.failNextMessages(2);
+
+        this.emailDeliveryService.deliver(this.smtpCredentialsData, messages("a@localhost", "b@localhost"), this.callback).join();
+
+        assertEquals(Arrays.asList("a@localhost", "b@localhost"), this.smtpServer.getRecipients());
+        assertEquals(2, this.delivered.size());
+        assertTrue(this.failed.isEmpty());
+    }
+
+    @Test
+    public void reportsMessagesThatKeepFailing() {
+        this.smtpServer.failNextMessages(5);
+
+        this.emailDeliveryService.deliver(this.smtpCredentialsData, messages("a@localhost"), this.callback).join();
+
+        assertTrue(this.delivered.isEmpty());
+        assertEquals(Collections.singleton("a@localhost"), this.failed.keySet());
+        assertEquals(3, this.smtpServer.getConnections());
+    }
+
+    @Test
+    public void doesNotRetryRejectedRecipients() {
+        this.emailDeliveryService.deliver(this.smtpCredentialsData, messages("a@localhost", "reject@localhost"), this.callback).join();
+
+        assertEquals(Collections.singletonList("a@localhost"), this.delivered);
+        assertEquals(Collections.singleton("reject@localhost"), this.failed.keySet());
+        assertEquals(1, this.smtpServer.getConnections());
+    }
+
+    @Test
+    public void doesNotRetryPartiallySentMessages() throws Exception {
+        final JavaMailSender mailSender = mock(JavaMailSender.class);
+        final MimeMessage mimeMessage = new MimeMessage(Session.getInstance(new Properties()));
+        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
+        final SendFailedException partiallySent = new SendFailedException("451 try again later", null,
+                new Address[] { new InternetAddress("a@localhost") }, new Address[] { new InternetAddress("b@localhost") }, null);
+        doThrow(new MailSendException(Collections.singletonMap(mimeMessage, partiallySent))).when(mailSender)
+                .send((MimeMessage[]) any());
+        final SmtpMailSenderPool mailSenderPool = mock(SmtpMailSenderPool.class);
+        when(mailSenderPool.getMailSender(this.smtpCredentialsData)).thenReturn(mailSender);
+        final EmailDeliveryService emailDeliveryService = new EmailDeliveryService(mailSenderPool, FineractProperties.builder()
+                .email(FineractProperties.FineractPropertiesEmail.builder().threads(0).maxAttempts(3).retryBackoffMillis(1L).build())
+                .build());
+
+        emailDeliveryService.deliver(this.smtpCredentialsData, messages("a@localhost"), this.callback).join();
+
+        assertTrue(this.delivered.isEmpty());
+        assertEquals(Collections.singleton("a@localhost"), this.failed.keySet());
+        verify(mailSender, times(1)).send((MimeMessage[]) any());
+    }
+
+    @Test(expected = PlatformEmailSendException.class)
+    public void sendThrowsWhenTheMessageCannotBeDelivered() {
+        this.emailDeliveryService.send(this.smtpCredentialsData, message("reject@localhost"));
+    }
+
+    private static Map<String, MimeMessagePreparator> messages(final String... recipients) {
+        final Map<String, MimeMessagePreparator> messages = new LinkedHashMap<>();
+        for (final String recipient : recipients) {
+            messages.put(recipient, message(recipient));
+        }
+        return messages;
+    }
+
+    private static MimeMessagePreparator message(final String recipient) {
+        return mimeMessage -> {
+            final MimeMessageHelper message = new MimeMessageHelper(mimeMessage);
+            message.setFrom("fineract@localhost");
+            message.setTo(recipient);
+            message.setSubject("Statement");
+            message.setText("Your statement is ready.");
+        };
+    }
+}
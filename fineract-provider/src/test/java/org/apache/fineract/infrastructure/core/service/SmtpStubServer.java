@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A minimal SMTP server for tests: accepts every message except those for
+ * recipients starting with "reject", and answers the first
+ * {@link #failNextMessages(int)} messages with a temporary failure.
+ */
+final class SmtpStubServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final List<String> recipients = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger temporaryFailures = new AtomicInteger();
+
+    SmtpStubServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        final Thread acceptor = new Thread(this::accept, "smtp-stub");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    List<String> getRecipients() {
+        return this.recipients;
+    }
+
+    int getConnections() {
+        return this.connections.get();
+    }
+
+    void failNextMessages(final int count) {
+        this.temporaryFailures.set(count);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+    }
+
+    private void accept() {
+        while (!this.serverSocket.isClosed()) {
+            try {
+                final Socket socket = this.serverSocket.accept();
+                this.connections.incrementAndGet();
+                final Thread session = new Thread(() -> converse(socket), "smtp-stub-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (final IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void converse(final Socket socket) {
+        try (Socket s = socket;
+                BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+                PrintWriter out = new PrintWriter(s.getOutputStream(), true)) {
+            reply(out, "220 localhost SMTP stub");
+            String recipient = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                final String command = line.toUpperCase();
+                if (command.startsWith("RCPT TO:")) {
+                    recipient = line.substring(8).trim().replaceAll("[<>]", "");
+                    reply(out, recipient.startsWith("reject") ? "550 mailbox unavailable" : "250 OK");
+                } else if (command.startsWith("DATA")) {
+                    reply(out, "354 end data with <CR><LF>.<CR><LF>");
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        // the message content is not of interest
+                    }
+                    if (this.temporaryFailures.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+                        reply(out, "451 try again later");
+                    } else {
+                        this.recipients.add(recipient);
+                        reply(out, "250 OK");
+                    }
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 bye");
+                    return;
+                } else {
+                    reply(out, "250 OK");
+                }
+            }
+        } catch (final IOException e) {
+            // the client went away
+        }
+    }
+
+    private static void reply(final PrintWriter out, final String reply) {
+        out.print(reply + "\r\n");
+        out.flush();
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.documentmanagement.api;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileContentResponseBuilderTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        this.file = File.createTempFile("content", ".txt");
+        Files.write(this.file.toPath(), "0123456789".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @After
+    public void tearDown() {
+        this.file.delete();
+    }
+
+    @Test
+    public void streamsWholeFileWithoutRange() throws IOException {
+        final Response response = FileContentResponseBuilder.build(null, null, this.file).build();
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", body(response));
+    }
+
+    @Test
+    public void streamsRequestedByteRange() throws IOException {
+        final Response response = FileContentResponseBuilder.build(null, "bytes=2-5", this.file).build();
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeaderString("Content-Range"));
+        assertEquals("2345", body(response));
+    }
+
+    @Test
+    public void streamsSuffixRange() throws IOException {
+        final Response response = FileContentResponseBuilder.build(null, "bytes=-3", this.file).build();
+
+        assertEquals(206, response.getStatus());
+        assertEquals("789", body(response));
+    }
+
+    @Test
+    public void rejectsRangeOutsideFile() {
+        final Response response = FileContentResponseBuilder.build(null, "bytes=20-", this.file).build();
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeaderString("Content-Range"));
+    }
+
+    private static String body(final Response response) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(out);
+        return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.documentmanagement.contentrepository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.infrastructure.documentmanagement.data.ImageData;
+import org.apache.fineract.infrastructure.documentmanagement.domain.StorageType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ImageRenditionCacheTest {
+
+    private static final String LOCATION = "images/clients/1/photo.png";
+
+    private ImageRenditionCache imageRenditionCache;
+
+    @Before
+    public void setUp() {
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setTenantId("ImageRenditionCacheTest");
+        this.imageRenditionCache = new ImageRenditionCache(fineractProperties);
+    }
+
+    @After
+    public void tearDown() {
+        this.imageRenditionCache.evict(LOCATION);
+    }
+
+    @Test
+    public void bucketsRoundRequestedSizesDown() {
+        assertEquals(20, ImageRenditionCache.bucket(20));
+        assertEquals(96, ImageRenditionCache.bucket(100));
+        assertEquals(2048, ImageRenditionCache.bucket(5000));
+    }
+
+    @Test
+    public void anImageWithoutContentHasNoRendition() {
+        // what S3ContentRepository leaves behind when the object could not be fetched
+        final ImageData imageData = new ImageData(1L, LOCATION, StorageType.S3.getValue(), "client");
+        imageData.updateContent(null, "1");
+
+        assertNull(this.imageRenditionCache.retrieveRendition(imageData, 64, 64));
+    }
+}
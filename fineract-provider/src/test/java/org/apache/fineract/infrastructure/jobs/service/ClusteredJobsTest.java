@@ -0,0 +1,237 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties.FineractPropertiesJobs;
+import org.apache.fineract.infrastructure.jobs.data.JobPartition;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobListener;
+import org.quartz.Scheduler;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerListener;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MySQLContainer;
+
+/**
+ * Several schedulers and partition runners in one JVM standing in for the
+ * nodes of a cluster, sharing one MySQL database.
+ */
+public class ClusteredJobsTest {
+
+    private static final int NODES = 3;
+    private static final Queue<Long> FIRED = new ConcurrentLinkedQueue<>();
+
+    private static MySQLContainer<?> mysql;
+    private static DataSource dataSource;
+
+    @BeforeClass
+    public static void startDatabase() {
+        Assume.assumeTrue("Docker is not available", DockerClientFactory.instance().isDockerAvailable());
+        mysql = new MySQLContainer<>("mysql:5.7").withUsername("root");
+        mysql.start();
+        dataSource = new DriverManagerDataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V360__job_cluster.sql")).execute(dataSource);
+    }
+
+    @AfterClass
+    public static void stopDatabase() {
+        if (mysql != null) {
+            mysql.stop();
+        }
+    }
+
+    @Test
+    public void triggerFiresOnceAcrossTheCluster() throws Exception {
+        final StaticApplicationContext applicationContext = new StaticApplicationContext();
+        applicationContext.refresh();
+        final List<Scheduler> schedulers = new ArrayList<>();
+        try {
+            for (int node = 0; node < NODES; node++) {
+                final Scheduler scheduler = new JobSchedulerFactory(applicationContext, dataSource, clusteredProperties())
+                        .createScheduler("ClusteredJobsTest", 2, true, new TriggerListener[0], new JobListener[0]);
+                schedulers.add(scheduler);
+            }
+            // every node schedules the same job at startup, like JobRegisterServiceImpl
+            for (final Scheduler scheduler : schedulers) {
+                final JobDetail jobDetail = JobBuilder.newJob(RecordingJob.class).withIdentity("recordingJob").storeDurably().build();
+                final Trigger trigger = TriggerBuilder.newTrigger().withIdentity("recordingTrigger").forJob(jobDetail)
+                        .startAt(new Date(System.currentTimeMillis() + 2000))
+                        .withSchedule(SimpleScheduleBuilder.simpleSchedule().withIntervalInMilliseconds(500).withRepeatCount(5)).build();
+                scheduler.scheduleJob(jobDetail, Collections.singleton(trigger), true);
+            }
+
+            final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+            while (FIRED.size() < 6 && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+            TimeUnit.SECONDS.sleep(2);
+
+            assertEquals(FIRED.toString(), 6, FIRED.size());
+            assertEquals(FIRED.toString(), 6, new HashSet<>(FIRED).size());
+        } finally {
+            for (final Scheduler scheduler : schedulers) {
+                scheduler.shutdown(true);
+            }
+        }
+    }
+
+    @Test
+    public void everyPartitionIsProcessedOnceByTheNodesOfTheRun() throws Exception {
+        final List<JobPartitionRunner> runners = new ArrayList<>();
+        for (int node = 0; node < NODES; node++) {
+            runners.add(new JobPartitionRunner(null, new JobPartitionLeaseServiceImpl(dataSource), clusteredProperties()));
+        }
+        final Queue<Long> processed = new ConcurrentLinkedQueue<>();
+        final Function<JobPartition, String> processor = (partition) -> {
+            processed.add(partition.getFromId());
+            try {
+                TimeUnit.MILLISECONDS.sleep(20);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return partition.getFromId() == 101L ? "failed loan 101;" : "";
+        };
+
+        final ExecutorService nodes = Executors.newFixedThreadPool(NODES);
+        final AtomicBoolean finished = new AtomicBoolean();
+        try {
+            final Future<String> started = nodes.submit(() -> {
+                try {
+                    return runners.get(0).run(JobName.ADD_ACCRUAL_ENTRIES, "2020-01-01", 2, (after) -> partitions(after, 50), processor);
+                } finally {
+                    finished.set(true);
+                }
+            });
+            // the other nodes join the run like JobPartitionWorker does
+            for (int node = 1; node < NODES; node++) {
+                final JobPartitionRunner runner = runners.get(node);
+                nodes.submit(() -> {
+                    while (!finished.get()) {
+                        runner.join(() -> runner.run(JobName.ADD_ACCRUAL_ENTRIES, "2020-01-01", 2, (after) -> {
+                            throw new IllegalStateException("a node joining the run must not publish partitions");
+                        }, processor));
+                        TimeUnit.MILLISECONDS.sleep(50);
+                    }
+                    return null;
+                });
+            }
+
+            assertEquals("failed loan 101;", started.get(60, TimeUnit.SECONDS));
+        } finally {
+            nodes.shutdownNow();
+        }
+
+        final List<Long> fromIds = new ArrayList<>(processed);
+        Collections.sort(fromIds);
+        assertEquals(50, fromIds.size());
+        assertEquals(50, new HashSet<>(fromIds).size());
+        assertEquals(Long.valueOf(1L), fromIds.get(0));
+        assertEquals(Long.valueOf(491L), fromIds.get(49));
+        assertFalse(new JobPartitionLeaseServiceImpl(dataSource).isPublished(JobName.ADD_ACCRUAL_ENTRIES, "2020-01-01"));
+    }
+
+    @Test
+    public void partitionsOfACrashedNodeAreClaimedAgainAfterTheirLeaseExpired() throws Exception {
+        final JobPartitionLeaseService leases = new JobPartitionLeaseServiceImpl(dataSource);
+        leases.publish(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, "2020-01-02", partitions(0L, 5));
+        // the crashed node completed the first partition and died while holding the second
+        assertEquals(Long.valueOf(1L), leases.claim(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, "2020-01-02", "crashed#1", 60).getFromId());
+        assertTrue(leases.complete("crashed#1", ""));
+        assertEquals(Long.valueOf(11L), leases.claim(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, "2020-01-02", "crashed#2", 1).getFromId());
+        TimeUnit.SECONDS.sleep(2);
+
+        final Set<Long> processed = Collections.synchronizedSet(new HashSet<>());
+        final String errors = new JobPartitionRunner(null, leases, clusteredProperties()).run(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES,
+                "2020-01-02", 2, (after) -> {
+                    fail("the partitions published before are resumed");
+                    return null;
+                }, (partition) -> {
+                    processed.add(partition.getFromId());
+                    return "";
+                });
+
+        assertEquals("", errors);
+        assertEquals(new HashSet<>(Arrays.asList(11L, 21L, 31L, 41L)), processed);
+        assertEquals(Integer.valueOf(0), new JdbcTemplate(dataSource).queryForObject("select count(*) from job_partition_lease",
+                Integer.class));
+    }
+
+    private static FineractProperties clusteredProperties() {
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setJobs(FineractPropertiesJobs.builder().clustered(true).clusterCheckinIntervalMillis(1000)
+                .partitionLeaseSeconds(30).partitionPollSeconds(1).build());
+        return fineractProperties;
+    }
+
+    private static List<JobPartition> partitions(final Long after, final int count) {
+        final List<JobPartition> partitions = new ArrayList<>();
+        for (long from = after + 1; from <= count * 10; from += 10) {
+            partitions.add(new JobPartition(from, from + 9));
+        }
+        return partitions;
+    }
+
+    @DisallowConcurrentExecution
+    public static class RecordingJob implements Job {
+
+        @Override
+        public void execute(final JobExecutionContext context) {
+            FIRED.add(context.getScheduledFireTime().getTime());
+        }
+    }
+}
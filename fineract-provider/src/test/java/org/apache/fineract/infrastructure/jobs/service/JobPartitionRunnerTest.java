@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.infrastructure.jobs.data.JobPartition;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JobPartitionRunnerTest {
+
+    private InMemoryJobCheckpointService checkpoints;
+    private JobPartitionRunner runner;
+
+    @Before
+    public void setUp() {
+        this.checkpoints = new InMemoryJobCheckpointService();
+        this.runner = new JobPartitionRunner(this.checkpoints, null, new FineractProperties());
+    }
+
+    @Test
+    public void processesAllPartitionsAndClearsCheckpoint() {
+        final List<Long> processed = Collections.synchronizedList(new ArrayList<>());
+        final String errors = this.runner.run(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, "2020-01-01", 3, (after) -> partitions(after, 10),
+                (partition) -> {
+                    processed.add(partition.getFromId());
+                    return "";
+                });
+
+        assertEquals("", errors);
+        assertEquals(10, processed.size());
+        assertNull(this.checkpoints.retrieve(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, "completedUpTo"));
+        assertNull(this.checkpoints.retrieve(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, "runKey"));
+    }
+
+    @Test
+    public void resumesAfterLastCompletedPartitionOfSameRun() {
+        this.checkpoints.store(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, "runKey", "2020-01-01");
+        this.checkpoints.store(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, "completedUpTo", 40L);
+        final List<Long> afterIds = new ArrayList<>();
+
+        this.runner.run(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, "2020-01-01", 2, (after) -> {
+            afterIds.add(after);
+            return partitions(after, 10);
+        }, (partition) -> "");
+
+        assertEquals(Collections.singletonList(40L), afterIds);
+    }
+
+    @Test
+    public void startsOverForDifferentRunKey() {
+        this.checkpoints.store(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, "runKey", "2020-01-01");
+        this.checkpoints.store(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, "completedUpTo", 40L);
+        final List<Long> afterIds = new ArrayList<>();
+
+        this.runner.run(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, "2020-01-02", 2, (after) -> {
+            afterIds.add(after);
+            return partitions(after, 10);
+        }, (partition) -> "");
+
+        assertEquals(Collections.singletonList(0L), afterIds);
+    }
+
+    @Test
+    public void collectsErrorsOfFailedPartitions() {
+        final String errors = this.runner.run(JobName.ADD_ACCRUAL_ENTRIES, "2020-01-01", 2, (after) -> partitions(after, 4),
+                (partition) -> {
+                    if (partition.getFromId() == 11L) { throw new IllegalStateException("boom"); }
+                    return partition.getFromId() == 21L ? "failed loan 21;" : "";
+                });
+
+        assertTrue(errors, errors.contains("failed loan 21;"));
+        assertTrue(errors, errors.contains("boom"));
+    }
+
+    @Test
+    public void recordsProgressOfEveryPartitionOnce() {
+        this.runner.run(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT, "2020-01-01", 2, (after) -> partitions(after, 3),
+                (partition) -> partition.getFromId() == 11L ? "failed loan 11;" : "");
+
+        final String progress = this.runner.retrieveProgress(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT.toString());
+        assertEquals(progress, 3, progress.split("\n").length);
+        assertTrue(progress, progress.contains("partition [1..10] completed in "));
+        assertTrue(progress, progress.contains("partition [11..20] completed with errors in "));
+        assertNull(this.runner.retrieveProgress(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT.toString()));
+    }
+
+    @Test
+    public void doesNotCheckpointFailedPartitions() {
+        this.runner.run(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, "2020-01-01", 1, (after) -> partitions(after, 3), (partition) -> {
+            if (partition.getFromId() == 1L) { throw new IllegalStateException("boom"); }
+            return "";
+        });
+
+        assertTrue(this.checkpoints.stored.toString(), this.checkpoints.stored.isEmpty());
+    }
+
+    private static List<JobPartition> partitions(final Long after, final int count) {
+        final List<JobPartition> partitions = new ArrayList<>();
+        for (long from = after + 1; from <= count * 10; from += 10) {
+            partitions.add(new JobPartition(from, from + 9));
+        }
+        return partitions;
+    }
+
+    private static final class InMemoryJobCheckpointService implements JobCheckpointService {
+
+        private final Map<String, String> values = new HashMap<>();
+        private final List<String> stored = new ArrayList<>();
+
+        @Override
+        public synchronized String retrieve(final JobName jobName, final String key) {
+            return this.values.get(jobName + key);
+        }
+
+        @Override
+        public Long retrieveLong(final JobName jobName, final String key) {
+            final String value = retrieve(jobName, key);
+            return value == null ? null : Long.valueOf(value);
+        }
+
+        @Override
+        public synchronized void store(final JobName jobName, final String key, final String value) {
+            this.values.put(jobName + key, value);
+            if ("completedUpTo".equals(key)) {
+                this.stored.add(value);
+            }
+        }
+
+        @Override
+        public void store(final JobName jobName, final String key, final Long value) {
+            store(jobName, key, String.valueOf(value));
+        }
+
+        @Override
+        public synchronized void remove(final JobName jobName, final String key) {
+            this.values.remove(jobName + key);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+
+import javax.sql.DataSource;
+
+import org.apache.fineract.notification.data.NotificationData;
+import org.apache.fineract.notification.service.NotificationPushServiceImpl;
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class NotificationPushServiceImplTest {
+
+    private static final Long USER_ID = 7L;
+
+    private JdbcTemplate jdbcTemplate;
+    private NotificationPushServiceImpl notificationPushService;
+
+    @Before
+    public void setUp() {
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        this.notificationPushService = new NotificationPushServiceImpl(mock(DataSource.class));
+        ReflectionTestUtils.setField(this.notificationPushService, "jdbcTemplate", this.jdbcTemplate);
+    }
+
+    @After
+    public void tearDown() {
+        this.notificationPushService.closeStreams();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void unreadCountIsReusedWithinItsLifetime() {
+        unreadInDatabase(3L);
+
+        assertEquals(3, this.notificationPushService.getUnreadCount(USER_ID));
+        assertEquals(3, this.notificationPushService.getUnreadCount(USER_ID));
+
+        verify(this.jdbcTemplate, times(1)).queryForObject(anyString(), eq(Long.class), any());
+    }
+
+    @Test
+    public void unreadCountIsCountedAgainAfterANotificationWithoutStream() {
+        unreadInDatabase(3L);
+        this.notificationPushService.getUnreadCount(USER_ID);
+
+        unreadInDatabase(4L);
+        this.notificationPushService.notificationCreated(Collections.singletonList(USER_ID), notification());
+
+        assertEquals(4, this.notificationPushService.getUnreadCount(USER_ID));
+    }
+
+    @Test
+    public void readingNotificationsResetsTheUnreadCountOnlyOnceCommitted() {
+        unreadInDatabase(3L);
+        this.notificationPushService.getUnreadCount(USER_ID);
+
+        TransactionSynchronizationManager.initSynchronization();
+        this.notificationPushService.notificationsRead(USER_ID);
+        assertEquals(3, this.notificationPushService.getUnreadCount(USER_ID));
+
+        commit();
+        assertEquals(0, this.notificationPushService.getUnreadCount(USER_ID));
+        verify(this.jdbcTemplate, times(1)).queryForObject(anyString(), eq(Long.class), any());
+    }
+
+    @Test
+    public void subscribersGetTheUnreadCountAndNewNotifications() {
+        unreadInDatabase(1L);
+        final EventOutput eventOutput = this.notificationPushService.subscribe(USER_ID);
+
+        unreadInDatabase(2L);
+        this.notificationPushService.notificationCreated(Collections.singletonList(USER_ID), notification());
+
+        final List<OutboundEvent> events = queuedEvents(eventOutput);
+        assertEquals(3, events.size());
+        assertEquals("unread", events.get(0).getName());
+        assertEquals("{\"unreadCount\":1}", events.get(0).getData());
+        assertEquals("notification", events.get(1).getName());
+        assertTrue(String.valueOf(events.get(1).getData()), String.valueOf(events.get(1).getData()).contains("\"objectType\":\"loan\""));
+        assertEquals("unread", events.get(2).getName());
+        assertEquals("{\"unreadCount\":2}", events.get(2).getData());
+    }
+
+    @Test
+    public void subscribersGetAZeroUnreadCountOnceNotificationsAreRead() {
+        unreadInDatabase(2L);
+        final EventOutput eventOutput = this.notificationPushService.subscribe(USER_ID);
+
+        this.notificationPushService.notificationsRead(USER_ID);
+
+        final List<OutboundEvent> events = queuedEvents(eventOutput);
+        assertEquals(2, events.size());
+        assertEquals("{\"unreadCount\":0}", events.get(1).getData());
+    }
+
+    private void unreadInDatabase(final Long count) {
+        when(this.jdbcTemplate.queryForObject(anyString(), eq(Long.class), any())).thenReturn(count);
+    }
+
+    private static NotificationData notification() {
+        return new NotificationData("loan", 1L, "approved", 2L, "Loan approved", false, false, "default", 1L,
+                Collections.singletonList(USER_ID));
+    }
+
+    private static void commit() {
+        final List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (final TransactionSynchronization synchronization : synchronizations) {
+            synchronization.afterCommit();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<OutboundEvent> queuedEvents(final EventOutput eventOutput) {
+        // the stream is not attached to a response, so Jersey keeps the events queued
+        return new ArrayList<>((BlockingDeque<OutboundEvent>) ReflectionTestUtils.getField(eventOutput, "queue"));
+    }
+}
@@ -25,6 +25,7 @@ import org.apache.fineract.notification.domain.NotificationMapper;
 import org.apache.fineract.notification.service.NotificationGeneratorReadRepositoryWrapper;
 import org.apache.fineract.notification.service.NotificationGeneratorWritePlatformService;
 import org.apache.fineract.notification.service.NotificationMapperWritePlatformService;
+import org.apache.fineract.notification.service.NotificationPushService;
 import org.apache.fineract.notification.service.NotificationWritePlatformServiceImpl;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.apache.fineract.useradministration.domain.AppUserRepository;
@@ -36,7 +37,9 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.security.core.userdetails.User;
 
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
@@ -59,13 +62,17 @@ public class StorageTest {
     @Mock
     private AppUserRepository appUserRepository;
 
+    @Mock
+    private NotificationPushService notificationPushService;
+
     @Before
     public void setUp() {
         notificationWritePlatformServiceImpl = new NotificationWritePlatformServiceImpl(
                 notificationGeneratorWritePlatformService,
                 notificationGeneratorReadRepositoryWrapper,
                 appUserRepository,
-                notificationMapperWritePlatformService);
+                notificationMapperWritePlatformService,
+                notificationPushService);
     }
 
     @Test
@@ -123,9 +130,34 @@ public class StorageTest {
         verify(this.notificationGeneratorWritePlatformService, times(1)).create(refEq(notification));
         verify(this.notificationMapperWritePlatformService, times(1)).create(refEq(notificationMapper));
         verify(this.notificationGeneratorReadRepositoryWrapper, times(1)).findById(1L);
+        verify(this.notificationPushService, times(1)).notificationCreated(eq(Collections.singletonList(userId)), any());
         assertEquals(actualGeneratedNotificationId, new Long(1));
     }
 
+    @Test
+    public void testNotificationStorageForManyUsersIsBulkInserted() {
+        List<Long> userIds = Arrays.asList(1L, 2L, 3L);
+
+        when(this.notificationGeneratorWritePlatformService.create(any(Notification.class))).thenReturn(7L);
+
+        Long actualGeneratedNotificationId =
+                notificationWritePlatformServiceImpl.notify(
+                        userIds,
+                        "CLIENT",
+                        1L,
+                        "created",
+                        1L,
+                        "A client was created",
+                        false
+                );
+
+        verify(this.notificationMapperWritePlatformService, times(1)).createAll(eq(7L), eq(userIds), anyString());
+        verify(this.notificationMapperWritePlatformService, never()).create(any(NotificationMapper.class));
+        verify(this.appUserRepository, never()).findById(anyLong());
+        verify(this.notificationPushService, times(1)).notificationCreated(eq(userIds), any());
+        assertEquals(actualGeneratedNotificationId, new Long(7));
+    }
+
     private String getCurrentDateTime() {
         Date date = new Date();
         SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.collectionsheet.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepository;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepositoryWrapper;
+import org.apache.fineract.portfolio.savings.DepositAccountType;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepository;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.core.env.PropertiesPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MySQLContainer;
+
+/**
+ * Counts the statements needed to load the loans and savings accounts of a
+ * collection sheet and to look each of them up again while its row is
+ * processed, which must not grow with the number of rows.
+ */
+public class CollectionSheetStatementCountTest {
+
+    private static final String PLACEHOLDER_PREFIX = "spring.flyway.placeholders.";
+
+    private static MySQLContainer<?> mysql;
+    private static DataSource dataSource;
+    private static LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+
+    @BeforeClass
+    public static void startDatabase() throws IOException {
+        Assume.assumeTrue("Docker is not available", DockerClientFactory.instance().isDockerAvailable());
+        mysql = new MySQLContainer<>("mysql:5.7").withUsername("root");
+        mysql.start();
+        dataSource = new DriverManagerDataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+        Flyway.configure().dataSource(dataSource).placeholders(flywayPlaceholders()).load().migrate();
+        insertSheetRows(1, 8);
+
+        final Map<String, Object> jpaProperties = new HashMap<>();
+        jpaProperties.put("hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.PhysicalNamingStrategyStandardImpl");
+        jpaProperties.put("hibernate.dialect", "org.hibernate.dialect.MySQL5Dialect");
+        jpaProperties.put("hibernate.generate_statistics", "true");
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setPackagesToScan("org.apache.fineract");
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaPropertyMap(jpaProperties);
+        entityManagerFactoryBean.afterPropertiesSet();
+    }
+
+    @AfterClass
+    public static void stopDatabase() {
+        if (entityManagerFactoryBean != null) {
+            entityManagerFactoryBean.destroy();
+        }
+        if (mysql != null) {
+            mysql.stop();
+        }
+    }
+
+    @Test
+    public void loadingASheetTakesAsManyStatementsForTwoRowsAsForEight() {
+        final long twoRows = statementsToProcessSheet(rowIds(1, 2));
+        final long eightRows = statementsToProcessSheet(rowIds(1, 8));
+
+        assertEquals(twoRows, eightRows);
+    }
+
+    private static long statementsToProcessSheet(final List<Long> ids) {
+        final EntityManagerFactory entityManagerFactory = entityManagerFactoryBean.getObject();
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            final JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(entityManager);
+            final LoanRepositoryWrapper loanRepository = new LoanRepositoryWrapper(repositoryFactory.getRepository(LoanRepository.class),
+                    dataSource);
+            final SavingsAccountRepositoryWrapper savingsAccountRepository = new SavingsAccountRepositoryWrapper(
+                    repositoryFactory.getRepository(SavingsAccountRepository.class));
+            statistics.clear();
+
+            // what CollectionSheetWritePlatformServiceJpaRepositoryImpl does before it walks the rows
+            loanRepository.findByIdsWithNotFoundDetection(ids, true);
+            savingsAccountRepository.prefetch(ids);
+            for (final Long id : ids) {
+                loanRepository.findOneWithNotFoundDetection(id, true);
+                savingsAccountRepository.findOneWithNotFoundDetection(id, DepositAccountType.SAVINGS_DEPOSIT);
+            }
+            return statistics.getPrepareStatementCount();
+        } finally {
+            entityManager.getTransaction().rollback();
+            entityManager.close();
+        }
+    }
+
+    private static List<Long> rowIds(final long from, final long to) {
+        final List<Long> ids = new ArrayList<>();
+        for (long id = from; id <= to; id++) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    /**
+     * One client with an active loan and an active savings account per row,
+     * all sharing the same id. Columns the mapping does not need are left to
+     * their implicit defaults.
+     */
+    private static void insertSheetRows(final long from, final long to) {
+        final SingleConnectionDataSource connection = new SingleConnectionDataSource(mysql.getJdbcUrl(), mysql.getUsername(),
+                mysql.getPassword(), true);
+        try {
+            final JdbcTemplate jdbcTemplate = new JdbcTemplate(connection);
+            jdbcTemplate.execute("SET SESSION sql_mode = ''");
+            jdbcTemplate.update("insert into m_product_loan (id, name, short_name, currency_code, currency_digits) values (1, 'sheet', 'sht', 'USD', 2)");
+            jdbcTemplate.update("insert into m_savings_product (id, name, short_name, description, currency_code, currency_digits, deposit_type_enum) "
+                    + "values (1, 'sheet', 'sht', 'sheet', 'USD', 2, 100)");
+            for (long id = from; id <= to; id++) {
+                jdbcTemplate.update("insert into m_client (id, account_no, office_id, status_enum, display_name) values (?, ?, 1, 300, ?)", id,
+                        "C" + id, "client " + id);
+                jdbcTemplate.update("insert into m_loan (id, account_no, client_id, product_id, loan_status_id, loan_type_enum, currency_code, "
+                        + "currency_digits, principal_amount) values (?, ?, ?, 1, 300, 1, 'USD', 2, 1000)", id, "L" + id, id);
+                jdbcTemplate.update("insert into m_savings_account (id, account_no, client_id, product_id, status_enum, deposit_type_enum, "
+                        + "currency_code, currency_digits) values (?, ?, ?, 1, 300, 100, 'USD', 2)", id, "S" + id, id);
+            }
+        } finally {
+            connection.destroy();
+        }
+    }
+
+    private static Map<String, String> flywayPlaceholders() throws IOException {
+        final Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        final StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addLast(new PropertiesPropertySource("application", properties));
+        final Map<String, String> placeholders = new HashMap<>();
+        for (final String key : properties.stringPropertyNames()) {
+            if (key.startsWith(PLACEHOLDER_PREFIX)) {
+                final String name = key.substring(PLACEHOLDER_PREFIX.length()).replace("['", "").replace("']", "");
+                placeholders.put(name, environment.resolvePlaceholders(properties.getProperty(key)));
+            }
+        }
+        return placeholders;
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.common.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.domain.AbstractPersistableCustom;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_ENTITY;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class BusinessEventNotifierServiceImplTest {
+
+    private BusinessEventOutboxService outbox;
+    private BusinessEventNotifierServiceImpl notifier;
+
+    @Before
+    public void setUp() {
+        this.outbox = Mockito.mock(BusinessEventOutboxService.class);
+        this.notifier = new BusinessEventNotifierServiceImpl(this.outbox, new FineractProperties());
+    }
+
+    @Test
+    public void runsSynchronousListenersInlineAndEnqueuesTheOthers() {
+        final RecordingListner synchronous = new RecordingSynchronousListner();
+        final RecordingListner afterCommit = new RecordingListner();
+        this.notifier.addBusinessEventPostListners(BUSINESS_EVENTS.SHARE_PRODUCT_DIVIDENDS_CREATE, synchronous);
+        this.notifier.addBusinessEventPostListners(BUSINESS_EVENTS.SHARE_PRODUCT_DIVIDENDS_CREATE, afterCommit);
+
+        this.notifier.notifyBusinessEventWasExecuted(BUSINESS_EVENTS.SHARE_PRODUCT_DIVIDENDS_CREATE, entities(BUSINESS_ENTITY.SHARE_PRODUCT, 7L));
+
+        assertEquals(1, synchronous.events.size());
+        assertEquals(0, afterCommit.events.size());
+        Mockito.verify(this.outbox).enqueue(BUSINESS_EVENTS.SHARE_PRODUCT_DIVIDENDS_CREATE,
+                Collections.singletonList(RecordingListner.class.getName()), "SHARE_PRODUCT", 7L,
+                "{\"SHARE_PRODUCT\":{\"type\":\"java.lang.Long\",\"value\":7}}", null);
+    }
+
+    @Test
+    public void runsAllListenersInlineWithoutOutbox() {
+        final FineractProperties properties = new FineractProperties();
+        properties.setEvents(FineractProperties.FineractPropertiesEvents.builder().outboxEnabled(false).build());
+        this.notifier = new BusinessEventNotifierServiceImpl(this.outbox, properties);
+        final RecordingListner listner = new RecordingListner();
+        this.notifier.addBusinessEventPostListners(BUSINESS_EVENTS.LOAN_APPROVED, listner);
+
+        this.notifier.notifyBusinessEventWasExecuted(BUSINESS_EVENTS.LOAN_APPROVED, entities(BUSINESS_ENTITY.LOAN, new TestEntity(3L)));
+
+        assertEquals(1, listner.events.size());
+        Mockito.verifyNoInteractions(this.outbox);
+    }
+
+    @Test
+    public void tellsListenersOfTheSameClassApart() {
+        final RecordingListner first = new RecordingListner();
+        final RecordingListner second = new RecordingListner();
+        this.notifier.addBusinessEventPostListners(BUSINESS_EVENTS.SAVINGS_DEPOSIT, first);
+        this.notifier.addBusinessEventPostListners(BUSINESS_EVENTS.SAVINGS_DEPOSIT, second);
+
+        this.notifier.notifyBusinessEventWasExecuted(BUSINESS_EVENTS.SAVINGS_DEPOSIT, entities(BUSINESS_ENTITY.CLIENT, new TestEntity(3L)));
+
+        final String key = RecordingListner.class.getName();
+        Mockito.verify(this.outbox).enqueue(Mockito.eq(BUSINESS_EVENTS.SAVINGS_DEPOSIT), Mockito.eq(Arrays.asList(key, key + "#1")),
+                Mockito.eq("CLIENT"), Mockito.eq(3L), Mockito.anyString(), Mockito.isNull());
+        assertSame(first, this.notifier.findBusinessEventPostListner(BUSINESS_EVENTS.SAVINGS_DEPOSIT, key));
+        assertSame(second, this.notifier.findBusinessEventPostListner(BUSINESS_EVENTS.SAVINGS_DEPOSIT, key + "#1"));
+        assertNull(this.notifier.findBusinessEventPostListner(BUSINESS_EVENTS.SAVINGS_DEPOSIT, key + "#2"));
+    }
+
+    @Test
+    public void reloadsEntitiesAndRestoresOtherValuesFromThePayload() {
+        final Map<BUSINESS_ENTITY, Object> businessEventEntity = entities(BUSINESS_ENTITY.LOAN_PRODUCT, new TestEntity(11L));
+        final CommandProcessingResult result = new CommandProcessingResultBuilder().withGroupId(5L).withOfficeId(2L).build();
+        businessEventEntity.put(BUSINESS_ENTITY.GROUP, result);
+        final TestEntity reloaded = new TestEntity(11L);
+        final EntityManager entityManager = Mockito.mock(EntityManager.class);
+        Mockito.when(entityManager.find(TestEntity.class, 11L)).thenReturn(reloaded);
+
+        final Map<BUSINESS_ENTITY, Object> restored = BusinessEventOutboxPayload
+                .deserialize(BusinessEventOutboxPayload.serialize(businessEventEntity), entityManager);
+
+        assertSame(reloaded, restored.get(BUSINESS_ENTITY.LOAN_PRODUCT));
+        assertEquals(Long.valueOf(5L), ((CommandProcessingResult) restored.get(BUSINESS_ENTITY.GROUP)).getGroupId());
+        assertEquals(Long.valueOf(2L), ((CommandProcessingResult) restored.get(BUSINESS_ENTITY.GROUP)).getOfficeId());
+    }
+
+    @Test(expected = BusinessEventOutboxPayload.MissingEntityException.class)
+    public void failsWhenAnEntityWasDeleted() {
+        final String payload = BusinessEventOutboxPayload.serialize(entities(BUSINESS_ENTITY.LOAN_PRODUCT, new TestEntity(11L)));
+
+        BusinessEventOutboxPayload.deserialize(payload, Mockito.mock(EntityManager.class));
+    }
+
+    private static Map<BUSINESS_ENTITY, Object> entities(final BUSINESS_ENTITY entityType, final Object entity) {
+        final Map<BUSINESS_ENTITY, Object> businessEventEntity = new HashMap<>();
+        businessEventEntity.put(entityType, entity);
+        return businessEventEntity;
+    }
+
+    private static class RecordingListner implements BusinessEventListner {
+
+        final List<Map<BUSINESS_ENTITY, Object>> events = new ArrayList<>();
+
+        @Override
+        public void businessEventToBeExecuted(@SuppressWarnings("unused") final Map<BUSINESS_ENTITY, Object> businessEventEntity) {}
+
+        @Override
+        public void businessEventWasExecuted(final Map<BUSINESS_ENTITY, Object> businessEventEntity) {
+            this.events.add(businessEventEntity);
+        }
+    }
+
+    private static class RecordingSynchronousListner extends RecordingListner implements SynchronousBusinessEventListner {}
+
+    private static class TestEntity extends AbstractPersistableCustom<Long> {
+
+        TestEntity(final Long id) {
+            setId(id);
+        }
+    }
+}
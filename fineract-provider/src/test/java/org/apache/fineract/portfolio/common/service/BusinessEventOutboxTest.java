@@ -0,0 +1,295 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.common.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties.FineractPropertiesEvents;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_ENTITY;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.apache.fineract.useradministration.domain.AppUserRepositoryWrapper;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MySQLContainer;
+
+/**
+ * The business event outbox on MySQL: entries written in the transaction of
+ * the event, handed to their listener by several relays standing in for the
+ * nodes of a cluster.
+ */
+public class BusinessEventOutboxTest {
+
+    private static final int AGGREGATES = 3;
+    private static final int EVENTS_PER_AGGREGATE = 20;
+
+    private static MySQLContainer<?> mysql;
+    private static DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+    private TransactionTemplate transactionTemplate;
+    private BusinessEventOutboxServiceImpl outbox;
+    private BusinessEventNotifierServiceImpl notifier;
+
+    @BeforeClass
+    public static void startDatabase() {
+        Assume.assumeTrue("Docker is not available", DockerClientFactory.instance().isDockerAvailable());
+        mysql = new MySQLContainer<>("mysql:5.7").withUsername("root");
+        mysql.start();
+        dataSource = new DriverManagerDataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+        // the migration also adds the permissions of the dead letter API
+        new JdbcTemplate(dataSource).execute("CREATE TABLE m_permission (id BIGINT NOT NULL AUTO_INCREMENT, grouping VARCHAR(45), "
+                + "code VARCHAR(100) NOT NULL, entity_name VARCHAR(100), action_name VARCHAR(100), "
+                + "can_maker_checker TINYINT(1) NOT NULL DEFAULT 1, PRIMARY KEY (id))");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V361__business_event_outbox.sql"),
+                new ClassPathResource("db/migration/V364__business_event_dead_letter_aggregate.sql")).execute(dataSource);
+    }
+
+    @AfterClass
+    public static void stopDatabase() {
+        if (mysql != null) {
+            mysql.stop();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.update("DELETE FROM m_business_event_outbox");
+        this.jdbcTemplate.update("DELETE FROM m_business_event_dead_letter");
+        this.transactionManager = new DataSourceTransactionManager(dataSource);
+        this.transactionTemplate = new TransactionTemplate(this.transactionManager);
+        this.outbox = new BusinessEventOutboxServiceImpl(dataSource, (event) -> {});
+        this.notifier = new BusinessEventNotifierServiceImpl(this.outbox, properties());
+    }
+
+    @Test
+    public void entriesOnlyExistWhenTheEventCommitted() {
+        this.notifier.addBusinessEventPostListners(BUSINESS_EVENTS.LOAN_APPROVED, new RecordingListner());
+
+        this.transactionTemplate.execute((status) -> {
+            this.notifier.notifyBusinessEventWasExecuted(BUSINESS_EVENTS.LOAN_APPROVED, event(1L, 0L));
+            status.setRollbackOnly();
+            return null;
+        });
+        assertEquals(0, outboxSize());
+
+        notifyInTransaction(1L, 0L);
+        assertEquals(1, outboxSize());
+    }
+
+    @Test
+    public void twoRelaysDeliverTheEntriesOfAnAggregateInOrder() throws Exception {
+        final RecordingListner listner = new RecordingListner();
+        this.notifier.addBusinessEventPostListners(BUSINESS_EVENTS.LOAN_APPROVED, listner);
+        for (long sequence = 0; sequence < EVENTS_PER_AGGREGATE; sequence++) {
+            for (long loanId = 1; loanId <= AGGREGATES; loanId++) {
+                notifyInTransaction(loanId, sequence);
+            }
+        }
+
+        final ExecutorService nodes = Executors.newFixedThreadPool(2);
+        try {
+            final List<Future<?>> relays = new ArrayList<>();
+            for (int node = 0; node < 2; node++) {
+                final BusinessEventRelay relay = relay();
+                relays.add(nodes.submit(() -> {
+                    final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(60);
+                    while (outboxSize() > 0 && System.currentTimeMillis() < deadline) {
+                        relay.relay();
+                        TimeUnit.MILLISECONDS.sleep(10);
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> relay : relays) {
+                relay.get(90, TimeUnit.SECONDS);
+            }
+        } finally {
+            nodes.shutdownNow();
+        }
+
+        final List<Long> expected = new ArrayList<>();
+        for (long sequence = 0; sequence < EVENTS_PER_AGGREGATE; sequence++) {
+            expected.add(sequence);
+        }
+        for (long loanId = 1; loanId <= AGGREGATES; loanId++) {
+            assertEquals("loan " + loanId, expected, listner.sequences.get(loanId));
+        }
+        assertEquals(0, outboxSize());
+    }
+
+    @Test
+    public void failingEntriesBecomeDeadLettersThatCanBeReplayed() throws Exception {
+        final RecordingListner listner = new RecordingListner();
+        listner.failing = true;
+        this.notifier.addBusinessEventPostListners(BUSINESS_EVENTS.LOAN_APPROVED, listner);
+        notifyInTransaction(1L, 0L);
+        final BusinessEventRelay relay = relay();
+
+        relay.relay();
+        assertEquals(1, outboxSize());
+        // the retry is due after the backoff of one second
+        TimeUnit.MILLISECONDS.sleep(1500);
+        relay.relay();
+
+        assertEquals(0, outboxSize());
+        final Map<String, Object> deadLetter = this.jdbcTemplate.queryForMap("SELECT id, attempts, last_error FROM m_business_event_dead_letter");
+        assertEquals(2, ((Number) deadLetter.get("attempts")).intValue());
+        assertTrue(String.valueOf(deadLetter.get("last_error")), String.valueOf(deadLetter.get("last_error")).contains("listener failed"));
+
+        listner.failing = false;
+        this.outbox.replay(((Number) deadLetter.get("id")).longValue());
+        relay.relay();
+
+        assertEquals(Collections.singletonList(0L), listner.sequences.get(1L));
+        assertEquals(0, outboxSize());
+        assertEquals(Integer.valueOf(0), this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM m_business_event_dead_letter", Integer.class));
+    }
+
+    @Test
+    public void aDeadLetterHoldsBackTheLaterEntriesOfItsAggregateUntilReplayed() {
+        final RecordingListner listner = new RecordingListner();
+        this.notifier.addBusinessEventPostListners(BUSINESS_EVENTS.LOAN_APPROVED, listner);
+        for (long sequence = 0; sequence < 3; sequence++) {
+            notifyInTransaction(1L, sequence);
+        }
+        notifyInTransaction(2L, 0L);
+        final Long head = this.jdbcTemplate.queryForObject("SELECT MIN(id) FROM m_business_event_outbox", Long.class);
+        this.outbox.deadLetter(head, "listener failed");
+        final BusinessEventRelay relay = relay();
+
+        relay.relay();
+
+        assertNull(listner.sequences.get(1L));
+        assertEquals(Collections.singletonList(0L), listner.sequences.get(2L));
+        assertEquals(2, outboxSize());
+
+        this.outbox.replayAll();
+        relay.relay();
+
+        assertEquals(Arrays.asList(0L, 1L, 2L), listner.sequences.get(1L));
+        assertEquals(0, outboxSize());
+    }
+
+    @Test
+    public void entriesOfDeletedEntitiesBecomeDeadLettersRightAway() {
+        final RecordingListner listner = new RecordingListner();
+        this.notifier.addBusinessEventPostListners(BUSINESS_EVENTS.LOAN_APPROVED, listner);
+        this.outbox.enqueue(BUSINESS_EVENTS.LOAN_APPROVED, Collections.singletonList(RecordingListner.class.getName()), "LOAN", 9L,
+                "{\"LOAN\":{\"type\":\"" + Loan.class.getName() + "\",\"id\":9}}", null);
+        final BusinessEventRelay relay = relay();
+        ReflectionTestUtils.setField(relay, "entityManager", Mockito.mock(EntityManager.class));
+
+        relay.relay();
+
+        assertEquals(0, outboxSize());
+        assertEquals(Integer.valueOf(1), this.jdbcTemplate.queryForObject("SELECT attempts FROM m_business_event_dead_letter", Integer.class));
+        assertTrue(listner.sequences.isEmpty());
+    }
+
+    private void notifyInTransaction(final Long loanId, final Long sequence) {
+        this.transactionTemplate.execute((status) -> {
+            this.notifier.notifyBusinessEventWasExecuted(BUSINESS_EVENTS.LOAN_APPROVED, event(loanId, sequence));
+            return null;
+        });
+    }
+
+    private BusinessEventRelay relay() {
+        final AppUserRepositoryWrapper appUserRepositoryWrapper = Mockito.mock(AppUserRepositoryWrapper.class);
+        Mockito.when(appUserRepositoryWrapper.fetchSystemUser()).thenReturn(Mockito.mock(AppUser.class));
+        return new BusinessEventRelay(this.notifier, this.outbox, Mockito.mock(AppUserRepository.class), appUserRepositoryWrapper,
+                this.transactionManager, properties());
+    }
+
+    private int outboxSize() {
+        return this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM m_business_event_outbox", Integer.class);
+    }
+
+    private static Map<BUSINESS_ENTITY, Object> event(final Long loanId, final Long sequence) {
+        // the loan is the aggregate, the client slot carries the sequence number
+        final Map<BUSINESS_ENTITY, Object> businessEventEntity = new EnumMap<>(BUSINESS_ENTITY.class);
+        businessEventEntity.put(BUSINESS_ENTITY.LOAN, loanId);
+        businessEventEntity.put(BUSINESS_ENTITY.CLIENT, sequence);
+        return businessEventEntity;
+    }
+
+    private static FineractProperties properties() {
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setEvents(FineractPropertiesEvents.builder().outboxEnabled(true).relayBatchSize(10).maxAttempts(2)
+                .retryBackoffSeconds(1).dispatchLeaseSeconds(30).build());
+        return fineractProperties;
+    }
+
+    private static class RecordingListner implements BusinessEventListner {
+
+        final Map<Long, List<Long>> sequences = new ConcurrentHashMap<>();
+        volatile boolean failing;
+
+        @Override
+        public void businessEventToBeExecuted(@SuppressWarnings("unused") final Map<BUSINESS_ENTITY, Object> businessEventEntity) {}
+
+        @Override
+        public void businessEventWasExecuted(final Map<BUSINESS_ENTITY, Object> businessEventEntity) {
+            if (this.failing) { throw new IllegalStateException("listener failed"); }
+            try {
+                // gives the other relay the chance to overtake if ordering were broken
+                TimeUnit.MILLISECONDS.sleep(5);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.sequences.computeIfAbsent((Long) businessEventEntity.get(BUSINESS_ENTITY.LOAN), (loanId) -> Collections
+                    .synchronizedList(new ArrayList<>())).add((Long) businessEventEntity.get(BUSINESS_ENTITY.CLIENT));
+        }
+    }
+}
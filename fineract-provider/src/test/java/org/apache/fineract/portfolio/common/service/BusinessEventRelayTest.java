@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.common.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties.FineractPropertiesEvents;
+import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
+import org.apache.fineract.portfolio.common.data.BusinessEventOutboxData;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepository;
+import org.apache.fineract.useradministration.domain.AppUserRepositoryWrapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+public class BusinessEventRelayTest {
+
+    private final Deque<BusinessEventOutboxData> pending = new LinkedList<>();
+    private BusinessEventOutboxService outbox;
+    private BusinessEventListner listner;
+    private BusinessEventRelay relay;
+
+    @Before
+    public void setUp() {
+        this.outbox = mock(BusinessEventOutboxService.class);
+        this.listner = mock(BusinessEventListner.class);
+        final BusinessEventNotifierService notifier = mock(BusinessEventNotifierService.class);
+        when(notifier.findBusinessEventPostListner(eq(BUSINESS_EVENTS.LOAN_APPROVED), anyString())).thenReturn(this.listner);
+        final AppUserRepositoryWrapper appUserRepositoryWrapper = mock(AppUserRepositoryWrapper.class);
+        when(appUserRepositoryWrapper.fetchSystemUser()).thenReturn(mock(AppUser.class));
+        final FineractProperties fineractProperties = new FineractProperties();
+        fineractProperties.setEvents(FineractPropertiesEvents.builder().relayBatchSize(10).build());
+        this.relay = new BusinessEventRelay(notifier, this.outbox, mock(AppUserRepository.class), appUserRepositoryWrapper,
+                mock(PlatformTransactionManager.class), fineractProperties);
+
+        // like the outbox, only the head entry of the aggregate is due and a delivered entry is removed
+        when(this.outbox.retrieveDue(anyInt())).thenAnswer((invocation) -> headOfAggregate());
+        when(this.outbox.claim(anyLong(), anyInt())).thenReturn(true);
+        doAnswer((invocation) -> this.pending.removeFirst()).when(this.outbox).delivered(anyLong());
+    }
+
+    @Test
+    public void oneRunDrainsTheBacklogOfAnAggregate() {
+        for (long id = 1; id <= 5; id++) {
+            this.pending.add(new BusinessEventOutboxData(id, BUSINESS_EVENTS.LOAN_APPROVED.name(), "listener", "LOAN", 1L, "{}", null, 0));
+        }
+
+        this.relay.relay();
+
+        assertEquals(0, this.pending.size());
+        verify(this.listner, times(5)).businessEventWasExecuted(Collections.emptyMap());
+        verify(this.outbox, times(6)).retrieveDue(10);
+    }
+
+    @Test
+    public void aRunWithNothingDueFetchesOnce() {
+        this.relay.relay();
+
+        verify(this.outbox, times(1)).retrieveDue(10);
+    }
+
+    private List<BusinessEventOutboxData> headOfAggregate() {
+        return this.pending.isEmpty() ? Collections.emptyList() : Collections.singletonList(this.pending.getFirst());
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.transfer.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.boot.FineractProperties;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.organisation.office.domain.Office;
+import org.apache.fineract.organisation.office.domain.OfficeRepositoryWrapper;
+import org.apache.fineract.organisation.staff.domain.StaffRepositoryWrapper;
+import org.apache.fineract.portfolio.calendar.domain.CalendarInstanceRepository;
+import org.apache.fineract.portfolio.client.domain.Client;
+import org.apache.fineract.portfolio.client.domain.ClientRepositoryWrapper;
+import org.apache.fineract.portfolio.client.domain.ClientStatus;
+import org.apache.fineract.portfolio.client.domain.ClientTransferDetailsRepositoryWrapper;
+import org.apache.fineract.portfolio.group.domain.GroupRepositoryWrapper;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepositoryWrapper;
+import org.apache.fineract.portfolio.loanaccount.service.LoanWritePlatformService;
+import org.apache.fineract.portfolio.note.service.NoteWritePlatformService;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepositoryWrapper;
+import org.apache.fineract.portfolio.savings.service.SavingsAccountWritePlatformService;
+import org.apache.fineract.portfolio.search.service.SearchIndexService;
+import org.apache.fineract.portfolio.transfer.data.TransfersDataValidator;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.BeanUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class TransferWritePlatformServiceJpaRepositoryImplTest {
+
+    private static final Long CLIENT_ID = 7L;
+    private static final Long SOURCE_OFFICE_ID = 1L;
+    private static final Long DESTINATION_OFFICE_ID = 2L;
+    private static final String TRANSFER_JSON = "{\"destinationOfficeId\": 2, \"transferDate\": \"01 March 2020\", "
+            + "\"dateFormat\": \"dd MMMM yyyy\", \"locale\": \"en\"}";
+
+    private SearchIndexService searchIndexService;
+    private TransferWritePlatformServiceJpaRepositoryImpl transferService;
+    private Office sourceOffice;
+    private Office destinationOffice;
+    private Client client;
+    private final List<Office> officesWhenReindexed = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        DateUtils.fineractProperties = new FineractProperties();
+        this.sourceOffice = office(SOURCE_OFFICE_ID);
+        this.destinationOffice = office(DESTINATION_OFFICE_ID);
+        final OfficeRepositoryWrapper officeRepository = Mockito.mock(OfficeRepositoryWrapper.class);
+        Mockito.when(officeRepository.findOneWithNotFoundDetection(DESTINATION_OFFICE_ID)).thenReturn(this.destinationOffice);
+
+        this.client = BeanUtils.instantiateClass(Client.class);
+        ReflectionTestUtils.setField(this.client, "id", CLIENT_ID);
+        ReflectionTestUtils.setField(this.client, "office", this.sourceOffice);
+        ReflectionTestUtils.setField(this.client, "groups", new HashSet<>());
+        this.client.setStatus(ClientStatus.ACTIVE.getValue());
+        final ClientRepositoryWrapper clientRepositoryWrapper = Mockito.mock(ClientRepositoryWrapper.class);
+        Mockito.when(clientRepositoryWrapper.findOneWithNotFoundDetection(CLIENT_ID)).thenReturn(this.client);
+        Mockito.when(clientRepositoryWrapper.findOneWithNotFoundDetection(CLIENT_ID, true)).thenReturn(this.client);
+
+        this.searchIndexService = Mockito.mock(SearchIndexService.class);
+        Mockito.doAnswer((invocation) -> this.officesWhenReindexed.add(this.client.getOffice())).when(this.searchIndexService)
+                .reindexClient(CLIENT_ID);
+        final PlatformSecurityContext context = Mockito.mock(PlatformSecurityContext.class);
+        Mockito.when(context.authenticatedUser()).thenReturn(Mockito.mock(AppUser.class));
+        this.transferService = new TransferWritePlatformServiceJpaRepositoryImpl(clientRepositoryWrapper, officeRepository,
+                Mockito.mock(CalendarInstanceRepository.class), Mockito.mock(LoanWritePlatformService.class),
+                Mockito.mock(GroupRepositoryWrapper.class), Mockito.mock(LoanRepositoryWrapper.class),
+                new TransfersDataValidator(new FromJsonHelper()), Mockito.mock(NoteWritePlatformService.class),
+                Mockito.mock(StaffRepositoryWrapper.class), Mockito.mock(SavingsAccountRepositoryWrapper.class),
+                Mockito.mock(SavingsAccountWritePlatformService.class), Mockito.mock(ClientTransferDetailsRepositoryWrapper.class), context,
+                this.searchIndexService);
+    }
+
+    @Test
+    public void reindexesAClientMovedToAnotherOffice() {
+        this.transferService.proposeAndAcceptClientTransfer(CLIENT_ID, command(TRANSFER_JSON));
+
+        assertSame(this.destinationOffice, this.client.getOffice());
+        assertSame(this.destinationOffice, this.officesWhenReindexed.get(this.officesWhenReindexed.size() - 1));
+    }
+
+    @Test
+    public void reindexesAClientWhoseProposedTransferIsAccepted() {
+        this.transferService.proposeClientTransfer(CLIENT_ID, command(TRANSFER_JSON));
+        assertTrue(this.client.isTransferInProgress());
+        assertEquals(Collections.singletonList(this.sourceOffice), this.officesWhenReindexed);
+
+        this.transferService.acceptClientTransfer(CLIENT_ID, command("{}"));
+
+        assertSame(this.destinationOffice, this.client.getOffice());
+        assertEquals(Arrays.asList(this.sourceOffice, this.destinationOffice), this.officesWhenReindexed);
+    }
+
+    @Test
+    public void reindexesAClientWhoseTransferIsWithdrawn() {
+        this.transferService.proposeClientTransfer(CLIENT_ID, command(TRANSFER_JSON));
+
+        this.transferService.withdrawClientTransfer(CLIENT_ID, command("{}"));
+
+        assertTrue(this.client.isActive());
+        assertSame(this.sourceOffice, this.client.getOffice());
+        Mockito.verify(this.searchIndexService, Mockito.times(2)).reindexClient(CLIENT_ID);
+    }
+
+    private static JsonCommand command(final String json) {
+        final FromJsonHelper fromJsonHelper = new FromJsonHelper();
+        return JsonCommand.from(json, fromJsonHelper.parse(json), fromJsonHelper, "CLIENT", CLIENT_ID, null, null, CLIENT_ID, null, null,
+                null, null, null, null, null);
+    }
+
+    private static Office office(final Long id) {
+        final Office office = Mockito.mock(Office.class);
+        Mockito.when(office.getId()).thenReturn(id);
+        return office;
+    }
+}
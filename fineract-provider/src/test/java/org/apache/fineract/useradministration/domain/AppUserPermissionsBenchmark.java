@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.useradministration.domain;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares a read permission check on the role walk AppUser used before with
+ * the check on the compiled permission set. Run it with
+ * <code>gradlew :fineract-provider:permissionCheckBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppUserPermissionsBenchmark {
+
+    private static final String[] READ_LOAN = { "ALL_FUNCTIONS", "ALL_FUNCTIONS_READ", "READ_LOAN" };
+
+    @Param({ "1", "4" })
+    public int roleCount;
+
+    @Param({ "50", "400" })
+    public int permissionsPerRole;
+
+    private Set<Role> roles;
+    private AppUser user;
+
+    @Setup
+    public void setUp() {
+        this.roles = new HashSet<>();
+        for (int r = 0; r < this.roleCount; r++) {
+            final Role role = new Role("role" + r, "role" + r);
+            for (int p = 0; p < this.permissionsPerRole; p++) {
+                role.updatePermission(new Permission("portfolio", "ENTITY" + r + "_" + p, "ACTION"), true);
+            }
+            this.roles.add(role);
+        }
+        // granted by the last role only, the walk visits every permission
+        final Role last = new Role("reader", "reader");
+        last.updatePermission(new Permission("portfolio", "LOAN", "READ"), true);
+        this.roles.add(last);
+
+        this.user = new AppUser();
+        this.user.updateRoles(this.roles);
+        this.user.hasNotPermissionForAnyOf(READ_LOAN);
+    }
+
+    @Benchmark
+    public boolean roleWalk() {
+        return hasNotPermissionForAnyOfByRoleWalk(this.roles, READ_LOAN);
+    }
+
+    @Benchmark
+    public boolean compiled() {
+        return this.user.hasNotPermissionForAnyOf(READ_LOAN);
+    }
+
+    /**
+     * Compiling happens once per loaded user, before its first check.
+     */
+    @Benchmark
+    public AppUserPermissions compile() {
+        return AppUserPermissions.compile(this.roles);
+    }
+
+    /**
+     * The checks of AppUser before permissions were compiled: ALL_FUNCTIONS
+     * is looked up again before every code.
+     */
+    private static boolean hasNotPermissionForAnyOfByRoleWalk(final Set<Role> roles, final String... permissionCodes) {
+        boolean hasNotPermission = true;
+        for (final String permissionCode : permissionCodes) {
+            boolean hasPermission = false;
+            for (final Role role : roles) {
+                if (role.hasPermissionTo("ALL_FUNCTIONS")) {
+                    hasPermission = true;
+                    break;
+                }
+            }
+            if (!hasPermission) {
+                for (final Role role : roles) {
+                    if (role.hasPermissionTo(permissionCode)) {
+                        hasPermission = true;
+                        break;
+                    }
+                }
+            }
+            if (hasPermission) {
+                hasNotPermission = false;
+                break;
+            }
+        }
+        return hasNotPermission;
+    }
+}
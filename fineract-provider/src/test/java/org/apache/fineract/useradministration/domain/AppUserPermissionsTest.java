@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.useradministration.domain;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.apache.fineract.infrastructure.security.exception.NoAuthorizationException;
+import org.junit.Test;
+
+public class AppUserPermissionsTest {
+
+    @Test
+    public void checksPermissionsOfAllRolesIgnoringCase() {
+        final AppUser user = user(role("Loan officer", "READ_LOAN", "CREATE_LOAN"), role("Teller", "READ_CLIENT"));
+
+        assertFalse(user.hasNotPermissionForAnyOf("READ_CLIENT"));
+        assertFalse(user.hasNotPermissionForAnyOf("create_loan"));
+        assertFalse(user.hasNotPermissionForAnyOf("DELETE_LOAN", "CREATE_LOAN"));
+        assertTrue(user.hasNotPermissionForAnyOf("DELETE_LOAN", "NOT_A_PERMISSION"));
+        assertTrue(user.hasSpecificPermissionTo("READ_LOAN"));
+        user.validateHasReadPermission("loan");
+    }
+
+    @Test(expected = NoAuthorizationException.class)
+    public void rejectsReadWithoutPermission() {
+        user(role("Teller", "READ_CLIENT")).validateHasReadPermission("loan");
+    }
+
+    @Test
+    public void allFunctionsGrantsEveryPermissionButNoSpecificOne() {
+        final AppUser user = user(role("Super user", "ALL_FUNCTIONS"));
+
+        assertFalse(user.hasNotPermissionForAnyOf("DELETE_LOAN"));
+        assertFalse(user.canNotApproveLoanInPast());
+        assertFalse(user.hasSpecificPermissionTo("BYPASS_TWOFACTOR"));
+    }
+
+    @Test
+    public void recompilesWhenRolesChange() {
+        final AppUser user = user(role("Teller", "READ_CLIENT"));
+        assertTrue(user.hasNotPermissionForAnyOf("READ_LOAN"));
+
+        user.updateRoles(new HashSet<>(Collections.singletonList(role("Loan officer", "READ_LOAN"))));
+
+        assertFalse(user.hasNotPermissionForAnyOf("READ_LOAN"));
+        assertTrue(user.hasNotPermissionForAnyOf("READ_CLIENT"));
+    }
+
+    static Role role(final String name, final String... codes) {
+        final Role role = new Role(name, name);
+        for (final String code : codes) {
+            final int separator = code.indexOf('_');
+            role.updatePermission(new Permission("portfolio", code.substring(separator + 1), code.substring(0, separator)), true);
+        }
+        return role;
+    }
+
+    static AppUser user(final Role... roles) {
+        final AppUser user = new AppUser();
+        user.updateRoles(new HashSet<>(Arrays.asList(roles)));
+        return user;
+    }
+}